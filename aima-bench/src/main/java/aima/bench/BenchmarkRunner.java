@@ -0,0 +1,40 @@
+package aima.bench;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entry point of the benchmark jar. Accepts the standard JMH command line
+ * options (e.g. a regular expression selecting benchmarks, <code>-p size=8</code>
+ * or <code>-f 1</code>), but writes results in JSON format to
+ * <code>aima-bench-results.json</code> unless another result format or file is
+ * specified. The JSON files of different releases can be compared directly,
+ * e.g. with the JMH Visualizer.
+ * <p>
+ * All problem instances are generated from a fixed seed (see the
+ * <code>seed</code> parameter of the benchmarks), so results of different runs
+ * refer to the same inputs.
+ * </p>
+ */
+public class BenchmarkRunner {
+
+	public static final String DEFAULT_RESULT_FILE = "aima-bench-results.json";
+
+	public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+		CommandLineOptions cmdOptions = new CommandLineOptions(args);
+		OptionsBuilder builder = new OptionsBuilder();
+		if (cmdOptions.getIncludes().isEmpty())
+			builder.include("aima\\.bench\\..*");
+		Options options = builder
+				.resultFormat(cmdOptions.getResultFormat().orElse(ResultFormatType.JSON))
+				.result(cmdOptions.getResult().orElse(DEFAULT_RESULT_FILE))
+				.parent(cmdOptions)
+				.build();
+		new Runner(options).run();
+	}
+}
@@ -0,0 +1,122 @@
+package aima.bench.logic.fol;
+
+import aima.core.logic.fol.Unifier;
+import aima.core.logic.fol.domain.FOLDomain;
+import aima.core.logic.fol.inference.FOLBCAsk;
+import aima.core.logic.fol.inference.FOLFCAsk;
+import aima.core.logic.fol.inference.FOLOTTERLikeTheoremProver;
+import aima.core.logic.fol.inference.InferenceProcedure;
+import aima.core.logic.fol.inference.InferenceResult;
+import aima.core.logic.fol.kb.FOLKnowledgeBase;
+import aima.core.logic.fol.parsing.FOLParser;
+import aima.core.logic.fol.parsing.ast.Sentence;
+import aima.core.logic.fol.parsing.ast.Term;
+import aima.core.logic.fol.parsing.ast.Variable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for first-order inference. Forward chaining, backward chaining
+ * and the OTTER-like theorem prover answer an ancestor query for the most
+ * distant pair of persons in a generated family knowledge base. The unifier
+ * is measured separately on deeply nested terms.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FOLInferenceBenchmark {
+
+	@State(Scope.Benchmark)
+	public static class Ancestry {
+		@Param({"FC", "BC", "OTTER"})
+		public String procedure;
+
+		@Param({"8", "16"})
+		public int numPersons;
+
+		@Param({"42"})
+		public long seed;
+
+		public FOLKnowledgeBase kb;
+		public String query;
+
+		/**
+		 * Forward chaining adds the inferred facts to the knowledge base, so
+		 * a fresh one is needed for each query.
+		 */
+		@Setup(Level.Invocation)
+		public void setUp() {
+			InferenceProcedure proc;
+			switch (procedure) {
+				case "FC":
+					proc = new FOLFCAsk();
+					break;
+				case "BC":
+					proc = new FOLBCAsk();
+					break;
+				default:
+					proc = new FOLOTTERLikeTheoremProver();
+			}
+			kb = RandomFamilyKB.createKB(numPersons, numPersons / 2, seed, proc);
+			query = "Ancestor(" + RandomFamilyKB.getPerson(0) + "," + RandomFamilyKB.getPerson(numPersons - 1) + ")";
+		}
+	}
+
+	@State(Scope.Benchmark)
+	public static class NestedTerms {
+		@Param({"8", "32"})
+		public int depth;
+
+		public Unifier unifier;
+		public Sentence x;
+		public Sentence y;
+
+		/**
+		 * Creates <code>Eq(F(x0, F(x1, ... A)), x0)</code> and
+		 * <code>Eq(F(B, F(B, ... A)), B)</code>.
+		 */
+		@Setup(Level.Trial)
+		public void setUp() {
+			FOLDomain domain = new FOLDomain();
+			domain.addConstant("A");
+			domain.addConstant("B");
+			domain.addFunction("F");
+			domain.addPredicate("Eq");
+			StringBuilder withVars = new StringBuilder("A");
+			StringBuilder ground = new StringBuilder("A");
+			for (int i = depth - 1; i >= 0; i--) {
+				withVars.insert(0, "F(x" + i + ",").append(")");
+				ground.insert(0, "F(B,").append(")");
+			}
+			FOLParser parser = new FOLParser(domain);
+			x = parser.parse("Eq(" + withVars + ", x0)");
+			y = parser.parse("Eq(" + ground + ", B)");
+			unifier = new Unifier();
+		}
+	}
+
+	@Benchmark
+	public InferenceResult ancestorQuery(Ancestry state) {
+		return state.kb.ask(state.query);
+	}
+
+	@Benchmark
+	public Map<Variable, Term> unifyNestedTerms(NestedTerms state) {
+		return state.unifier.unify(state.x, state.y);
+	}
+}
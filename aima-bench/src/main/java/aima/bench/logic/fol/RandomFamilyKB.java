@@ -0,0 +1,54 @@
+package aima.bench.logic.fol;
+
+import aima.core.logic.fol.domain.FOLDomain;
+import aima.core.logic.fol.inference.InferenceProcedure;
+import aima.core.logic.fol.kb.FOLKnowledgeBase;
+
+import java.util.Random;
+
+/**
+ * Generates definite clause knowledge bases about ancestry. Persons
+ * <code>P0, ..., Pn-1</code> form a chain of <code>Parent</code> facts, which
+ * is complemented by random extra facts (always from a lower to a higher
+ * index, so the parent relation stays acyclic). Two rules define
+ * <code>Ancestor</code> as transitive closure of <code>Parent</code>. The
+ * generated facts only depend on the parameters and the seed.
+ */
+public class RandomFamilyKB {
+
+	public static FOLDomain createDomain(int numPersons) {
+		FOLDomain domain = new FOLDomain();
+		for (int i = 0; i < numPersons; i++)
+			domain.addConstant(getPerson(i));
+		domain.addPredicate("Parent");
+		domain.addPredicate("Ancestor");
+		return domain;
+	}
+
+	/**
+	 * @param numPersons     Number of constants.
+	 * @param numExtraFacts  Number of random parent facts in addition to the
+	 *                       chain.
+	 * @param seed           Seed of the random generator.
+	 * @param inferenceProc  Inference procedure of the knowledge base.
+	 */
+	public static FOLKnowledgeBase createKB(int numPersons, int numExtraFacts, long seed,
+											InferenceProcedure inferenceProc) {
+		Random random = new Random(seed);
+		FOLKnowledgeBase kb = new FOLKnowledgeBase(createDomain(numPersons), inferenceProc);
+		for (int i = 0; i + 1 < numPersons; i++)
+			kb.tell("Parent(" + getPerson(i) + "," + getPerson(i + 1) + ")");
+		for (int i = 0; i < numExtraFacts && numPersons > 2; i++) {
+			int from = random.nextInt(numPersons - 2);
+			int to = from + 2 + random.nextInt(numPersons - from - 2);
+			kb.tell("Parent(" + getPerson(from) + "," + getPerson(to) + ")");
+		}
+		kb.tell("(Parent(x,y) => Ancestor(x,y))");
+		kb.tell("((Parent(x,y) AND Ancestor(y,z)) => Ancestor(x,z))");
+		return kb;
+	}
+
+	public static String getPerson(int index) {
+		return "P" + index;
+	}
+}
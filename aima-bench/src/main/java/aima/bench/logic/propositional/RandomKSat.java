@@ -0,0 +1,66 @@
+package aima.bench.logic.propositional;
+
+import aima.core.logic.propositional.kb.data.Clause;
+import aima.core.logic.propositional.kb.data.Literal;
+import aima.core.logic.propositional.parsing.ast.PropositionSymbol;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Generates random k-SAT instances in CNF. Each clause contains k distinct
+ * symbols with random polarity. If a planted model is used, clauses which are
+ * false in that model are rejected, so the result is guaranteed to be
+ * satisfiable. Instances only depend on the parameters and the seed.
+ */
+public class RandomKSat {
+
+	private final List<PropositionSymbol> symbols = new ArrayList<>();
+	private final Set<Clause> clauses = new LinkedHashSet<>();
+
+	/**
+	 * @param k          Number of literals per clause.
+	 * @param numSymbols Number of proposition symbols.
+	 * @param numClauses Number of (distinct) clauses.
+	 * @param planted    Ensures satisfiability if true.
+	 * @param seed       Seed of the random generator.
+	 */
+	public RandomKSat(int k, int numSymbols, int numClauses, boolean planted, long seed) {
+		if (k > numSymbols)
+			throw new IllegalArgumentException("Clause length exceeds number of symbols.");
+		Random random = new Random(seed);
+		boolean[] model = new boolean[numSymbols];
+		for (int i = 0; i < numSymbols; i++) {
+			symbols.add(new PropositionSymbol("P" + i));
+			model[i] = random.nextBoolean();
+		}
+		List<Integer> indices = new ArrayList<>();
+		for (int i = 0; i < numSymbols; i++)
+			indices.add(i);
+		while (clauses.size() < numClauses) {
+			Collections.shuffle(indices, random);
+			List<Literal> literals = new ArrayList<>(k);
+			boolean satisfied = false;
+			for (int i = 0; i < k; i++) {
+				int idx = indices.get(i);
+				boolean positive = random.nextBoolean();
+				literals.add(new Literal(symbols.get(idx), positive));
+				satisfied |= model[idx] == positive;
+			}
+			if (satisfied || !planted)
+				clauses.add(new Clause(literals));
+		}
+	}
+
+	public List<PropositionSymbol> getSymbols() {
+		return symbols;
+	}
+
+	public Set<Clause> getClauses() {
+		return clauses;
+	}
+}
@@ -0,0 +1,86 @@
+package aima.bench.logic.propositional;
+
+import aima.core.logic.propositional.inference.CDCLSatisfiable;
+import aima.core.logic.propositional.inference.DPLLSatisfiable;
+import aima.core.logic.propositional.inference.OptimizedDPLL;
+import aima.core.logic.propositional.inference.ParallelWalkSAT;
+import aima.core.logic.propositional.inference.WalkSAT;
+import aima.core.logic.propositional.inference.WalkSATSolver;
+import aima.core.logic.propositional.kb.data.Model;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for the SAT solvers on random 3-SAT instances with a planted
+ * model. The default clause/symbol ratio of 4.26 is close to the phase
+ * transition, where random instances are hardest.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SatBenchmark {
+
+	@Param({"20", "40"})
+	public int numSymbols;
+
+	@Param({"4.26"})
+	public double ratio;
+
+	@Param({"42"})
+	public long seed;
+
+	private RandomKSat instance;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		instance = new RandomKSat(3, numSymbols, (int) Math.round(ratio * numSymbols), true, seed);
+	}
+
+	@Benchmark
+	public boolean dpllSatisfiable() {
+		return new DPLLSatisfiable().dpll(instance.getClauses(), new ArrayList<>(instance.getSymbols()), new Model());
+	}
+
+	@Benchmark
+	public boolean optimizedDpll() {
+		return new OptimizedDPLL().dpll(instance.getClauses(), new ArrayList<>(instance.getSymbols()), new Model());
+	}
+
+	@Benchmark
+	public boolean cdcl() {
+		return new CDCLSatisfiable().dpll(instance.getClauses(), new ArrayList<>(instance.getSymbols()), new Model());
+	}
+
+	@Benchmark
+	public Model walkSat() {
+		return new WalkSAT(new Random(seed)).walkSAT(instance.getClauses(), 0.5, 100000);
+	}
+
+	@Benchmark
+	public Model walkSatSolver() {
+		return new ParallelWalkSAT(1, 100000).setSeed(seed).solve(instance.getClauses());
+	}
+
+	@Benchmark
+	public Model probSat() {
+		return new ParallelWalkSAT(1, 100000).setSeed(seed)
+				.setHeuristic(WalkSATSolver.Heuristic.PROBSAT).solve(instance.getClauses());
+	}
+}
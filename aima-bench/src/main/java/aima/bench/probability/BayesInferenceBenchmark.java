@@ -0,0 +1,72 @@
+package aima.bench.probability;
+
+import aima.core.probability.CategoricalDistribution;
+import aima.core.probability.RandomVariable;
+import aima.core.probability.bayes.exact.EliminationAsk;
+import aima.core.probability.bayes.exact.EnumerationAsk;
+import aima.core.probability.proposition.AssignmentProposition;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for exact inference in random Bayesian networks. The query
+ * variable is the first variable in topological order, evidence is given for
+ * the last variables (all observed to be true).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BayesInferenceBenchmark {
+
+	@Param({"10", "16"})
+	public int numVariables;
+
+	@Param({"3"})
+	public int maxParents;
+
+	@Param({"3"})
+	public int numEvidence;
+
+	@Param({"42"})
+	public long seed;
+
+	private RandomBayesNet net;
+	private RandomVariable[] query;
+	private AssignmentProposition[] evidence;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		net = new RandomBayesNet(numVariables, maxParents, seed);
+		List<RandomVariable> vars = net.getVariables();
+		query = new RandomVariable[] { vars.get(0) };
+		evidence = new AssignmentProposition[Math.min(numEvidence, vars.size() - 1)];
+		for (int i = 0; i < evidence.length; i++)
+			evidence[i] = new AssignmentProposition(vars.get(vars.size() - 1 - i), Boolean.TRUE);
+	}
+
+	@Benchmark
+	public CategoricalDistribution eliminationAsk() {
+		return new EliminationAsk().ask(query, evidence, net.getNetwork());
+	}
+
+	@Benchmark
+	public CategoricalDistribution enumerationAsk() {
+		return new EnumerationAsk().ask(query, evidence, net.getNetwork());
+	}
+}
@@ -0,0 +1,67 @@
+package aima.bench.probability;
+
+import aima.core.probability.RandomVariable;
+import aima.core.probability.bayes.BayesianNetwork;
+import aima.core.probability.bayes.FiniteNode;
+import aima.core.probability.bayes.Node;
+import aima.core.probability.bayes.impl.BayesNet;
+import aima.core.probability.bayes.impl.FullCPTNode;
+import aima.core.probability.domain.BooleanDomain;
+import aima.core.probability.util.RandVar;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Generates random Bayesian networks with boolean variables. Variables are
+ * created in topological order, and each variable chooses up to
+ * <code>maxParents</code> parents among its predecessors. Probabilities of the
+ * conditional probability tables are drawn uniformly. Networks only depend on
+ * the parameters and the seed.
+ */
+public class RandomBayesNet {
+
+	private final List<RandomVariable> variables = new ArrayList<>();
+	private final BayesianNetwork network;
+
+	/**
+	 * @param numVariables Number of random variables.
+	 * @param maxParents   Maximal number of parents per node.
+	 * @param seed         Seed of the random generator.
+	 */
+	public RandomBayesNet(int numVariables, int maxParents, long seed) {
+		Random random = new Random(seed);
+		List<FiniteNode> nodes = new ArrayList<>();
+		List<Node> roots = new ArrayList<>();
+		for (int i = 0; i < numVariables; i++) {
+			RandomVariable var = new RandVar("X" + i, new BooleanDomain());
+			variables.add(var);
+			List<FiniteNode> candidates = new ArrayList<>(nodes);
+			Collections.shuffle(candidates, random);
+			int numParents = random.nextInt(Math.min(i, maxParents) + 1);
+			Node[] parents = candidates.subList(0, numParents).toArray(new Node[0]);
+			// one (true, false) pair per parent assignment
+			double[] values = new double[2 << numParents];
+			for (int j = 0; j < values.length; j += 2) {
+				values[j] = random.nextDouble();
+				values[j + 1] = 1.0 - values[j];
+			}
+			FiniteNode node = new FullCPTNode(var, values, parents);
+			nodes.add(node);
+			if (numParents == 0)
+				roots.add(node);
+		}
+		network = new BayesNet(roots.toArray(new Node[0]));
+	}
+
+	/** Returns all variables in topological order. */
+	public List<RandomVariable> getVariables() {
+		return variables;
+	}
+
+	public BayesianNetwork getNetwork() {
+		return network;
+	}
+}
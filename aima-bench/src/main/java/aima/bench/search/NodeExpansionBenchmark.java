@@ -0,0 +1,126 @@
+package aima.bench.search;
+
+import aima.core.agent.Action;
+import aima.core.environment.eightpuzzle.BidirectionalEightPuzzleProblem;
+import aima.core.environment.eightpuzzle.EightPuzzleBoard;
+import aima.core.search.framework.Node;
+import aima.core.search.framework.NodeFactory;
+import aima.core.search.framework.problem.Problem;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+/**
+ * Compares the two ways of expanding nodes offered by {@link NodeFactory}. In
+ * unbuffered mode, each expansion returns a new list with nodes for all
+ * successor states, and explored states are dropped afterwards (as graph
+ * search did before buffered expansion was available). In buffered mode, one
+ * successor list is reused and explored states are dropped before nodes are
+ * created for them. The expanded nodes are the eight-puzzle nodes of the first
+ * breadth-first layers around a scrambled board.
+ * <p>
+ * The interesting number is the allocation per operation
+ * (<code>gc.alloc.rate.norm</code>), so the GC profiler should be enabled:
+ * </p>
+ *
+ * <pre>
+ * java -jar target/benchmarks.jar NodeExpansionBenchmark -prof gc
+ * </pre>
+ *
+ * The main method of this class does the same.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NodeExpansionBenchmark {
+
+	@State(Scope.Thread)
+	public static class Expansion {
+		@Param({"false", "true"})
+		public boolean buffered;
+
+		@Param({"10"})
+		public int depth;
+
+		@Param({"42"})
+		public long seed;
+
+		public Problem<EightPuzzleBoard, Action> problem;
+		public NodeFactory<EightPuzzleBoard, Action> nodeFactory;
+		/** The nodes to be expanded. */
+		public List<Node<EightPuzzleBoard, Action>> nodes;
+		public Set<EightPuzzleBoard> explored;
+		public Predicate<EightPuzzleBoard> notExplored;
+		public List<Node<EightPuzzleBoard, Action>> buffer;
+
+		@Setup(Level.Trial)
+		public void setUp() {
+			problem = new BidirectionalEightPuzzleProblem(SearchBenchmark.createBoard(30, new Random(seed)));
+			nodeFactory = new NodeFactory<>();
+			explored = new HashSet<>();
+			nodes = new ArrayList<>();
+			List<Node<EightPuzzleBoard, Action>> layer = new ArrayList<>();
+			layer.add(nodeFactory.createNode(problem.getInitialState()));
+			explored.add(problem.getInitialState());
+			for (int i = 0; i < depth; i++) {
+				List<Node<EightPuzzleBoard, Action>> next = new ArrayList<>();
+				for (Node<EightPuzzleBoard, Action> node : layer) {
+					for (Node<EightPuzzleBoard, Action> child : nodeFactory.getSuccessors(node, problem))
+						if (explored.add(child.getState()))
+							next.add(child);
+				}
+				nodes.addAll(layer);
+				layer = next;
+			}
+			notExplored = state -> !explored.contains(state);
+			buffer = new ArrayList<>();
+		}
+	}
+
+	/** Expands all nodes and returns the number of unexplored successors. */
+	@Benchmark
+	public int eightPuzzleExpansion(Expansion state) {
+		int result = 0;
+		for (Node<EightPuzzleBoard, Action> node : state.nodes) {
+			if (state.buffered) {
+				result += state.nodeFactory.getSuccessors(node, state.problem, state.notExplored, state.buffer).size();
+			} else {
+				for (Node<EightPuzzleBoard, Action> child : state.nodeFactory.getSuccessors(node, state.problem))
+					if (!state.explored.contains(child.getState()))
+						result++;
+			}
+		}
+		return result;
+	}
+
+	/** Runs this benchmark with the GC profiler. */
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder()
+				.include(NodeExpansionBenchmark.class.getSimpleName())
+				.addProfiler(GCProfiler.class)
+				.build()).run();
+	}
+}
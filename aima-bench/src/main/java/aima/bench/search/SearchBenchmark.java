@@ -0,0 +1,131 @@
+package aima.bench.search;
+
+import aima.core.agent.Action;
+import aima.core.environment.eightpuzzle.BidirectionalEightPuzzleProblem;
+import aima.core.environment.eightpuzzle.EightPuzzleBoard;
+import aima.core.environment.eightpuzzle.EightPuzzleFunctions;
+import aima.core.environment.nqueens.NQueensBoard;
+import aima.core.environment.nqueens.NQueensFunctions;
+import aima.core.environment.nqueens.QueenAction;
+import aima.core.search.framework.problem.Problem;
+import aima.core.search.framework.qsearch.BidirectionalSearch;
+import aima.core.search.framework.qsearch.GraphSearch;
+import aima.core.search.framework.qsearch.GraphSearchBFS;
+import aima.core.search.framework.qsearch.GraphSearchReducedFrontier;
+import aima.core.search.framework.qsearch.TreeSearch;
+import aima.core.search.informed.AStarSearch;
+import aima.core.search.uninformed.BreadthFirstSearch;
+import aima.core.search.uninformed.DepthFirstSearch;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for the queue-based search implementations. N-queens (incremental
+ * formulation) is solved by depth-first tree search, the eight-puzzle by
+ * uninformed and informed graph search variants. Eight-puzzle start states
+ * are obtained by applying a given number of random moves to the goal state.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SearchBenchmark {
+
+	@State(Scope.Benchmark)
+	public static class NQueens {
+		@Param({"8", "12", "16"})
+		public int size;
+
+		public Problem<NQueensBoard, QueenAction> problem;
+
+		@Setup(Level.Trial)
+		public void setUp() {
+			problem = NQueensFunctions.createIncrementalFormulationProblem(size);
+		}
+	}
+
+	@State(Scope.Benchmark)
+	public static class EightPuzzle {
+		@Param({"10", "20", "40"})
+		public int scrambleMoves;
+
+		@Param({"42"})
+		public long seed;
+
+		public BidirectionalEightPuzzleProblem problem;
+
+		@Setup(Level.Trial)
+		public void setUp() {
+			problem = new BidirectionalEightPuzzleProblem(createBoard(scrambleMoves, new Random(seed)));
+		}
+	}
+
+	/**
+	 * Returns the board which results from applying the given number of random
+	 * moves to the goal state. Moves which undo the previous move are avoided.
+	 */
+	public static EightPuzzleBoard createBoard(int moves, Random random) {
+		EightPuzzleBoard board = EightPuzzleFunctions.GOAL_STATE;
+		EightPuzzleBoard previous = null;
+		for (int i = 0; i < moves; i++) {
+			List<Action> actions = EightPuzzleFunctions.getActions(board);
+			EightPuzzleBoard next;
+			do {
+				next = EightPuzzleFunctions.getResult(board, actions.get(random.nextInt(actions.size())));
+			} while (next.equals(previous));
+			previous = board;
+			board = next;
+		}
+		return board;
+	}
+
+	@Benchmark
+	public Optional<List<QueenAction>> nQueensDepthFirstTreeSearch(NQueens state) {
+		return new DepthFirstSearch<>(new TreeSearch<NQueensBoard, QueenAction>()).findActions(state.problem);
+	}
+
+	@Benchmark
+	public Optional<List<Action>> eightPuzzleBreadthFirstSearch(EightPuzzle state) {
+		return new BreadthFirstSearch<>(new GraphSearchBFS<EightPuzzleBoard, Action>()).findActions(state.problem);
+	}
+
+	@Benchmark
+	public Optional<List<Action>> eightPuzzleBidirectionalSearch(EightPuzzle state) {
+		return new BreadthFirstSearch<>(new BidirectionalSearch<EightPuzzleBoard, Action>()).findActions(state.problem);
+	}
+
+	@Benchmark
+	public Optional<List<Action>> eightPuzzleAStarGraphSearch(EightPuzzle state) {
+		return new AStarSearch<>(new GraphSearch<EightPuzzleBoard, Action>(),
+				EightPuzzleFunctions::getManhattanDistance).findActions(state.problem);
+	}
+
+	@Benchmark
+	public Optional<List<Action>> eightPuzzleAStarGraphSearchWithEncoder(EightPuzzle state) {
+		GraphSearch<EightPuzzleBoard, Action> impl = new GraphSearch<>();
+		impl.setStateEncoder(EightPuzzleFunctions::encode);
+		return new AStarSearch<>(impl, EightPuzzleFunctions::getManhattanDistance).findActions(state.problem);
+	}
+
+	@Benchmark
+	public Optional<List<Action>> eightPuzzleAStarReducedFrontier(EightPuzzle state) {
+		return new AStarSearch<>(new GraphSearchReducedFrontier<EightPuzzleBoard, Action>(),
+				EightPuzzleFunctions::getManhattanDistance).findActions(state.problem);
+	}
+}
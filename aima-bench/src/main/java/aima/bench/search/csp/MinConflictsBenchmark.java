@@ -0,0 +1,66 @@
+package aima.bench.search.csp;
+
+import aima.core.search.csp.Assignment;
+import aima.core.search.csp.CSP;
+import aima.core.search.csp.MinConflictsSolver;
+import aima.core.search.csp.Variable;
+import aima.core.search.csp.examples.NQueensCSP;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for the min-conflicts solver on large n-queens instances, stated
+ * with all-different constraints and solved with value sampling.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class MinConflictsBenchmark {
+
+	@State(Scope.Benchmark)
+	public static class NQueens {
+		@Param({"100000", "1000000"})
+		public int size;
+
+		@Param({"100"})
+		public int valueSampleSize;
+
+		@Param({"42"})
+		public long seed;
+
+		public CSP<Variable, Integer> csp;
+		public Random random;
+
+		@Setup(Level.Trial)
+		public void setUp() {
+			csp = new NQueensCSP(size, true);
+		}
+
+		@Setup(Level.Iteration)
+		public void setUpIteration() {
+			random = new Random(seed);
+		}
+	}
+
+	@Benchmark
+	public Optional<Assignment<Variable, Integer>> nQueensMinConflicts(NQueens state) {
+		return new MinConflictsSolver<Variable, Integer>(10000).setValueSampleSize(state.valueSampleSize)
+				.setRandom(state.random).solve(state.csp);
+	}
+}
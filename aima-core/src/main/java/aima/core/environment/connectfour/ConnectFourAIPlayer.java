@@ -4,11 +4,15 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import aima.core.search.adversarial.Game;
+import aima.core.search.adversarial.HashableGame;
 import aima.core.search.adversarial.IterativeDeepeningAlphaBetaSearch;
+import aima.core.search.adversarial.TranspositionTable;
 
 /**
  * Implements an iterative deepening Minimax search with alpha-beta pruning and
- * a special action ordering optimized for the Connect Four game.
+ * a special action ordering optimized for the Connect Four game. Transposition
+ * table (if supported by the game), killer moves, and history heuristic are
+ * enabled.
  * 
  * @author Ruediger Lunde
  */
@@ -17,6 +21,10 @@ public class ConnectFourAIPlayer extends
 
 	public ConnectFourAIPlayer(Game<ConnectFourState, Integer, String> game, int time) {
 		super(game, 0.0, 1.0, time);
+		if (game instanceof HashableGame)
+			setTranspositionTable(new TranspositionTable<>(1 << 20));
+		setKillerMovesEnabled(true);
+		setHistoryHeuristicEnabled(true);
 	}
 
 	@Override
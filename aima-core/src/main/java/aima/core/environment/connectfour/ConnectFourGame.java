@@ -4,16 +4,16 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 
-import aima.core.search.adversarial.Game;
+import aima.core.search.adversarial.HashableGame;
 
 /**
  * Provides an implementation of the ConnectFour game which can be used for
- * experiments with the Minimax algorithm.
+ * experiments with the Minimax algorithm. States provide Zobrist hash values.
  * 
  * @author Ruediger Lunde
  * 
  */
-public class ConnectFourGame implements Game<ConnectFourState, Integer, String> {
+public class ConnectFourGame implements HashableGame<ConnectFourState, Integer, String> {
 
 	private String[] players = new String[] { "red", "yellow" };
 	private ConnectFourState initialState = new ConnectFourState(6, 7);
@@ -92,4 +92,9 @@ public class ConnectFourGame implements Game<ConnectFourState, Integer, String>
 		}
 		return result;
 	}
+
+	@Override
+	public long getStateHash(ConnectFourState state) {
+		return state.getZobristHash();
+	}
 }
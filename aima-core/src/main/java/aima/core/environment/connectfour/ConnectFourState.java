@@ -1,5 +1,7 @@
 package aima.core.environment.connectfour;
 
+import aima.core.search.adversarial.ZobristKeys;
+
 /**
  * A state of the Connect Four game is characterized by a board containing a
  * grid of spaces for disks, the next player to move, and some utility
@@ -26,6 +28,8 @@ public class ConnectFourState implements Cloneable {
 	private double utility;
 	public int winPositions1;
 	public int winPositions2;
+	/** Zobrist hash of the disks on the board, updated with each move. */
+	private long zobristHash;
 
 	public ConnectFourState(int rows, int cols) {
 		utility = -1;
@@ -57,6 +61,14 @@ public class ConnectFourState implements Cloneable {
 		return moveCount;
 	}
 
+	/**
+	 * Returns a 64 bit hash value of the board. The player to move is
+	 * determined by the number of disks and need not be encoded.
+	 */
+	public long getZobristHash() {
+		return zobristHash;
+	}
+
 	public void dropDisk(int col) {
 		int playerNum = getPlayerToMove();
 		int row = getFreeRow(col);
@@ -75,6 +87,7 @@ public class ConnectFourState implements Cloneable {
 					utility = 0.0;
 			}
 			board[row * cols + col] = (byte) playerNum;
+			zobristHash ^= ZobristKeys.get(2 * (row * cols + col) + playerNum - 1);
 			if (utility == -1)
 				analyzeWinPositions(row, col);
 		}
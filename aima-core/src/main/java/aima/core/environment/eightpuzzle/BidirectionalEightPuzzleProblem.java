@@ -19,10 +19,11 @@ public class BidirectionalEightPuzzleProblem extends GeneralProblem<EightPuzzleB
 	public BidirectionalEightPuzzleProblem(EightPuzzleBoard initialState) {
 		super(initialState, EightPuzzleFunctions::getActions, EightPuzzleFunctions::getResult,
 				Predicate.isEqual(EightPuzzleFunctions.GOAL_STATE));
+		setForEachActionFn(EightPuzzleFunctions::forEachAction);
 
 		reverseProblem = new GeneralProblem<>(EightPuzzleFunctions.GOAL_STATE,
 				EightPuzzleFunctions::getActions, EightPuzzleFunctions::getResult,
-				Predicate.isEqual(initialState));
+				Predicate.isEqual(initialState)).setForEachActionFn(EightPuzzleFunctions::forEachAction);
 	}
 
 	public Problem<EightPuzzleBoard, Action> getOriginalProblem() {
@@ -5,6 +5,7 @@ import aima.core.search.framework.Node;
 import aima.core.util.datastructure.XYLocation;
 
 import java.util.List;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -16,11 +17,21 @@ public class EightPuzzleFunctions {
 
 	public static final EightPuzzleBoard GOAL_STATE = new EightPuzzleBoard(new int[] { 0, 1, 2, 3, 4, 5, 6, 7, 8 });
 
+	private static final Action[] GAP_MOVES = { EightPuzzleBoard.UP, EightPuzzleBoard.DOWN, EightPuzzleBoard.LEFT,
+			EightPuzzleBoard.RIGHT };
+
 	public static List<Action> getActions(EightPuzzleBoard state) {
 		return Stream.of(EightPuzzleBoard.UP, EightPuzzleBoard.DOWN, EightPuzzleBoard.LEFT, EightPuzzleBoard.RIGHT).
 				filter(state::canMoveGap).collect(Collectors.toList());
 	}
 
+	/** Passes the actions returned by {@link #getActions(EightPuzzleBoard)} to the consumer without building a list. */
+	public static void forEachAction(EightPuzzleBoard state, Consumer<? super Action> consumer) {
+		for (Action action : GAP_MOVES)
+			if (state.canMoveGap(action))
+				consumer.accept(action);
+	}
+
 	public static EightPuzzleBoard getResult(EightPuzzleBoard state, Action action) {
 		EightPuzzleBoard result = state.clone();
 
@@ -37,6 +48,17 @@ public class EightPuzzleFunctions {
 		return result;
 	}
 
+	/**
+	 * Encodes a board as a primitive key (four bits per tile). Can be used as
+	 * {@link aima.core.search.framework.StateEncoder} for graph search.
+	 */
+	public static long encode(EightPuzzleBoard state) {
+		long result = 0;
+		for (int val : state.getState())
+			result = (result << 4) | val;
+		return result;
+	}
+
 	public static double getManhattanDistance(Node<EightPuzzleBoard, Action> node) {
 		EightPuzzleBoard currState = node.getState();
 		int result = 0;
@@ -3,17 +3,17 @@ package aima.core.environment.tictactoe;
 import java.util.List;
 import java.util.Objects;
 
-import aima.core.search.adversarial.Game;
+import aima.core.search.adversarial.HashableGame;
 import aima.core.util.datastructure.XYLocation;
 
 /**
  * Provides an implementation of the Tic-tac-toe game which can be used for
- * experiments with the Minimax algorithm.
+ * experiments with the Minimax algorithm. States provide Zobrist hash values.
  * 
  * @author Ruediger Lunde
  * 
  */
-public class TicTacToeGame implements Game<TicTacToeState, XYLocation, String> {
+public class TicTacToeGame implements HashableGame<TicTacToeState, XYLocation, String> {
 
 	private  TicTacToeState initialState = new TicTacToeState();
 
@@ -60,4 +60,9 @@ public class TicTacToeGame implements Game<TicTacToeState, XYLocation, String> {
 		}
 		return result;
 	}
+
+	@Override
+	public long getStateHash(TicTacToeState state) {
+		return state.getZobristHash();
+	}
 }
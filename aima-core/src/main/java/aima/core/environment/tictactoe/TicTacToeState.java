@@ -5,6 +5,7 @@ import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
 
+import aima.core.search.adversarial.ZobristKeys;
 import aima.core.util.datastructure.XYLocation;
 
 /**
@@ -18,11 +19,13 @@ public class TicTacToeState implements Cloneable {
 	public static final String O = "O";
 	public static final String X = "X";
 	public static final String EMPTY = "-";
+	private static final int SIDE_TO_MOVE_KEY = 18;
 	//
 	private String[] board;
 
 	private String playerToMove;
 	private double utility = -1; // 1: win for X, 0: win for O, 0.5: draw
+	private long zobristHash; // marks and player to move, updated with each move
 	
 	public TicTacToeState(){
 		this.board = new String[] { EMPTY, EMPTY, EMPTY, EMPTY, EMPTY, EMPTY, EMPTY, EMPTY, EMPTY };
@@ -34,6 +37,11 @@ public class TicTacToeState implements Cloneable {
 		this.playerToMove = (Objects.equals(playerToMove, X) ? O : X);
 		analyzeUtility();
 		this.playerToMove = playerToMove;
+		for (int i = 0; i < board.length; i++)
+			if (!Objects.equals(board[i], EMPTY))
+				zobristHash ^= getZobristKey(i, board[i]);
+		if (Objects.equals(playerToMove, O))
+			zobristHash ^= ZobristKeys.get(SIDE_TO_MOVE_KEY);
 	}
 
 	public String getPlayerToMove() {
@@ -52,6 +60,14 @@ public class TicTacToeState implements Cloneable {
 		return utility;
 	}
 
+	/**
+	 * Returns a 64 bit hash value which covers the marks on the board and the
+	 * player to move.
+	 */
+	public long getZobristHash() {
+		return zobristHash;
+	}
+
 	public void mark(XYLocation action) {
 		mark(action.getX(), action.getY());
 	}
@@ -59,6 +75,8 @@ public class TicTacToeState implements Cloneable {
 	public void mark(int col, int row) {
 		if (utility == -1 && Objects.equals(getValue(col, row), EMPTY)) {
 			board[getAbsPosition(col, row)] = playerToMove;
+			zobristHash ^= getZobristKey(getAbsPosition(col, row), playerToMove)
+					^ ZobristKeys.get(SIDE_TO_MOVE_KEY);
 			analyzeUtility();
 			playerToMove = (Objects.equals(playerToMove, X) ? O : X);
 		}
@@ -182,4 +200,8 @@ public class TicTacToeState implements Cloneable {
 	private int getAbsPosition(int col, int row) {
 		return row * 3 + col;
 	}
+
+	private static long getZobristKey(int absPosition, String mark) {
+		return ZobristKeys.get(2 * absPosition + (Objects.equals(mark, X) ? 0 : 1));
+	}
 }
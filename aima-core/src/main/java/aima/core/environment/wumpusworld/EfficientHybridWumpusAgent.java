@@ -2,7 +2,6 @@ package aima.core.environment.wumpusworld;
 
 import aima.core.agent.Notifier;
 import aima.core.logic.propositional.inference.DPLL;
-import aima.core.logic.propositional.inference.DPLLSatisfiable;
 import aima.core.search.framework.SearchForActions;
 import aima.core.search.framework.problem.GeneralProblem;
 import aima.core.search.framework.problem.Problem;
@@ -75,9 +74,14 @@ public class EfficientHybridWumpusAgent extends HybridWumpusAgent {
     private Set<Room> visitedRooms = new HashSet<>();
 
     public EfficientHybridWumpusAgent(int caveXDim, int caveYDim, AgentPosition start) {
-        this(caveXDim, caveYDim, start, new DPLLSatisfiable(), null);
+        this(caveXDim, caveYDim, start, new WumpusKnowledgeBase(caveXDim, caveYDim, start), null);
     }
 
+    /**
+     * Creates an agent whose knowledge base answers each query with the given SAT
+     * solver. The other constructors create a knowledge base which answers queries
+     * incrementally.
+     */
     public EfficientHybridWumpusAgent(int caveXDim, int caveYDim, AgentPosition start, DPLL satSolver,
                                       Notifier notifier) {
         this(caveXDim, caveYDim, start, new WumpusKnowledgeBase(caveXDim, caveYDim, start, satSolver), notifier);
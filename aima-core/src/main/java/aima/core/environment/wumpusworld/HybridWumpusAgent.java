@@ -3,7 +3,6 @@ package aima.core.environment.wumpusworld;
 import aima.core.agent.Notifier;
 import aima.core.agent.impl.SimpleAgent;
 import aima.core.logic.propositional.inference.DPLL;
-import aima.core.logic.propositional.inference.DPLLSatisfiable;
 import aima.core.search.framework.Metrics;
 import aima.core.search.framework.SearchForActions;
 import aima.core.search.framework.problem.GeneralProblem;
@@ -88,9 +87,14 @@ public class HybridWumpusAgent extends SimpleAgent<WumpusPercept, WumpusAction>
 	}
 
 	public HybridWumpusAgent(int caveXDim, int caveYDim, AgentPosition start) {
-		this(caveXDim, caveYDim, start, new DPLLSatisfiable(), null);
+		this(caveXDim, caveYDim, start, new WumpusKnowledgeBase(caveXDim, caveYDim, start), null);
 	}
 
+	/**
+	 * Creates an agent whose knowledge base answers each query with the given SAT
+	 * solver. The other constructors create a knowledge base which answers queries
+	 * incrementally.
+	 */
 	public HybridWumpusAgent(int caveXDim, int caveYDim, AgentPosition start, DPLL satSolver,
 							 Notifier notifier) {
 		this(caveXDim, caveYDim, start, new WumpusKnowledgeBase(caveXDim, caveYDim, start, satSolver), notifier);
@@ -1,7 +1,6 @@
 package aima.core.environment.wumpusworld;
 
 import aima.core.logic.propositional.inference.DPLL;
-import aima.core.logic.propositional.inference.OptimizedDPLL;
 import aima.core.logic.propositional.kb.KnowledgeBase;
 import aima.core.logic.propositional.parsing.ast.ComplexSentence;
 import aima.core.logic.propositional.parsing.ast.Connective;
@@ -50,8 +49,12 @@ public class WumpusKnowledgeBase extends KnowledgeBase {
     private boolean disableNavSentences;
     private long reasoningTime; // in milliseconds
 
+    /**
+     * Create a Knowledge Base that answers 'ask' queries incrementally, see
+     * {@link KnowledgeBase#ask(Sentence)}.
+     */
     public WumpusKnowledgeBase(int caveXDim, int caveYDim) {
-        this(caveXDim, caveYDim, new OptimizedDPLL());
+        this(caveXDim, caveYDim, new AgentPosition(1, 1, AgentPosition.Orientation.FACING_NORTH));
     }
 
     public WumpusKnowledgeBase(int caveXDim, int caveYDim, DPLL dpll) {
@@ -59,20 +62,37 @@ public class WumpusKnowledgeBase extends KnowledgeBase {
     }
 
     /**
-     * Create a Knowledge Base that contains the atemporal "wumpus physics".
+     * Create a Knowledge Base that contains the atemporal "wumpus physics" and
+     * answers 'ask' queries incrementally, see {@link KnowledgeBase#ask(Sentence)}.
      *
-     * @param dpll     the SAT solver implementation to use for answering 'ask' queries.
      * @param caveXDim x dimensions of the wumpus world's cave.
      * @param caveYDim y dimensions of the wumpus world's cave.
+     * @param start    the agent's start position.
      */
-    public WumpusKnowledgeBase(int caveXDim, int caveYDim, AgentPosition start, DPLL dpll) {
+    public WumpusKnowledgeBase(int caveXDim, int caveYDim, AgentPosition start) {
         this.start = start;
-        this.dpll = dpll;
         caveXDimension = caveXDim;
         caveYDimension = caveYDim;
         tellAtemporalPhysicsSentences();
     }
 
+    /**
+     * Create a Knowledge Base that contains the atemporal "wumpus physics" and
+     * answers each 'ask' query with the given SAT solver.
+     *
+     * @param caveXDim x dimensions of the wumpus world's cave.
+     * @param caveYDim y dimensions of the wumpus world's cave.
+     * @param start    the agent's start position.
+     * @param dpll     the SAT solver implementation to use for answering 'ask' queries.
+     */
+    public WumpusKnowledgeBase(int caveXDim, int caveYDim, AgentPosition start, DPLL dpll) {
+        this(caveXDim, caveYDim, start);
+        if (dpll == null)
+            throw new IllegalArgumentException("A SAT solver is required, use the constructor without solver "
+                    + "for incremental query answering.");
+        this.dpll = dpll;
+    }
+
     public int getCaveXDimension() {
         return caveXDimension;
     }
@@ -117,34 +137,36 @@ public class WumpusKnowledgeBase extends KnowledgeBase {
 
     // safe <- {[x, y] : ASK(KB, OK<sup>t</sup><sub>x,y</sub>) = true}
     public Set<Room> askSafeRooms(int t) {
-        Set<Room> safe = new LinkedHashSet<>();
+        List<Room> rooms = new ArrayList<>();
+        List<Sentence> queries = new ArrayList<>();
         for (int x = 1; x <= getCaveXDimension(); x++) {
             for (int y = 1; y <= getCaveYDimension(); y++) {
                 // Correction: Already visited rooms are safe! This is important because not all pits
                 // can be located by percept. Not-unsafe plan execution adds knowledge about pit and wumpus
                 // locations by surviving dangerous moves but this knowledge is not covered by OK_TO_MOVE_INTO.
-                if (ask(new ComplexSentence(newSymbol(LOCATION_VISITED, x, y),
-                        Connective.OR, newSymbol(OK_TO_MOVE_INTO, t, x, y)))) {
-                    safe.add(new Room(x, y));
-                }
+                rooms.add(new Room(x, y));
+                queries.add(new ComplexSentence(newSymbol(LOCATION_VISITED, x, y),
+                        Connective.OR, newSymbol(OK_TO_MOVE_INTO, t, x, y)));
             }
         }
-        return safe;
+        return selectRooms(rooms, Collections.emptySet(), askAll(queries), true);
     }
 
     // safe <- {[x, y] : ASK(KB, OK<sup>t</sup><sub>x,y</sub>) = true}
     // Optimization: In this version, the agent can provide information about already visited rooms.
     // There is no need to check again.
     public Set<Room> askSafeRooms(int t, Set<Room> visited) {
-        Set<Room> safe = new LinkedHashSet<>();
+        List<Room> rooms = new ArrayList<>();
+        List<Sentence> queries = new ArrayList<>();
         for (int x = 1; x <= getCaveXDimension(); x++) {
             for (int y = 1; y <= getCaveYDimension(); y++) {
                 Room r = new Room(x, y);
-                if (visited.contains(r) || ask(newSymbol(OK_TO_MOVE_INTO, t, x, y)))
-                    safe.add(new Room(x, y));
+                rooms.add(r);
+                if (!visited.contains(r))
+                    queries.add(newSymbol(OK_TO_MOVE_INTO, t, x, y));
             }
         }
-        return safe;
+        return selectRooms(rooms, visited, askAll(queries), true);
     }
 
     // not_unsafe <- {[x, y] : ASK(KB, ~OK<sup>t</sup><sub>x,y</sub>) = false}
@@ -156,16 +178,17 @@ public class WumpusKnowledgeBase extends KnowledgeBase {
     // Optimization: In this version, the agent can provide information about already visited rooms.
     // There is no need to check again.
     public Set<Room> askNotUnsafeRooms(int t, Set<Room> visited) {
-        Set<Room> notUnsafe = new LinkedHashSet<>();
+        List<Room> rooms = new ArrayList<>();
+        List<Sentence> queries = new ArrayList<>();
         for (int x = 1; x <= getCaveXDimension(); x++) {
             for (int y = 1; y <= getCaveYDimension(); y++) {
                 Room r = new Room(x, y);
-                if (visited.contains(r) || !ask(new ComplexSentence
-                        (Connective.NOT, newSymbol(OK_TO_MOVE_INTO, t, x, y))))
-                    notUnsafe.add(r);
+                rooms.add(r);
+                if (!visited.contains(r))
+                    queries.add(new ComplexSentence(Connective.NOT, newSymbol(OK_TO_MOVE_INTO, t, x, y)));
             }
         }
-        return notUnsafe;
+        return selectRooms(rooms, visited, askAll(queries), false);
     }
 
     public boolean askGlitter(int t) {
@@ -178,22 +201,25 @@ public class WumpusKnowledgeBase extends KnowledgeBase {
 
     // possible_wumpus <- {[x, y] : ASK(KB, ~W<sub>x,y</sub>) = false}
     public Set<Room> askPossibleWumpusRooms(int t) {
-        Set<Room> possible = new LinkedHashSet<>();
-        for (int x = 1; x <= getCaveXDimension(); x++)
-            for (int y = 1; y <= getCaveYDimension(); y++)
-                if (!ask(new ComplexSentence(Connective.NOT, newSymbol(WUMPUS, x, y))))
-                    possible.add(new Room(x, y));
-        return possible;
+        List<Room> rooms = new ArrayList<>();
+        List<Sentence> queries = new ArrayList<>();
+        for (int x = 1; x <= getCaveXDimension(); x++) {
+            for (int y = 1; y <= getCaveYDimension(); y++) {
+                rooms.add(new Room(x, y));
+                queries.add(new ComplexSentence(Connective.NOT, newSymbol(WUMPUS, x, y)));
+            }
+        }
+        return selectRooms(rooms, Collections.emptySet(), askAll(queries), false);
     }
 
     // unvisited <- {[x, y] : ASK(KB, L<sup>t'</sup><sub>x,y</sub>) = false for all t' &le; t}
     public Set<Room> askUnvisitedRooms(int t) {
-        Set<Room> unvisited = new LinkedHashSet<>();
-
+        List<Room> rooms = new ArrayList<>();
+        List<Sentence> queries = new ArrayList<>();
         for (int x = 1; x <= getCaveXDimension(); x++) {
             for (int y = 1; y <= getCaveYDimension(); y++) {
-                if (!ask(newSymbol(LOCATION_VISITED, x, y)))
-                    unvisited.add(new Room(x, y)); // i.e. is false for all t' <= t
+                rooms.add(new Room(x, y));
+                queries.add(newSymbol(LOCATION_VISITED, x, y)); // unvisited if not entailed
 
 //				way to slow: (try it out!)
 //				for (int tPrime = 0; tPrime <= t; tPrime++) {
@@ -204,16 +230,45 @@ public class WumpusKnowledgeBase extends KnowledgeBase {
 //				}
             }
         }
-        return unvisited;
+        return selectRooms(rooms, Collections.emptySet(), askAll(queries), false);
     }
 
+    @Override
     public boolean ask(Sentence query) {
         long tStart = System.currentTimeMillis();
-        boolean result = dpll.isEntailed(this, query);
+        boolean result = dpll != null ? dpll.isEntailed(this, query) : super.ask(query);
         reasoningTime += System.currentTimeMillis() - tStart;
         return result;
     }
 
+    @Override
+    public List<Boolean> askAll(List<? extends Sentence> queries) {
+        long tStart = System.currentTimeMillis();
+        List<Boolean> result;
+        if (dpll != null) {
+            result = new ArrayList<>(queries.size());
+            for (Sentence query : queries)
+                result.add(dpll.isEntailed(this, query));
+        } else {
+            result = super.askAll(queries);
+        }
+        reasoningTime += System.currentTimeMillis() - tStart;
+        return result;
+    }
+
+    /**
+     * Returns the visited rooms and the rooms for which the answer has the expected value.
+     * Answers are given in room order for all rooms which have not been visited.
+     */
+    private Set<Room> selectRooms(List<Room> rooms, Set<Room> visited, List<Boolean> answers, boolean expected) {
+        Set<Room> result = new LinkedHashSet<>();
+        Iterator<Boolean> iter = answers.iterator();
+        for (Room r : rooms)
+            if (visited.contains(r) || iter.next() == expected)
+                result.add(r);
+        return result;
+    }
+
     /**
      * Add to KB sentences that describe the perception p
      * (only about the current time).
@@ -0,0 +1,309 @@
+package aima.core.logic.fol;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import aima.core.logic.fol.parsing.ast.FOLNode;
+import aima.core.logic.fol.parsing.ast.Variable;
+
+/**
+ * Term index based on a discrimination tree (see e.g. Graf, Term Indexing,
+ * 1996). Each indexed term or atomic sentence is stored along the path of
+ * symbols which is obtained by a preorder traversal of the term, all
+ * variables being replaced by the same wildcard. For example, the path of
+ * Knows(John, Mother(x)) is Knows/2, John/0, Mother/1, *. Terms with a common
+ * prefix share nodes, so retrieval compares each symbol of a query with the
+ * index only once instead of unifying the query with every stored term.
+ * <p>
+ * The index supports retrieval of stored terms which are unifiable with,
+ * generalizations of, instances of, or variants of a query. As variables are
+ * not distinguished, results are candidates: the index never misses a
+ * matching term, but it may return terms whose variables cannot be bound
+ * consistently, e.g. P(x, x) for query P(A, B). Callers check candidates with
+ * the {@link Unifier}. Candidates are returned in the order in which they
+ * were added.
+ * </p>
+ * <p>
+ * The index is thread-safe. Any number of readers can retrieve terms
+ * concurrently, while adding and removing terms requires exclusive access.
+ * </p>
+ *
+ * @param <V>
+ *            the type of the values which are associated with the terms,
+ *            e.g. literals or clauses.
+ */
+public class DiscriminationTree<V> {
+
+	private enum Retrieval {
+		UNIFIABLE, GENERALIZATIONS, INSTANCES, VARIANTS
+	}
+
+	private final Node<V> root = new Node<V>(0);
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+	private long entryCount;
+	private int size;
+
+	/** Associates the value with the term or atomic sentence. */
+	public void add(FOLNode term, V value) {
+		Path path = new Path(term);
+		lock.writeLock().lock();
+		try {
+			Node<V> node = root;
+			for (int i = 0; i < path.length(); i++) {
+				Node<V> child = node.getChild(path.keys.get(i));
+				if (child == null) {
+					child = new Node<V>(path.arities.get(i));
+					node.putChild(path.keys.get(i), child);
+				}
+				node = child;
+			}
+			if (node.entries == null)
+				node.entries = new ArrayList<Entry<V>>(1);
+			node.entries.add(new Entry<V>(entryCount++, value));
+			size++;
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Removes one association of the value with the term. Returns false if
+	 * there is none.
+	 */
+	public boolean remove(FOLNode term, V value) {
+		Path path = new Path(term);
+		lock.writeLock().lock();
+		try {
+			List<Node<V>> nodes = new ArrayList<Node<V>>();
+			Node<V> node = root;
+			for (int i = 0; i < path.length() && node != null; i++) {
+				nodes.add(node);
+				node = node.getChild(path.keys.get(i));
+			}
+			if (node == null || node.entries == null)
+				return false;
+			Iterator<Entry<V>> iter = node.entries.iterator();
+			while (iter.hasNext()) {
+				if (iter.next().value.equals(value)) {
+					iter.remove();
+					size--;
+					// prune nodes which lead to nothing
+					for (int i = nodes.size() - 1; i >= 0 && node.isEmpty(); i--) {
+						nodes.get(i).removeChild(path.keys.get(i));
+						node = nodes.get(i);
+					}
+					return true;
+				}
+			}
+			return false;
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	public void clear() {
+		lock.writeLock().lock();
+		try {
+			root.children = null;
+			root.variableChild = null;
+			root.entries = null;
+			size = 0;
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/** Returns the number of stored term-value associations. */
+	public int size() {
+		lock.readLock().lock();
+		try {
+			return size;
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/** Returns the values of all stored terms which may unify with the query. */
+	public List<V> getUnifiable(FOLNode query) {
+		return retrieve(query, Retrieval.UNIFIABLE);
+	}
+
+	/**
+	 * Returns the values of all stored terms which may be more general than
+	 * the query, that is, which can be made equal to the query by binding their
+	 * variables.
+	 */
+	public List<V> getGeneralizations(FOLNode query) {
+		return retrieve(query, Retrieval.GENERALIZATIONS);
+	}
+
+	/**
+	 * Returns the values of all stored terms which may be instances of the
+	 * query, that is, to which the query can be made equal by binding its
+	 * variables.
+	 */
+	public List<V> getInstances(FOLNode query) {
+		return retrieve(query, Retrieval.INSTANCES);
+	}
+
+	/**
+	 * Returns the values of all stored terms which may be variants of the
+	 * query, that is, which only differ from the query in the names of their
+	 * variables.
+	 */
+	public List<V> getVariants(FOLNode query) {
+		return retrieve(query, Retrieval.VARIANTS);
+	}
+
+	//
+	// PRIVATE METHODS
+	//
+
+	private List<V> retrieve(FOLNode query, Retrieval retrieval) {
+		Path path = new Path(query);
+		List<Entry<V>> entries = new ArrayList<Entry<V>>();
+		lock.readLock().lock();
+		try {
+			retrieve(root, path, 0, retrieval, entries);
+		} finally {
+			lock.readLock().unlock();
+		}
+		Collections.sort(entries, Comparator.comparingLong(e -> e.number));
+		List<V> result = new ArrayList<V>(entries.size());
+		for (Entry<V> entry : entries)
+			result.add(entry.value);
+		return result;
+	}
+
+	private void retrieve(Node<V> node, Path path, int pos, Retrieval retrieval, List<Entry<V>> result) {
+		if (pos == path.length()) {
+			if (node.entries != null)
+				result.addAll(node.entries);
+			return;
+		}
+		String key = path.keys.get(pos);
+		if (key == null) {
+			// query variable
+			if (retrieval == Retrieval.UNIFIABLE || retrieval == Retrieval.INSTANCES) {
+				List<Node<V>> nodes = new ArrayList<Node<V>>();
+				skipTerms(node, 1, nodes);
+				for (Node<V> next : nodes)
+					retrieve(next, path, pos + 1, retrieval, result);
+			} else if (node.variableChild != null) {
+				retrieve(node.variableChild, path, pos + 1, retrieval, result);
+			}
+		} else {
+			Node<V> child = node.getChild(key);
+			if (child != null)
+				retrieve(child, path, pos + 1, retrieval, result);
+			// stored variable
+			if (node.variableChild != null
+					&& (retrieval == Retrieval.UNIFIABLE || retrieval == Retrieval.GENERALIZATIONS))
+				retrieve(node.variableChild, path, path.ends.get(pos), retrieval, result);
+		}
+	}
+
+	/** Collects the nodes which are reached from node by skipping n stored terms. */
+	private void skipTerms(Node<V> node, int n, List<Node<V>> result) {
+		if (n == 0) {
+			result.add(node);
+		} else {
+			if (node.variableChild != null)
+				skipTerms(node.variableChild, n - 1, result);
+			if (node.children != null)
+				for (Node<V> child : node.children.values())
+					skipTerms(child, n - 1 + child.arity, result);
+		}
+	}
+
+	/**
+	 * Preorder traversal of a term. The key of a variable is null. Position
+	 * ends[i] is the first position after the subterm which starts at i.
+	 */
+	private static class Path {
+		final List<String> keys = new ArrayList<String>();
+		final List<Integer> arities = new ArrayList<Integer>();
+		final List<Integer> ends = new ArrayList<Integer>();
+
+		Path(FOLNode term) {
+			add(term);
+		}
+
+		int length() {
+			return keys.size();
+		}
+
+		private void add(FOLNode term) {
+			int pos = keys.size();
+			if (term instanceof Variable) {
+				keys.add(null);
+				arities.add(0);
+				ends.add(pos + 1);
+			} else {
+				List<? extends FOLNode> args = term.isCompound() ? term.getArgs() : Collections.<FOLNode>emptyList();
+				keys.add(term.getSymbolicName() + "/" + args.size());
+				arities.add(args.size());
+				ends.add(null);
+				for (FOLNode arg : args)
+					add(arg);
+				ends.set(pos, keys.size());
+			}
+		}
+	}
+
+	private static class Node<V> {
+		final int arity;
+		Map<String, Node<V>> children;
+		Node<V> variableChild;
+		List<Entry<V>> entries;
+
+		Node(int arity) {
+			this.arity = arity;
+		}
+
+		Node<V> getChild(String key) {
+			if (key == null)
+				return variableChild;
+			return children != null ? children.get(key) : null;
+		}
+
+		void putChild(String key, Node<V> child) {
+			if (key == null) {
+				variableChild = child;
+			} else {
+				if (children == null)
+					children = new HashMap<String, Node<V>>();
+				children.put(key, child);
+			}
+		}
+
+		void removeChild(String key) {
+			if (key == null)
+				variableChild = null;
+			else if (children != null)
+				children.remove(key);
+		}
+
+		boolean isEmpty() {
+			return (children == null || children.isEmpty()) && variableChild == null
+					&& (entries == null || entries.isEmpty());
+		}
+	}
+
+	private static class Entry<V> {
+		final long number;
+		final V value;
+
+		Entry(long number, V value) {
+			this.number = number;
+			this.value = value;
+		}
+	}
+}
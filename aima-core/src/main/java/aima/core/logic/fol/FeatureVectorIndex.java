@@ -0,0 +1,217 @@
+package aima.core.logic.fol;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import aima.core.logic.fol.kb.data.Clause;
+import aima.core.logic.fol.kb.data.Literal;
+import aima.core.logic.fol.parsing.ast.AtomicSentence;
+
+/**
+ * Clause index for subsumption tests based on feature vectors (see Schulz,
+ * Simple and Efficient Clause Subsumption with Feature Vector Indexing,
+ * 2004). The features of a clause are numbers which cannot decrease when the
+ * clause is instantiated and extended by further literals: the numbers of
+ * positive and negative literals, the number of symbol occurrences
+ * ({@link Clause#getWeight()}), and the numbers of literals whose predicate
+ * symbol, arity and polarity fall into the same bucket (of a fixed number of
+ * hash buckets, which keeps the vectors short). If a clause subsumes another
+ * clause (see {@link Clause#subsumes(Clause)}), each of its features is less
+ * than or equal to the corresponding feature of the other clause. The feature
+ * vectors are stored in a trie, so that clauses whose features violate this
+ * condition are excluded without looking at them.
+ * <p>
+ * Retrieval returns candidates, which have to be checked with
+ * {@link Clause#subsumes(Clause)}. Variants of a clause are only stored once.
+ * Candidates are returned in a deterministic order. The index is not
+ * thread-safe.
+ * </p>
+ */
+public class FeatureVectorIndex {
+	// Number of features which do not depend on predicate symbols
+	private static final int FIXED_FEATURES = 3;
+	private static final int SYMBOL_BUCKETS = 8;
+
+	private final Node root = new Node();
+	private int size;
+
+	/** Adds the clause. Returns false if a variant is already contained. */
+	public boolean add(Clause clause) {
+		int[] features = getFeatures(clause);
+		Node node = root;
+		for (int f : features) {
+			Node child = node.getChild(f);
+			if (null == child) {
+				child = new Node();
+				node.putChild(f, child);
+			}
+			node = child;
+		}
+		if (node.clauses.add(clause)) {
+			size++;
+			return true;
+		}
+		return false;
+	}
+
+	/** Removes the clause or its variant. Returns false if there is none. */
+	public boolean remove(Clause clause) {
+		int[] features = getFeatures(clause);
+		List<Node> path = new ArrayList<Node>(features.length + 1);
+		Node node = root;
+		path.add(node);
+		for (int f : features) {
+			node = node.getChild(f);
+			if (null == node) {
+				return false;
+			}
+			path.add(node);
+		}
+		if (!node.clauses.remove(clause)) {
+			return false;
+		}
+		size--;
+		// remove the nodes which are not needed anymore
+		for (int i = features.length; i > 0 && path.get(i).isEmpty(); i--) {
+			path.get(i - 1).removeChild(features[i - 1]);
+		}
+		return true;
+	}
+
+	public void clear() {
+		root.clear();
+		size = 0;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Returns the clauses which possibly subsume the given clause (forward
+	 * subsumption).
+	 */
+	public List<Clause> getSubsumingCandidates(Clause clause) {
+		List<Clause> result = new ArrayList<Clause>();
+		collectSmallerOrEqual(root, getFeatures(clause), 0, result);
+		return result;
+	}
+
+	/**
+	 * Returns the clauses which are possibly subsumed by the given clause
+	 * (backward subsumption).
+	 */
+	public List<Clause> getSubsumedCandidates(Clause clause) {
+		List<Clause> result = new ArrayList<Clause>();
+		collectGreaterOrEqual(root, getFeatures(clause), 0, result);
+		return result;
+	}
+
+	//
+	// PRIVATE METHODS
+	//
+
+	private void collectSmallerOrEqual(Node node, int[] features, int depth,
+			List<Clause> result) {
+		// the missing features of the stored clauses are 0
+		result.addAll(node.clauses);
+		int max = depth < features.length ? features[depth] : 0;
+		for (int i = 0; i < node.size && node.keys[i] <= max; i++) {
+			collectSmallerOrEqual(node.children[i], features, depth + 1, result);
+		}
+	}
+
+	private void collectGreaterOrEqual(Node node, int[] features, int depth,
+			List<Clause> result) {
+		if (depth >= features.length) {
+			// all remaining features of the query are 0
+			collectAll(node, result);
+			return;
+		}
+		int i = Arrays.binarySearch(node.keys, 0, node.size, features[depth]);
+		for (i = i >= 0 ? i : -i - 1; i < node.size; i++) {
+			collectGreaterOrEqual(node.children[i], features, depth + 1, result);
+		}
+	}
+
+	private void collectAll(Node node, List<Clause> result) {
+		result.addAll(node.clauses);
+		for (int i = 0; i < node.size; i++) {
+			collectAll(node.children[i], result);
+		}
+	}
+
+	// Returns the feature vector without trailing zeros.
+	private int[] getFeatures(Clause clause) {
+		int[] features = new int[FIXED_FEATURES + SYMBOL_BUCKETS];
+		features[0] = clause.getNumberPositiveLiterals();
+		features[1] = clause.getNumberNegativeLiterals();
+		features[2] = clause.getWeight();
+		for (Literal l : clause.getLiterals()) {
+			AtomicSentence atom = l.getAtomicSentence();
+			int h = 31 * atom.getSymbolicName().hashCode()
+					+ atom.getArgs().size();
+			if (l.isNegativeLiteral()) {
+				h = ~h;
+			}
+			h ^= h >>> 16;
+			features[FIXED_FEATURES + (h & 0x7fffffff) % SYMBOL_BUCKETS]++;
+		}
+		int length = features.length;
+		while (length > 0 && features[length - 1] == 0) {
+			length--;
+		}
+		return length < features.length ? Arrays.copyOf(features, length)
+				: features;
+	}
+
+	// Node of the trie, the children are sorted by their feature values.
+	private static class Node {
+		int[] keys = new int[0];
+		Node[] children = new Node[0];
+		int size;
+		final Set<Clause> clauses = new LinkedHashSet<Clause>(1);
+
+		Node getChild(int key) {
+			int i = Arrays.binarySearch(keys, 0, size, key);
+			return i >= 0 ? children[i] : null;
+		}
+
+		void putChild(int key, Node child) {
+			int i = -Arrays.binarySearch(keys, 0, size, key) - 1;
+			if (size == keys.length) {
+				keys = Arrays.copyOf(keys, Math.max(2, 2 * size));
+				children = Arrays.copyOf(children, keys.length);
+			}
+			System.arraycopy(keys, i, keys, i + 1, size - i);
+			System.arraycopy(children, i, children, i + 1, size - i);
+			keys[i] = key;
+			children[i] = child;
+			size++;
+		}
+
+		void removeChild(int key) {
+			int i = Arrays.binarySearch(keys, 0, size, key);
+			if (i >= 0) {
+				size--;
+				System.arraycopy(keys, i + 1, keys, i, size - i);
+				System.arraycopy(children, i + 1, children, i, size - i);
+				children[size] = null;
+			}
+		}
+
+		void clear() {
+			keys = new int[0];
+			children = new Node[0];
+			size = 0;
+			clauses.clear();
+		}
+
+		boolean isEmpty() {
+			return 0 == size && clauses.isEmpty();
+		}
+	}
+}
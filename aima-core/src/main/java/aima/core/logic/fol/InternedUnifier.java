@@ -0,0 +1,154 @@
+package aima.core.logic.fol;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import aima.core.logic.fol.flat.FOLSymbolTable;
+import aima.core.logic.fol.flat.FlatTerm;
+import aima.core.logic.fol.flat.FlatTermEncoder;
+import aima.core.logic.fol.flat.TrailUnifier;
+import aima.core.logic.fol.parsing.ast.AtomicSentence;
+import aima.core.logic.fol.parsing.ast.FOLNode;
+import aima.core.logic.fol.parsing.ast.Term;
+import aima.core.logic.fol.parsing.ast.Variable;
+
+/**
+ * Drop-in replacement for {@link Unifier} which unifies interned, flat terms
+ * with a {@link TrailUnifier}. Symbols are compared as integers, bindings are
+ * triangular, and a substitution is built once per call instead of being
+ * re-applied to all earlier bindings whenever a variable is bound. The
+ * <code>Map&lt;Variable, Term&gt;</code> substitutions of the
+ * {@link Unifier} interface are only created at the end of each call, with the
+ * same content as those of the {@link Unifier}.
+ * <p>
+ * Inference procedures opt into it by passing it to the
+ * {@link aima.core.logic.fol.kb.FOLKnowledgeBase} (forward and backward
+ * chaining) or to the resolution provers. The unifier can be shared by
+ * several threads.
+ * </p>
+ */
+public class InternedUnifier extends Unifier {
+	private final FOLSymbolTable symbols;
+	private final ThreadLocal<State> states;
+	private volatile boolean occurCheck = true;
+
+	public InternedUnifier() {
+		this(new FOLSymbolTable());
+	}
+
+	public InternedUnifier(FOLSymbolTable symbols) {
+		this.symbols = symbols;
+		states = ThreadLocal.withInitial(() -> new State(symbols));
+	}
+
+	public FOLSymbolTable getSymbolTable() {
+		return symbols;
+	}
+
+	/** Enables or disables the occur check (default: enabled). */
+	public void setOccurCheck(boolean occurCheck) {
+		this.occurCheck = occurCheck;
+	}
+
+	@Override
+	public Map<Variable, Term> unify(FOLNode x, FOLNode y) {
+		return unify(x, y, new LinkedHashMap<Variable, Term>());
+	}
+
+	@Override
+	public Map<Variable, Term> unify(FOLNode x, FOLNode y, Map<Variable, Term> theta) {
+		if (theta == null)
+			return null;
+		if (!isEncodable(x) || !isEncodable(y))
+			// complex sentences are unified as before
+			return super.unify(x, y, theta);
+		State state = begin(theta);
+		if (!state.unify(x, y))
+			return null;
+		return state.writeBindings(theta);
+	}
+
+	@Override
+	public Map<Variable, Term> unify(List<? extends FOLNode> x, List<? extends FOLNode> y,
+			Map<Variable, Term> theta) {
+		if (theta == null || x.size() != y.size())
+			return null;
+		for (int i = 0; i < x.size(); i++)
+			if (!isEncodable(x.get(i)) || !isEncodable(y.get(i)))
+				return super.unify(x, y, theta);
+		State state = begin(theta);
+		for (int i = 0; i < x.size(); i++)
+			if (!state.unify(x.get(i), y.get(i)))
+				return null;
+		return state.writeBindings(theta);
+	}
+
+	//
+	// PRIVATE METHODS
+	//
+
+	private static boolean isEncodable(FOLNode node) {
+		return node instanceof Term || node instanceof AtomicSentence;
+	}
+
+	private State begin(Map<Variable, Term> theta) {
+		State state = states.get();
+		state.encoder.clear();
+		state.unifier.undo(0);
+		state.unifier.setOccurCheck(occurCheck);
+		for (Map.Entry<Variable, Term> binding : theta.entrySet()) {
+			if (!binding.getKey().equals(binding.getValue())) {
+				int var = state.encoder.getVariableNumber(binding.getKey());
+				state.unifier.bind(var, state.encoder.encode(binding.getValue()), 0);
+			}
+		}
+		state.initialBindings = state.unifier.getTrailSize();
+		return state;
+	}
+
+	/** Encoder and unifier of one thread. */
+	private static class State {
+		final FlatTermEncoder encoder;
+		final TrailUnifier unifier = new TrailUnifier();
+		int initialBindings;
+
+		State(FOLSymbolTable symbols) {
+			encoder = new FlatTermEncoder(symbols);
+		}
+
+		boolean unify(FOLNode x, FOLNode y) {
+			// variables can only be bound to terms
+			if (x instanceof Variable && !(y instanceof Term) || y instanceof Variable && !(x instanceof Term))
+				return false;
+			return unifier.unify(encoder.encode(x), encoder.encode(y));
+		}
+
+		Map<Variable, Term> writeBindings(Map<Variable, Term> theta) {
+			// bindings of theta only change if new variables have been bound
+			if (unifier.getTrailSize() > initialBindings) {
+				for (int i = 0; i < unifier.getTrailSize(); i++) {
+					int var = unifier.getTrailVariable(i);
+					theta.put(encoder.getVariable(var), decodeResolved(unifier.getBindingTerm(var),
+							unifier.getBindingPosition(var)));
+				}
+			}
+			return theta;
+		}
+
+		private Term decodeResolved(FlatTerm term, int pos) {
+			while (term.isVariable(pos) && unifier.isBound(term.getVariable(pos))) {
+				int var = term.getVariable(pos);
+				term = unifier.getBindingTerm(var);
+				pos = unifier.getBindingPosition(var);
+			}
+			if (term.isVariable(pos))
+				return encoder.getVariable(term.getVariable(pos));
+			List<Term> args = new ArrayList<Term>();
+			for (int arg = pos + 1; arg < term.getEnd(pos); arg = term.getEnd(arg))
+				args.add(decodeResolved(term, arg));
+			return (Term) encoder.newNode(term.getSymbol(pos), args);
+		}
+	}
+}
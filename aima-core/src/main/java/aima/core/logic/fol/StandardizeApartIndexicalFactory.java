@@ -2,6 +2,7 @@ package aima.core.logic.fol;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * This class ensures unique standardize apart indexicals are created.
@@ -46,9 +47,11 @@ public class StandardizeApartIndexicalFactory {
 	}
 }
 
+// Indices are unique even if several threads standardize apart
+// concurrently.
 class StandardizeApartIndexicalImpl implements StandardizeApartIndexical {
 	private String prefix = null;
-	private int index = 0;
+	private AtomicInteger index = new AtomicInteger();
 
 	public StandardizeApartIndexicalImpl(String prefix) {
 		this.prefix = prefix;
@@ -61,7 +64,7 @@ class StandardizeApartIndexicalImpl implements StandardizeApartIndexical {
 	}
 
 	public int getNextIndex() {
-		return index++;
+		return index.getAndIncrement();
 	}
 	// END-StandardizeApartIndexical
 	//
@@ -1,8 +1,10 @@
 package aima.core.logic.fol;
 
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashSet;
-import java.util.Map;
+import java.util.List;
 import java.util.Set;
 
 import aima.core.logic.fol.kb.data.Clause;
@@ -43,49 +45,29 @@ public class SubsumptionElimination {
 	public static Set<Clause> findSubsumedClauses(Set<Clause> clauses) {
 		Set<Clause> subsumed = new HashSet<Clause>();
 
-		// Group the clauses by their # of literals.
-		// Keep track of the min and max # of literals.
-		int min = Integer.MAX_VALUE;
-		int max = 0;
-		Map<Integer, Set<Clause>> clausesGroupedBySize = new HashMap<Integer, Set<Clause>>();
-		for (Clause c : clauses) {
-			int size = c.getNumberLiterals();
-			if (size < min) {
-				min = size;
-			}
-			if (size > max) {
-				max = size;
-			}
-			Set<Clause> cforsize = clausesGroupedBySize.get(size);
-			if (null == cforsize) {
-				cforsize = new HashSet<Clause>();
-				clausesGroupedBySize.put(size, cforsize);
-			}
-			cforsize.add(c);
+		// Index the clauses by their feature vectors, so that only
+		// clauses with compatible features are compared.
+		FeatureVectorIndex index = new FeatureVectorIndex();
+		List<Clause> sorted = new ArrayList<Clause>(clauses);
+		for (Clause c : sorted) {
+			index.add(c);
 		}
 		// Check if each smaller clause
 		// subsumes any of the larger clauses.
-		for (int i = min; i < max; i++) {
-			Set<Clause> scs = clausesGroupedBySize.get(i);
-			// Ensure there are clauses with this # of literals
-			if (null != scs) {
-				for (int j = i + 1; j <= max; j++) {
-					Set<Clause> lcs = clausesGroupedBySize.get(j);
-					// Ensure there are clauses with this # of literals
-					if (null != lcs) {
-						for (Clause sc : scs) {
-							// Don't bother checking clauses
-							// that are already subsumed.
-							if (!subsumed.contains(sc)) {
-								for (Clause lc : lcs) {
-									if (!subsumed.contains(lc)) {
-										if (sc.subsumes(lc)) {
-											subsumed.add(lc);
-										}
-									}
-								}
-							}
-						}
+		Collections.sort(sorted, new Comparator<Clause>() {
+			public int compare(Clause c1, Clause c2) {
+				return c1.getNumberLiterals() - c2.getNumberLiterals();
+			}
+		});
+		for (Clause sc : sorted) {
+			// Don't bother checking clauses
+			// that are already subsumed.
+			if (!subsumed.contains(sc)) {
+				// (subsumed clauses are removed from the index)
+				for (Clause lc : index.getSubsumedCandidates(sc)) {
+					if (sc.subsumes(lc)) {
+						subsumed.add(lc);
+						index.remove(lc);
 					}
 				}
 			}
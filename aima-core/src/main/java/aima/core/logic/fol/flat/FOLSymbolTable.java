@@ -0,0 +1,84 @@
+package aima.core.logic.fol.flat;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Interns the constant, function and predicate symbols of first-order terms
+ * and atomic sentences. Each combination of kind, name and arity gets a unique
+ * id (starting with 0), so flat terms compare symbols as integers instead of
+ * strings. Symbols are never removed. The table can be shared by several
+ * threads.
+ */
+public class FOLSymbolTable {
+
+	public enum Kind {
+		CONSTANT, FUNCTION, PREDICATE, EQUALITY
+	}
+
+	private final Map<String, Symbol[]> symbolsByName = new ConcurrentHashMap<String, Symbol[]>();
+	private volatile Symbol[] symbols = new Symbol[16];
+	private int size;
+
+	/** Returns the id of the symbol. Symbols which are not known yet are added. */
+	public int getId(Kind kind, String name, int arity) {
+		Symbol[] candidates = symbolsByName.get(name);
+		if (candidates != null)
+			for (Symbol symbol : candidates)
+				if (symbol.kind == kind && symbol.arity == arity)
+					return symbol.id;
+		return add(kind, name, arity);
+	}
+
+	public Kind getKind(int id) {
+		return symbols[id].kind;
+	}
+
+	public String getName(int id) {
+		return symbols[id].name;
+	}
+
+	public int getArity(int id) {
+		return symbols[id].arity;
+	}
+
+	/** Returns the number of symbols, which is also the smallest unused id. */
+	public synchronized int size() {
+		return size;
+	}
+
+	private synchronized int add(Kind kind, String name, int arity) {
+		Symbol[] candidates = symbolsByName.get(name);
+		if (candidates == null) {
+			candidates = new Symbol[0];
+		} else {
+			// another thread might have been faster
+			for (Symbol symbol : candidates)
+				if (symbol.kind == kind && symbol.arity == arity)
+					return symbol.id;
+		}
+		Symbol symbol = new Symbol(size, kind, name, arity);
+		if (size == symbols.length)
+			symbols = Arrays.copyOf(symbols, 2 * size);
+		symbols[size++] = symbol;
+		candidates = Arrays.copyOf(candidates, candidates.length + 1);
+		candidates[candidates.length - 1] = symbol;
+		symbolsByName.put(name, candidates);
+		return symbol.id;
+	}
+
+	private static class Symbol {
+		final int id;
+		final Kind kind;
+		final String name;
+		final int arity;
+
+		Symbol(int id, Kind kind, String name, int arity) {
+			this.id = id;
+			this.kind = kind;
+			this.name = name;
+			this.arity = arity;
+		}
+	}
+}
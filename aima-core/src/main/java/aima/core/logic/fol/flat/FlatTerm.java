@@ -0,0 +1,80 @@
+package aima.core.logic.fol.flat;
+
+import java.util.Arrays;
+
+/**
+ * Immutable first-order term or atomic sentence, stored as flat array of
+ * integer cells in preorder. A cell with value <code>c &gt;= 0</code> holds the
+ * id of a symbol (see {@link FOLSymbolTable}), its arguments follow directly.
+ * A cell with value <code>c &lt; 0</code> holds variable number
+ * <code>-c - 1</code>. Variables are numbered by the {@link FlatTermEncoder}
+ * which created the term. For each position, the end of the subterm starting
+ * there is stored too, so subterms can be skipped in constant time.
+ */
+public final class FlatTerm {
+	private final int[] cells;
+	private final int[] ends;
+	private final int hash;
+
+	/**
+	 * Creates a term from cells and subterm ends. The arrays are not copied.
+	 */
+	FlatTerm(int[] cells, int[] ends) {
+		this.cells = cells;
+		this.ends = ends;
+		hash = Arrays.hashCode(cells);
+	}
+
+	/** Returns the number of cells. */
+	public int size() {
+		return cells.length;
+	}
+
+	public int getCell(int pos) {
+		return cells[pos];
+	}
+
+	public boolean isVariable(int pos) {
+		return cells[pos] < 0;
+	}
+
+	/** Returns the number of the variable at the given position. */
+	public int getVariable(int pos) {
+		return -cells[pos] - 1;
+	}
+
+	/** Returns the id of the symbol at the given position. */
+	public int getSymbol(int pos) {
+		return cells[pos];
+	}
+
+	/** Returns the first position after the subterm which starts at pos. */
+	public int getEnd(int pos) {
+		return ends[pos];
+	}
+
+	/** Returns the cell value which represents the variable with the given number. */
+	public static int toCell(int variable) {
+		return -variable - 1;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o)
+			return true;
+		if (!(o instanceof FlatTerm))
+			return false;
+		FlatTerm other = (FlatTerm) o;
+		return hash == other.hash && Arrays.equals(cells, other.cells);
+	}
+
+	@Override
+	public int hashCode() {
+		return hash;
+	}
+
+	@Override
+	public String toString() {
+		return Arrays.toString(cells);
+	}
+}
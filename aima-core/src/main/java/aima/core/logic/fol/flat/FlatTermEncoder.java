@@ -0,0 +1,144 @@
+package aima.core.logic.fol.flat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import aima.core.logic.fol.parsing.ast.AtomicSentence;
+import aima.core.logic.fol.parsing.ast.Constant;
+import aima.core.logic.fol.parsing.ast.FOLNode;
+import aima.core.logic.fol.parsing.ast.Function;
+import aima.core.logic.fol.parsing.ast.Predicate;
+import aima.core.logic.fol.parsing.ast.Term;
+import aima.core.logic.fol.parsing.ast.TermEquality;
+import aima.core.logic.fol.parsing.ast.Variable;
+
+/**
+ * Converts terms and atomic sentences into {@link FlatTerm} objects and back.
+ * Symbols are interned in a (possibly shared) symbol table. Variables are
+ * numbered by the encoder, starting with 0, so all terms encoded by the same
+ * encoder agree on the numbers of their variables. Encoders are not
+ * thread-safe.
+ */
+public class FlatTermEncoder {
+	private final FOLSymbolTable symbols;
+	private final Map<Variable, Integer> variableNumbers = new HashMap<Variable, Integer>();
+	private final List<Variable> variables = new ArrayList<Variable>();
+	// buffers which are reused for encoding
+	private int[] cells = new int[32];
+	private int[] ends = new int[32];
+	private int size;
+
+	public FlatTermEncoder(FOLSymbolTable symbols) {
+		this.symbols = symbols;
+	}
+
+	public FOLSymbolTable getSymbolTable() {
+		return symbols;
+	}
+
+	/** Forgets the numbering of variables. */
+	public void clear() {
+		variableNumbers.clear();
+		variables.clear();
+	}
+
+	/** Returns the number of the variable. Variables which are not known yet are added. */
+	public int getVariableNumber(Variable variable) {
+		Integer result = variableNumbers.get(variable);
+		if (result == null) {
+			result = variables.size();
+			variableNumbers.put(variable, result);
+			variables.add(variable);
+		}
+		return result;
+	}
+
+	public Variable getVariable(int number) {
+		return variables.get(number);
+	}
+
+	public int getVariableCount() {
+		return variables.size();
+	}
+
+	/** Encodes a term or an atomic sentence. */
+	public FlatTerm encode(FOLNode node) {
+		size = 0;
+		add(node);
+		return new FlatTerm(Arrays.copyOf(cells, size), Arrays.copyOf(ends, size));
+	}
+
+	/** Decodes the subterm which starts at the given position. */
+	public Term decodeTerm(FlatTerm term, int pos) {
+		return (Term) decode(term, pos);
+	}
+
+	/** Decodes a term or an atomic sentence. */
+	public FOLNode decode(FlatTerm term) {
+		return decode(term, 0);
+	}
+
+	/**
+	 * Creates the node for a symbol with already decoded arguments. Used by
+	 * {@link #decode(FlatTerm)} and by clients which decode terms under a
+	 * substitution.
+	 */
+	public FOLNode newNode(int symbol, List<Term> args) {
+		switch (symbols.getKind(symbol)) {
+		case CONSTANT:
+			return new Constant(symbols.getName(symbol));
+		case FUNCTION:
+			return new Function(symbols.getName(symbol), args);
+		case PREDICATE:
+			return new Predicate(symbols.getName(symbol), args);
+		default:
+			return new TermEquality(args.get(0), args.get(1));
+		}
+	}
+
+	//
+	// PRIVATE METHODS
+	//
+
+	private FOLNode decode(FlatTerm term, int pos) {
+		if (term.isVariable(pos))
+			return getVariable(term.getVariable(pos));
+		List<Term> args = new ArrayList<Term>();
+		for (int arg = pos + 1; arg < term.getEnd(pos); arg = term.getEnd(arg))
+			args.add((Term) decode(term, arg));
+		return newNode(term.getSymbol(pos), args);
+	}
+
+	private void add(FOLNode node) {
+		int pos = size++;
+		if (pos == cells.length) {
+			cells = Arrays.copyOf(cells, 2 * pos);
+			ends = Arrays.copyOf(ends, 2 * pos);
+		}
+		if (node instanceof Variable) {
+			cells[pos] = FlatTerm.toCell(getVariableNumber((Variable) node));
+		} else {
+			List<? extends FOLNode> args = node.getArgs();
+			int arity = args != null ? args.size() : 0;
+			cells[pos] = symbols.getId(kindOf(node), node.getSymbolicName(), arity);
+			for (int i = 0; i < arity; i++)
+				add(args.get(i));
+		}
+		ends[pos] = size;
+	}
+
+	private static FOLSymbolTable.Kind kindOf(FOLNode node) {
+		if (node instanceof Constant)
+			return FOLSymbolTable.Kind.CONSTANT;
+		if (node instanceof Function)
+			return FOLSymbolTable.Kind.FUNCTION;
+		if (node instanceof TermEquality)
+			return FOLSymbolTable.Kind.EQUALITY;
+		if (node instanceof AtomicSentence)
+			return FOLSymbolTable.Kind.PREDICATE;
+		throw new IllegalArgumentException("Only terms and atomic sentences can be encoded: " + node);
+	}
+}
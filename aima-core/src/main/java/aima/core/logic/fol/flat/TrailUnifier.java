@@ -0,0 +1,237 @@
+package aima.core.logic.fol.flat;
+
+import java.util.Arrays;
+
+/**
+ * Unification of {@link FlatTerm} objects with a trail-based substitution.
+ * Bindings are triangular: a variable is bound to a position in a term, which
+ * may contain other bound variables, and bindings are dereferenced lazily
+ * when they are needed. Each binding is recorded on a trail, so
+ * that all bindings made after a {@link #mark()} can be taken back with
+ * {@link #undo(int)} in time proportional to their number. This is what
+ * backtracking search algorithms need, and no substitution object has to be
+ * copied or rebuilt when a variable is bound.
+ * <p>
+ * Example:
+ * <pre>
+ * int mark = unifier.mark();
+ * if (unifier.unify(goal, head)) {
+ *     ... // use the bindings
+ * }
+ * unifier.undo(mark);
+ * </pre>
+ * </p>
+ * Variable numbers refer to the encoder which created the terms. Unifiers are
+ * not thread-safe.
+ */
+public class TrailUnifier {
+	private FlatTerm[] bindingTerms = new FlatTerm[16];
+	private int[] bindingPositions = new int[16];
+	private int[] trail = new int[16];
+	private int trailSize;
+	private boolean occurCheck = true;
+	// pairs of subterms which still have to be unified
+	private FlatTerm[] stackTerms = new FlatTerm[32];
+	private int[] stackPositions = new int[32];
+	private int stackSize;
+	// buffers for resolve
+	private int[] cells = new int[32];
+	private int[] ends = new int[32];
+	private int size;
+
+	/**
+	 * Enables or disables the occur check (default: enabled). Without occur
+	 * check, unification is faster but may create cyclic bindings, as in
+	 * Prolog.
+	 */
+	public TrailUnifier setOccurCheck(boolean occurCheck) {
+		this.occurCheck = occurCheck;
+		return this;
+	}
+
+	/** Returns a mark which allows to undo all bindings made afterwards. */
+	public int mark() {
+		return trailSize;
+	}
+
+	/** Removes all bindings which have been made after the mark was obtained. */
+	public void undo(int mark) {
+		while (trailSize > mark)
+			bindingTerms[trail[--trailSize]] = null;
+	}
+
+	public boolean isBound(int variable) {
+		return variable < bindingTerms.length && bindingTerms[variable] != null;
+	}
+
+	/** Returns the term of the binding of a bound variable. */
+	public FlatTerm getBindingTerm(int variable) {
+		return bindingTerms[variable];
+	}
+
+	/** Returns the position within the binding term of a bound variable. */
+	public int getBindingPosition(int variable) {
+		return bindingPositions[variable];
+	}
+
+	/** Returns the number of bindings on the trail. */
+	public int getTrailSize() {
+		return trailSize;
+	}
+
+	/** Returns the variable of the i-th binding on the trail. */
+	public int getTrailVariable(int i) {
+		return trail[i];
+	}
+
+	/**
+	 * Binds an unbound variable to the subterm of the term which starts at the
+	 * given position without any checks.
+	 */
+	public void bind(int variable, FlatTerm term, int pos) {
+		if (variable >= bindingTerms.length) {
+			int length = Math.max(2 * bindingTerms.length, variable + 1);
+			bindingTerms = Arrays.copyOf(bindingTerms, length);
+			bindingPositions = Arrays.copyOf(bindingPositions, length);
+		}
+		if (trailSize == trail.length)
+			trail = Arrays.copyOf(trail, 2 * trailSize);
+		bindingTerms[variable] = term;
+		bindingPositions[variable] = pos;
+		trail[trailSize++] = variable;
+	}
+
+	/** Unifies two terms under the current bindings. */
+	public boolean unify(FlatTerm x, FlatTerm y) {
+		return unify(x, 0, y, 0);
+	}
+
+	/**
+	 * Unifies the subterms which start at the given positions under the current
+	 * bindings. If unification succeeds, the bindings are extended and true
+	 * is returned. Otherwise, the bindings remain unchanged.
+	 */
+	public boolean unify(FlatTerm x, int xPos, FlatTerm y, int yPos) {
+		int mark = mark();
+		stackSize = 0;
+		push(x, xPos, y, yPos);
+		while (stackSize > 0) {
+			stackSize -= 2;
+			x = stackTerms[stackSize];
+			xPos = stackPositions[stackSize];
+			y = stackTerms[stackSize + 1];
+			yPos = stackPositions[stackSize + 1];
+			// dereference
+			while (x.isVariable(xPos) && isBound(x.getVariable(xPos))) {
+				int var = x.getVariable(xPos);
+				x = bindingTerms[var];
+				xPos = bindingPositions[var];
+			}
+			while (y.isVariable(yPos) && isBound(y.getVariable(yPos))) {
+				int var = y.getVariable(yPos);
+				y = bindingTerms[var];
+				yPos = bindingPositions[var];
+			}
+			if (x == y && xPos == yPos)
+				continue;
+			if (x.isVariable(xPos)) {
+				int var = x.getVariable(xPos);
+				if (y.isVariable(yPos) && y.getVariable(yPos) == var)
+					continue;
+				if (occurCheck && occurs(var, y, yPos)) {
+					undo(mark);
+					return false;
+				}
+				bind(var, y, yPos);
+			} else if (y.isVariable(yPos)) {
+				int var = y.getVariable(yPos);
+				if (occurCheck && occurs(var, x, xPos)) {
+					undo(mark);
+					return false;
+				}
+				bind(var, x, xPos);
+			} else if (x.getSymbol(xPos) != y.getSymbol(yPos)) {
+				undo(mark);
+				return false;
+			} else {
+				// push argument pairs so that the first pair is on top
+				int start = stackSize;
+				int xArg = xPos + 1;
+				int yArg = yPos + 1;
+				while (xArg < x.getEnd(xPos)) {
+					push(x, xArg, y, yArg);
+					xArg = x.getEnd(xArg);
+					yArg = y.getEnd(yArg);
+				}
+				reversePairs(start, stackSize);
+			}
+		}
+		return true;
+	}
+
+	/** Returns true if the variable occurs in the subterm under the current bindings. */
+	public boolean occurs(int variable, FlatTerm term, int pos) {
+		for (int i = pos; i < term.getEnd(pos); i++) {
+			if (term.isVariable(i)) {
+				int var = term.getVariable(i);
+				if (var == variable)
+					return true;
+				if (isBound(var) && occurs(variable, bindingTerms[var], bindingPositions[var]))
+					return true;
+			}
+		}
+		return false;
+	}
+
+	/** Applies the current bindings to the subterm which starts at pos. */
+	public FlatTerm resolve(FlatTerm term, int pos) {
+		size = 0;
+		copyResolved(term, pos);
+		return new FlatTerm(Arrays.copyOf(cells, size), Arrays.copyOf(ends, size));
+	}
+
+	//
+	// PRIVATE METHODS
+	//
+
+	private void push(FlatTerm x, int xPos, FlatTerm y, int yPos) {
+		if (stackSize + 2 > stackTerms.length) {
+			stackTerms = Arrays.copyOf(stackTerms, 2 * stackTerms.length);
+			stackPositions = Arrays.copyOf(stackPositions, 2 * stackPositions.length);
+		}
+		stackTerms[stackSize] = x;
+		stackPositions[stackSize++] = xPos;
+		stackTerms[stackSize] = y;
+		stackPositions[stackSize++] = yPos;
+	}
+
+	private void reversePairs(int from, int to) {
+		for (int i = from, j = to - 2; i < j; i += 2, j -= 2) {
+			for (int k = 0; k < 2; k++) {
+				FlatTerm term = stackTerms[i + k];
+				stackTerms[i + k] = stackTerms[j + k];
+				stackTerms[j + k] = term;
+				int p = stackPositions[i + k];
+				stackPositions[i + k] = stackPositions[j + k];
+				stackPositions[j + k] = p;
+			}
+		}
+	}
+
+	private void copyResolved(FlatTerm term, int pos) {
+		while (term.isVariable(pos) && isBound(term.getVariable(pos))) {
+			int var = term.getVariable(pos);
+			term = bindingTerms[var];
+			pos = bindingPositions[var];
+		}
+		int start = size++;
+		if (start == cells.length) {
+			cells = Arrays.copyOf(cells, 2 * start);
+			ends = Arrays.copyOf(ends, 2 * start);
+		}
+		cells[start] = term.getCell(pos);
+		for (int arg = pos + 1; arg < term.getEnd(pos); arg = term.getEnd(arg))
+			copyResolved(term, arg);
+		ends[start] = size;
+	}
+}
@@ -2,7 +2,6 @@ package aima.core.logic.fol.inference;
 
 import java.util.*;
 
-import aima.core.logic.fol.Unifier;
 import aima.core.logic.fol.inference.proof.*;
 import aima.core.logic.fol.kb.FOLKnowledgeBase;
 import aima.core.logic.fol.kb.data.Clause;
@@ -12,6 +11,7 @@ import aima.core.logic.fol.parsing.ast.Sentence;
 import aima.core.logic.fol.parsing.ast.Term;
 import aima.core.logic.fol.parsing.ast.Variable;
 import aima.core.logic.propositional.kb.KnowledgeBase;
+import aima.core.util.SearchBudget;
 
 /**
  * Artificial Intelligence A Modern Approach (3rd Edition): Figure 9.6, page
@@ -39,6 +39,17 @@ import aima.core.logic.propositional.kb.KnowledgeBase;
  * </pre>
  *
  * Figure 9.6 A simple backward-chaining algorithm for first-order knowledge bases.
+ * <p>
+ * In tabling mode, the answers of each subgoal are stored in a table which is
+ * shared by all subgoals which are variants of each other (equal up to
+ * variable renaming). A subgoal whose table exists is answered from the table
+ * instead of being proved again. A recursive call of a subgoal which is still
+ * being evaluated consumes the answers found so far, and the first subgoal of
+ * such a cycle (the leader) re-evaluates its rules until no new answers are
+ * found. This terminates for left-recursive rules as long as the number of
+ * answers is finite. Complete tables are reused by later queries until clauses
+ * are added to the knowledge base.
+ * </p>
  *
  * @author samagra
  * @author Ritwik Sharma
@@ -51,10 +62,49 @@ public class FOLBCAsk implements InferenceProcedure{
 	List<HashMap<Variable,Term>> finalList;
 	BCASKHandler bcaskHandler = new BCASKHandler();
 	public boolean maybeFalse = false;
+	private SearchBudget budget;
+	private SearchBudget currBudget;
+	private boolean timedOut;
+	// Answer tables by variant of the subgoal, valid for one state of a
+	// knowledge base
+	private boolean tabling;
+	private final Map<AtomicSentence, Table> tables = new HashMap<>();
+	private FOLKnowledgeBase tabledKB;
+	private int tabledKBModificationCount;
+	// The tables being evaluated and the incomplete tables in the order of
+	// their first evaluation
+	private final List<Table> evaluationStack = new ArrayList<>();
+	private final List<Table> incompleteTables = new ArrayList<>();
+	private int numberOfAnswers;
 
 	public FOLBCAsk() {
+		this(false);
+	}
+
+	public FOLBCAsk(boolean tabling) {
 		finalAnswer = new ArrayList<>();
 		substitutedLiterals = new ArrayList<>();
+		this.tabling = tabling;
+	}
+
+	public boolean isTabling() {
+		return tabling;
+	}
+
+	/** Enables or disables tabling of subgoal answers (default: disabled). */
+	public void setTabling(boolean tabling) {
+		this.tabling = tabling;
+		clearTables();
+	}
+
+	/**
+	 * Sets a budget which limits subsequent queries. Each OR node counts as
+	 * one node. When the budget is exhausted, the substitutions found so far
+	 * are returned and the result indicates a timeout.
+	 */
+	@Override
+	public void setBudget(SearchBudget budget) {
+		this.budget = budget;
 	}
 
 	public List<Literal> getSubstitutedLiterals() {
@@ -89,7 +139,11 @@ public class FOLBCAsk implements InferenceProcedure{
 	 * 		a list of substitutions
 	 */
 	private List<HashMap<Variable, Term>> folBcOr(FOLKnowledgeBase kb, Literal goal, HashMap<Variable, Term> theta) {
+		if (tabling)
+			return tabledBcOr(kb, goal, theta);
 		List<HashMap<Variable,Term>> result = new ArrayList<>();
+		if (currBudget.spend())
+			return result;
 		finalAnswer.add(new ArrayList<>(Collections.singletonList(goal)));
 		HashMap<Variable,Term> temp;
 		if (fetchRulesForGoal(kb,goal).isEmpty())
@@ -108,11 +162,111 @@ public class FOLBCAsk implements InferenceProcedure{
 			}
 			//for each θ' in FOL-BC-AND(KB, lhs, UNIFY(rhs, goal, θ)) do
 			// yield θ'
-			result.addAll(folBcAnd(kb, lhs, new Unifier().unify(rhs.getAtomicSentence(), goal.getAtomicSentence(), temp)));
+			result.addAll(folBcAnd(kb, lhs, kb.unify(rhs.getAtomicSentence(), goal.getAtomicSentence(), temp)));
 		}
 		return result;
 	}
 
+	/**
+	 * FOL-BC-OR in tabling mode: the substitutions are obtained by unifying
+	 * the goal with the answers of its table.
+	 */
+	private List<HashMap<Variable, Term>> tabledBcOr(FOLKnowledgeBase kb, Literal goal, HashMap<Variable, Term> theta) {
+		List<HashMap<Variable,Term>> result = new ArrayList<>();
+		if (currBudget.spend())
+			return result;
+		finalAnswer.add(new ArrayList<>(Collections.singletonList(goal)));
+		AtomicSentence key = getVariantKey(kb, goal.getAtomicSentence());
+		Table table = tables.get(key);
+		if (table == null) {
+			table = new Table(goal);
+			tables.put(key, table);
+		}
+		if (!table.complete) {
+			if (table.depth < 0)
+				evaluate(kb, table);
+			// a recursive call only consumes the answers found so far
+			if (!table.complete) {
+				Table caller = evaluationStack.get(evaluationStack.size() - 1);
+				caller.low = Math.min(caller.low, table.depth >= 0 ? table.depth : table.low);
+			}
+		}
+		// answers can be added while the caller consumes them
+		for (AtomicSentence answer : new ArrayList<>(table.answers)) {
+			Sentence renamed = kb.collectAllVariables(answer).isEmpty() ? answer : kb.standardizeApart(answer);
+			Map<Variable, Term> thetaPrime = kb.unify(renamed, goal.getAtomicSentence(), new HashMap<>(theta));
+			if (thetaPrime != null)
+				result.add((HashMap<Variable, Term>) thetaPrime);
+		}
+		return result;
+	}
+
+	/**
+	 * Adds the answers of the goal which can be derived with its rules to the
+	 * table. If the table does not depend on tables of subgoals which are
+	 * still evaluated, the rules are applied until no new answers are found in
+	 * any table, and the table is completed together with all incomplete
+	 * tables evaluated after it.
+	 */
+	private void evaluate(FOLKnowledgeBase kb, Table table) {
+		table.depth = evaluationStack.size();
+		table.low = Math.min(table.low, table.depth);
+		evaluationStack.add(table);
+		if (!table.listed) {
+			incompleteTables.add(table);
+			table.listed = true;
+		}
+		AtomicSentence goal = table.goal.getAtomicSentence();
+		int oldNumberOfAnswers;
+		do {
+			oldNumberOfAnswers = numberOfAnswers;
+			List<Clause> rules = fetchRulesForGoal(kb, table.goal);
+			if (rules.isEmpty())
+				maybeFalse = true;
+			for (Clause rule : rules) {
+				Clause tempClause = kb.standardizeApart(rule);
+				Literal rhs = tempClause.getPositiveLiterals().get(0);
+				List<Literal> lhs = new ArrayList<>();
+				for (Literal literal : tempClause.getNegativeLiterals())
+					lhs.add(new Literal(literal.getAtomicSentence(), !literal.isNegativeLiteral()));
+				for (HashMap<Variable, Term> thetaPrime : folBcAnd(kb, lhs,
+						kb.unify(rhs.getAtomicSentence(), goal, new HashMap<>()))) {
+					AtomicSentence answer = (AtomicSentence) kb.subst(thetaPrime, goal);
+					if (table.answerKeys.add(getVariantKey(kb, answer))) {
+						table.answers.add(answer);
+						numberOfAnswers++;
+					}
+				}
+			}
+		} while (numberOfAnswers != oldNumberOfAnswers && table.low == table.depth);
+		evaluationStack.remove(evaluationStack.size() - 1);
+		if (table.low == table.depth) {
+			Table t;
+			do {
+				t = incompleteTables.remove(incompleteTables.size() - 1);
+				t.listed = false;
+				t.complete = true;
+			} while (t != table);
+		}
+		table.depth = -1;
+	}
+
+	// Renames the variables in the order of their occurrence, so that variants
+	// get equal keys.
+	private AtomicSentence getVariantKey(FOLKnowledgeBase kb, AtomicSentence atom) {
+		Map<Variable, Term> renaming = new HashMap<>();
+		for (Variable var : kb.collectAllVariables(atom))
+			renaming.put(var, new Variable("_" + renaming.size()));
+		return renaming.isEmpty() ? atom : (AtomicSentence) kb.subst(renaming, atom);
+	}
+
+	private void clearTables() {
+		tables.clear();
+		evaluationStack.clear();
+		incompleteTables.clear();
+		tabledKB = null;
+	}
+
 	/**
 	 * generator FOL-BC-AND(KB, goals, θ) yields a substitution
 	 * @param kb
@@ -190,8 +344,19 @@ public class FOLBCAsk implements InferenceProcedure{
 	@Override
 	public InferenceResult ask(FOLKnowledgeBase kb, Sentence query) {
 		Literal l = new Literal(((AtomicSentence) query));
+		bcaskHandler = new BCASKHandler();
+		currBudget = budget != null ? budget : new SearchBudget();
+		if (tabling && (kb != tabledKB || kb.getModificationCount() != tabledKBModificationCount)) {
+			clearTables();
+			tabledKB = kb;
+			tabledKBModificationCount = kb.getModificationCount();
+		}
 		List<HashMap<Variable, Term>> substitutes = this.folBcAsk(kb, l);
 		this.finalList = substitutes;
+		timedOut = currBudget.getStatus() != SearchBudget.Status.WITHIN_BUDGET;
+		if (timedOut)
+			// tables of interrupted evaluations lack answers
+			clearTables();
 		if (l.getAtomicSentence().getArgs().get(0) instanceof Variable) {
 			Variable x = (Variable) l.getAtomicSentence().getArgs().get(0);
 			for (HashMap<Variable, Term> subs :
@@ -209,6 +374,24 @@ public class FOLBCAsk implements InferenceProcedure{
 		return this.bcaskHandler;
 	}
 
+	/** The answers of a subgoal and its variants. */
+	private static class Table {
+		final Literal goal;
+		final List<AtomicSentence> answers = new ArrayList<>();
+		final Set<AtomicSentence> answerKeys = new HashSet<>();
+		boolean complete;
+		// contained in the list of incomplete tables
+		boolean listed;
+		// position on the evaluation stack (-1 if not being evaluated) and the
+		// lowest position of an incomplete table it depends on
+		int depth = -1;
+		int low = Integer.MAX_VALUE;
+
+		Table(Literal goal) {
+			this.goal = goal;
+		}
+	}
+
 	class BCASKHandler implements InferenceResult{
 
 		private ProofStep stepFinal = null;
@@ -219,7 +402,7 @@ public class FOLBCAsk implements InferenceProcedure{
 		}
 		@Override
 		public boolean isPossiblyFalse() {
-			return finalList.isEmpty();
+			return !timedOut && finalList.isEmpty();
 		}
 
 		@Override
@@ -229,12 +412,12 @@ public class FOLBCAsk implements InferenceProcedure{
 
 		@Override
 		public boolean isUnknownDueToTimeout() {
-			return false;
+			return timedOut && finalList.isEmpty();
 		}
 
 		@Override
 		public boolean isPartialResultDueToTimeout() {
-			return false;
+			return timedOut && !finalList.isEmpty();
 		}
 
 		@Override
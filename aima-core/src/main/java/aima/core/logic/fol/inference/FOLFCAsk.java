@@ -18,6 +18,7 @@ import aima.core.logic.fol.parsing.ast.NotSentence;
 import aima.core.logic.fol.parsing.ast.Sentence;
 import aima.core.logic.fol.parsing.ast.Term;
 import aima.core.logic.fol.parsing.ast.Variable;
+import aima.core.util.SearchBudget;
 
 /**
  * Artificial Intelligence A Modern Approach (3rd Edition): Figure 9.3, page
@@ -57,9 +58,22 @@ import aima.core.logic.fol.parsing.ast.Variable;
  */
 public class FOLFCAsk implements InferenceProcedure {
 
+	private SearchBudget budget;
+
 	public FOLFCAsk() {
 	}
 
+	/**
+	 * Sets a budget which limits subsequent queries. Each rule application
+	 * counts as one node. When the budget is exhausted, forward chaining stops
+	 * without adding the facts of the current iteration to the knowledge base
+	 * and the result indicates a timeout.
+	 */
+	@Override
+	public void setBudget(SearchBudget budget) {
+		this.budget = budget;
+	}
+
 	//
 	// START-InferenceProcedure
 
@@ -82,6 +96,7 @@ public class FOLFCAsk implements InferenceProcedure {
 		}
 
 		FCAskAnswerHandler ansHandler = new FCAskAnswerHandler();
+		SearchBudget currBudget = budget != null ? budget : new SearchBudget();
 
 		Literal alpha = new Literal((AtomicSentence) query);
 
@@ -105,6 +120,10 @@ public class FOLFCAsk implements InferenceProcedure {
 			// for each rule in KB do
 			// (p1 ^ ... ^ pn => q) <-STANDARDIZE-VARIABLES(rule)
 			for (Clause impl : KB.getAllDefiniteClauseImplications()) {
+				if (currBudget.spend()) {
+					ansHandler.timedOut = true;
+					return ansHandler;
+				}
 				impl = KB.standardizeApart(impl);
 				// for each theta such that SUBST(theta, p1 ^ ... ^ pn) =
 				// SUBST(theta, p'1 ^ ... ^ p'n)
@@ -176,6 +195,7 @@ public class FOLFCAsk implements InferenceProcedure {
 
 		private ProofStep stepFinal = null;
 		private List<Proof> proofs = new ArrayList<Proof>();
+		private boolean timedOut = false;
 
 		public FCAskAnswerHandler() {
 
@@ -184,7 +204,7 @@ public class FOLFCAsk implements InferenceProcedure {
 		//
 		// START-InferenceResult
 		public boolean isPossiblyFalse() {
-			return proofs.size() == 0;
+			return !timedOut && proofs.size() == 0;
 		}
 
 		public boolean isTrue() {
@@ -192,11 +212,11 @@ public class FOLFCAsk implements InferenceProcedure {
 		}
 
 		public boolean isUnknownDueToTimeout() {
-			return false;
+			return timedOut && proofs.size() == 0;
 		}
 
 		public boolean isPartialResultDueToTimeout() {
-			return false;
+			return timedOut && proofs.size() > 0;
 		}
 
 		public List<Proof> getProofs() {
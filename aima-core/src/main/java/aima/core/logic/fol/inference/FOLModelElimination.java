@@ -32,6 +32,7 @@ import aima.core.logic.fol.parsing.ast.NotSentence;
 import aima.core.logic.fol.parsing.ast.Sentence;
 import aima.core.logic.fol.parsing.ast.Term;
 import aima.core.logic.fol.parsing.ast.Variable;
+import aima.core.util.SearchBudget;
 
 /**
  * Based on lecture notes from:<br>
@@ -46,6 +47,7 @@ public class FOLModelElimination implements InferenceProcedure {
 
 	// Ten seconds is default maximum query time permitted
 	private long maxQueryTime = 10 * 1000;
+	private SearchBudget budget;
 	//
 	private FOLModelEliminationTracer tracer = null;
 	//
@@ -78,6 +80,16 @@ public class FOLModelElimination implements InferenceProcedure {
 		this.maxQueryTime = maxQueryTime;
 	}
 
+	/**
+	 * Sets a budget which limits subsequent queries in addition to the
+	 * maximal query time. Each answer test counts as one node. When the budget
+	 * is exhausted, the result indicates a timeout.
+	 */
+	@Override
+	public void setBudget(SearchBudget budget) {
+		this.budget = budget;
+	}
+
 	//
 	// START-InferenceProcedure
 
@@ -270,6 +282,7 @@ public class FOLModelElimination implements InferenceProcedure {
 		private int maxDepthReached = 0;
 		private List<Proof> proofs = new ArrayList<Proof>();
 		private boolean timedOut = false;
+		private final SearchBudget currBudget = budget != null ? budget : new SearchBudget();
 
 		public AnswerHandler(FOLKnowledgeBase kb, Sentence query,
 				long maxQueryTime) {
@@ -399,7 +412,7 @@ public class FOLModelElimination implements InferenceProcedure {
 				}
 			}
 
-			if (System.currentTimeMillis() > finishTime) {
+			if (System.currentTimeMillis() > finishTime || currBudget.spend()) {
 				complete = true;
 				// Indicate that I have run out of query time
 				timedOut = true;
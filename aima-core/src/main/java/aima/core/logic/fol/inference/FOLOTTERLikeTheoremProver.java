@@ -1,15 +1,21 @@
 package aima.core.logic.fol.inference;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
 
 import aima.core.logic.fol.Connectors;
+import aima.core.logic.fol.DiscriminationTree;
+import aima.core.logic.fol.FeatureVectorIndex;
 import aima.core.logic.fol.SubsumptionElimination;
+import aima.core.logic.fol.Unifier;
 import aima.core.logic.fol.inference.otter.ClauseFilter;
 import aima.core.logic.fol.inference.otter.ClauseSimplifier;
 import aima.core.logic.fol.inference.otter.LightestClauseHeuristic;
@@ -28,6 +34,7 @@ import aima.core.logic.fol.parsing.ast.Sentence;
 import aima.core.logic.fol.parsing.ast.Term;
 import aima.core.logic.fol.parsing.ast.TermEquality;
 import aima.core.logic.fol.parsing.ast.Variable;
+import aima.core.util.SearchBudget;
 
 /**
  * Artificial Intelligence A Modern Approach (2nd Edition): Figure 9.14, page
@@ -88,12 +95,18 @@ public class FOLOTTERLikeTheoremProver implements InferenceProcedure {
 	//
 	// Ten seconds is default maximum query time permitted
 	private long maxQueryTime = 10 * 1000;
+	private SearchBudget budget;
 	private boolean useParamodulation = true;
 	private LightestClauseHeuristic lightestClauseHeuristic = new DefaultLightestClauseHeuristic();
 	private ClauseFilter clauseFilter = new DefaultClauseFilter();
 	private ClauseSimplifier clauseSimplifier = new DefaultClauseSimplifier();
+	private Unifier unifier = new Unifier();
+	private boolean parallelInference = false;
+	private ForkJoinPool pool = ForkJoinPool.commonPool();
 	//
 	private Paramodulation paramodulation = new Paramodulation();
+	// Minimal number of usable clauses for parallel inference
+	private static final int MIN_PARALLEL_CANDIDATES = 16;
 
 	public FOLOTTERLikeTheoremProver() {
 
@@ -121,6 +134,16 @@ public class FOLOTTERLikeTheoremProver implements InferenceProcedure {
 		this.maxQueryTime = maxQueryTime;
 	}
 
+	/**
+	 * Sets a budget which limits subsequent queries in addition to the
+	 * maximal query time. Each answer test counts as one node. When the budget
+	 * is exhausted, the result indicates a timeout.
+	 */
+	@Override
+	public void setBudget(SearchBudget budget) {
+		this.budget = budget;
+	}
+
 	public boolean isUseParamodulation() {
 		return useParamodulation;
 	}
@@ -154,6 +177,38 @@ public class FOLOTTERLikeTheoremProver implements InferenceProcedure {
 		this.clauseSimplifier = clauseSimplifier;
 	}
 
+	public Unifier getUnifier() {
+		return unifier;
+	}
+
+	/**
+	 * Sets the unifier which is used for binary resolution, e.g. an
+	 * {@link aima.core.logic.fol.InternedUnifier}.
+	 */
+	public void setUnifier(Unifier unifier) {
+		this.unifier = unifier;
+	}
+
+	public boolean isParallelInference() {
+		return parallelInference;
+	}
+
+	/**
+	 * Enables or disables parallel inference (default: disabled). If enabled,
+	 * the selected clause is resolved and paramodulated with the members of
+	 * usable in parallel. The resulting clauses are the same as those of
+	 * sequential inference and are processed in the same order, so the
+	 * proofs only differ in the names of variables.
+	 */
+	public void setParallelInference(boolean parallelInference) {
+		this.parallelInference = parallelInference;
+	}
+
+	/** Sets the pool which executes parallel inference (default: common pool). */
+	public void setPool(ForkJoinPool pool) {
+		this.pool = pool;
+	}
+
 	//
 	// START-InferenceProcedure
 	public InferenceResult ask(FOLKnowledgeBase KB, Sentence alpha) {
@@ -246,9 +301,14 @@ public class FOLOTTERLikeTheoremProver implements InferenceProcedure {
 				sos.remove(clause);
 				getLightestClauseHeuristic().removedClauseFromSOS(clause);
 				usable.add(clause);
+				idxdClauses.addedClauseToUsable(clause);
 				// * PROCESS(INFER(clause, usable), sos)
-				process(ansHandler, idxdClauses, infer(clause, usable), sos,
-						usable);
+				// (Optimization: only the members of usable which can be
+				// resolved or paramodulated with clause are retrieved from
+				// the index)
+				process(ansHandler, idxdClauses, infer(clause,
+						idxdClauses.getInferenceCandidates(clause, usable)),
+						sos, usable);
 			}
 
 			// * until sos = [] or a refutation has been found
@@ -261,22 +321,23 @@ public class FOLOTTERLikeTheoremProver implements InferenceProcedure {
 	 * <pre>
 	 * function INFER(clause, usable) returns clauses
 	 */
-	private Set<Clause> infer(Clause clause, Set<Clause> usable) {
+	private Set<Clause> infer(Clause clause, Collection<Clause> usable) {
 		Set<Clause> resultingClauses = new LinkedHashSet<Clause>();
 
 		// * resolve clause with each member of usable
-		for (Clause c : usable) {
-			Set<Clause> resolvents = clause.binaryResolvents(c);
-			for (Clause rc : resolvents) {
-				resultingClauses.add(rc);
+		if (parallelInference && usable.size() >= MIN_PARALLEL_CANDIDATES) {
+			// (the list keeps the order of the sequential loop)
+			List<Clause> candidates = new ArrayList<Clause>(usable);
+			List<Set<Clause>> inferred = pool.submit(
+					() -> candidates.parallelStream()
+							.map(c -> resolveAndParamodulate(clause, c))
+							.collect(Collectors.toList())).join();
+			for (Set<Clause> ic : inferred) {
+				resultingClauses.addAll(ic);
 			}
-
-			// if using paramodulation to handle equality
-			if (isUseParamodulation()) {
-				Set<Clause> paras = paramodulation.apply(clause, c, true);
-				for (Clause p : paras) {
-					resultingClauses.add(p);
-				}
+		} else {
+			for (Clause c : usable) {
+				resultingClauses.addAll(resolveAndParamodulate(clause, c));
 			}
 		}
 
@@ -284,6 +345,24 @@ public class FOLOTTERLikeTheoremProver implements InferenceProcedure {
 		return getClauseFilter().filter(resultingClauses);
 	}
 
+	// Resolves and paramodulates clause with one member of usable.
+	private Set<Clause> resolveAndParamodulate(Clause clause, Clause c) {
+		Set<Clause> resultingClauses = new LinkedHashSet<Clause>();
+		Set<Clause> resolvents = clause.binaryResolvents(c, unifier);
+		for (Clause rc : resolvents) {
+			resultingClauses.add(rc);
+		}
+
+		// if using paramodulation to handle equality
+		if (isUseParamodulation()) {
+			Set<Clause> paras = paramodulation.apply(clause, c, true);
+			for (Clause p : paras) {
+				resultingClauses.add(p);
+			}
+		}
+		return resultingClauses;
+	}
+
 	// procedure PROCESS(clauses, sos)
 	private void process(OTTERAnswerHandler ansHandler,
 			IndexedClauses idxdClauses, Set<Clause> clauses, Set<Clause> sos,
@@ -382,15 +461,18 @@ public class FOLOTTERLikeTheoremProver implements InferenceProcedure {
 		}
 	}
 
-	// This is a simple indexing on the clauses to support
+	// This is an indexing on the clauses to support
 	// more efficient forward and backward subsumption testing.
 	class IndexedClauses {
 		private LightestClauseHeuristic lightestClauseHeuristic = null;
-		// Group the clauses by their # of literals.
-		private Map<Integer, Set<Clause>> clausesGroupedBySize = new HashMap<Integer, Set<Clause>>();
-		// Keep track of the min and max # of literals.
-		private int minNoLiterals = Integer.MAX_VALUE;
-		private int maxNoLiterals = 0;
+		// Index the clauses by their feature vectors.
+		private FeatureVectorIndex subsumptionIndex = new FeatureVectorIndex();
+		// Index the literals of the usable clauses by polarity, so that
+		// resolution candidates can be found without scanning usable.
+		private DiscriminationTree<Clause> usablePositiveLiterals = new DiscriminationTree<Clause>();
+		private DiscriminationTree<Clause> usableNegativeLiterals = new DiscriminationTree<Clause>();
+		// Usable clauses which contain a positive equality literal.
+		private Set<Clause> usableWithEquality = new LinkedHashSet<Clause>();
 
 		public IndexedClauses(LightestClauseHeuristic lightestClauseHeuristic,
 				Set<Clause> sos, Set<Clause> usable) {
@@ -400,23 +482,48 @@ public class FOLOTTERLikeTheoremProver implements InferenceProcedure {
 			}
 			for (Clause c : usable) {
 				indexClause(c);
+				addedClauseToUsable(c);
+			}
+		}
+
+		public void addedClauseToUsable(Clause c) {
+			for (Literal l : c.getLiterals()) {
+				(l.isPositiveLiteral() ? usablePositiveLiterals
+						: usableNegativeLiterals).add(l.getAtomicSentence(), c);
+			}
+			if (hasPositiveEquality(c)) {
+				usableWithEquality.add(c);
 			}
 		}
 
+		/**
+		 * Returns the members of usable which can possibly be resolved or
+		 * paramodulated with the given clause.
+		 */
+		public Collection<Clause> getInferenceCandidates(Clause c,
+				Set<Clause> usable) {
+			if (isUseParamodulation() && hasPositiveEquality(c)) {
+				// c can rewrite terms of any usable clause
+				return usable;
+			}
+			Set<Clause> candidates = new LinkedHashSet<Clause>();
+			for (Literal l : c.getLiterals()) {
+				candidates.addAll((l.isPositiveLiteral() ? usableNegativeLiterals
+						: usablePositiveLiterals).getUnifiable(l
+						.getAtomicSentence()));
+			}
+			if (isUseParamodulation()) {
+				candidates.addAll(usableWithEquality);
+			}
+			return candidates;
+		}
+
 		public void addClause(Clause c, Set<Clause> sos, Set<Clause> usable) {
 			// Perform forward subsumption elimination
 			boolean addToSOS = true;
-			for (int i = minNoLiterals; i < c.getNumberLiterals(); i++) {
-				Set<Clause> fs = clausesGroupedBySize.get(i);
-				if (null != fs) {
-					for (Clause s : fs) {
-						if (s.subsumes(c)) {
-							addToSOS = false;
-							break;
-						}
-					}
-				}
-				if (!addToSOS) {
+			for (Clause s : subsumptionIndex.getSubsumingCandidates(c)) {
+				if (s.subsumes(c)) {
+					addToSOS = false;
 					break;
 				}
 			}
@@ -427,23 +534,16 @@ public class FOLOTTERLikeTheoremProver implements InferenceProcedure {
 				indexClause(c);
 				// Have added clause, therefore
 				// perform backward subsumption elimination
-				Set<Clause> subsumed = new HashSet<Clause>();
-				for (int i = c.getNumberLiterals() + 1; i <= maxNoLiterals; i++) {
-					subsumed.clear();
-					Set<Clause> bs = clausesGroupedBySize.get(i);
-					if (null != bs) {
-						for (Clause s : bs) {
-							if (c.subsumes(s)) {
-								subsumed.add(s);
-								if (sos.contains(s)) {
-									sos.remove(s);
-									lightestClauseHeuristic
-											.removedClauseFromSOS(s);
-								}
-								usable.remove(s);
-							}
+				for (Clause s : subsumptionIndex.getSubsumedCandidates(c)) {
+					if (c.subsumes(s)) {
+						subsumptionIndex.remove(s);
+						if (sos.contains(s)) {
+							sos.remove(s);
+							lightestClauseHeuristic.removedClauseFromSOS(s);
+						}
+						if (usable.remove(s)) {
+							removedClauseFromUsable(s);
 						}
-						bs.removeAll(subsumed);
 					}
 				}
 			}
@@ -452,20 +552,26 @@ public class FOLOTTERLikeTheoremProver implements InferenceProcedure {
 		//
 		// PRIVATE METHODS
 		//
-		private void indexClause(Clause c) {
-			int size = c.getNumberLiterals();
-			if (size < minNoLiterals) {
-				minNoLiterals = size;
-			}
-			if (size > maxNoLiterals) {
-				maxNoLiterals = size;
+		private void removedClauseFromUsable(Clause c) {
+			for (Literal l : c.getLiterals()) {
+				(l.isPositiveLiteral() ? usablePositiveLiterals
+						: usableNegativeLiterals).remove(l.getAtomicSentence(),
+						c);
 			}
-			Set<Clause> cforsize = clausesGroupedBySize.get(size);
-			if (null == cforsize) {
-				cforsize = new HashSet<Clause>();
-				clausesGroupedBySize.put(size, cforsize);
+			usableWithEquality.remove(c);
+		}
+
+		private boolean hasPositiveEquality(Clause c) {
+			for (Literal l : c.getPositiveLiterals()) {
+				if (l.getAtomicSentence() instanceof TermEquality) {
+					return true;
+				}
 			}
-			cforsize.add(c);
+			return false;
+		}
+
+		private void indexClause(Clause c) {
+			subsumptionIndex.add(c);
 		}
 	}
 
@@ -477,6 +583,7 @@ public class FOLOTTERLikeTheoremProver implements InferenceProcedure {
 		private boolean complete = false;
 		private List<Proof> proofs = new ArrayList<Proof>();
 		private boolean timedOut = false;
+		private final SearchBudget currBudget = budget != null ? budget : new SearchBudget();
 
 		public OTTERAnswerHandler(Literal answerLiteral,
 				Set<Variable> answerLiteralVariables, Clause answerClause,
@@ -593,7 +700,7 @@ public class FOLOTTERLikeTheoremProver implements InferenceProcedure {
 				}
 			}
 
-			if (System.currentTimeMillis() > finishTime) {
+			if (System.currentTimeMillis() > finishTime || currBudget.spend()) {
 				complete = true;
 				// Indicate that I have run out of query time
 				timedOut = true;
@@ -0,0 +1,508 @@
+package aima.core.logic.fol.inference;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+
+import aima.core.logic.fol.inference.proof.Proof;
+import aima.core.logic.fol.inference.proof.ProofFinal;
+import aima.core.logic.fol.inference.proof.ProofStep;
+import aima.core.logic.fol.inference.proof.ProofStepFoChAlreadyAFact;
+import aima.core.logic.fol.inference.proof.ProofStepFoChAssertFact;
+import aima.core.logic.fol.kb.FOLKnowledgeBase;
+import aima.core.logic.fol.kb.data.Clause;
+import aima.core.logic.fol.kb.data.Literal;
+import aima.core.logic.fol.parsing.ast.AtomicSentence;
+import aima.core.logic.fol.parsing.ast.Function;
+import aima.core.logic.fol.parsing.ast.Sentence;
+import aima.core.logic.fol.parsing.ast.Term;
+import aima.core.logic.fol.parsing.ast.Variable;
+import aima.core.util.SearchBudget;
+
+/**
+ * Incremental forward chaining for knowledge bases of first-order definite
+ * clauses, based on semi-naive evaluation. In contrast to {@link FOLFCAsk},
+ * which matches all rules against all facts in each iteration, rules are only
+ * matched against facts which are new. New facts are processed one by one in
+ * the order of their derivation (agenda). A processed fact is unified with
+ * each rule premise it matches, and the remaining premises are joined with the
+ * facts which have been processed before. Premises after the matched one may
+ * also be matched by the fact itself, premises before it may not. So each
+ * combination of premise facts is joined only once. The facts of each
+ * predicate are stored in hash indices on their ground arguments, which are
+ * used to look up the facts matching the arguments that are bound by shared
+ * variables.
+ * <p>
+ * The derived facts are not told to the knowledge base. They are kept by the
+ * inference procedure together with the agenda and are kept up to date when
+ * facts and rules are added to the knowledge base later on: the next query
+ * only processes the new clauses. New facts of the knowledge base are always
+ * processed. Afterwards, forward chaining stops as soon as a known fact
+ * answers the query, and later queries continue with the remaining agenda. So
+ * knowledge bases with infinite closures can be queried as well.
+ * </p>
+ * <p>
+ * Proofs are built from the same proof steps as those of {@link FOLFCAsk}.
+ * The predecessors of an asserted fact are the steps which asserted the facts
+ * matching the premises of the rule.
+ * </p>
+ */
+public class FOLSemiNaiveFCAsk implements InferenceProcedure {
+
+	private SearchBudget budget;
+	// The knowledge base whose closure is maintained and the number of its
+	// definite clauses which have been added to the closure
+	private FOLKnowledgeBase kb;
+	private Clause lastProcessedClause;
+	private int noProcessedClauses;
+	// The facts (known or derived) by predicate and the rule premises by
+	// predicate
+	private final Map<String, Relation> relations = new HashMap<String, Relation>();
+	private final Map<String, List<Premise>> premises = new HashMap<String, List<Premise>>();
+	// Known facts which have not been joined with the rules yet, separated
+	// into facts of the knowledge base and derived facts
+	private final Queue<Fact> toldFacts = new ArrayDeque<Fact>();
+	private final Queue<Fact> agenda = new ArrayDeque<Fact>();
+	// Query of the current ask call
+	private Literal query;
+	private boolean queryAnswered;
+
+	public FOLSemiNaiveFCAsk() {
+	}
+
+	/**
+	 * Sets a budget which limits subsequent queries. Each processed fact
+	 * counts as one node. When the budget is exhausted, forward chaining stops
+	 * and the result indicates a timeout. The unprocessed facts are kept for
+	 * later queries.
+	 */
+	@Override
+	public void setBudget(SearchBudget budget) {
+		this.budget = budget;
+	}
+
+	/** Forgets all derived facts. */
+	public void clear() {
+		kb = null;
+		lastProcessedClause = null;
+		noProcessedClauses = 0;
+		relations.clear();
+		premises.clear();
+		toldFacts.clear();
+		agenda.clear();
+	}
+
+	/** Returns the number of facts which are known, including derived facts. */
+	public int getNumberKnownFacts() {
+		int result = 0;
+		for (Relation r : relations.values()) {
+			result += r.known.size();
+		}
+		return result;
+	}
+
+	//
+	// START-InferenceProcedure
+
+	/**
+	 * Returns the answers of the query which can be derived by forward
+	 * chaining.
+	 *
+	 * @param KB
+	 *            the knowledge base, a set of first order definite clauses
+	 * @param aQuery
+	 *            the query, an atomic sentence
+	 *
+	 * @return the result of the query.
+	 */
+	public InferenceResult ask(FOLKnowledgeBase KB, Sentence aQuery) {
+		// Assertions on the type of queries this Inference procedure
+		// supports
+		if (!(aQuery instanceof AtomicSentence)) {
+			throw new IllegalArgumentException(
+					"Only Atomic Queries are supported.");
+		}
+
+		FCAskAnswerHandler ansHandler = new FCAskAnswerHandler();
+		SearchBudget currBudget = budget != null ? budget : new SearchBudget();
+
+		Literal alpha = new Literal((AtomicSentence) aQuery);
+
+		// Ensure query is not already a know fact before
+		// attempting forward chaining.
+		Set<Map<Variable, Term>> answers = KB.fetch(alpha);
+		if (answers.size() > 0) {
+			ProofStep step = new ProofStepFoChAlreadyAFact(alpha);
+			for (Map<Variable, Term> ans : answers) {
+				ansHandler.addProof(step, ans);
+			}
+			return ansHandler;
+		}
+
+		query = alpha;
+		queryAnswered = false;
+		try {
+			addNewClauses(KB);
+			while (!toldFacts.isEmpty()) {
+				if (currBudget.spend()) {
+					ansHandler.timedOut = true;
+					return ansHandler;
+				}
+				process(toldFacts.remove());
+			}
+			// derived facts might already answer the query
+			queryAnswered = queryAnswered || matchesKnownFact(alpha);
+			while (!queryAnswered && !agenda.isEmpty()) {
+				if (currBudget.spend()) {
+					ansHandler.timedOut = true;
+					return ansHandler;
+				}
+				process(agenda.remove());
+			}
+		} finally {
+			query = null;
+		}
+		if (queryAnswered) {
+			addAnswers(alpha, ansHandler);
+		}
+		return ansHandler;
+	}
+
+	// END-InferenceProcedure
+	//
+
+	//
+	// PRIVATE METHODS
+	//
+
+	// Adds the definite clauses which have been told to the KB since the last
+	// query.
+	private void addNewClauses(FOLKnowledgeBase KB) {
+		List<Clause> clauses = KB.getAllDefiniteClauses();
+		if (KB != kb
+				|| clauses.size() < noProcessedClauses
+				|| (noProcessedClauses > 0 && clauses
+						.get(noProcessedClauses - 1) != lastProcessedClause)) {
+			// another or a cleared knowledge base
+			clear();
+			kb = KB;
+		}
+		for (; noProcessedClauses < clauses.size(); noProcessedClauses++) {
+			Clause c = clauses.get(noProcessedClauses);
+			if (c.isImplicationDefiniteClause()) {
+				addRule(c);
+			} else if (c.isUnitClause()) {
+				addFact(c.getPositiveLiterals().get(0), null);
+			}
+			lastProcessedClause = c;
+		}
+	}
+
+	private void addRule(Clause implication) {
+		List<Literal> negLits = implication.getNegativeLiterals();
+		Rule rule = new Rule(implication);
+		for (int i = 0; i < negLits.size(); i++) {
+			AtomicSentence atom = negLits.get(i).getAtomicSentence();
+			String key = getKey(atom);
+			List<Premise> ps = premises.get(key);
+			if (null == ps) {
+				ps = new ArrayList<Premise>();
+				premises.put(key, ps);
+			}
+			ps.add(new Premise(rule, i));
+		}
+		// The rule has not seen any of the processed facts yet
+		join(rule, -1, 0, new LinkedHashMap<Variable, Term>(),
+				new Fact[negLits.size()]);
+	}
+
+	// Adds the fact to the known facts and to the agenda unless it is a
+	// renaming of a known fact.
+	private void addFact(Literal fact, ProofStep step) {
+		AtomicSentence atom = fact.getAtomicSentence();
+		Relation relation = getRelation(atom);
+		boolean ground = isGround(atom.getArgs());
+		if (ground ? relation.knownGround.contains(atom) : kb.isRenaming(
+				fact, relation.knownNonGround)) {
+			return;
+		}
+		Fact f = new Fact(fact, ground, step);
+		relation.known.add(f);
+		if (ground) {
+			relation.knownGround.add(atom);
+		} else {
+			relation.knownNonGround.add(fact);
+		}
+		(null == step ? toldFacts : agenda).add(f);
+		if (null != query
+				&& null != kb.unify(atom, query.getAtomicSentence())) {
+			queryAnswered = true;
+		}
+	}
+
+	// Joins a new fact with all rules which have a matching premise.
+	private void process(Fact f) {
+		AtomicSentence atom = f.literal.getAtomicSentence();
+		getRelation(atom).addProcessed(f);
+		List<Premise> ps = premises.get(getKey(atom));
+		if (null != ps) {
+			for (Premise p : ps) {
+				AtomicSentence premise = p.rule.getPremise(p.position);
+				Map<Variable, Term> theta = kb.unify(premise, f.use(kb));
+				if (null != theta) {
+					Fact[] matched = new Fact[p.rule.getNumberPremises()];
+					matched[p.position] = f;
+					join(p.rule, p.position, 0, theta, matched);
+				}
+			}
+		}
+	}
+
+	// Joins the premises of the rule from position i on with the processed
+	// facts. The premise at deltaPos has already been matched. The fact
+	// matched there is the last processed fact, premises before deltaPos
+	// skip it, as these combinations are joined with a smaller deltaPos.
+	private void join(Rule rule, int deltaPos, int i, Map<Variable, Term> theta,
+			Fact[] matched) {
+		if (i == rule.getNumberPremises()) {
+			assertConclusion(rule, theta, matched);
+		} else if (i == deltaPos) {
+			join(rule, deltaPos, i + 1, theta, matched);
+		} else {
+			AtomicSentence premise = rule.getPremise(i);
+			Relation relation = relations.get(getKey(premise));
+			if (null != relation) {
+				AtomicSentence bound = (AtomicSentence) kb.subst(theta, premise);
+				for (Fact f : relation.getCandidates(bound)) {
+					if (i < deltaPos && f == matched[deltaPos]) {
+						continue;
+					}
+					Map<Variable, Term> theta2 = kb.unify(premise, f.use(kb),
+							new LinkedHashMap<Variable, Term>(theta));
+					if (null != theta2) {
+						matched[i] = f;
+						join(rule, deltaPos, i + 1, theta2, matched);
+					}
+				}
+			}
+		}
+	}
+
+	private void assertConclusion(Rule rule, Map<Variable, Term> theta,
+			Fact[] matched) {
+		Literal fact = kb.subst(theta, rule.implication.getPositiveLiterals()
+				.get(0));
+		List<ProofStep> predecessors = new ArrayList<ProofStep>();
+		for (Fact f : matched) {
+			if (null != f.step && !predecessors.contains(f.step)) {
+				predecessors.add(f.step);
+			}
+		}
+		addFact(fact, new ProofStepFoChAssertFact(rule.implication, fact,
+				theta, predecessors));
+	}
+
+	private boolean matchesKnownFact(Literal alpha) {
+		Relation relation = relations.get(getKey(alpha.getAtomicSentence()));
+		if (null != relation) {
+			for (Fact f : relation.known) {
+				if (null != kb.unify(alpha.getAtomicSentence(), f.use(kb))) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	private void addAnswers(Literal alpha, FCAskAnswerHandler ansHandler) {
+		Relation relation = relations.get(getKey(alpha.getAtomicSentence()));
+		for (Fact f : relation.known) {
+			Map<Variable, Term> theta = kb.unify(alpha.getAtomicSentence(),
+					f.use(kb));
+			if (null != theta) {
+				ansHandler.addProof(null != f.step ? f.step
+						: new ProofStepFoChAlreadyAFact(f.literal), theta);
+			}
+		}
+	}
+
+	private Relation getRelation(AtomicSentence atom) {
+		String key = getKey(atom);
+		Relation result = relations.get(key);
+		if (null == result) {
+			result = new Relation(atom.getArgs().size());
+			relations.put(key, result);
+		}
+		return result;
+	}
+
+	private static String getKey(AtomicSentence atom) {
+		return atom.getSymbolicName() + "/" + atom.getArgs().size();
+	}
+
+	private static boolean isGround(List<Term> terms) {
+		for (Term t : terms) {
+			if (!isGround(t)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static boolean isGround(Term term) {
+		if (term instanceof Variable) {
+			return false;
+		}
+		return !(term instanceof Function) || isGround(term.getArgs());
+	}
+
+	/** A known fact, together with the step which asserted it. */
+	private static class Fact {
+		final Literal literal;
+		final boolean ground;
+		// null for facts of the knowledge base
+		final ProofStep step;
+
+		Fact(Literal literal, boolean ground, ProofStep step) {
+			this.literal = literal;
+			this.ground = ground;
+			this.step = step;
+		}
+
+		// Facts with variables are standardized apart for each use, as the
+		// same fact can match several premises of a rule.
+		AtomicSentence use(FOLKnowledgeBase kb) {
+			return ground ? literal.getAtomicSentence()
+					: (AtomicSentence) kb.standardizeApart(literal
+							.getAtomicSentence());
+		}
+	}
+
+	private static class Rule {
+		final Clause implication;
+
+		Rule(Clause implication) {
+			this.implication = implication;
+		}
+
+		int getNumberPremises() {
+			return implication.getNumberNegativeLiterals();
+		}
+
+		AtomicSentence getPremise(int i) {
+			return implication.getNegativeLiterals().get(i).getAtomicSentence();
+		}
+	}
+
+	private static class Premise {
+		final Rule rule;
+		final int position;
+
+		Premise(Rule rule, int position) {
+			this.rule = rule;
+			this.position = position;
+		}
+	}
+
+	/** The facts of one predicate. */
+	private static class Relation {
+		// All known facts: processed facts and facts on the agenda
+		final List<Fact> known = new ArrayList<Fact>();
+		final Set<AtomicSentence> knownGround = new HashSet<AtomicSentence>();
+		final List<Literal> knownNonGround = new ArrayList<Literal>();
+		// Processed facts, indexed by argument position and ground argument.
+		// Facts with a non-ground argument match any value at that position.
+		final List<Fact> processed = new ArrayList<Fact>();
+		final List<Map<Term, List<Fact>>> argIndices = new ArrayList<Map<Term, List<Fact>>>();
+		final List<List<Fact>> nonGroundArgs = new ArrayList<List<Fact>>();
+
+		Relation(int arity) {
+			for (int i = 0; i < arity; i++) {
+				argIndices.add(new HashMap<Term, List<Fact>>());
+				nonGroundArgs.add(new ArrayList<Fact>());
+			}
+		}
+
+		void addProcessed(Fact f) {
+			processed.add(f);
+			List<Term> args = f.literal.getAtomicSentence().getArgs();
+			for (int i = 0; i < args.size(); i++) {
+				Term arg = args.get(i);
+				if (f.ground || isGround(arg)) {
+					List<Fact> facts = argIndices.get(i).get(arg);
+					if (null == facts) {
+						facts = new ArrayList<Fact>();
+						argIndices.get(i).put(arg, facts);
+					}
+					facts.add(f);
+				} else {
+					nonGroundArgs.get(i).add(f);
+				}
+			}
+		}
+
+		// Returns the processed facts which might unify with the pattern,
+		// using the index of the first ground argument of the pattern.
+		List<Fact> getCandidates(AtomicSentence pattern) {
+			List<Term> args = pattern.getArgs();
+			for (int i = 0; i < args.size(); i++) {
+				if (isGround(args.get(i))) {
+					List<Fact> facts = argIndices.get(i).get(args.get(i));
+					if (null == facts) {
+						facts = Collections.emptyList();
+					}
+					List<Fact> others = nonGroundArgs.get(i);
+					if (others.isEmpty()) {
+						return facts;
+					}
+					List<Fact> result = new ArrayList<Fact>(facts);
+					result.addAll(others);
+					return result;
+				}
+			}
+			return processed;
+		}
+	}
+
+	class FCAskAnswerHandler implements InferenceResult {
+
+		private List<Proof> proofs = new ArrayList<Proof>();
+		private boolean timedOut = false;
+
+		//
+		// START-InferenceResult
+		public boolean isPossiblyFalse() {
+			return !timedOut && proofs.size() == 0;
+		}
+
+		public boolean isTrue() {
+			return proofs.size() > 0;
+		}
+
+		public boolean isUnknownDueToTimeout() {
+			return timedOut && proofs.size() == 0;
+		}
+
+		public boolean isPartialResultDueToTimeout() {
+			return timedOut && proofs.size() > 0;
+		}
+
+		public List<Proof> getProofs() {
+			return proofs;
+		}
+
+		// END-InferenceResult
+		//
+
+		public void addProof(ProofStep step, Map<Variable, Term> answer) {
+			proofs.add(new ProofFinal(step, answer));
+		}
+	}
+}
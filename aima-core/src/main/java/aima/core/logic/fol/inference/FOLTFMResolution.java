@@ -8,6 +8,7 @@ import java.util.Map;
 import java.util.Set;
 
 import aima.core.logic.fol.Connectors;
+import aima.core.logic.fol.Unifier;
 import aima.core.logic.fol.inference.proof.Proof;
 import aima.core.logic.fol.inference.proof.ProofFinal;
 import aima.core.logic.fol.inference.proof.ProofStepGoal;
@@ -20,6 +21,7 @@ import aima.core.logic.fol.parsing.ast.NotSentence;
 import aima.core.logic.fol.parsing.ast.Sentence;
 import aima.core.logic.fol.parsing.ast.Term;
 import aima.core.logic.fol.parsing.ast.Variable;
+import aima.core.util.SearchBudget;
 
 /**
  * Artificial Intelligence A Modern Approach (3rd Edition): page 347.<br>
@@ -43,8 +45,10 @@ import aima.core.logic.fol.parsing.ast.Variable;
 public class FOLTFMResolution implements InferenceProcedure {
 
 	private long maxQueryTime = 10 * 1000;
+	private SearchBudget budget;
 
 	private FOLTFMResolutionTracer tracer = null;
+	private Unifier unifier = new Unifier();
 
 	public FOLTFMResolution() {
 
@@ -66,6 +70,16 @@ public class FOLTFMResolution implements InferenceProcedure {
 		this.maxQueryTime = maxQueryTime;
 	}
 
+	/**
+	 * Sets a budget which limits subsequent queries in addition to the
+	 * maximal query time. Each answer test counts as one node. When the budget
+	 * is exhausted, the result indicates a timeout.
+	 */
+	@Override
+	public void setBudget(SearchBudget budget) {
+		this.budget = budget;
+	}
+
 	public FOLTFMResolutionTracer getTracer() {
 		return tracer;
 	}
@@ -74,6 +88,18 @@ public class FOLTFMResolution implements InferenceProcedure {
 		this.tracer = tracer;
 	}
 
+	public Unifier getUnifier() {
+		return unifier;
+	}
+
+	/**
+	 * Sets the unifier which is used for binary resolution, e.g. an
+	 * {@link aima.core.logic.fol.InternedUnifier}.
+	 */
+	public void setUnifier(Unifier unifier) {
+		this.unifier = unifier;
+	}
+
 	//
 	// START-InferenceProcedure
 	public InferenceResult ask(FOLKnowledgeBase KB, Sentence alpha) {
@@ -146,7 +172,7 @@ public class FOLTFMResolution implements InferenceProcedure {
 					}
 
 					// resolvent <- FOL-RESOLVE(Ci, Cj)
-					Set<Clause> resolvents = cI.binaryResolvents(cJ);
+					Set<Clause> resolvents = cI.binaryResolvents(cJ, unifier);
 
 					if (resolvents.size() > 0) {
 						toAdd.clear();
@@ -213,6 +239,7 @@ public class FOLTFMResolution implements InferenceProcedure {
 		private boolean complete = false;
 		private List<Proof> proofs = new ArrayList<Proof>();
 		private boolean timedOut = false;
+		private final SearchBudget currBudget = budget != null ? budget : new SearchBudget();
 
 		public TFMAnswerHandler(Literal answerLiteral,
 				Set<Variable> answerLiteralVariables, Clause answerClause,
@@ -304,7 +331,7 @@ public class FOLTFMResolution implements InferenceProcedure {
 					}
 				}
 
-				if (System.currentTimeMillis() > finishTime) {
+				if (System.currentTimeMillis() > finishTime || currBudget.spend()) {
 					complete = true;
 					// Indicate that I have run out of query time
 					timedOut = true;
@@ -2,6 +2,7 @@ package aima.core.logic.fol.inference;
 
 import aima.core.logic.fol.kb.FOLKnowledgeBase;
 import aima.core.logic.fol.parsing.ast.Sentence;
+import aima.core.util.SearchBudget;
 
 /**
  * @author Ciaran O'Reilly
@@ -17,4 +18,18 @@ public interface InferenceProcedure {
 	 * @return an InferenceResult.
 	 */
 	InferenceResult ask(FOLKnowledgeBase kb, Sentence query);
+
+	/**
+	 * Sets a budget which limits the resources of subsequent queries. When it
+	 * is exhausted, the procedure stops and returns the answers found so far.
+	 * The result then reports a timeout (see
+	 * {@link InferenceResult#isUnknownDueToTimeout()} and
+	 * {@link InferenceResult#isPartialResultDueToTimeout()}).
+	 *
+	 * @param budget
+	 *            a budget or null for unlimited search.
+	 */
+	default void setBudget(SearchBudget budget) {
+		// the default implementation ignores the budget
+	}
 }
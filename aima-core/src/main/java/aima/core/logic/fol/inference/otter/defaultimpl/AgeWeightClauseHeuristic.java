@@ -0,0 +1,109 @@
+package aima.core.logic.fol.inference.otter.defaultimpl;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.Set;
+
+import aima.core.logic.fol.inference.otter.LightestClauseHeuristic;
+import aima.core.logic.fol.kb.data.Clause;
+
+/**
+ * Selects clauses from the SOS alternately by weight and by age, as the
+ * pick-given ratio of OTTER. After a number of lightest clauses (see
+ * {@link DefaultLightestClauseHeuristic} for the order), the oldest clause of
+ * the SOS is selected. So heavy clauses which are needed for a proof are not
+ * postponed forever. The SOS is stored in a priority queue and a FIFO queue,
+ * whose removed entries are discarded lazily when they reach the head of the
+ * queue. Each call of {@link #getLightestClause()} counts as one selection.
+ */
+public class AgeWeightClauseHeuristic implements LightestClauseHeuristic {
+
+	private final int ratio;
+	private final LightestClauseSorter sorter = new LightestClauseSorter();
+	private final PriorityQueue<Entry> byWeight = new PriorityQueue<Entry>(
+			11, (e1, e2) -> {
+				int rVal = sorter.compare(e1.clause, e2.clause);
+				return 0 != rVal ? rVal : Long.compare(e1.age, e2.age);
+			});
+	private final Queue<Entry> byAge = new ArrayDeque<Entry>();
+	// The current entries of the SOS clauses
+	private final Map<Clause, Entry> entries = new HashMap<Clause, Entry>();
+	private long nextAge;
+	private long selections;
+
+	/** Selects 4 clauses by weight for each clause selected by age. */
+	public AgeWeightClauseHeuristic() {
+		this(4);
+	}
+
+	/**
+	 * @param ratio
+	 *            the number of clauses which are selected by weight before
+	 *            the oldest clause is selected (0 for selection by age only).
+	 */
+	public AgeWeightClauseHeuristic(int ratio) {
+		if (ratio < 0) {
+			throw new IllegalArgumentException("Ratio must not be negative.");
+		}
+		this.ratio = ratio;
+	}
+
+	public int getRatio() {
+		return ratio;
+	}
+
+	//
+	// START-LightestClauseHeuristic
+	public Clause getLightestClause() {
+		if (entries.isEmpty()) {
+			return null;
+		}
+		Queue<Entry> queue = selections++ % (ratio + 1) == ratio ? byAge
+				: byWeight;
+		// discard the entries of removed clauses
+		while (entries.get(queue.peek().clause) != queue.peek()) {
+			queue.remove();
+		}
+		return queue.peek().clause;
+	}
+
+	public void initialSOS(Set<Clause> clauses) {
+		byWeight.clear();
+		byAge.clear();
+		entries.clear();
+		nextAge = 0;
+		selections = 0;
+		for (Clause c : clauses) {
+			addedClauseToSOS(c);
+		}
+	}
+
+	public void addedClauseToSOS(Clause clause) {
+		if (!entries.containsKey(clause)) {
+			Entry e = new Entry(clause, nextAge++);
+			entries.put(clause, e);
+			byWeight.add(e);
+			byAge.add(e);
+		}
+	}
+
+	public void removedClauseFromSOS(Clause clause) {
+		entries.remove(clause);
+	}
+
+	// END-LightestClauseHeuristic
+	//
+
+	private static class Entry {
+		final Clause clause;
+		final long age;
+
+		Entry(Clause clause, long age) {
+			this.clause = clause;
+			this.age = age;
+		}
+	}
+}
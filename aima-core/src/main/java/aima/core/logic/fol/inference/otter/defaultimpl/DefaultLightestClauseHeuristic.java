@@ -1,6 +1,5 @@
 package aima.core.logic.fol.inference.otter.defaultimpl;
 
-import java.util.Comparator;
 import java.util.Set;
 import java.util.SortedSet;
 import java.util.TreeSet;
@@ -49,23 +48,3 @@ public class DefaultLightestClauseHeuristic implements LightestClauseHeuristic {
 	// END-LightestClauseHeuristic
 	//
 }
-
-class LightestClauseSorter implements Comparator<Clause> {
-	public int compare(Clause c1, Clause c2) {
-		if (c1 == c2) {
-			return 0;
-		}
-		int c1Val = c1.getNumberLiterals();
-		int c2Val = c2.getNumberLiterals();
-		return (c1Val < c2Val ? -1
-				: (c1Val == c2Val ? (compareEqualityIdentities(c1, c2)) : 1));
-	}
-
-	private int compareEqualityIdentities(Clause c1, Clause c2) {
-		int c1Len = c1.getEqualityIdentity().length();
-		int c2Len = c2.getEqualityIdentity().length();
-
-		return (c1Len < c2Len ? -1 : (c1Len == c2Len ? c1.getEqualityIdentity()
-				.compareTo(c2.getEqualityIdentity()) : 1));
-	}
-}
\ No newline at end of file
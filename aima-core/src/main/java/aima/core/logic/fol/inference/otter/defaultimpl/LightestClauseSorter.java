@@ -0,0 +1,46 @@
+package aima.core.logic.fol.inference.otter.defaultimpl;
+
+import java.util.Comparator;
+
+import aima.core.logic.fol.kb.data.Clause;
+
+/**
+ * Orders clauses by number of literals, then by weight. Ties are broken by
+ * keys which do not depend on variable names, so that only variants are
+ * considered to be equal.
+ * 
+ * @author Ciaran O'Reilly
+ * 
+ */
+class LightestClauseSorter implements Comparator<Clause> {
+	public int compare(Clause c1, Clause c2) {
+		if (c1 == c2) {
+			return 0;
+		}
+		int c1Val = c1.getNumberLiterals();
+		int c2Val = c2.getNumberLiterals();
+		return (c1Val < c2Val ? -1
+				: (c1Val == c2Val ? (compareWeights(c1, c2)) : 1));
+	}
+
+	private int compareWeights(Clause c1, Clause c2) {
+		int c1Weight = c1.getWeight();
+		int c2Weight = c2.getWeight();
+		if (c1Weight != c2Weight) {
+			return c1Weight < c2Weight ? -1 : 1;
+		}
+		int rVal = c1.compareLiteralShapes(c2);
+		if (0 != rVal) {
+			return rVal;
+		}
+		// Must be consistent with equals, i.e. variants are considered
+		// to be the same clause. So only keys which do not depend on
+		// variable names are compared.
+		int c1Hash = c1.hashCode();
+		int c2Hash = c2.hashCode();
+		if (c1Hash != c2Hash) {
+			return c1Hash < c2Hash ? -1 : 1;
+		}
+		return c1.compareVariablePatterns(c2);
+	}
+}
@@ -32,6 +32,18 @@ public class ProofStepFoChAssertFact extends AbstractProofStep {
 		}
 	}
 
+	/**
+	 * Creates a step whose predecessors are the steps which asserted the
+	 * facts that matched the premises of the implication.
+	 */
+	public ProofStepFoChAssertFact(Clause implication, Literal fact,
+			Map<Variable, Term> bindings, List<ProofStep> predecessors) {
+		this.implication = implication;
+		this.fact = fact;
+		this.bindings = bindings;
+		this.predecessors.addAll(predecessors);
+	}
+
 	//
 	// START-ProofStep
 	@Override
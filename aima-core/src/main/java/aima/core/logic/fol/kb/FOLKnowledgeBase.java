@@ -10,6 +10,7 @@ import java.util.Map;
 import java.util.Set;
 
 import aima.core.logic.fol.CNFConverter;
+import aima.core.logic.fol.DiscriminationTree;
 import aima.core.logic.fol.StandardizeApart;
 import aima.core.logic.fol.StandardizeApartIndexical;
 import aima.core.logic.fol.StandardizeApartIndexicalFactory;
@@ -64,6 +65,13 @@ public class FOLKnowledgeBase {
 	private List<Clause> implicationDefiniteClauses = new ArrayList<Clause>();
 	// All the facts in the KB indexed by Atomic Sentence name (Note: pg. 279)
 	private Map<String, List<Literal>> indexFacts = new HashMap<String, List<Literal>>();
+	// The same facts in term indices, separated by polarity, which retrieve
+	// candidates for unification without scanning all facts of a predicate
+	private DiscriminationTree<Literal> positiveFacts = new DiscriminationTree<Literal>();
+	private DiscriminationTree<Literal> negativeFacts = new DiscriminationTree<Literal>();
+	// Counts the changes of the clause set, allows inference procedures to
+	// detect that cached results are out of date
+	private int modificationCount = 0;
 	// Keep track of indexical keys for uniquely standardizing apart sentences
 	private StandardizeApartIndexical variableIndexical = StandardizeApartIndexicalFactory
 			.newStandardizeApartIndexical('v');
@@ -103,6 +111,9 @@ public class FOLKnowledgeBase {
 		this.allDefiniteClauses.clear();
 		this.implicationDefiniteClauses.clear();
 		this.indexFacts.clear();
+		this.positiveFacts.clear();
+		this.negativeFacts.clear();
+		this.modificationCount++;
 	}
 
 	public InferenceProcedure getInferenceProcedure() {
@@ -173,6 +184,14 @@ public class FOLKnowledgeBase {
 		return clauses.size() - getNumberFacts();
 	}
 
+	/**
+	 * Returns a number which changes whenever clauses are added to the
+	 * knowledge base or the knowledge base is cleared.
+	 */
+	public int getModificationCount() {
+		return modificationCount;
+	}
+
 	public List<Sentence> getOriginalSentences() {
 		return Collections.unmodifiableList(originalSentences);
 	}
@@ -190,18 +209,17 @@ public class FOLKnowledgeBase {
 	}
 
 	// Note: pg 278, FETCH(q) concept.
-	public synchronized Set<Map<Variable, Term>> fetch(Literal l) {
+	// Candidates are retrieved from a term index, which allows concurrent
+	// readers.
+	public Set<Map<Variable, Term>> fetch(Literal l) {
 		// Get all of the substitutions in the KB that p unifies with
 		Set<Map<Variable, Term>> allUnifiers = new LinkedHashSet<Map<Variable, Term>>();
 
-		List<Literal> matchingFacts = fetchMatchingFacts(l);
-		if (null != matchingFacts) {
-			for (Literal fact : matchingFacts) {
-				Map<Variable, Term> substitution = unifier.unify(
-						l.getAtomicSentence(), fact.getAtomicSentence());
-				if (null != substitution) {
-					allUnifiers.add(substitution);
-				}
+		for (Literal fact : getFactIndex(l).getUnifiable(l.getAtomicSentence())) {
+			Map<Variable, Term> substitution = unifier.unify(
+					l.getAtomicSentence(), fact.getAtomicSentence());
+			if (null != substitution) {
+				allUnifiers.add(substitution);
 			}
 		}
 
@@ -227,6 +245,11 @@ public class FOLKnowledgeBase {
 		return unifier.unify(x, y);
 	}
 
+	public Map<Variable, Term> unify(FOLNode x, FOLNode y,
+			Map<Variable, Term> theta) {
+		return unifier.unify(x, y, theta);
+	}
+
 	public Sentence subst(Map<Variable, Term> theta, Sentence aSentence) {
 		return substVisitor.subst(theta, aSentence);
 	}
@@ -282,12 +305,8 @@ public class FOLKnowledgeBase {
 
 	// Note: see pg. 281
 	public boolean isRenaming(Literal l) {
-		List<Literal> possibleMatches = fetchMatchingFacts(l);
-		if (null != possibleMatches) {
-			return isRenaming(l, possibleMatches);
-		}
-
-		return false;
+		// Only variants of l can be renamings
+		return isRenaming(l, getFactIndex(l).getVariants(l.getAtomicSentence()));
 	}
 
 	// Note: see pg. 281
@@ -363,6 +382,7 @@ public class FOLKnowledgeBase {
 			// so that they cannot be modified externally.
 			c.setImmutable();
 			if (clauses.add(c)) {
+				modificationCount++;
 				// If added keep track of special types of
 				// clauses, as useful for query purposes
 				if (c.isDefiniteClause()) {
@@ -387,6 +407,7 @@ public class FOLKnowledgeBase {
 		}
 
 		indexFacts.get(factKey).add(fact);
+		getFactIndex(fact).add(fact.getAtomicSentence(), fact);
 	}
 
 	private void recursiveFetch(Map<Variable, Term> theta, Literal l,
@@ -423,8 +444,8 @@ public class FOLKnowledgeBase {
 		}
 	}
 
-	private List<Literal> fetchMatchingFacts(Literal l) {
-		return indexFacts.get(getFactKey(l));
+	private DiscriminationTree<Literal> getFactIndex(Literal l) {
+		return l.isPositiveLiteral() ? positiveFacts : negativeFacts;
 	}
 
 	public Map<String, List<Literal>> getIndexFacts() {
@@ -1,6 +1,7 @@
 package aima.core.logic.fol.kb.data;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
@@ -21,16 +22,10 @@ import aima.core.logic.fol.inference.proof.ProofStep;
 import aima.core.logic.fol.inference.proof.ProofStepClauseBinaryResolvent;
 import aima.core.logic.fol.inference.proof.ProofStepClauseFactor;
 import aima.core.logic.fol.inference.proof.ProofStepPremise;
-import aima.core.logic.fol.parsing.FOLVisitor;
 import aima.core.logic.fol.parsing.ast.AtomicSentence;
-import aima.core.logic.fol.parsing.ast.ConnectedSentence;
 import aima.core.logic.fol.parsing.ast.Constant;
 import aima.core.logic.fol.parsing.ast.Function;
-import aima.core.logic.fol.parsing.ast.NotSentence;
-import aima.core.logic.fol.parsing.ast.Predicate;
-import aima.core.logic.fol.parsing.ast.QuantifiedSentence;
 import aima.core.logic.fol.parsing.ast.Term;
-import aima.core.logic.fol.parsing.ast.TermEquality;
 import aima.core.logic.fol.parsing.ast.Variable;
 import aima.core.util.math.MixedRadixNumber;
 
@@ -57,7 +52,7 @@ public class Clause {
 	private final List<Literal> negativeLiterals = new ArrayList<Literal>();
 	private boolean immutable = false;
 	private boolean saCheckRequired = true;
-	private String equalityIdentity = "";
+	private ClauseIdentity identity = null;
 	private Set<Clause> factors = null;
 	private Set<Clause> nonTrivialFactors = null;
 	private String stringRep = null;
@@ -214,6 +209,37 @@ public class Clause {
 		return Collections.unmodifiableList(negativeLiterals);
 	}
 
+	/**
+	 * Returns the number of symbol and variable occurrences in this clause,
+	 * which is a simple measure for its complexity.
+	 */
+	public int getWeight() {
+		return getIdentity().getWeight();
+	}
+
+	/**
+	 * Compares the literals of this clause with the literals of the other
+	 * clause in a canonical order. Variables are considered to be equal, so
+	 * variants of a clause always have the same literal shapes (0 is
+	 * returned).
+	 */
+	public int compareLiteralShapes(Clause othC) {
+		return getIdentity().compareShapes(othC.getIdentity());
+	}
+
+	/**
+	 * Compares this clause with a clause of equal literal shapes (see
+	 * {@link #compareLiteralShapes(Clause)}) by the occurrences of their
+	 * variables. The variables are numbered by first occurrence, and the
+	 * literals within groups of equal shape are arranged so that the sequence
+	 * of variable numbers becomes minimal. The result does not depend on
+	 * variable names, and 0 is returned if and only if the clauses are
+	 * variants of each other.
+	 */
+	public int compareVariablePatterns(Clause othC) {
+		return getIdentity().compareVariablePatterns(othC.getIdentity());
+	}
+
 	public Set<Clause> getFactors() {
 		if (null == factors) {
 			calculateFactors(null);
@@ -273,6 +299,12 @@ public class Clause {
 	// Note: returns a set with an empty clause if both clauses
 	// are empty, otherwise returns a set of binary resolvents.
 	public Set<Clause> binaryResolvents(Clause othC) {
+		return binaryResolvents(othC, _unifier);
+	}
+
+	// Note: as above, but complementary literals are unified with the
+	// specified unifier.
+	public Set<Clause> binaryResolvents(Clause othC, Unifier unifier) {
 		Set<Clause> resolvents = new LinkedHashSet<Clause>();
 		// Resolving two empty clauses
 		// gives you an empty clause
@@ -318,7 +350,7 @@ public class Clause {
 			for (Literal pl : trPosLits) {
 				for (Literal nl : trNegLits) {
 					copyRBindings.clear();
-					if (null != _unifier.unify(pl.getAtomicSentence(),
+					if (null != unifier.unify(pl.getAtomicSentence(),
 							nl.getAtomicSentence(), copyRBindings)) {
 						copyRPosLits.clear();
 						copyRNegLits.clear();
@@ -376,7 +408,7 @@ public class Clause {
 
 	@Override
 	public int hashCode() {
-		return equalityIdentity.hashCode();
+		return getIdentity().hashCode();
 	}
 
 	@Override
@@ -392,43 +424,33 @@ public class Clause {
 		}
 		Clause othClause = (Clause) othObj;
 
-		return equalityIdentity.equals(othClause.equalityIdentity);
-	}
-
-	public String getEqualityIdentity() {
-		return equalityIdentity;
+		return getIdentity().isVariant(othClause.getIdentity());
 	}
 
 	//
 	// PRIVATE METHODS
 	//
 	private void recalculateIdentity() {
-		synchronized (this) {
-
-			// Sort the literals first based on negation, atomic sentence,
-			// constant, function and variable.
-			List<Literal> sortedLiterals = new ArrayList<Literal>(literals);
-			Collections.sort(sortedLiterals, _literalSorter);
-
-			// All variables are considered the same as regards
-			// sorting. Therefore, to determine if two clauses
-			// are equivalent you need to determine
-			// the # of unique variables they contain and
-			// there positions across the clauses
-			ClauseEqualityIdentityConstructor ceic = new ClauseEqualityIdentityConstructor(
-					sortedLiterals, _literalSorter);
-
-			equalityIdentity = ceic.getIdentity();
+		// Reset, these as will need to re-calculate
+		// if requested for again, best to only
+		// access lazily.
+		identity = null;
+		factors = null;
+		nonTrivialFactors = null;
+		// Reset the objects string representation
+		// until it is requested for.
+		stringRep = null;
+	}
 
-			// Reset, these as will need to re-calcualte
-			// if requested for again, best to only
-			// access lazily.
-			factors = null;
-			nonTrivialFactors = null;
-			// Reset the objects string representation
-			// until it is requested for.
-			stringRep = null;
+	private ClauseIdentity getIdentity() {
+		// Clause identities are immutable, so threads which compute them
+		// concurrently end up with equal objects.
+		ClauseIdentity result = identity;
+		if (null == result) {
+			result = new ClauseIdentity(literals, _literalSorter);
+			identity = result;
 		}
+		return result;
 	}
 
 	private void calculateFactors(Set<Clause> parentFactors) {
@@ -751,195 +773,348 @@ class LiteralsSorter implements Comparator<Literal> {
 	}
 }
 
-class ClauseEqualityIdentityConstructor implements FOLVisitor {
-	private StringBuilder identity = new StringBuilder();
-	private int noVarPositions = 0;
-	private int[] clauseVarCounts = null;
-	private int currentLiteral = 0;
-	private Map<String, List<Integer>> varPositions = new HashMap<String, List<Integer>>();
+/**
+ * Identity of a clause which does not depend on the order of its literals and
+ * the names of its variables. Two clauses are considered equal if one is a
+ * variant of the other, i.e. if a consistent renaming of variables maps the
+ * literals of one clause onto the literals of the other. The hash code is
+ * computed in a single pass over the terms of the clause, without building
+ * strings. The (more expensive) variant check is only needed for clauses with
+ * equal hash codes.
+ */
+final class ClauseIdentity {
+	private final Literal[] literals;
+	private final LiteralsSorter sorter;
+	private final int hash;
+	private final int weight;
+	// literals sorted by shape and the end of their shape group, computed
+	// lazily
+	private volatile SortedLiterals sorted;
+	// minimal sequence of variable numbers, computed lazily
+	private volatile int[] variablePattern;
+
+	ClauseIdentity(Set<Literal> literals, LiteralsSorter sorter) {
+		this.literals = literals.toArray(new Literal[literals.size()]);
+		this.sorter = sorter;
+		List<Variable> variables = new ArrayList<Variable>();
+		int[] symbols = new int[1];
+		int h = 0;
+		for (Literal l : this.literals) {
+			// Variables are numbered by their first occurrence within the
+			// literal, so the hash code of a literal does not depend on
+			// variable names or on the order of the literals.
+			variables.clear();
+			AtomicSentence atom = l.getAtomicSentence();
+			int lh = (l.isNegativeLiteral() ? 31 : 0)
+					+ atom.getSymbolicName().hashCode();
+			lh = hashTerms(atom.getArgs(), lh, variables, symbols);
+			symbols[0]++;
+			// Order independent combination of the literal hash codes
+			h += mix(lh);
+		}
+		hash = h;
+		weight = symbols[0];
+	}
 
-	public ClauseEqualityIdentityConstructor(List<Literal> literals,
-			LiteralsSorter sorter) {
+	public int getWeight() {
+		return weight;
+	}
 
-		clauseVarCounts = new int[literals.size()];
+	@Override
+	public int hashCode() {
+		return hash;
+	}
 
-		for (Literal l : literals) {
-			if (l.isNegativeLiteral()) {
-				identity.append("~");
-			}
-			identity.append(l.getAtomicSentence().getSymbolicName());
-			identity.append("(");
-			boolean firstTerm = true;
-			for (Term t : l.getAtomicSentence().getArgs()) {
-				if (firstTerm) {
-					firstTerm = false;
-				} else {
-					identity.append(",");
-				}
-				t.accept(this, null);
-			}
-			identity.append(")");
-			currentLiteral++;
+	/**
+	 * Returns true if the clause of the other identity is a variant of this
+	 * identity's clause.
+	 */
+	public boolean isVariant(ClauseIdentity other) {
+		if (this == other) {
+			return true;
+		}
+		if (hash != other.hash || weight != other.weight
+				|| literals.length != other.literals.length) {
+			return false;
 		}
+		// Shapes ignore variables, so both clauses must have the same
+		// sequence of shapes
+		if (0 != compareShapes(other)) {
+			return false;
+		}
+		return new VariantMatcher(getSorted(), other.getSorted()).match(0);
+	}
 
-		int min, max;
-		min = max = 0;
-		for (int i = 0; i < literals.size(); i++) {
-			int incITo = i;
-			int next = i + 1;
-			max += clauseVarCounts[i];
-			while (next < literals.size()) {
-				if (0 != sorter.compare(literals.get(i), literals.get(next))) {
-					break;
-				}
-				max += clauseVarCounts[next];
-				incITo = next; // Need to skip to the end of the range
-				next++;
-			}
-			// This indicates two or more literals are identical
-			// except for variable naming (note: identical
-			// same name would be removed as are working
-			// with sets so don't need to worry about this).
-			if ((next - i) > 1) {
-				// Need to check each variable
-				// and if it has a position within the
-				// current min/max range then need
-				// to include its alternative
-				// sort order positions as well
-				for (String key : varPositions.keySet()) {
-					List<Integer> positions = varPositions.get(key);
-					List<Integer> additPositions = new ArrayList<Integer>();
-					// Add then subtract for all possible
-					// positions in range
-					for (int pos : positions) {
-						if (pos >= min && pos < max) {
-							int pPos = pos;
-							int nPos = pos;
-							for (int candSlot = i; candSlot < (next - 1); candSlot++) {
-								pPos += clauseVarCounts[i];
-								if (pPos >= min && pPos < max) {
-									if (!positions.contains(pPos)
-											&& !additPositions.contains(pPos)) {
-										additPositions.add(pPos);
-									}
-								}
-								nPos -= clauseVarCounts[i];
-								if (nPos >= min && nPos < max) {
-									if (!positions.contains(nPos)
-											&& !additPositions.contains(nPos)) {
-										additPositions.add(nPos);
-									}
-								}
-							}
-						}
-					}
-					positions.addAll(additPositions);
-				}
-			}
-			min = max;
-			i = incITo;
-		}
-
-		// Determine the maxWidth
-		int maxWidth = 1;
-		while (noVarPositions >= 10) {
-			noVarPositions = noVarPositions / 10;
-			maxWidth++;
-		}
-
-		// Sort the individual position lists
-		// And then add their string representations
-		// together
-		List<String> varOffsets = new ArrayList<String>();
-		for (String key : varPositions.keySet()) {
-			List<Integer> positions = varPositions.get(key);
-			Collections.sort(positions);
-			StringBuilder sb = new StringBuilder();
-			for (int pos : positions) {
-				String posStr = Integer.toString(pos);
-				int posStrLen = posStr.length();
-				int padLen = maxWidth-posStrLen;
-				for (int i=0;i<padLen;i++) {
-					sb.append('0');
-				}
-				sb.append(posStr);
-			}
-			varOffsets.add(sb.toString());
+	/**
+	 * Compares the sorted literals of both identities with variables
+	 * considered to be equal.
+	 */
+	public int compareShapes(ClauseIdentity other) {
+		if (literals.length != other.literals.length) {
+			return literals.length < other.literals.length ? -1 : 1;
 		}
-		Collections.sort(varOffsets);
-		for (int i = 0; i < varOffsets.size(); i++) {
-			identity.append(varOffsets.get(i));
-			if (i < (varOffsets.size() - 1)) {
-				identity.append(",");
+		SortedLiterals x = getSorted();
+		SortedLiterals y = other.getSorted();
+		for (int i = 0; i < literals.length; i++) {
+			int rVal = sorter.compare(x.literals[i], y.literals[i]);
+			if (0 != rVal) {
+				return rVal;
 			}
 		}
+		return 0;
 	}
 
-	public String getIdentity() {
-		return identity.toString();
+	/**
+	 * Compares the variable patterns of two identities with equal shapes
+	 * lexicographically.
+	 */
+	public int compareVariablePatterns(ClauseIdentity other) {
+		int[] x = getVariablePattern();
+		int[] y = other.getVariablePattern();
+		for (int i = 0; i < x.length && i < y.length; i++) {
+			if (x[i] != y[i]) {
+				return x[i] < y[i] ? -1 : 1;
+			}
+		}
+		return x.length == y.length ? 0 : (x.length < y.length ? -1 : 1);
 	}
 
 	//
-	// START-FOLVisitor
-	public Object visitVariable(Variable var, Object arg) {
-		// All variables will be marked with an *
-		identity.append("*");
+	// PRIVATE METHODS
+	//
+	private static int hashTerms(List<Term> terms, int h,
+			List<Variable> variables, int[] symbols) {
+		for (Term t : terms) {
+			symbols[0]++;
+			if (t instanceof Variable) {
+				int idx = variables.indexOf(t);
+				if (-1 == idx) {
+					idx = variables.size();
+					variables.add((Variable) t);
+				}
+				h = 31 * h - idx - 1;
+			} else {
+				h = 31 * (31 * h + t.getSymbolicName().hashCode())
+						+ (t.getArgs() != null ? t.getArgs().size() : 0);
+				if (t instanceof Function) {
+					h = hashTerms(t.getArgs(), h, variables, symbols);
+				}
+			}
+		}
+		return h;
+	}
+
+	private static int mix(int h) {
+		h *= 0x9E3779B9;
+		return h ^ (h >>> 16);
+	}
 
-		List<Integer> positions = varPositions.get(var.getValue());
-		if (null == positions) {
-			positions = new ArrayList<Integer>();
-			varPositions.put(var.getValue(), positions);
+	private SortedLiterals getSorted() {
+		SortedLiterals result = sorted;
+		if (null == result) {
+			result = new SortedLiterals(literals, sorter);
+			sorted = result;
 		}
-		positions.add(noVarPositions);
+		return result;
+	}
 
-		noVarPositions++;
-		clauseVarCounts[currentLiteral]++;
-		return var;
+	private int[] getVariablePattern() {
+		int[] result = variablePattern;
+		if (null == result) {
+			result = new PatternBuilder(getSorted()).build();
+			variablePattern = result;
+		}
+		return result;
 	}
 
-	public Object visitConstant(Constant constant, Object arg) {
-		identity.append(constant.getValue());
-		return constant;
+	private static class SortedLiterals {
+		final Literal[] literals;
+		// exclusive end of the group of literals with the same shape
+		final int[] groupEnds;
+
+		SortedLiterals(Literal[] unsorted, LiteralsSorter sorter) {
+			literals = unsorted.clone();
+			Arrays.sort(literals, sorter);
+			groupEnds = new int[literals.length];
+			int start = 0;
+			for (int i = 1; i <= literals.length; i++) {
+				if (i == literals.length
+						|| 0 != sorter.compare(literals[start], literals[i])) {
+					for (int j = start; j < i; j++) {
+						groupEnds[j] = i;
+					}
+					start = i;
+				}
+			}
+		}
 	}
 
-	public Object visitFunction(Function function, Object arg) {
-		boolean firstTerm = true;
-		identity.append(function.getFunctionName());
-		identity.append("(");
-		for (Term t : function.getTerms()) {
-			if (firstTerm) {
-				firstTerm = false;
-			} else {
-				identity.append(",");
+	/**
+	 * Computes the lexicographically minimal sequence of variable numbers over
+	 * all arrangements of literals within their shape groups. Variables are
+	 * numbered by first occurrence. Prefixes which are greater than the best
+	 * sequence found so far are not extended.
+	 */
+	private static class PatternBuilder {
+		private final SortedLiterals x;
+		private final boolean[] used;
+		private final Map<Variable, Integer> numbers = new HashMap<Variable, Integer>();
+		private final List<Variable> trail = new ArrayList<Variable>();
+		private final List<Integer> current = new ArrayList<Integer>();
+		private int[] best;
+
+		PatternBuilder(SortedLiterals x) {
+			this.x = x;
+			used = new boolean[x.literals.length];
+		}
+
+		int[] build() {
+			search(0);
+			return best;
+		}
+
+		private void search(int i) {
+			if (i == x.literals.length) {
+				if (null == best || compareWithBest() < 0) {
+					best = new int[current.size()];
+					for (int k = 0; k < best.length; k++) {
+						best[k] = current.get(k);
+					}
+				}
+				return;
+			}
+			int groupStart = i;
+			while (groupStart > 0 && x.groupEnds[groupStart - 1] == x.groupEnds[i]) {
+				groupStart--;
+			}
+			for (int j = groupStart; j < x.groupEnds[i]; j++) {
+				if (!used[j]) {
+					int start = current.size();
+					int mark = trail.size();
+					appendNumbers(x.literals[j].getAtomicSentence().getArgs());
+					if (null == best || compareWithBest() <= 0) {
+						used[j] = true;
+						search(i + 1);
+						used[j] = false;
+					}
+					while (current.size() > start) {
+						current.remove(current.size() - 1);
+					}
+					while (trail.size() > mark) {
+						numbers.remove(trail.remove(trail.size() - 1));
+					}
+				}
 			}
-			t.accept(this, arg);
 		}
-		identity.append(")");
 
-		return function;
-	}
+		private void appendNumbers(List<Term> terms) {
+			for (Term t : terms) {
+				if (t instanceof Variable) {
+					Integer n = numbers.get(t);
+					if (null == n) {
+						n = numbers.size();
+						numbers.put((Variable) t, n);
+						trail.add((Variable) t);
+					}
+					current.add(n);
+				} else if (t instanceof Function) {
+					appendNumbers(t.getArgs());
+				}
+			}
+		}
 
-	public Object visitPredicate(Predicate predicate, Object arg) {
-		throw new IllegalStateException("Should not be called");
+		// compares the current sequence with the prefix of best of equal
+		// length, best may have changed since the prefix was compared last
+		private int compareWithBest() {
+			for (int k = 0; k < current.size(); k++) {
+				int c = current.get(k);
+				if (c != best[k]) {
+					return c < best[k] ? -1 : 1;
+				}
+			}
+			return 0;
+		}
 	}
 
-	public Object visitTermEquality(TermEquality equality, Object arg) {
-		throw new IllegalStateException("Should not be called");
-	}
+	/**
+	 * Searches a bijection between the variables of two clauses with the same
+	 * sequence of literal shapes. Literals only have to be permuted within
+	 * groups of literals with equal shape.
+	 */
+	private static class VariantMatcher {
+		private final SortedLiterals x;
+		private final SortedLiterals y;
+		private final boolean[] used;
+		private final Map<Variable, Variable> xToY = new HashMap<Variable, Variable>();
+		private final Map<Variable, Variable> yToX = new HashMap<Variable, Variable>();
+		private final List<Variable> trail = new ArrayList<Variable>();
+
+		VariantMatcher(SortedLiterals x, SortedLiterals y) {
+			this.x = x;
+			this.y = y;
+			used = new boolean[y.literals.length];
+		}
 
-	public Object visitQuantifiedSentence(QuantifiedSentence sentence,
-			Object arg) {
-		throw new IllegalStateException("Should not be called");
-	}
+		boolean match(int i) {
+			if (i == x.literals.length) {
+				return true;
+			}
+			int groupStart = i;
+			while (groupStart > 0 && x.groupEnds[groupStart - 1] == x.groupEnds[i]) {
+				groupStart--;
+			}
+			for (int j = groupStart; j < x.groupEnds[i]; j++) {
+				if (!used[j]) {
+					int mark = trail.size();
+					if (matchTerms(x.literals[i].getAtomicSentence().getArgs(),
+							y.literals[j].getAtomicSentence().getArgs())) {
+						used[j] = true;
+						if (match(i + 1)) {
+							return true;
+						}
+						used[j] = false;
+					}
+					undo(mark);
+				}
+			}
+			return false;
+		}
 
-	public Object visitNotSentence(NotSentence sentence, Object arg) {
-		throw new IllegalStateException("Should not be called");
-	}
+		// Symbols are known to be equal, only variables have to be checked.
+		private boolean matchTerms(List<Term> xTerms, List<Term> yTerms) {
+			for (int k = 0; k < xTerms.size(); k++) {
+				Term xt = xTerms.get(k);
+				if (xt instanceof Variable) {
+					if (!matchVariables((Variable) xt, (Variable) yTerms.get(k))) {
+						return false;
+					}
+				} else if (xt instanceof Function) {
+					if (!matchTerms(xt.getArgs(), yTerms.get(k).getArgs())) {
+						return false;
+					}
+				}
+			}
+			return true;
+		}
 
-	public Object visitConnectedSentence(ConnectedSentence sentence, Object arg) {
-		throw new IllegalStateException("Should not be called");
-	}
+		private boolean matchVariables(Variable xv, Variable yv) {
+			Variable mapped = xToY.get(xv);
+			if (null != mapped) {
+				return mapped.equals(yv);
+			}
+			if (yToX.containsKey(yv)) {
+				return false;
+			}
+			xToY.put(xv, yv);
+			yToX.put(yv, xv);
+			trail.add(xv);
+			return true;
+		}
 
-	// END-FOLVisitor
-	//
-}
\ No newline at end of file
+		private void undo(int mark) {
+			while (trail.size() > mark) {
+				yToX.remove(xToY.remove(trail.remove(trail.size() - 1)));
+			}
+		}
+	}
+}
@@ -0,0 +1,111 @@
+package aima.core.logic.propositional.inference;
+
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import aima.core.logic.propositional.kb.KnowledgeBase;
+import aima.core.logic.propositional.kb.data.Clause;
+import aima.core.logic.propositional.kb.data.Model;
+import aima.core.logic.propositional.kb.data.SymbolTable;
+import aima.core.logic.propositional.parsing.ast.ComplexSentence;
+import aima.core.logic.propositional.parsing.ast.Connective;
+import aima.core.logic.propositional.parsing.ast.PropositionSymbol;
+import aima.core.logic.propositional.parsing.ast.Sentence;
+import aima.core.logic.propositional.visitors.ConvertToConjunctionOfClauses;
+import aima.core.util.SearchBudget;
+
+/**
+ * Implementation of the DPLL and SAT solver interfaces which translates
+ * clauses into integer encoded literals and checks satisfiability with a
+ * {@link CDCLSolver}. It can be used wherever {@link DPLLSatisfiable} or
+ * {@link OptimizedDPLL} are used, e.g. in the Wumpus knowledge base or for
+ * {@link SATPlan}, and scales to clause sets with hundreds of thousands of
+ * clauses.
+ */
+public class CDCLSatisfiable implements DPLL, SATSolver {
+
+	private SearchBudget budget;
+
+	@Override
+	public boolean dpllSatisfiable(Sentence s) {
+		return createSolver(ConvertToConjunctionOfClauses.convert(s).getClauses()).solver.solve();
+	}
+
+	/**
+	 * Checks the satisfiability of the clauses with the given partial model.
+	 * As CDCL chooses its own variable ordering, the list of symbols is only
+	 * used to define the variables.
+	 */
+	@Override
+	public boolean dpll(Set<Clause> clauses, List<PropositionSymbol> symbols, Model model) {
+		Encoding encoding = createSolver(clauses);
+		for (PropositionSymbol symbol : symbols)
+			encoding.getVariable(symbol);
+		for (PropositionSymbol symbol : model.getAssignedSymbols()) {
+			int var = encoding.getVariable(symbol);
+			encoding.solver.addClause(model.isTrue(symbol) ? var : -var);
+		}
+		return encoding.solver.solve();
+	}
+
+	@Override
+	public boolean isEntailed(KnowledgeBase kb, Sentence alpha) {
+		// AIMA3e p.g. 260: kb |= alpha, can be done by testing
+		// unsatisfiability of kb & ~alpha.
+		Set<Clause> kbAndNotAlpha = new LinkedHashSet<>(kb.asCNF());
+		kbAndNotAlpha.addAll(ConvertToConjunctionOfClauses.convert
+				(new ComplexSentence(Connective.NOT, alpha)).getClauses());
+		// an exhausted budget leaves the question open
+		return !createSolver(kbAndNotAlpha).solver.solve()
+				&& (budget == null || budget.getStatus() == SearchBudget.Status.WITHIN_BUDGET);
+	}
+
+	/**
+	 * Returns a model which assigns values to all symbols of the clauses or
+	 * null if the clauses are unsatisfiable.
+	 */
+	@Override
+	public Model solve(Set<Clause> cnf) {
+		Encoding encoding = createSolver(cnf);
+		if (!encoding.solver.solve())
+			return null;
+		Map<PropositionSymbol, Boolean> values = new HashMap<>();
+		for (int var = 1; var <= encoding.symbols.size(); var++)
+			values.put(encoding.symbols.getSymbol(var), encoding.solver.getValue(var));
+		return new Model(values);
+	}
+
+	@Override
+	public void setBudget(SearchBudget budget) {
+		this.budget = budget;
+	}
+
+	private Encoding createSolver(Set<Clause> clauses) {
+		Encoding result = new Encoding();
+		result.solver.setBudget(budget);
+		for (Clause clause : clauses)
+			result.addClause(clause);
+		return result;
+	}
+
+	/** A solver together with the mapping between proposition symbols and variables. */
+	private static class Encoding {
+		final CDCLSolver solver = new CDCLSolver();
+		final SymbolTable symbols = new SymbolTable();
+
+		int getVariable(PropositionSymbol symbol) {
+			int result = symbols.getId(symbol);
+			while (solver.getVariableCount() < result)
+				solver.newVariable();
+			return result;
+		}
+
+		void addClause(Clause clause) {
+			if (!clause.isTautology())
+				solver.addClause(symbols.toIntClause(clause).getLiterals());
+		}
+	}
+}
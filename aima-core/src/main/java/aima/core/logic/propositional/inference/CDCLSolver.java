@@ -0,0 +1,720 @@
+package aima.core.logic.propositional.inference;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import aima.core.search.framework.Metrics;
+import aima.core.search.framework.MetricsRegistry;
+import aima.core.util.SearchBudget;
+import aima.core.util.Tasks;
+
+/**
+ * Conflict-driven clause learning (CDCL) SAT solver working on integer
+ * encoded literals. It extends the DPLL algorithm (AIMA3e Figure 7.17) by the
+ * optimizations discussed on pages 261-262: clever indexing by two watched
+ * literals per clause, intelligent backtracking by learning a first unique
+ * implication point (1UIP) clause for each conflict, variable ordering by the
+ * VSIDS heuristic (variable state independent decaying sum) combined with
+ * phase saving, and random restarts following the Luby sequence. Learned
+ * clauses with high literal block distance (LBD) are deleted from time to
+ * time to keep propagation fast.
+ * <p>
+ * Variables are numbered from 1 and literals are encoded as in the DIMACS
+ * format: <code>v</code> stands for the positive and <code>-v</code> for the
+ * negative literal of variable <code>v</code>. Clauses can be added between
+ * calls of {@link #solve(int...)}, which makes the solver usable
+ * incrementally: learned clauses and variable activities are kept, and
+ * literals passed as assumptions only hold for one call. Asking whether a
+ * clause set entails a literal therefore reduces to one call with the negated
+ * literal as assumption.
+ * Class {@link CDCLSatisfiable} provides the standard interfaces for
+ * sentences and clause sets.
+ * </p>
+ * Example:
+ * <pre>
+ * CDCLSolver solver = new CDCLSolver();
+ * solver.addClause(1, 2);
+ * solver.addClause(-1, 2);
+ * solver.addClause(-2, 3);
+ * if (solver.solve())
+ *     boolean v3 = solver.getValue(3); // true
+ * </pre>
+ */
+public class CDCLSolver {
+
+	public final static String METRICS_DECISIONS = "decisions";
+	public final static String METRICS_CONFLICTS = "conflicts";
+	public final static String METRICS_PROPAGATIONS = "propagations";
+	public final static String METRICS_RESTARTS = "restarts";
+	public final static String METRICS_LEARNED_CLAUSES = "learnedClauses";
+
+	private static final byte UNDEF = 0;
+	private static final byte TRUE = 1;
+	private static final byte FALSE = 2;
+	private static final int NO_REASON = -1;
+	private static final int RESTART_BASE = 100;
+	private static final double VAR_DECAY = 0.95;
+	private static final int REDUCE_FIRST = 2000;
+	private static final int REDUCE_INC = 300;
+
+	private int numVars;
+	/** False as soon as the empty clause was derived at decision level 0. */
+	private boolean ok = true;
+	private SearchBudget budget;
+
+	// clause database, indexed by clause id
+	private final List<int[]> clauses = new ArrayList<>();
+	private int[] lbds = new int[16];
+	private final List<Integer> learnedIds = new ArrayList<>();
+	private long nextReduction = REDUCE_FIRST;
+	private int reductions;
+	/** Trail size at level 0 when satisfied clauses were removed the last time. */
+	private int simplifiedTrailSize;
+
+	// per literal (index 2 * var + sign): pairs of clause id and blocking literal
+	private int[][] watches = new int[2][];
+	private int[] watchSizes = new int[2];
+
+	// per variable
+	private byte[] values = new byte[1];
+	private int[] levels = new int[1];
+	private int[] reasons = new int[1];
+	private boolean[] phases = new boolean[1];
+	private boolean[] seen = new boolean[1];
+	private double[] activities = new double[1];
+	private boolean[] model = new boolean[1];
+	private int[] levelStamps = new int[1];
+	private int lbdStamp;
+	private double varInc = 1;
+	private final VarHeap heap = new VarHeap();
+
+	// assignment trail
+	private int[] assumptions = new int[0];
+	private int[] trail = new int[1];
+	private int trailSize;
+	private int qHead;
+	private int[] trailLimits = new int[1];
+	private int decisionLevel;
+
+	// buffers for conflict analysis
+	private int[] learned = new int[1];
+	private int learnedSize;
+	private int[] removed = new int[1];
+
+	// statistics
+	private final MetricsRegistry metrics = new MetricsRegistry();
+	private final MetricsRegistry.Counter decisions = metrics.counter(METRICS_DECISIONS);
+	private final MetricsRegistry.Counter conflicts = metrics.counter(METRICS_CONFLICTS);
+	private final MetricsRegistry.Counter restarts = metrics.counter(METRICS_RESTARTS);
+	private final MetricsRegistry.LongGauge propagationCount = metrics.longGauge(METRICS_PROPAGATIONS);
+	private final MetricsRegistry.LongGauge learnedClauses = metrics.longGauge(METRICS_LEARNED_CLAUSES);
+	/** Counted locally in the propagation loop and published after each search. */
+	private long propagations;
+
+	/**
+	 * Sets a budget which limits subsequent calls of {@link #solve()}. Each
+	 * decision counts as one node.
+	 *
+	 * @param budget a budget or null for unlimited search.
+	 */
+	public void setBudget(SearchBudget budget) {
+		this.budget = budget;
+	}
+
+	/** Creates a new variable and returns its number. */
+	public int newVariable() {
+		ensureVariables(numVars + 1);
+		return numVars;
+	}
+
+	public int getVariableCount() {
+		return numVars;
+	}
+
+	/**
+	 * Adds a clause. Variables which do not exist yet are created
+	 * automatically.
+	 *
+	 * @param literals non-zero DIMACS literals.
+	 * @return false if the clause set is now known to be unsatisfiable.
+	 */
+	public boolean addClause(int... literals) {
+		if (!ok)
+			return false;
+		backtrack(0);
+		int[] lits = new int[literals.length];
+		int size = 0;
+		for (int literal : literals) {
+			if (literal == 0)
+				throw new IllegalArgumentException("Literal 0 is not allowed.");
+			ensureVariables(Math.abs(literal));
+			lits[size++] = toLit(literal);
+		}
+		Arrays.sort(lits, 0, size);
+		int j = 0;
+		for (int i = 0; i < size; i++) {
+			int lit = lits[i];
+			byte value = valueOf(lit);
+			if (value == TRUE || j > 0 && lit == (lits[j - 1] ^ 1))
+				return true; // satisfied at level 0 or tautology
+			if (value == UNDEF && (j == 0 || lit != lits[j - 1]))
+				lits[j++] = lit;
+		}
+		if (j == 0) {
+			ok = false;
+		} else if (j == 1) {
+			assign(lits[0], NO_REASON);
+			ok = propagate() == NO_REASON;
+		} else {
+			attach(Arrays.copyOf(lits, j), 0);
+		}
+		return ok;
+	}
+
+	/**
+	 * Checks whether the clauses added so far are satisfiable.
+	 *
+	 * @return true if a model was found, false if the clauses are
+	 *         unsatisfiable or the budget was exhausted.
+	 */
+	public boolean solve() {
+		return solve(new int[0]);
+	}
+
+	/**
+	 * Checks whether the clauses added so far are satisfiable under the given
+	 * assumptions. Assumptions are decided first, one decision level each, and
+	 * are retracted afterwards. Clauses learned during the call do not depend
+	 * on them and stay valid for later calls.
+	 *
+	 * @param assumptions DIMACS literals which are assumed to be true.
+	 * @return true if a model was found, false if the clauses are
+	 *         unsatisfiable under the assumptions or the budget was exhausted.
+	 */
+	public boolean solve(int... assumptions) {
+		if (!ok)
+			return false;
+		backtrack(0);
+		if (propagate() != NO_REASON) {
+			ok = false;
+			return false;
+		}
+		if (trailSize > simplifiedTrailSize)
+			removeSatisfied();
+		this.assumptions = new int[assumptions.length];
+		for (int i = 0; i < assumptions.length; i++) {
+			if (assumptions[i] == 0)
+				throw new IllegalArgumentException("Literal 0 is not allowed.");
+			ensureVariables(Math.abs(assumptions[i]));
+			this.assumptions[i] = toLit(assumptions[i]);
+		}
+		for (int restart = 0; ; restart++) {
+			Boolean result = search(luby(restart) * RESTART_BASE);
+			backtrack(0);
+			propagationCount.set(propagations);
+			learnedClauses.set(learnedIds.size());
+			if (result != null)
+				return result;
+			restarts.increment();
+		}
+	}
+
+	/**
+	 * Returns the value of a variable in the model found by the last
+	 * successful call of {@link #solve(int...)}.
+	 */
+	public boolean getValue(int var) {
+		return model[var];
+	}
+
+	/**
+	 * Returns numbers of decisions, conflicts, propagations, restarts, and
+	 * learned clauses. The result is a read-only view of the solver's metrics
+	 * registry, so it need not be fetched again after further calls.
+	 * Propagations and learned clauses are updated after each restart.
+	 */
+	public Metrics getMetrics() {
+		return metrics.asMetrics();
+	}
+
+	/**
+	 * Searches until a model or a contradiction is found (result true or
+	 * false) or until the given number of conflicts is reached or the budget
+	 * is exhausted (result null in the first, false in the second case).
+	 */
+	private Boolean search(long maxConflicts) {
+		long conflictCount = 0;
+		while (true) {
+			int conflict = propagate();
+			if (conflict != NO_REASON) {
+				conflicts.increment();
+				conflictCount++;
+				if (decisionLevel == 0) {
+					ok = false;
+					return false;
+				}
+				int btLevel = analyze(conflict);
+				int lbd = computeLbd(learned, learnedSize);
+				backtrack(btLevel);
+				if (learnedSize == 1) {
+					assign(learned[0], NO_REASON);
+				} else {
+					int[] clause = Arrays.copyOf(learned, learnedSize);
+					int id = attach(clause, lbd);
+					learnedIds.add(id);
+					assign(clause[0], id);
+				}
+				varInc /= VAR_DECAY;
+			} else {
+				if (conflictCount >= maxConflicts)
+					return null;
+				if (conflicts.longValue() >= nextReduction) {
+					reduceLearned();
+					nextReduction = conflicts.longValue() + REDUCE_FIRST + (long) REDUCE_INC * ++reductions;
+				}
+				int next = -1;
+				while (decisionLevel < assumptions.length) {
+					int lit = assumptions[decisionLevel];
+					byte value = valueOf(lit);
+					if (value == FALSE)
+						return false; // learned clauses contradict the assumptions
+					if (value == UNDEF) {
+						next = lit;
+						break;
+					}
+					newDecisionLevel(); // already implied, keep levels aligned
+				}
+				if (next == -1) {
+					if (isBudgetExhausted())
+						return false;
+					next = pickBranchLiteral();
+					if (next == -1) {
+						for (int var = 1; var <= numVars; var++)
+							model[var] = values[var] == TRUE;
+						return true;
+					}
+				}
+				decisions.increment();
+				newDecisionLevel();
+				assign(next, NO_REASON);
+			}
+		}
+	}
+
+	/**
+	 * Propagates all assignments on the trail which have not been propagated
+	 * yet and returns the id of a conflicting clause or NO_REASON.
+	 */
+	private int propagate() {
+		while (qHead < trailSize) {
+			int falseLit = trail[qHead++] ^ 1;
+			propagations++;
+			int[] ws = watches[falseLit];
+			int n = watchSizes[falseLit];
+			int i = 0;
+			int j = 0;
+			while (i < n) {
+				int id = ws[i];
+				int blocker = ws[i + 1];
+				i += 2;
+				if (valueOf(blocker) == TRUE) {
+					ws[j++] = id;
+					ws[j++] = blocker;
+					continue;
+				}
+				int[] c = clauses.get(id);
+				if (c[0] == falseLit) {
+					c[0] = c[1];
+					c[1] = falseLit;
+				}
+				int first = c[0];
+				if (first != blocker && valueOf(first) == TRUE) {
+					ws[j++] = id;
+					ws[j++] = first;
+					continue;
+				}
+				boolean found = false;
+				for (int k = 2; k < c.length; k++) {
+					if (valueOf(c[k]) != FALSE) {
+						c[1] = c[k];
+						c[k] = falseLit;
+						addWatch(c[1], id, first);
+						found = true;
+						break;
+					}
+				}
+				if (found)
+					continue;
+				ws[j++] = id;
+				ws[j++] = first;
+				if (valueOf(first) == FALSE) {
+					while (i < n)
+						ws[j++] = ws[i++];
+					watchSizes[falseLit] = j;
+					qHead = trailSize;
+					return id;
+				}
+				assign(first, id);
+			}
+			watchSizes[falseLit] = j;
+		}
+		return NO_REASON;
+	}
+
+	/**
+	 * Derives the 1UIP clause for a conflict, stores it in the learned buffer
+	 * with the asserting literal at index 0 and a literal of the backtrack
+	 * level at index 1, and returns the backtrack level.
+	 */
+	private int analyze(int conflict) {
+		learnedSize = 1; // place holder for the asserting literal
+		int pathCount = 0;
+		int lit = -1;
+		int index = trailSize - 1;
+		int reason = conflict;
+		do {
+			int[] c = clauses.get(reason);
+			if (lbds[reason] > 2)
+				lbds[reason] = Math.min(lbds[reason], computeLbd(c, c.length));
+			for (int k = (lit == -1) ? 0 : 1; k < c.length; k++) {
+				int q = c[k];
+				int var = q >> 1;
+				if (!seen[var] && levels[var] > 0) {
+					bumpActivity(var);
+					seen[var] = true;
+					if (levels[var] >= decisionLevel)
+						pathCount++;
+					else
+						learned[learnedSize++] = q;
+				}
+			}
+			while (!seen[trail[index] >> 1])
+				index--;
+			lit = trail[index--];
+			reason = reasons[lit >> 1];
+			seen[lit >> 1] = false;
+			pathCount--;
+		} while (pathCount > 0);
+		learned[0] = lit ^ 1;
+
+		// remove literals which are implied by other literals of the clause
+		int size = learnedSize;
+		int removedSize = 0;
+		learnedSize = 1;
+		for (int i = 1; i < size; i++) {
+			int q = learned[i];
+			int r = reasons[q >> 1];
+			boolean redundant = r != NO_REASON;
+			if (redundant) {
+				int[] c = clauses.get(r);
+				for (int k = 1; k < c.length; k++) {
+					int var = c[k] >> 1;
+					if (!seen[var] && levels[var] > 0) {
+						redundant = false;
+						break;
+					}
+				}
+			}
+			if (redundant)
+				removed[removedSize++] = q;
+			else
+				learned[learnedSize++] = q;
+		}
+		for (int i = 1; i < learnedSize; i++)
+			seen[learned[i] >> 1] = false;
+		for (int i = 0; i < removedSize; i++)
+			seen[removed[i] >> 1] = false;
+
+		if (learnedSize == 1)
+			return 0;
+		int maxIndex = 1;
+		for (int i = 2; i < learnedSize; i++)
+			if (levels[learned[i] >> 1] > levels[learned[maxIndex] >> 1])
+				maxIndex = i;
+		int tmp = learned[1];
+		learned[1] = learned[maxIndex];
+		learned[maxIndex] = tmp;
+		return levels[learned[1] >> 1];
+	}
+
+	/** Returns the number of different decision levels of the first literals of the clause. */
+	private int computeLbd(int[] clause, int size) {
+		lbdStamp++;
+		int result = 0;
+		for (int i = 0; i < size; i++) {
+			int level = levels[clause[i] >> 1];
+			if (levelStamps[level] != lbdStamp) {
+				levelStamps[level] = lbdStamp;
+				result++;
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Deletes about half of the learned clauses, preferring those with high
+	 * LBD. Clauses with LBD 2 and clauses which are reasons of current
+	 * assignments are kept.
+	 */
+	private void reduceLearned() {
+		learnedIds.sort((id1, id2) -> Integer.compare(lbds[id2], lbds[id1]));
+		int limit = learnedIds.size() / 2;
+		int j = 0;
+		for (int i = 0; i < learnedIds.size(); i++) {
+			int id = learnedIds.get(i);
+			int[] c = clauses.get(id);
+			boolean locked = reasons[c[0] >> 1] == id && valueOf(c[0]) == TRUE;
+			if (i < limit && lbds[id] > 2 && !locked)
+				clauses.set(id, null);
+			else
+				learnedIds.set(j++, id);
+		}
+		while (learnedIds.size() > j)
+			learnedIds.remove(learnedIds.size() - 1);
+		removeDeletedWatches();
+	}
+
+	private void removeDeletedWatches() {
+		for (int lit = 2; lit < 2 * numVars + 2; lit++) {
+			int[] ws = watches[lit];
+			int n = watchSizes[lit];
+			int k = 0;
+			for (int i = 0; i < n; i += 2) {
+				if (clauses.get(ws[i]) != null) {
+					ws[k++] = ws[i];
+					ws[k++] = ws[i + 1];
+				}
+			}
+			watchSizes[lit] = k;
+		}
+	}
+
+	/**
+	 * Deletes clauses which are satisfied at decision level 0. In incremental
+	 * use, this removes clauses which became irrelevant by newly added unit
+	 * clauses, e.g. clauses guarded by a retired selector literal.
+	 */
+	private void removeSatisfied() {
+		for (int id = 0; id < clauses.size(); id++) {
+			int[] c = clauses.get(id);
+			if (c != null) {
+				for (int lit : c) {
+					if (valueOf(lit) == TRUE) {
+						clauses.set(id, null);
+						break;
+					}
+				}
+			}
+		}
+		learnedIds.removeIf(id -> clauses.get(id) == null);
+		for (int i = 0; i < trailSize; i++)
+			reasons[trail[i] >> 1] = NO_REASON;
+		removeDeletedWatches();
+		simplifiedTrailSize = trailSize;
+	}
+
+	private int pickBranchLiteral() {
+		while (!heap.isEmpty()) {
+			int var = heap.removeMax();
+			if (values[var] == UNDEF)
+				return 2 * var + (phases[var] ? 0 : 1);
+		}
+		return -1;
+	}
+
+	private void backtrack(int level) {
+		if (decisionLevel > level) {
+			for (int i = trailSize - 1; i >= trailLimits[level]; i--) {
+				int lit = trail[i];
+				int var = lit >> 1;
+				values[var] = UNDEF;
+				reasons[var] = NO_REASON;
+				phases[var] = (lit & 1) == 0;
+				heap.insert(var);
+			}
+			trailSize = trailLimits[level];
+			qHead = trailSize;
+			decisionLevel = level;
+		}
+	}
+
+	private void newDecisionLevel() {
+		// assumptions which are already implied can add levels without variables
+		if (decisionLevel == trailLimits.length)
+			trailLimits = Arrays.copyOf(trailLimits, 2 * decisionLevel);
+		if (decisionLevel + 1 >= levelStamps.length)
+			levelStamps = Arrays.copyOf(levelStamps, 2 * decisionLevel + 2);
+		trailLimits[decisionLevel++] = trailSize;
+	}
+
+	private void assign(int lit, int reason) {
+		int var = lit >> 1;
+		values[var] = (lit & 1) == 0 ? TRUE : FALSE;
+		levels[var] = decisionLevel;
+		reasons[var] = reason;
+		trail[trailSize++] = lit;
+	}
+
+	private byte valueOf(int lit) {
+		byte value = values[lit >> 1];
+		return (value == UNDEF || (lit & 1) == 0) ? value : (value == TRUE ? FALSE : TRUE);
+	}
+
+	private int attach(int[] clause, int lbd) {
+		int id = clauses.size();
+		clauses.add(clause);
+		if (id == lbds.length)
+			lbds = Arrays.copyOf(lbds, 2 * id);
+		lbds[id] = lbd;
+		addWatch(clause[0], id, clause[1]);
+		addWatch(clause[1], id, clause[0]);
+		return id;
+	}
+
+	private void addWatch(int lit, int id, int blocker) {
+		int n = watchSizes[lit];
+		if (watches[lit] == null)
+			watches[lit] = new int[4];
+		else if (n == watches[lit].length)
+			watches[lit] = Arrays.copyOf(watches[lit], 2 * n);
+		watches[lit][n] = id;
+		watches[lit][n + 1] = blocker;
+		watchSizes[lit] = n + 2;
+	}
+
+	private void bumpActivity(int var) {
+		if ((activities[var] += varInc) > 1e100) {
+			for (int v = 1; v <= numVars; v++)
+				activities[v] *= 1e-100;
+			varInc *= 1e-100;
+		}
+		heap.increased(var);
+	}
+
+	private void ensureVariables(int count) {
+		if (count <= numVars)
+			return;
+		if (count >= values.length) {
+			int capacity = Math.max(count + 1, 2 * values.length);
+			values = Arrays.copyOf(values, capacity);
+			levels = Arrays.copyOf(levels, capacity);
+			reasons = Arrays.copyOf(reasons, capacity);
+			phases = Arrays.copyOf(phases, capacity);
+			seen = Arrays.copyOf(seen, capacity);
+			activities = Arrays.copyOf(activities, capacity);
+			model = Arrays.copyOf(model, capacity);
+			levelStamps = Arrays.copyOf(levelStamps, Math.max(capacity, levelStamps.length));
+			learned = Arrays.copyOf(learned, capacity);
+			removed = Arrays.copyOf(removed, capacity);
+			trail = Arrays.copyOf(trail, capacity);
+			trailLimits = Arrays.copyOf(trailLimits, Math.max(capacity, trailLimits.length));
+			watches = Arrays.copyOf(watches, 2 * capacity);
+			watchSizes = Arrays.copyOf(watchSizes, 2 * capacity);
+		}
+		for (int var = numVars + 1; var <= count; var++) {
+			reasons[var] = NO_REASON;
+			heap.insert(var);
+		}
+		numVars = count;
+	}
+
+	private static int toLit(int literal) {
+		return literal > 0 ? 2 * literal : -2 * literal + 1;
+	}
+
+	/** Returns the i-th element (starting with 0) of the Luby sequence 1, 1, 2, 1, 1, 2, 4, ... */
+	static long luby(int i) {
+		int size = 1;
+		int seq = 0;
+		while (size < i + 1) {
+			seq++;
+			size = 2 * size + 1;
+		}
+		while (size - 1 != i) {
+			size = (size - 1) >> 1;
+			seq--;
+			i = i % size;
+		}
+		return 1L << seq;
+	}
+
+	/**
+	 * Counts a decision and returns true if the budget is exhausted or, if no
+	 * budget was set, the current task has been cancelled.
+	 */
+	private boolean isBudgetExhausted() {
+		return budget != null ? budget.spend() : (decisions.longValue() & 255) == 0 && Tasks.currIsCancelled();
+	}
+
+	/** Binary max-heap of variables ordered by activity. */
+	private class VarHeap {
+		private int[] heap = new int[16];
+		private int[] positions = new int[16]; // position + 1, 0 if not contained
+		private int size;
+
+		boolean isEmpty() {
+			return size == 0;
+		}
+
+		void insert(int var) {
+			if (var >= positions.length)
+				positions = Arrays.copyOf(positions, Math.max(var + 1, 2 * positions.length));
+			if (positions[var] != 0)
+				return;
+			if (size == heap.length)
+				heap = Arrays.copyOf(heap, 2 * size);
+			heap[size] = var;
+			positions[var] = ++size;
+			siftUp(size - 1);
+		}
+
+		void increased(int var) {
+			if (var < positions.length && positions[var] != 0)
+				siftUp(positions[var] - 1);
+		}
+
+		int removeMax() {
+			int result = heap[0];
+			positions[result] = 0;
+			if (--size > 0) {
+				heap[0] = heap[size];
+				positions[heap[0]] = 1;
+				siftDown(0);
+			}
+			return result;
+		}
+
+		private void siftUp(int i) {
+			int var = heap[i];
+			while (i > 0) {
+				int parent = (i - 1) >> 1;
+				if (activities[heap[parent]] >= activities[var])
+					break;
+				heap[i] = heap[parent];
+				positions[heap[i]] = i + 1;
+				i = parent;
+			}
+			heap[i] = var;
+			positions[var] = i + 1;
+		}
+
+		private void siftDown(int i) {
+			int var = heap[i];
+			while (true) {
+				int child = 2 * i + 1;
+				if (child >= size)
+					break;
+				if (child + 1 < size && activities[heap[child + 1]] > activities[heap[child]])
+					child++;
+				if (activities[heap[child]] <= activities[var])
+					break;
+				heap[i] = heap[child];
+				positions[heap[i]] = i + 1;
+				i = child;
+			}
+			heap[i] = var;
+			positions[var] = i + 1;
+		}
+	}
+}
@@ -8,6 +8,7 @@ import aima.core.logic.propositional.kb.data.Clause;
 import aima.core.logic.propositional.kb.data.Model;
 import aima.core.logic.propositional.parsing.ast.PropositionSymbol;
 import aima.core.logic.propositional.parsing.ast.Sentence;
+import aima.core.util.SearchBudget;
 
 /**
  * Interface describing main API of the DPLL algorithm as described in Figure
@@ -57,4 +58,17 @@ public interface DPLL {
 	 * @return true, if &alpha; is entailed by KB, false otherwise.
 	 */
 	boolean isEntailed(KnowledgeBase kb, Sentence alpha);
+
+	/**
+	 * Sets a budget which limits subsequent calls. Each DPLL call counts as
+	 * one node. When the budget is exhausted, the satisfiability tests return
+	 * false and entailment tests return false as well. In this case, the
+	 * results are unknown, which is indicated by the status of the budget.
+	 *
+	 * @param budget
+	 *            a budget or null for unlimited search.
+	 */
+	default void setBudget(SearchBudget budget) {
+		// the default implementation ignores the budget
+	}
 }
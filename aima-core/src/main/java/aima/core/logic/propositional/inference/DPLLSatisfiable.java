@@ -16,6 +16,7 @@ import aima.core.logic.propositional.parsing.ast.PropositionSymbol;
 import aima.core.logic.propositional.parsing.ast.Sentence;
 import aima.core.logic.propositional.visitors.ConvertToConjunctionOfClauses;
 import aima.core.logic.propositional.visitors.SymbolCollector;
+import aima.core.util.SearchBudget;
 import aima.core.util.Tasks;
 import aima.core.util.Util;
 import aima.core.util.datastructure.Pair;
@@ -53,7 +54,11 @@ import aima.core.util.datastructure.Pair;
  * propositional logic. The ideas behind FIND-PURE-SYMBOL and FIND-UNIT-CLAUSE
  * are described in the test; each returns a symbol (or null) and the truth
  * value to assign to that symbol. Like TT-ENTAILS?, DPLL operates over partial
- * models.
+ * models.<br>
+ * <br>
+ * For integer encoded clauses (see
+ * {@link aima.core.logic.propositional.kb.data.SymbolTable}), use
+ * {@link CDCLSolver}, which works on int arrays directly.
  * 
  * @author Ciaran O'Reilly
  * @author Ravi Mohan
@@ -61,6 +66,8 @@ import aima.core.util.datastructure.Pair;
  */
 public class DPLLSatisfiable implements DPLL {
 
+	private SearchBudget budget;
+
 	/**
 	 * DPLL-SATISFIABLE?(s)<br>
 	 * Checks the satisfiability of a sentence in propositional logic.
@@ -101,7 +108,7 @@ public class DPLLSatisfiable implements DPLL {
 			return true;
 
 		// if some clause in clauses is false in model then return false
-		if (someClauseFalse(clauses, model) || Tasks.currIsCancelled())
+		if (someClauseFalse(clauses, model) || isBudgetExhausted())
 			return false;
 
 		// P, value <- FIND-PURE-SYMBOL(symbols, clauses, model)
@@ -159,7 +166,14 @@ public class DPLLSatisfiable implements DPLL {
 		symbols.addAll(querySymbols);
 		symbols.addAll(kb.getSymbols());
 
-		return !dpll(kbAndNotAlpha, new ArrayList<PropositionSymbol>(symbols), new Model());
+		// an exhausted budget leaves the question open
+		return !dpll(kbAndNotAlpha, new ArrayList<PropositionSymbol>(symbols), new Model())
+				&& (budget == null || budget.getStatus() == SearchBudget.Status.WITHIN_BUDGET);
+	}
+
+	@Override
+	public void setBudget(SearchBudget budget) {
+		this.budget = budget;
 	}
 
 	//
@@ -354,4 +368,12 @@ public class DPLLSatisfiable implements DPLL {
 		}
 		return result;
 	}
-}
\ No newline at end of file
+
+	/**
+	 * Counts a DPLL call and returns true if the budget is exhausted or, if no
+	 * budget was set, the current task has been cancelled.
+	 */
+	private boolean isBudgetExhausted() {
+		return budget != null ? budget.spend() : Tasks.currIsCancelled();
+	}
+}
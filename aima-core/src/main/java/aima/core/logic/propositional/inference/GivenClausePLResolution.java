@@ -0,0 +1,309 @@
+package aima.core.logic.propositional.inference;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+import aima.core.logic.propositional.kb.KnowledgeBase;
+import aima.core.logic.propositional.kb.data.Clause;
+import aima.core.logic.propositional.kb.data.IntClause;
+import aima.core.logic.propositional.kb.data.SymbolTable;
+import aima.core.logic.propositional.parsing.ast.ComplexSentence;
+import aima.core.logic.propositional.parsing.ast.Connective;
+import aima.core.logic.propositional.parsing.ast.Sentence;
+import aima.core.logic.propositional.visitors.ConvertToConjunctionOfClauses;
+import aima.core.search.framework.Metrics;
+
+/**
+ * Resolution prover for propositional logic which is organized as a
+ * given-clause loop, as used by OTTER-like theorem provers (see AIMA3e, page
+ * 355). Instead of resolving all pairs of clauses in rounds, the prover keeps
+ * two sets of clauses:
+ * <ul>
+ * <li><i>usable</i>: clauses which have already been resolved with each
+ * other, initially the clauses of the knowledge base,</li>
+ * <li><i>set of support (SOS)</i>: clauses which still have to be processed,
+ * initially the clauses of &not;&alpha;.</li>
+ * </ul>
+ * In each step, the shortest clause of the SOS (unit preference) is selected as
+ * given clause, resolved with all usable clauses which contain a
+ * complementary literal, and moved to the usable clauses. Resolvents which
+ * are subsumed by a kept clause are dropped (forward subsumption), and kept
+ * clauses which are subsumed by a new resolvent are deleted (backward
+ * subsumption). Both checks use literal occurrence lists.
+ * <p>
+ * The set-of-support strategy is complete if the knowledge base is
+ * consistent. To answer all queries like {@link PLResolution}, clauses of the
+ * knowledge base which have never been given are moved to the SOS when the
+ * SOS runs empty. Callers who know that their knowledge base is consistent
+ * can skip this phase with {@link #setAssumeConsistentKB(boolean)}.
+ * </p>
+ */
+public class GivenClausePLResolution extends PLResolution {
+	public final static String METRICS_GIVEN_CLAUSES = "givenClauses";
+	public final static String METRICS_RESOLVENTS = "resolvents";
+	public final static String METRICS_FORWARD_SUBSUMED = "forwardSubsumed";
+	public final static String METRICS_BACKWARD_SUBSUMED = "backwardSubsumed";
+
+	private boolean assumeConsistentKB;
+	// statistics of the last query
+	private long givenClauses;
+	private long resolventCount;
+	private long forwardSubsumed;
+	private long backwardSubsumed;
+
+	// clause store of the current query
+	private PriorityQueue<Entry> sos;
+	private List<Entry> kbEntries;
+	// indexed by literal: all kept clauses containing the literal
+	private List<List<Entry>> occurrences;
+	// indexed by literal: all kept clauses whose first literal is the literal
+	private List<List<Entry>> firstOccurrences;
+	private long entryCount;
+
+	/**
+	 * Default constructor, which will set the algorithm to discard tautologies
+	 * by default.
+	 */
+	public GivenClausePLResolution() {
+		this(true);
+	}
+
+	/**
+	 * Constructor.
+	 *
+	 * @param discardTautologies
+	 *            true if the algorithm is to discard tautological clauses
+	 *            during processing, false otherwise.
+	 */
+	public GivenClausePLResolution(boolean discardTautologies) {
+		super(discardTautologies);
+	}
+
+	/**
+	 * @return true if the algorithm returns false as soon as the set of
+	 *         support runs empty.
+	 */
+	public boolean isAssumeConsistentKB() {
+		return assumeConsistentKB;
+	}
+
+	/**
+	 * Determine whether the knowledge base can be assumed to be consistent.
+	 * If so, queries which are not entailed are answered as soon as the set of
+	 * support runs empty. For an inconsistent knowledge base, which entails
+	 * every query, the algorithm may then return false.
+	 *
+	 * @param assumeConsistentKB
+	 */
+	public void setAssumeConsistentKB(boolean assumeConsistentKB) {
+		this.assumeConsistentKB = assumeConsistentKB;
+	}
+
+	/**
+	 * Returns statistics about the last call of
+	 * {@link #plResolution(KnowledgeBase, Sentence)}.
+	 */
+	public Metrics getMetrics() {
+		Metrics result = new Metrics();
+		result.set(METRICS_GIVEN_CLAUSES, givenClauses);
+		result.set(METRICS_RESOLVENTS, resolventCount);
+		result.set(METRICS_FORWARD_SUBSUMED, forwardSubsumed);
+		result.set(METRICS_BACKWARD_SUBSUMED, backwardSubsumed);
+		return result;
+	}
+
+	/**
+	 * Given-clause version of PL-RESOLUTION(KB, &alpha;).
+	 *
+	 * @param kb
+	 *            the knowledge base, a sentence in propositional logic.
+	 * @param alpha
+	 *            the query, a sentence in propositional logic.
+	 * @return true if KB |= &alpha;, false otherwise.
+	 */
+	@Override
+	public boolean plResolution(KnowledgeBase kb, Sentence alpha) {
+		givenClauses = 0;
+		resolventCount = 0;
+		forwardSubsumed = 0;
+		backwardSubsumed = 0;
+		SymbolTable symbols = new SymbolTable();
+		Set<Clause> kbClauses = new LinkedHashSet<Clause>(kb.asCNF());
+		Set<Clause> queryClauses = new LinkedHashSet<Clause>(ConvertToConjunctionOfClauses
+				.convert(new ComplexSentence(Connective.NOT, alpha)).getClauses());
+		discardTautologies(kbClauses);
+		discardTautologies(queryClauses);
+		Set<IntClause> usableInput = symbols.toIntClauses(kbClauses);
+		Set<IntClause> sosInput = symbols.toIntClauses(queryClauses);
+		try {
+			initialize(symbols.size());
+			for (IntClause clause : usableInput) {
+				if (clause.isEmpty())
+					return true;
+				if (findSubsumer(clause) == null)
+					keep(clause, false);
+			}
+			for (IntClause clause : sosInput) {
+				if (clause.isEmpty())
+					return true;
+				Entry subsumer = findSubsumer(clause);
+				if (subsumer == null)
+					keep(clause, true);
+				else if (subsumer.usable)
+					// the knowledge base clause becomes part of the support
+					moveToSos(subsumer);
+			}
+			while (true) {
+				Entry given = sos.poll();
+				if (given == null) {
+					if (assumeConsistentKB || !moveUnprocessedKBClausesToSos())
+						return false;
+					continue;
+				}
+				if (given.deleted)
+					continue;
+				givenClauses++;
+				List<IntClause> resolvents = new ArrayList<IntClause>();
+				for (int i = 0; i < given.clause.size(); i++) {
+					int literal = given.clause.get(i);
+					for (Entry partner : liveEntries(occurrences, -literal)) {
+						if (partner.usable) {
+							IntClause resolvent = given.clause.resolve(partner.clause, literal);
+							if (resolvent.isEmpty())
+								return true;
+							if (!(isDiscardTautologies() && resolvent.isTautology()))
+								resolvents.add(resolvent);
+						}
+					}
+				}
+				resolventCount += resolvents.size();
+				given.usable = true;
+				given.given = true;
+				for (IntClause resolvent : resolvents)
+					if (findSubsumer(resolvent) == null)
+						keep(resolvent, true);
+					else
+						forwardSubsumed++;
+			}
+		} finally {
+			// release the clause store
+			sos = null;
+			kbEntries = null;
+			occurrences = null;
+			firstOccurrences = null;
+		}
+	}
+
+	//
+	// PRIVATE
+	//
+
+	/** A kept clause. */
+	private static class Entry {
+		final IntClause clause;
+		final long number;
+		boolean usable;
+		boolean given;
+		boolean deleted;
+
+		Entry(IntClause clause, long number) {
+			this.clause = clause;
+			this.number = number;
+		}
+	}
+
+	private void initialize(int numSymbols) {
+		// unit preference, ties are broken in favor of older clauses
+		sos = new PriorityQueue<Entry>(Comparator.<Entry>comparingInt(e -> e.clause.size())
+				.thenComparingLong(e -> e.number));
+		kbEntries = new ArrayList<Entry>();
+		occurrences = new ArrayList<List<Entry>>();
+		firstOccurrences = new ArrayList<List<Entry>>();
+		for (int i = 0; i < 2 * numSymbols + 2; i++) {
+			occurrences.add(new ArrayList<Entry>());
+			firstOccurrences.add(new ArrayList<Entry>());
+		}
+		entryCount = 0;
+	}
+
+	/**
+	 * Adds the clause to the usable clauses or to the SOS and deletes all kept
+	 * clauses which are subsumed by it.
+	 */
+	private void keep(IntClause clause, boolean toSos) {
+		deleteSubsumedBy(clause);
+		Entry entry = new Entry(clause, entryCount++);
+		for (int i = 0; i < clause.size(); i++)
+			occurrences.get(index(clause.get(i))).add(entry);
+		firstOccurrences.get(index(clause.get(0))).add(entry);
+		if (toSos) {
+			sos.add(entry);
+		} else {
+			entry.usable = true;
+			kbEntries.add(entry);
+		}
+	}
+
+	/** Returns a kept clause which subsumes the given clause or null. */
+	private Entry findSubsumer(IntClause clause) {
+		// the first literal of a subsuming clause is contained in the clause
+		for (int i = 0; i < clause.size(); i++)
+			for (Entry entry : liveEntries(firstOccurrences, clause.get(i)))
+				if (entry.clause.subsumes(clause))
+					return entry;
+		return null;
+	}
+
+	private void deleteSubsumedBy(IntClause clause) {
+		// a subsumed clause is contained in the occurrence list of each
+		// literal of the clause, the shortest one is searched
+		List<Entry> candidates = null;
+		for (int i = 0; i < clause.size(); i++) {
+			List<Entry> entries = liveEntries(occurrences, clause.get(i));
+			if (candidates == null || entries.size() < candidates.size())
+				candidates = entries;
+		}
+		for (Entry entry : candidates) {
+			if (clause.subsumes(entry.clause)) {
+				entry.deleted = true;
+				backwardSubsumed++;
+			}
+		}
+	}
+
+	private void moveToSos(Entry entry) {
+		entry.usable = false;
+		sos.add(entry);
+	}
+
+	/**
+	 * Moves the clauses of the knowledge base which have not been given yet
+	 * to the SOS. Returns false if there are none.
+	 */
+	private boolean moveUnprocessedKBClausesToSos() {
+		boolean result = false;
+		for (Entry entry : kbEntries) {
+			if (entry.usable && !entry.given && !entry.deleted) {
+				moveToSos(entry);
+				result = true;
+			}
+		}
+		kbEntries.clear();
+		return result;
+	}
+
+	/** Returns the occurrence list of the literal without deleted clauses. */
+	private List<Entry> liveEntries(List<List<Entry>> index, int literal) {
+		List<Entry> result = index.get(index(literal));
+		result.removeIf(e -> e.deleted);
+		return result;
+	}
+
+	private static int index(int literal) {
+		return literal > 0 ? 2 * literal : -2 * literal + 1;
+	}
+}
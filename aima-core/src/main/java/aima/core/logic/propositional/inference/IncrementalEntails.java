@@ -0,0 +1,172 @@
+package aima.core.logic.propositional.inference;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import aima.core.logic.propositional.kb.data.Clause;
+import aima.core.logic.propositional.kb.data.Literal;
+import aima.core.logic.propositional.parsing.ast.ComplexSentence;
+import aima.core.logic.propositional.parsing.ast.Connective;
+import aima.core.logic.propositional.parsing.ast.PropositionSymbol;
+import aima.core.logic.propositional.parsing.ast.Sentence;
+import aima.core.logic.propositional.visitors.ConvertToConjunctionOfClauses;
+import aima.core.search.framework.Metrics;
+import aima.core.util.SearchBudget;
+
+/**
+ * Answers entailment queries for a growing set of clauses with one persistent
+ * {@link CDCLSolver}. As in {@link CDCLSatisfiable}, KB |= alpha is decided by
+ * testing the unsatisfiability of KB & ~alpha (AIMA3e p.g. 260), but the KB
+ * clauses are added to the solver only once and the clauses learned while
+ * answering one query speed up all following queries. The clauses of ~alpha
+ * are never added permanently: unit clauses become assumptions of the solver
+ * call, longer clauses are guarded by a fresh selector variable which is
+ * assumed during the call and retired afterwards.
+ * <p>
+ * Models found for satisfiable queries are cached until new clauses are
+ * added. A query whose negation is satisfied by a cached model is not
+ * entailed, which answers most queries of a batch without calling the
+ * solver.
+ * </p>
+ */
+public class IncrementalEntails {
+
+	public final static String METRICS_SOLVER_CALLS = "solverCalls";
+	public final static String METRICS_CACHE_HITS = "cacheHits";
+
+	private static final int MAX_CACHED_MODELS = 16;
+
+	private final CDCLSolver solver = new CDCLSolver();
+	private final Map<PropositionSymbol, Integer> variables = new HashMap<>();
+	/** Models of the clauses added so far, most recent first. */
+	private final List<boolean[]> models = new ArrayList<>();
+	private SearchBudget budget;
+	private int solverCalls;
+	private int cacheHits;
+
+	/**
+	 * Sets a budget which limits each solver call. Queries which cannot be
+	 * decided within the budget are answered with false.
+	 */
+	public void setBudget(SearchBudget budget) {
+		this.budget = budget;
+		solver.setBudget(budget);
+	}
+
+	/** Adds clauses to the knowledge base represented by this object. */
+	public void addClauses(Collection<Clause> clauses) {
+		for (Clause clause : clauses) {
+			int[] literals = encode(clause);
+			if (literals != null)
+				solver.addClause(literals);
+		}
+		models.clear();
+	}
+
+	/** Checks whether the clauses added so far entail the given sentence. */
+	public boolean isEntailed(Sentence alpha) {
+		Set<Clause> notAlpha = ConvertToConjunctionOfClauses.convert
+				(new ComplexSentence(Connective.NOT, alpha)).getClauses();
+		List<int[]> units = new ArrayList<>();
+		List<int[]> others = new ArrayList<>();
+		for (Clause clause : notAlpha) {
+			int[] literals = encode(clause);
+			if (literals == null)
+				continue;
+			if (literals.length == 0)
+				return true; // ~alpha is unsatisfiable
+			(literals.length == 1 ? units : others).add(literals);
+		}
+		for (boolean[] model : models) {
+			if (satisfiesAll(model, units) && satisfiesAll(model, others)) {
+				cacheHits++;
+				return false;
+			}
+		}
+		int[] assumptions = new int[units.size() + (others.isEmpty() ? 0 : 1)];
+		for (int i = 0; i < units.size(); i++)
+			assumptions[i] = units.get(i)[0];
+		int selector = 0;
+		if (!others.isEmpty()) {
+			selector = solver.newVariable();
+			assumptions[units.size()] = selector;
+			for (int[] literals : others) {
+				int[] guarded = new int[literals.length + 1];
+				System.arraycopy(literals, 0, guarded, 0, literals.length);
+				guarded[literals.length] = -selector;
+				solver.addClause(guarded);
+			}
+		}
+		solverCalls++;
+		boolean satisfiable = solver.solve(assumptions);
+		if (selector != 0)
+			solver.addClause(-selector);
+		if (satisfiable) {
+			boolean[] model = new boolean[solver.getVariableCount() + 1];
+			for (int var = 1; var < model.length; var++)
+				model[var] = solver.getValue(var);
+			if (models.size() == MAX_CACHED_MODELS)
+				models.remove(models.size() - 1);
+			models.add(0, model);
+			return false;
+		}
+		// an exhausted budget leaves the question open
+		return budget == null || budget.getStatus() == SearchBudget.Status.WITHIN_BUDGET;
+	}
+
+	/**
+	 * Checks a batch of queries. Models found while answering one query are
+	 * reused to answer the others.
+	 */
+	public List<Boolean> areEntailed(List<? extends Sentence> alphas) {
+		List<Boolean> result = new ArrayList<>(alphas.size());
+		for (Sentence alpha : alphas)
+			result.add(isEntailed(alpha));
+		return result;
+	}
+
+	/** Returns the number of solver calls and of queries answered by cached models. */
+	public Metrics getMetrics() {
+		Metrics result = new Metrics();
+		result.set(METRICS_SOLVER_CALLS, solverCalls);
+		result.set(METRICS_CACHE_HITS, cacheHits);
+		return result;
+	}
+
+	/**
+	 * Returns the DIMACS literals of the clause without always false literals,
+	 * or null if the clause is a tautology.
+	 */
+	private int[] encode(Clause clause) {
+		if (clause.isTautology())
+			return null;
+		List<Integer> literals = new ArrayList<>(clause.getNumberLiterals());
+		for (Literal literal : clause.getLiterals()) {
+			if (!literal.isAlwaysFalse()) {
+				int var = variables.computeIfAbsent(literal.getAtomicSentence(), s -> solver.newVariable());
+				literals.add(literal.isPositiveLiteral() ? var : -var);
+			}
+		}
+		return literals.stream().mapToInt(Integer::intValue).toArray();
+	}
+
+	private static boolean satisfiesAll(boolean[] model, List<int[]> clauses) {
+		for (int[] clause : clauses) {
+			boolean satisfied = false;
+			for (int literal : clause) {
+				int var = Math.abs(literal);
+				if (var < model.length && model[var] == literal > 0) {
+					satisfied = true;
+					break;
+				}
+			}
+			if (!satisfied)
+				return false;
+		}
+		return true;
+	}
+}
@@ -16,12 +16,15 @@ import aima.core.logic.propositional.parsing.ast.PropositionSymbol;
 import aima.core.logic.propositional.parsing.ast.Sentence;
 import aima.core.logic.propositional.visitors.ConvertToConjunctionOfClauses;
 import aima.core.logic.propositional.visitors.SymbolCollector;
+import aima.core.util.SearchBudget;
 import aima.core.util.Tasks;
 import aima.core.util.Util;
 import aima.core.util.datastructure.Pair;
 
 public class OptimizedDPLL implements DPLL {
 
+	private SearchBudget budget;
+
 	//
 	// START-DPLL
 	@Override
@@ -68,7 +71,7 @@ public class OptimizedDPLL implements DPLL {
 		}
 		if (allTrue) {
 			return true;
-		} else if (Tasks.currIsCancelled())
+		} else if (isBudgetExhausted())
 			return false;
 		
 		// NOTE: Performance Optimization -
@@ -129,7 +132,14 @@ public class OptimizedDPLL implements DPLL {
 		symbols.addAll(querySymbols);
 		symbols.addAll(kb.getSymbols());
 
-		return !dpll(kbAndNotAlpha, new ArrayList<>(symbols), new Model());
+		// an exhausted budget leaves the question open
+		return !dpll(kbAndNotAlpha, new ArrayList<>(symbols), new Model())
+				&& (budget == null || budget.getStatus() == SearchBudget.Status.WITHIN_BUDGET);
+	}
+
+	@Override
+	public void setBudget(SearchBudget budget) {
+		this.budget = budget;
 	}
 	// END-DPLL
 	//
@@ -320,4 +330,12 @@ public class OptimizedDPLL implements DPLL {
 		}
 		return result;
 	}
+
+	/**
+	 * Counts a DPLL call and returns true if the budget is exhausted or, if no
+	 * budget was set, the current task has been cancelled.
+	 */
+	private boolean isBudgetExhausted() {
+		return budget != null ? budget.spend() : Tasks.currIsCancelled();
+	}
 }
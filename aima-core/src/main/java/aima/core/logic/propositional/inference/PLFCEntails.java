@@ -1,17 +1,13 @@
 package aima.core.logic.propositional.inference;
 
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.LinkedList;
-import java.util.Map;
-import java.util.Queue;
-import java.util.Set;
+import java.util.ArrayList;
+import java.util.List;
 
 import aima.core.logic.propositional.kb.KnowledgeBase;
 import aima.core.logic.propositional.kb.data.Clause;
+import aima.core.logic.propositional.kb.data.IntClause;
+import aima.core.logic.propositional.kb.data.SymbolTable;
 import aima.core.logic.propositional.parsing.ast.PropositionSymbol;
-import aima.core.logic.propositional.visitors.ConvertToConjunctionOfClauses;
-import aima.core.logic.propositional.visitors.SymbolCollector;
 
 /**
  * Artificial Intelligence A Modern Approach (3rd Edition): page 258.<br>
@@ -70,38 +66,47 @@ public class PLFCEntails {
 	 *             if KB contains any non-definite clauses.
 	 */
 	public boolean plfcEntails(KnowledgeBase kb, PropositionSymbol q) {
+		// Note: clauses and symbols are represented by integers, see SymbolTable
+		SymbolTable symbols = new SymbolTable();
+		List<IntClause> clauses = initializeClauses(kb, symbols);
 		// count <- a table, where count[c] is the number of symbols in c's
 		// premise
-		Map<Clause, Integer> count = initializeCount(kb);
+		int[] count = new int[clauses.size()];
+		for (int c = 0; c < count.length; c++)
+			count[c] = clauses.get(c).getNumberNegativeLiterals();
 		// inferred <- a table, where inferred[s] is initially false for all
 		// symbols
-		Map<PropositionSymbol, Boolean> inferred = initializeInferred(kb);
+		boolean[] inferred = new boolean[symbols.size() + 1];
 		// agenda <- a queue of symbols, initially symbols known to be true in
-		// KB
-		Queue<PropositionSymbol> agenda = initializeAgenda(count);
+		// KB (Note: each clause adds its conclusion at most once)
+		int[] agenda = new int[clauses.size()];
+		int head = 0;
+		int tail = 0;
+		for (int c = 0; c < count.length; c++)
+			if (count[c] == 0)
+				agenda[tail++] = conclusion(clauses.get(c));
 		// Note: an index for p to the clauses where p appears in the premise
-		Map<PropositionSymbol, Set<Clause>> pToClausesWithPInPremise = initializeIndex(
-				count, inferred);
+		int[][] pToClausesWithPInPremise = initializeIndex(clauses, symbols.size());
+		int qId = symbols.lookupId(q);
 
 		// while agenda is not empty do
-		while (!agenda.isEmpty()) {
+		while (head < tail) {
 			// p <- Pop(agenda)
-			PropositionSymbol p = agenda.remove();
+			int p = agenda[head++];
 			// if p = q then return true
-			if (p.equals(q)) {
+			if (p == qId) {
 				return true;
 			}
 			// if inferred[p] = false then
-			if (inferred.get(p).equals(Boolean.FALSE)) {
+			if (!inferred[p]) {
 				// inferred[p] <- true
-				inferred.put(p, true);
+				inferred[p] = true;
 				// for each clause c in KB where p is in c.PREMISE do
-				for (Clause c : pToClausesWithPInPremise.get(p)) {
+				for (int c : pToClausesWithPInPremise[p]) {
 					// decrement count[c]
-					decrement(count, c);
 					// if count[c] = 0 then add c.CONCLUSION to agenda
-					if (count.get(c) == 0) {
-						agenda.add(conclusion(c));
+					if (--count[c] == 0) {
+						agenda[tail++] = conclusion(clauses.get(c));
 					}
 				}
 			}
@@ -118,82 +123,47 @@ public class PLFCEntails {
 	//
 	// PROTECTED
 	//
-	protected Map<Clause, Integer> initializeCount(KnowledgeBase kb) {
-		// count <- a table, where count[c] is the number of symbols in c's
-		// premise
-		Map<Clause, Integer> count = new HashMap<Clause, Integer>();
-
-		Set<Clause> clauses = ConvertToConjunctionOfClauses.convert(
-				kb.asSentence()).getClauses();
-		for (Clause c : clauses) {
+	protected List<IntClause> initializeClauses(KnowledgeBase kb, SymbolTable symbols) {
+		List<IntClause> result = new ArrayList<IntClause>();
+		for (Clause c : kb.asCNF()) {
 			if (!c.isDefiniteClause()) {
 				throw new IllegalArgumentException(
 						"Knowledge Base contains non-definite clauses:" + c);
 			}
-			// Note: # of negative literals is equivalent to the number of
-			// symbols in c's premise
-			count.put(c, c.getNumberNegativeLiterals());
-		}
-
-		return count;
-	}
-
-	protected Map<PropositionSymbol, Boolean> initializeInferred(KnowledgeBase kb) {
-		// inferred <- a table, where inferred[s] is initially false for all
-		// symbols
-		Map<PropositionSymbol, Boolean> inferred = new HashMap<PropositionSymbol, Boolean>();
-		for (PropositionSymbol p : SymbolCollector.getSymbolsFrom(kb
-				.asSentence())) {
-			inferred.put(p, false);
+			result.add(symbols.toIntClause(c));
 		}
-		return inferred;
+		return result;
 	}
 
-	// Note: at the point of calling this routine, count will contain all the
-	// clauses in KB.
-	protected Queue<PropositionSymbol> initializeAgenda(Map<Clause, Integer> count) {
-		// agenda <- a queue of symbols, initially symbols known to be true in
-		// KB
-		Queue<PropositionSymbol> agenda = new LinkedList<PropositionSymbol>();
-		for (Clause c : count.keySet()) {
-			// No premise just a conclusion, then we know its true
-			if (c.getNumberNegativeLiterals() == 0) {
-				agenda.add(conclusion(c));
+	// Returns for each symbol id the indices of the clauses with the symbol
+	// in their premise.
+	protected int[][] initializeIndex(List<IntClause> clauses, int numSymbols) {
+		int[] sizes = new int[numSymbols + 1];
+		for (IntClause c : clauses) {
+			// Note: The negative symbols comprise the premise
+			for (int i = 0; i < c.getNumberNegativeLiterals(); i++) {
+				sizes[-c.get(i)]++;
 			}
 		}
-		return agenda;
-	}
-
-	// Note: at the point of calling this routine, count will contain all the
-	// clauses in KB while inferred will contain all the proposition symbols.
-	protected Map<PropositionSymbol, Set<Clause>> initializeIndex(
-			Map<Clause, Integer> count, Map<PropositionSymbol, Boolean> inferred) {
-		Map<PropositionSymbol, Set<Clause>> pToClausesWithPInPremise = new HashMap<PropositionSymbol, Set<Clause>>();
-		for (PropositionSymbol p : inferred.keySet()) {
-			Set<Clause> clausesWithPInPremise = new HashSet<Clause>();
-			for (Clause c : count.keySet()) {
-				// Note: The negative symbols comprise the premise
-				if (c.getNegativeSymbols().contains(p)) {
-					clausesWithPInPremise.add(c);
-				}
+		int[][] result = new int[numSymbols + 1][];
+		for (int p = 0; p <= numSymbols; p++) {
+			result[p] = new int[sizes[p]];
+			sizes[p] = 0;
+		}
+		for (int c = 0; c < clauses.size(); c++) {
+			IntClause clause = clauses.get(c);
+			for (int i = 0; i < clause.getNumberNegativeLiterals(); i++) {
+				int p = -clause.get(i);
+				result[p][sizes[p]++] = c;
 			}
-			pToClausesWithPInPremise.put(p, clausesWithPInPremise);
 		}
-		return pToClausesWithPInPremise;
-	}
-
-	protected void decrement(Map<Clause, Integer> count, Clause c) {
-		int currentCount = count.get(c);
-		// Note: a definite clause can just be a fact (i.e. 1 positive literal)
-		// However, we only decrement those where the symbol is in the premise
-		// so we don't need to worry about going < 0.
-		count.put(c, currentCount - 1);
+		return result;
 	}
 
-	protected PropositionSymbol conclusion(Clause c) {
+	protected int conclusion(IntClause c) {
 		// Note: the conclusion is from the single positive
 		// literal in the definite clause (which we are
-		// restricted to).
-		return c.getPositiveSymbols().iterator().next();
+		// restricted to). Positive literals come last.
+		return c.get(c.size() - 1);
 	}
-}
\ No newline at end of file
+}
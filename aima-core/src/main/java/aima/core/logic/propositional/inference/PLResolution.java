@@ -8,7 +8,9 @@ import java.util.Set;
 
 import aima.core.logic.propositional.kb.KnowledgeBase;
 import aima.core.logic.propositional.kb.data.Clause;
+import aima.core.logic.propositional.kb.data.IntClause;
 import aima.core.logic.propositional.kb.data.Literal;
+import aima.core.logic.propositional.kb.data.SymbolTable;
 import aima.core.logic.propositional.parsing.ast.ComplexSentence;
 import aima.core.logic.propositional.parsing.ast.Connective;
 import aima.core.logic.propositional.parsing.ast.PropositionSymbol;
@@ -72,36 +74,41 @@ public class PLResolution {
 	public boolean plResolution(KnowledgeBase kb, Sentence alpha) {
 		// clauses <- the set of clauses in the CNF representation
 		// of KB & ~alpha
-		Set<Clause> clauses = setOfClausesInTheCNFRepresentationOfKBAndNotAlpha(
-				kb, alpha);
-		// new <- {}
-		Set<Clause> newClauses = new LinkedHashSet<Clause>();
+		// (Optimization: clauses are processed as integer clauses and the
+		// pairs of clauses which have already been resolved in earlier rounds
+		// are skipped. Pairs are resolved in rounds as before.)
+		SymbolTable symbols = new SymbolTable();
+		Set<IntClause> clauses = symbols.toIntClauses
+				(setOfClausesInTheCNFRepresentationOfKBAndNotAlpha(kb, alpha));
+		List<IntClause> clausesAsList = new ArrayList<IntClause>(clauses);
+		// clauses with index below resolved have been resolved with each other
+		int resolved = 0;
 		// loop do
 		do {
+			int size = clausesAsList.size();
 			// for each pair of clauses C_i, C_j in clauses do
-			List<Clause> clausesAsList = new ArrayList<Clause>(clauses);
-			for (int i = 0; i < clausesAsList.size() - 1; i++) {
-				Clause ci = clausesAsList.get(i);
-				for (int j = i + 1; j < clausesAsList.size(); j++) {
-					Clause cj = clausesAsList.get(j);
+			for (int j = resolved; j < size; j++) {
+				IntClause cj = clausesAsList.get(j);
+				for (int i = 0; i < j; i++) {
+					IntClause ci = clausesAsList.get(i);
 					// resolvents <- PL-RESOLVE(C_i, C_j)
-					Set<Clause> resolvents = plResolve(ci, cj);
+					Set<IntClause> resolvents = plResolve(ci, cj);
 					// if resolvents contains the empty clause then return true
-					if (resolvents.contains(Clause.EMPTY)) {
+					if (resolvents.contains(IntClause.EMPTY)) {
 						return true;
 					}
-					// new <- new U resolvents
-					newClauses.addAll(resolvents);
+					// new <- new U resolvents, clauses <- clauses U new
+					// (new clauses take part in the next round)
+					for (IntClause resolvent : resolvents)
+						if (clauses.add(resolvent))
+							clausesAsList.add(resolvent);
 				}
 			}
 			// if new is subset of clauses then return false
-			if (clauses.containsAll(newClauses)) {
+			if (clausesAsList.size() == size) {
 				return false;
 			}
-
-			// clauses <- clauses U new
-			clauses.addAll(newClauses);
-
+			resolved = size;
 		} while (true);
 	}
 
@@ -127,6 +134,30 @@ public class PLResolution {
 		return resolvents;
 	}
 
+	/**
+	 * PL-RESOLVE(C<sub>i</sub>, C<sub>j</sub>) for integer encoded clauses.
+	 * 
+	 * @param ci
+	 *            clause 1
+	 * @param cj
+	 *            clause 2
+	 * @return the set of all possible clauses obtained by resolving its two
+	 *         inputs.
+	 */
+	public Set<IntClause> plResolve(IntClause ci, IntClause cj) {
+		Set<IntClause> resolvents = new LinkedHashSet<IntClause>();
+		for (int k = 0; k < ci.size(); k++) {
+			int literal = ci.get(k);
+			if (cj.contains(-literal)) {
+				IntClause resolvent = ci.resolve(cj, literal);
+				if (!(isDiscardTautologies() && resolvent.isTautology())) {
+					resolvents.add(resolvent);
+				}
+			}
+		}
+		return resolvents;
+	}
+
 	//
 	// SUPPORTING CODE
 	//
@@ -0,0 +1,144 @@
+package aima.core.logic.propositional.inference;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicReference;
+
+import aima.core.logic.propositional.kb.data.Clause;
+import aima.core.logic.propositional.kb.data.Model;
+import aima.core.logic.propositional.kb.data.SymbolTable;
+import aima.core.logic.propositional.parsing.ast.PropositionSymbol;
+import aima.core.util.SearchBudget;
+
+/**
+ * SAT solver interface for {@link WalkSATSolver}. Clauses are translated into
+ * integer encoded literals and several independent walkers with different
+ * random seeds search for a model in parallel. The first walker runs in the
+ * calling thread, the others in a configurable {@link ForkJoinPool}, and the
+ * first model found stops all walkers. As a local search algorithm, it cannot
+ * prove unsatisfiability: a result of null only means that no walker found a
+ * model within its flips (or within the budget, see
+ * {@link #setBudget(SearchBudget)}).
+ * <p>
+ * Which walker finds a model first depends on thread timing. So with more
+ * than one walker, the returned model may differ from run to run, even if a
+ * seed is set.
+ * </p>
+ * <p>
+ * Example:
+ * <pre>
+ * Model model = new ParallelWalkSAT(4, 100000).solve(clauses);
+ * </pre>
+ * </p>
+ */
+public class ParallelWalkSAT implements SATSolver {
+
+	private final int numWalkers;
+	private final long maxFlips;
+	private Long seed;
+	private WalkSATSolver.Heuristic heuristic = WalkSATSolver.Heuristic.WALKSAT;
+	private ForkJoinPool pool = ForkJoinPool.commonPool();
+	private SearchBudget budget;
+
+	/**
+	 * @param numWalkers number of independent walkers.
+	 * @param maxFlips   flips per walker before giving up, a value &lt; 0 is
+	 *                   interpreted as infinity.
+	 */
+	public ParallelWalkSAT(int numWalkers, long maxFlips) {
+		if (numWalkers < 1)
+			throw new IllegalArgumentException("At least one walker is needed.");
+		this.numWalkers = numWalkers;
+		this.maxFlips = maxFlips;
+	}
+
+	/**
+	 * Seeds the walkers: walker i uses a random generator with seed seed + i,
+	 * so each walker flips the same sequence of variables in every run. The
+	 * returned model is only reproducible with a single walker.
+	 */
+	public ParallelWalkSAT setSeed(long seed) {
+		this.seed = seed;
+		return this;
+	}
+
+	public ParallelWalkSAT setHeuristic(WalkSATSolver.Heuristic heuristic) {
+		this.heuristic = heuristic;
+		return this;
+	}
+
+	/** Sets the pool which executes the walkers (default: common pool). */
+	public ParallelWalkSAT setPool(ForkJoinPool pool) {
+		this.pool = pool;
+		return this;
+	}
+
+	/**
+	 * Sets a budget whose limits apply to the walk as a whole: each walker
+	 * runs on a child budget, so the nodes of all walkers are charged to the
+	 * given budget, and cancelling it stops all walkers.
+	 */
+	public ParallelWalkSAT setBudget(SearchBudget budget) {
+		this.budget = budget;
+		return this;
+	}
+
+	/**
+	 * Returns a model which assigns values to all symbols of the clauses or
+	 * null if no walker found one.
+	 */
+	@Override
+	public Model solve(Set<Clause> cnf) {
+		WalkSATSolver solver = new WalkSATSolver().setHeuristic(heuristic);
+		SymbolTable symbols = new SymbolTable();
+		for (Clause clause : cnf)
+			solver.addClause(symbols.toIntClause(clause).getLiterals());
+		while (solver.getVariableCount() < symbols.size())
+			solver.newVariable();
+		boolean[] values = findModel(solver);
+		if (values == null)
+			return null;
+		Map<PropositionSymbol, Boolean> result = new HashMap<>();
+		for (int var = 1; var <= symbols.size(); var++)
+			result.put(symbols.getSymbol(var), values[var]);
+		return new Model(result);
+	}
+
+	/**
+	 * Runs the walkers on the clauses of the given solver and returns the
+	 * first model found (indexed by variable) or null.
+	 */
+	public boolean[] findModel(WalkSATSolver solver) {
+		AtomicReference<boolean[]> result = new AtomicReference<>();
+		SearchBudget parent = budget != null ? budget : new SearchBudget();
+		List<SearchBudget> budgets = new ArrayList<>();
+		for (int i = 0; i < numWalkers; i++)
+			budgets.add(parent.createChild());
+		List<Runnable> walkers = new ArrayList<>();
+		for (int i = 0; i < numWalkers; i++) {
+			Random random = seed != null ? new Random(seed + i) : new Random();
+			SearchBudget walkerBudget = budgets.get(i);
+			walkers.add(() -> {
+				boolean[] model = result.get() == null ? solver.findModel(maxFlips, random, walkerBudget) : null;
+				if (model != null && result.compareAndSet(null, model))
+					budgets.forEach(SearchBudget::cancel);
+			});
+		}
+		List<ForkJoinTask<?>> helpers = new ArrayList<>();
+		for (Runnable walker : walkers.subList(1, walkers.size()))
+			helpers.add(pool.submit(walker));
+		try {
+			walkers.get(0).run();
+		} finally {
+			for (ForkJoinTask<?> helper : helpers)
+				helper.join();
+		}
+		return result.get();
+	}
+}
@@ -35,6 +35,11 @@ import aima.core.logic.propositional.parsing.ast.PropositionSymbol;
  * 
  * Figure 7.18 The WALKSAT algorithm for checking satisfiability by randomly
  * flipping the values of variables. Many versions of the algorithm exist.
+ * This implementation follows the pseudo-code closely and re-evaluates all
+ * clauses after each flip. {@link WalkSATSolver} and {@link ParallelWalkSAT}
+ * maintain the needed counts incrementally and scale to large clause sets.
+ * They also accept integer encoded clauses (see
+ * {@link aima.core.logic.propositional.kb.data.SymbolTable}).
  * 
  * @author Ciaran O'Reilly
  * @author Ravi Mohan
@@ -0,0 +1,363 @@
+package aima.core.logic.propositional.inference;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+
+import aima.core.search.framework.Metrics;
+import aima.core.util.SearchBudget;
+import aima.core.util.Tasks;
+
+/**
+ * Local search SAT solver working on integer encoded literals. It implements
+ * the WALKSAT algorithm (AIMA3e Figure 7.18) and, as alternative flip
+ * heuristic, ProbSAT, which chooses the variable to flip with a probability
+ * decreasing polynomially in its break count.
+ * <p>
+ * In contrast to {@link WalkSAT}, which re-evaluates all clauses after each
+ * flip, all information needed for a flip is maintained incrementally: the
+ * number of true literals per clause, the set of false clauses (an array with
+ * position index, so that a random false clause is picked in constant time),
+ * and for each variable the make count (number of false clauses which would
+ * become true by flipping it) and the break count (number of clauses in which
+ * it provides the only true literal). A flip only touches the clauses
+ * containing the flipped variable.
+ * </p>
+ * <p>
+ * Variables and literals are encoded as in {@link CDCLSolver}. After all
+ * clauses have been added, {@link #findModel(long, Random, SearchBudget)} can
+ * be called from several threads at the same time, which is used by
+ * {@link ParallelWalkSAT} to run independent walkers.
+ * </p>
+ */
+public class WalkSATSolver {
+
+	public final static String METRICS_FLIPS = "flips";
+	public final static String METRICS_RUNS = "runs";
+
+	public enum Heuristic {
+		/**
+		 * With probability p, flip a random variable of the clause, else the
+		 * one which maximizes the number of satisfied clauses (make - break).
+		 */
+		WALKSAT,
+		/** Flip a variable of the clause with probability proportional to (1 + break)^-cb. */
+		PROBSAT
+	}
+
+	private Heuristic heuristic = Heuristic.WALKSAT;
+	private double p = 0.5;
+	private double cb = 2.3;
+	private Random random = new Random();
+	private SearchBudget budget;
+
+	// clause database: literals of clause c at indices starts[c] .. starts[c + 1] - 1
+	private int numVars;
+	private int numClauses;
+	private int[] literals = new int[16];
+	private int[] starts = new int[] {0, 0};
+	private boolean containsEmptyClause;
+	// clauses containing a literal (index 2 * var + sign), created on demand
+	private int[] occurrenceStarts;
+	private int[] occurrences;
+
+	private boolean[] model;
+	private final AtomicLong flips = new AtomicLong();
+	private final AtomicLong runs = new AtomicLong();
+
+	public WalkSATSolver() {
+	}
+
+	public WalkSATSolver(Random random) {
+		this.random = random;
+	}
+
+	public WalkSATSolver setHeuristic(Heuristic heuristic) {
+		this.heuristic = heuristic;
+		return this;
+	}
+
+	/** Sets the probability of a random walk move for {@link Heuristic#WALKSAT}. */
+	public WalkSATSolver setP(double p) {
+		if (p < 0 || p > 1)
+			throw new IllegalArgumentException("p is not a legal probability value [0-1]: " + p);
+		this.p = p;
+		return this;
+	}
+
+	/** Sets the break exponent for {@link Heuristic#PROBSAT} (about 2.3 for 3-SAT). */
+	public WalkSATSolver setCb(double cb) {
+		this.cb = cb;
+		return this;
+	}
+
+	/**
+	 * Sets a budget which limits subsequent calls of {@link #solve(long)}.
+	 * Each flip counts as one node.
+	 */
+	public WalkSATSolver setBudget(SearchBudget budget) {
+		this.budget = budget;
+		return this;
+	}
+
+	/** Creates a new variable and returns its number. */
+	public int newVariable() {
+		return ++numVars;
+	}
+
+	public int getVariableCount() {
+		return numVars;
+	}
+
+	/**
+	 * Adds a clause. Variables which do not exist yet are created
+	 * automatically. Duplicate literals are removed and tautologies ignored.
+	 *
+	 * @param literals non-zero DIMACS literals.
+	 */
+	public synchronized void addClause(int... literals) {
+		int[] lits = new int[literals.length];
+		for (int i = 0; i < literals.length; i++) {
+			if (literals[i] == 0)
+				throw new IllegalArgumentException("Literal 0 is not allowed.");
+			numVars = Math.max(numVars, Math.abs(literals[i]));
+			lits[i] = literals[i] > 0 ? 2 * literals[i] : -2 * literals[i] + 1;
+		}
+		Arrays.sort(lits);
+		int start = starts[numClauses];
+		int size = 0;
+		for (int i = 0; i < lits.length; i++) {
+			if (i > 0 && lits[i] == (lits[i - 1] ^ 1))
+				return; // tautology
+			if (i == 0 || lits[i] != lits[i - 1]) {
+				if (start + size == this.literals.length)
+					this.literals = Arrays.copyOf(this.literals, 2 * this.literals.length);
+				this.literals[start + size++] = lits[i];
+			}
+		}
+		if (size == 0)
+			containsEmptyClause = true;
+		if (numClauses + 2 == starts.length)
+			starts = Arrays.copyOf(starts, 2 * starts.length);
+		starts[++numClauses] = start + size;
+		occurrences = null;
+	}
+
+	/**
+	 * Searches for a model, starting with a random assignment.
+	 *
+	 * @param maxFlips number of flips allowed before giving up. A value &lt; 0
+	 *                 is interpreted as infinity.
+	 * @return true if a model was found.
+	 */
+	public boolean solve(long maxFlips) {
+		model = findModel(maxFlips, random, budget);
+		return model != null;
+	}
+
+	/**
+	 * Returns the value of a variable in the model found by the last
+	 * successful call of {@link #solve(long)}.
+	 */
+	public boolean getValue(int var) {
+		return model[var];
+	}
+
+	/**
+	 * Performs one walk. This method does not change the state of the solver
+	 * and can be called by several threads at the same time.
+	 *
+	 * @param maxFlips number of flips allowed before giving up. A value &lt; 0
+	 *                 is interpreted as infinity.
+	 * @param random   the random generator of the walk.
+	 * @param budget   a budget which is charged with one node per flip or null.
+	 * @return a model indexed by variable or null if none was found.
+	 */
+	public boolean[] findModel(long maxFlips, Random random, SearchBudget budget) {
+		if (containsEmptyClause)
+			return null;
+		Walk walk = new Walk(random);
+		boolean found = walk.run(maxFlips, budget);
+		flips.addAndGet(walk.flipCount);
+		runs.incrementAndGet();
+		return found ? walk.values : null;
+	}
+
+	/** Returns the total number of flips and walks. */
+	public Metrics getMetrics() {
+		Metrics result = new Metrics();
+		result.set(METRICS_FLIPS, flips.get());
+		result.set(METRICS_RUNS, runs.get());
+		return result;
+	}
+
+	/** Creates the occurrence lists if clauses have been added since the last walk. */
+	private synchronized void createOccurrences() {
+		if (occurrences != null)
+			return;
+		int[] counts = new int[2 * numVars + 3];
+		for (int i = 0; i < starts[numClauses]; i++)
+			counts[literals[i] + 1]++;
+		for (int lit = 1; lit < counts.length; lit++)
+			counts[lit] += counts[lit - 1];
+		int[] occ = new int[starts[numClauses]];
+		int[] next = Arrays.copyOf(counts, counts.length);
+		for (int c = 0; c < numClauses; c++)
+			for (int i = starts[c]; i < starts[c + 1]; i++)
+				occ[next[literals[i]]++] = c;
+		occurrenceStarts = counts;
+		occurrences = occ;
+	}
+
+	/** State of one walk. */
+	private class Walk {
+		final Random random;
+		final int[] literals;
+		final int[] starts;
+		final int[] occurrenceStarts;
+		final int[] occurrences;
+		final boolean[] values = new boolean[numVars + 1];
+		final int[] trueCounts = new int[numClauses];
+		/** Xor of the variables of the true literals, i.e. the critical variable if only one is true. */
+		final int[] trueVars = new int[numClauses];
+		final int[] makes = new int[numVars + 1];
+		final int[] breaks = new int[numVars + 1];
+		final int[] falseClauses = new int[numClauses];
+		final int[] falsePositions = new int[numClauses];
+		int numFalse;
+		long flipCount;
+		double[] weights = new double[0];
+		/** ProbSAT weights (1 + break)^-cb for small break counts. */
+		final double[] breakWeights = new double[64];
+
+		Walk(Random random) {
+			this.random = random;
+			createOccurrences();
+			synchronized (WalkSATSolver.this) {
+				literals = WalkSATSolver.this.literals;
+				starts = WalkSATSolver.this.starts;
+				occurrenceStarts = WalkSATSolver.this.occurrenceStarts;
+				occurrences = WalkSATSolver.this.occurrences;
+			}
+			for (int i = 0; i < breakWeights.length; i++)
+				breakWeights[i] = Math.pow(1 + i, -cb);
+			// model <- a random assignment of true/false to the symbols in clauses
+			for (int var = 1; var < values.length; var++)
+				values[var] = random.nextBoolean();
+			for (int c = 0; c < trueCounts.length; c++) {
+				for (int i = starts[c]; i < starts[c + 1]; i++) {
+					int lit = literals[i];
+					if (values[lit >> 1] == ((lit & 1) == 0)) {
+						trueCounts[c]++;
+						trueVars[c] ^= lit >> 1;
+					}
+				}
+				if (trueCounts[c] == 0) {
+					addFalse(c);
+					for (int i = starts[c]; i < starts[c + 1]; i++)
+						makes[literals[i] >> 1]++;
+				} else if (trueCounts[c] == 1) {
+					breaks[trueVars[c]]++;
+				}
+			}
+		}
+
+		boolean run(long maxFlips, SearchBudget budget) {
+			for (; flipCount < maxFlips || maxFlips < 0; flipCount++) {
+				// if model satisfies clauses then return model
+				if (numFalse == 0)
+					return true;
+				if (budget != null ? budget.spend() : (flipCount & 1023) == 0 && Tasks.currIsCancelled())
+					return false;
+				// clause <- a randomly selected clause from clauses that is false in model
+				int c = falseClauses[random.nextInt(numFalse)];
+				flip(heuristic == Heuristic.WALKSAT ? selectWalkSAT(c) : selectProbSAT(c));
+			}
+			return numFalse == 0;
+		}
+
+		private int selectWalkSAT(int c) {
+			int from = starts[c];
+			int size = starts[c + 1] - from;
+			// with probability p flip a randomly selected symbol from clause
+			if (random.nextDouble() < p)
+				return literals[from + random.nextInt(size)] >> 1;
+			// else flip whichever symbol in clause maximizes the number of satisfied clauses
+			int best = 0;
+			int bestScore = Integer.MIN_VALUE;
+			int ties = 0;
+			for (int i = from; i < from + size; i++) {
+				int var = literals[i] >> 1;
+				int score = makes[var] - breaks[var];
+				if (score > bestScore) {
+					best = var;
+					bestScore = score;
+					ties = 1;
+				} else if (score == bestScore && random.nextInt(++ties) == 0) {
+					best = var;
+				}
+			}
+			return best;
+		}
+
+		private int selectProbSAT(int c) {
+			int from = starts[c];
+			int size = starts[c + 1] - from;
+			if (weights.length < size)
+				weights = new double[size];
+			double sum = 0;
+			for (int i = 0; i < size; i++) {
+				int b = breaks[literals[from + i] >> 1];
+				sum += b < breakWeights.length ? breakWeights[b] : Math.pow(1 + b, -cb);
+				weights[i] = sum;
+			}
+			double r = random.nextDouble() * sum;
+			int i = 0;
+			while (i < size - 1 && weights[i] <= r)
+				i++;
+			return literals[from + i] >> 1;
+		}
+
+		private void flip(int var) {
+			values[var] = !values[var];
+			int trueLit = values[var] ? 2 * var : 2 * var + 1;
+			for (int k = occurrenceStarts[trueLit]; k < occurrenceStarts[trueLit + 1]; k++) {
+				int c = occurrences[k];
+				int critical = trueVars[c];
+				trueVars[c] ^= var;
+				if (trueCounts[c]++ == 0) {
+					removeFalse(c);
+					for (int i = starts[c]; i < starts[c + 1]; i++)
+						makes[literals[i] >> 1]--;
+					breaks[var]++;
+				} else if (trueCounts[c] == 2) {
+					breaks[critical]--;
+				}
+			}
+			int falseLit = trueLit ^ 1;
+			for (int k = occurrenceStarts[falseLit]; k < occurrenceStarts[falseLit + 1]; k++) {
+				int c = occurrences[k];
+				trueVars[c] ^= var;
+				if (--trueCounts[c] == 0) {
+					addFalse(c);
+					for (int i = starts[c]; i < starts[c + 1]; i++)
+						makes[literals[i] >> 1]++;
+					breaks[var]--;
+				} else if (trueCounts[c] == 1) {
+					breaks[trueVars[c]]++;
+				}
+			}
+		}
+
+		private void addFalse(int c) {
+			falsePositions[c] = numFalse;
+			falseClauses[numFalse++] = c;
+		}
+
+		private void removeFalse(int c) {
+			int last = falseClauses[--numFalse];
+			falseClauses[falsePositions[c]] = last;
+			falsePositions[last] = falsePositions[c];
+		}
+	}
+}
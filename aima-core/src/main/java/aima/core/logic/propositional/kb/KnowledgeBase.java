@@ -6,6 +6,7 @@ import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
 
+import aima.core.logic.propositional.inference.IncrementalEntails;
 import aima.core.logic.propositional.inference.TTEntails;
 import aima.core.logic.propositional.kb.data.Clause;
 import aima.core.logic.propositional.kb.data.ConjunctionOfClauses;
@@ -24,6 +25,8 @@ public class KnowledgeBase {
 	private ConjunctionOfClauses asCNF = new ConjunctionOfClauses(Collections.emptySet());
 	private Set<PropositionSymbol> symbols = new LinkedHashSet<>();
 	private PLParser parser = new PLParser();
+	/** Answers {@link #ask(Sentence)} queries, created on demand. */
+	private IncrementalEntails entails;
 
 
 	/**
@@ -46,7 +49,10 @@ public class KnowledgeBase {
 	public void tell(Sentence aSentence) {
 		if (!(sentences.contains(aSentence))) {
 			sentences.add(aSentence);
-			asCNF = asCNF.extend(ConvertToConjunctionOfClauses.convert(aSentence).getClauses());
+			Set<Clause> clauses = ConvertToConjunctionOfClauses.convert(aSentence).getClauses();
+			asCNF = asCNF.extend(clauses);
+			if (entails != null)
+				entails.addClauses(clauses);
 			symbols.addAll(SymbolCollector.getSymbolsFrom(aSentence));
 		}
 	}
@@ -119,6 +125,47 @@ public class KnowledgeBase {
 		return new TTEntails().ttEntails(this, alpha);
 	}
 
+	/**
+	 * Returns the answer to the specified question. The knowledge base keeps
+	 * one incremental SAT solver for all queries. Sentences are added to it
+	 * when they are told, and clauses learned during one query are reused by
+	 * the following ones.
+	 * 
+	 * @param query
+	 *            a question to ASK the knowledge base
+	 * 
+	 * @return true if the knowledge base entails the query.
+	 */
+	public boolean ask(Sentence query) {
+		return getIncrementalEntails().isEntailed(query);
+	}
+
+	/**
+	 * Returns the answers to a batch of questions. Models found while
+	 * answering one question are used to answer the others without search
+	 * if possible.
+	 * 
+	 * @param queries
+	 *            questions to ASK the knowledge base
+	 * 
+	 * @return for each query, whether the knowledge base entails it.
+	 */
+	public List<Boolean> askAll(List<? extends Sentence> queries) {
+		return getIncrementalEntails().areEntailed(queries);
+	}
+
+	/**
+	 * Returns the solver which answers {@link #ask(Sentence)} queries. It is
+	 * created on the first call and kept in sync with the sentences told later.
+	 */
+	public IncrementalEntails getIncrementalEntails() {
+		if (entails == null) {
+			entails = new IncrementalEntails();
+			entails.addClauses(asCNF());
+		}
+		return entails;
+	}
+
 	@Override
 	public String toString() {
 		return sentences.isEmpty() ? "" : asSentence().toString();
@@ -0,0 +1,164 @@
+package aima.core.logic.propositional.kb.data;
+
+import java.util.Arrays;
+
+/**
+ * Compact, immutable representation of a clause as sorted array of integer
+ * encoded literals. Literals are encoded as in the DIMACS format:
+ * <code>v</code> stands for the positive and <code>-v</code> for the negative
+ * literal of the proposition symbol with id <code>v</code> (see
+ * {@link SymbolTable}). The hash code is computed once at creation, so sets of
+ * clauses can be checked for duplicates at array speed.
+ * <p>
+ * In contrast to {@link Clause}, no symbol has a fixed meaning here. When
+ * converting from clauses, literals which are always false are dropped by
+ * {@link Clause} already, and the symbol <i>True</i> is treated like any
+ * other symbol. As <code>~True</code> never occurs, clauses containing
+ * <i>True</i> are never used for refutation, which is what tautologies
+ * are good for anyway.
+ * </p>
+ */
+public final class IntClause {
+	public static final IntClause EMPTY = new IntClause(new int[0]);
+
+	private final int[] literals;
+	private final int hash;
+
+	private IntClause(int[] sortedLiterals) {
+		literals = sortedLiterals;
+		hash = Arrays.hashCode(sortedLiterals);
+	}
+
+	/**
+	 * Creates a clause from integer encoded literals. The array is copied,
+	 * sorted and duplicate literals are removed.
+	 */
+	public static IntClause of(int... literals) {
+		int[] lits = literals.clone();
+		Arrays.sort(lits);
+		int size = 0;
+		for (int i = 0; i < lits.length; i++) {
+			if (lits[i] == 0)
+				throw new IllegalArgumentException("Literal 0 is not allowed.");
+			if (size == 0 || lits[i] != lits[size - 1])
+				lits[size++] = lits[i];
+		}
+		return new IntClause(size < lits.length ? Arrays.copyOf(lits, size) : lits);
+	}
+
+	/** Returns the number of literals. */
+	public int size() {
+		return literals.length;
+	}
+
+	/** Returns the i-th literal. Negative literals come first. */
+	public int get(int i) {
+		return literals[i];
+	}
+
+	/** Returns a copy of the literals, e.g. to add the clause to a SAT solver. */
+	public int[] getLiterals() {
+		return literals.clone();
+	}
+
+	public boolean isEmpty() {
+		return literals.length == 0;
+	}
+
+	public boolean isUnitClause() {
+		return literals.length == 1;
+	}
+
+	public boolean contains(int literal) {
+		return Arrays.binarySearch(literals, literal) >= 0;
+	}
+
+	/** Returns true if the clause contains a literal and its negation. */
+	public boolean isTautology() {
+		for (int i = 0; i < literals.length && literals[i] < 0; i++)
+			if (contains(-literals[i]))
+				return true;
+		return false;
+	}
+
+	public int getNumberPositiveLiterals() {
+		int i = 0;
+		while (i < literals.length && literals[i] < 0)
+			i++;
+		return literals.length - i;
+	}
+
+	public int getNumberNegativeLiterals() {
+		return literals.length - getNumberPositiveLiterals();
+	}
+
+	/** Returns true if the clause contains exactly one positive literal. */
+	public boolean isDefiniteClause() {
+		return getNumberPositiveLiterals() == 1;
+	}
+
+	/** Returns true if all literals of this clause are contained in the other. */
+	public boolean subsumes(IntClause other) {
+		if (literals.length > other.literals.length)
+			return false;
+		int j = 0;
+		for (int literal : literals) {
+			while (j < other.literals.length && other.literals[j] < literal)
+				j++;
+			if (j == other.literals.length || other.literals[j] != literal)
+				return false;
+			j++;
+		}
+		return true;
+	}
+
+	/**
+	 * Returns the resolvent of this clause and the other clause on the given
+	 * literal, which must be contained in this clause while its negation must
+	 * be contained in the other.
+	 */
+	public IntClause resolve(IntClause other, int literal) {
+		int[] result = new int[literals.length + other.literals.length - 2];
+		int size = 0;
+		int i = 0;
+		int j = 0;
+		while (i < literals.length || j < other.literals.length) {
+			int next;
+			if (j == other.literals.length || i < literals.length && literals[i] <= other.literals[j]) {
+				next = literals[i++];
+				if (next == literal)
+					continue;
+			} else {
+				next = other.literals[j++];
+				if (next == -literal)
+					continue;
+			}
+			if (size == 0 || result[size - 1] != next)
+				result[size++] = next;
+		}
+		return new IntClause(size < result.length ? Arrays.copyOf(result, size) : result);
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o)
+			return true;
+		if (!(o instanceof IntClause))
+			return false;
+		IntClause other = (IntClause) o;
+		return hash == other.hash && Arrays.equals(literals, other.literals);
+	}
+
+	@Override
+	public int hashCode() {
+		return hash;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder("{");
+		for (int i = 0; i < literals.length; i++)
+			sb.append(i > 0 ? ", " : "").append(literals[i]);
+		return sb.append("}").toString();
+	}
+}
@@ -0,0 +1,103 @@
+package aima.core.logic.propositional.kb.data;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import aima.core.logic.propositional.parsing.ast.PropositionSymbol;
+
+/**
+ * Interns proposition symbols: each symbol gets a unique id (starting with 1)
+ * and one canonical symbol object. Symbols are compared by name only once,
+ * when they are interned. Afterwards, algorithms work with ids, e.g. on
+ * {@link IntClause} objects, and clauses converted back share the canonical
+ * symbol and literal objects.
+ */
+public class SymbolTable {
+	private final Map<PropositionSymbol, Integer> ids = new HashMap<>();
+	private final List<PropositionSymbol> symbols = new ArrayList<>();
+	private final List<Literal> positiveLiterals = new ArrayList<>();
+	private final List<Literal> negativeLiterals = new ArrayList<>();
+
+	public SymbolTable() {
+		// ids start with 1
+		symbols.add(null);
+		positiveLiterals.add(null);
+		negativeLiterals.add(null);
+	}
+
+	/** Returns the id of the symbol. Symbols which are not known yet are added. */
+	public int getId(PropositionSymbol symbol) {
+		Integer result = ids.get(symbol);
+		if (result == null) {
+			result = symbols.size();
+			ids.put(symbol, result);
+			symbols.add(symbol);
+			positiveLiterals.add(new Literal(symbol, true));
+			negativeLiterals.add(new Literal(symbol, false));
+		}
+		return result;
+	}
+
+	/** Returns the id of the symbol or 0 if the symbol is not known. */
+	public int lookupId(PropositionSymbol symbol) {
+		Integer result = ids.get(symbol);
+		return result != null ? result : 0;
+	}
+
+	/** Returns the canonical symbol object for the given id. */
+	public PropositionSymbol getSymbol(int id) {
+		return symbols.get(id);
+	}
+
+	/** Returns the number of symbols, which is also the largest id. */
+	public int size() {
+		return symbols.size() - 1;
+	}
+
+	/** Returns the integer encoding of the literal, adding its symbol if necessary. */
+	public int toInt(Literal literal) {
+		int id = getId(literal.getAtomicSentence());
+		return literal.isPositiveLiteral() ? id : -id;
+	}
+
+	/** Returns the canonical literal object for an integer encoded literal. */
+	public Literal toLiteral(int literal) {
+		return literal > 0 ? positiveLiterals.get(literal) : negativeLiterals.get(-literal);
+	}
+
+	public IntClause toIntClause(Clause clause) {
+		int[] literals = new int[clause.getNumberLiterals()];
+		int i = 0;
+		for (Literal literal : clause.getLiterals())
+			literals[i++] = toInt(literal);
+		return IntClause.of(literals);
+	}
+
+	public Clause toClause(IntClause clause) {
+		List<Literal> literals = new ArrayList<>(clause.size());
+		for (int i = 0; i < clause.size(); i++)
+			literals.add(toLiteral(clause.get(i)));
+		return new Clause(literals);
+	}
+
+	/** Converts clauses into a set of integer clauses, keeping the order. */
+	public Set<IntClause> toIntClauses(Collection<Clause> clauses) {
+		Set<IntClause> result = new LinkedHashSet<>();
+		for (Clause clause : clauses)
+			result.add(toIntClause(clause));
+		return result;
+	}
+
+	/** Converts integer clauses into a set of clauses, keeping the order. */
+	public Set<Clause> toClauses(Collection<IntClause> clauses) {
+		Set<Clause> result = new LinkedHashSet<>();
+		for (IntClause clause : clauses)
+			result.add(toClause(clause));
+		return result;
+	}
+}
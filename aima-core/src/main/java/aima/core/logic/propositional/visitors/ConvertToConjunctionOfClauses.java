@@ -2,9 +2,12 @@ package aima.core.logic.propositional.visitors;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 
 import aima.core.logic.propositional.kb.data.Clause;
 import aima.core.logic.propositional.kb.data.ConjunctionOfClauses;
+import aima.core.logic.propositional.kb.data.IntClause;
+import aima.core.logic.propositional.kb.data.SymbolTable;
 import aima.core.logic.propositional.parsing.ast.Sentence;
 
 /**
@@ -54,4 +57,21 @@ public class ConvertToConjunctionOfClauses {
 
 		return result;
 	}
-}
\ No newline at end of file
+
+	/**
+	 * Returns the specified sentence in its logically equivalent conjunction of
+	 * clauses, represented as set of integer encoded clauses.
+	 * 
+	 * @param s
+	 *            a propositional logic sentence
+	 * @param symbols
+	 *            the table which provides the ids of the proposition symbols.
+	 *            Symbols which are not known yet are added.
+	 * 
+	 * @return the input sentence converted to it logically equivalent
+	 *         conjunction of clauses.
+	 */
+	public static Set<IntClause> convert(Sentence s, SymbolTable symbols) {
+		return symbols.toIntClauses(convert(s).getClauses());
+	}
+}
@@ -1,6 +1,7 @@
 package aima.core.search.adversarial;
 
 import aima.core.search.framework.Metrics;
+import aima.core.search.framework.MetricsRegistry;
 
 /**
  * Artificial Intelligence A Modern Approach (3rd Ed.): Page 173.<br>
@@ -46,7 +47,8 @@ public class AlphaBetaSearch<S, A, P> implements AdversarialSearch<S, A> {
     public final static String METRICS_NODES_EXPANDED = "nodesExpanded";
 
     Game<S, A, P> game;
-    private Metrics metrics = new Metrics();
+    private MetricsRegistry metrics = new MetricsRegistry();
+    private MetricsRegistry.Counter nodesExpanded = metrics.counter(METRICS_NODES_EXPANDED);
 
     /**
      * Creates a new search object for a given game.
@@ -62,7 +64,8 @@ public class AlphaBetaSearch<S, A, P> implements AdversarialSearch<S, A> {
 
     @Override
     public A makeDecision(S state) {
-        metrics = new Metrics();
+        metrics = new MetricsRegistry();
+        nodesExpanded = metrics.counter(METRICS_NODES_EXPANDED);
         A result = null;
         double resultValue = Double.NEGATIVE_INFINITY;
         P player = game.getPlayer(state);
@@ -78,7 +81,7 @@ public class AlphaBetaSearch<S, A, P> implements AdversarialSearch<S, A> {
     }
 
     public double maxValue(S state, P player, double alpha, double beta) {
-        metrics.incrementInt(METRICS_NODES_EXPANDED);
+        nodesExpanded.increment();
         if (game.isTerminal(state))
             return game.getUtility(state, player);
         double value = Double.NEGATIVE_INFINITY;
@@ -93,7 +96,7 @@ public class AlphaBetaSearch<S, A, P> implements AdversarialSearch<S, A> {
     }
 
     public double minValue(S state, P player, double alpha, double beta) {
-        metrics.incrementInt(METRICS_NODES_EXPANDED);
+        nodesExpanded.increment();
         if (game.isTerminal(state))
             return game.getUtility(state, player);
         double value = Double.POSITIVE_INFINITY;
@@ -109,6 +112,6 @@ public class AlphaBetaSearch<S, A, P> implements AdversarialSearch<S, A> {
 
     @Override
     public Metrics getMetrics() {
-        return metrics;
+        return metrics.asMetrics();
     }
 }
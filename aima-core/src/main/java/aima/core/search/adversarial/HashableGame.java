@@ -0,0 +1,18 @@
+package aima.core.search.adversarial;
+
+/**
+ * A game which provides 64 bit hash values for its states. Search algorithms
+ * use the hash values to identify positions which are reached by different
+ * move sequences (see {@link TranspositionTable}). Equal states must have equal
+ * hash values and different states should have different hash values with very
+ * high probability. Zobrist hashing, which updates the hash value incrementally
+ * with each move (see {@link ZobristKeys}), is a cheap way to achieve this.
+ *
+ * @param <S> Type which is used for states in the game.
+ * @param <A> Type which is used for actions in the game.
+ * @param <P> Type which is used for players in the game.
+ */
+public interface HashableGame<S, A, P> extends Game<S, A, P> {
+
+    long getStateHash(S state);
+}
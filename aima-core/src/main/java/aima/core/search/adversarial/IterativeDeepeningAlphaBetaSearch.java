@@ -1,15 +1,30 @@
 package aima.core.search.adversarial;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
 
 import aima.core.search.framework.Metrics;
+import aima.core.search.framework.MetricsRegistry;
 
 /**
  * Implements an iterative deepening Minimax search with alpha-beta pruning and
  * action ordering. Maximal computation time is specified in seconds. The
  * algorithm is implemented as template method and can be configured and tuned
  * by subclassing.
+ * <p>
+ * Three optional enhancements carry knowledge from earlier iterations over to
+ * the next one: a {@link TranspositionTable} (requires a
+ * {@link HashableGame}), which stores bounds and best actions of positions,
+ * killer moves, which are actions that caused a cutoff at the same depth, and
+ * the history heuristic, which prefers actions that caused cutoffs anywhere in
+ * the tree. They are disabled by default and are applied after
+ * {@link #orderActions(Object, List, Object, int)}, so that the order defined
+ * there decides between actions which are equally rated.
+ * </p>
  *
  * @param <S> Type which is used for states in the game.
  * @param <A> Type which is used for actions in the game.
@@ -20,6 +35,7 @@ public class IterativeDeepeningAlphaBetaSearch<S, A, P> implements AdversarialSe
 
     public final static String METRICS_NODES_EXPANDED = "nodesExpanded";
     public final static String METRICS_MAX_DEPTH = "maxDepth";
+    public final static String METRICS_TRANSPOSITION_HITS = "transpositionHits";
 
     protected Game<S, A, P> game;
     protected double utilMax;
@@ -29,7 +45,22 @@ public class IterativeDeepeningAlphaBetaSearch<S, A, P> implements AdversarialSe
     private Timer timer;
     private boolean logEnabled;
 
-    private Metrics metrics = new Metrics();
+    private TranspositionTable<A> transpositionTable;
+    private boolean killerMovesEnabled;
+    private boolean historyHeuristicEnabled;
+    private Object[][] killerMoves = new Object[0][]; // two actions per depth
+    private final Map<A, Long> history = new HashMap<>();
+
+    // support for ParallelAlphaBetaSearch
+    volatile boolean cancelled; // stops the search as if the time limit was reached
+    Supplier<Boolean> taskCancelled = () -> false; // cancellation of the task which started the search
+    boolean sharedTranspositionTable; // the owner of the table increments its age
+    int firstDepthLimit = 1;
+
+    private MetricsRegistry metrics = new MetricsRegistry();
+    private MetricsRegistry.Counter nodesExpanded = metrics.counter(METRICS_NODES_EXPANDED);
+    private MetricsRegistry.MaxTracker maxDepth = metrics.maxTracker(METRICS_MAX_DEPTH);
+    private MetricsRegistry.Counter transpositionHits = metrics.counter(METRICS_TRANSPOSITION_HITS);
 
     /**
      * Creates a new search object for a given game.
@@ -72,6 +103,32 @@ public class IterativeDeepeningAlphaBetaSearch<S, A, P> implements AdversarialSe
         logEnabled = b;
     }
 
+    /**
+     * Enables the transposition table. The table is kept between decisions,
+     * but only entries of the current decision are used for cutoffs.
+     *
+     * @param table The table to use or null to disable the enhancement.
+     * @throws IllegalArgumentException if the game does not provide state hash
+     *                                  values.
+     */
+    public void setTranspositionTable(TranspositionTable<A> table) {
+        if (table != null && !(game instanceof HashableGame))
+            throw new IllegalArgumentException("Transposition tables require a HashableGame.");
+        transpositionTable = table;
+    }
+
+    public TranspositionTable<A> getTranspositionTable() {
+        return transpositionTable;
+    }
+
+    public void setKillerMovesEnabled(boolean b) {
+        killerMovesEnabled = b;
+    }
+
+    public void setHistoryHeuristicEnabled(boolean b) {
+        historyHeuristicEnabled = b;
+    }
+
     /**
      * Template method controlling the search. It is based on iterative
      * deepening and tries to make to a good decision in limited time. Credit
@@ -80,12 +137,19 @@ public class IterativeDeepeningAlphaBetaSearch<S, A, P> implements AdversarialSe
      */
     @Override
     public A makeDecision(S state) {
-        metrics = new Metrics();
+        metrics = new MetricsRegistry();
+        nodesExpanded = metrics.counter(METRICS_NODES_EXPANDED);
+        maxDepth = metrics.maxTracker(METRICS_MAX_DEPTH);
+        transpositionHits = metrics.counter(METRICS_TRANSPOSITION_HITS);
+        if (transpositionTable != null && !sharedTranspositionTable)
+            transpositionTable.incrementAge();
+        Arrays.fill(killerMoves, null);
+        history.clear();
         StringBuffer logText = null;
         P player = game.getPlayer(state);
         List<A> results = orderActions(state, game.getActions(state), player, 0);
         timer.start();
-        currDepthLimit = 0;
+        currDepthLimit = firstDepthLimit - 1;
         do {
             incrementDepthLimit();
             if (logEnabled)
@@ -95,7 +159,7 @@ public class IterativeDeepeningAlphaBetaSearch<S, A, P> implements AdversarialSe
             for (A action : results) {
                 double value = minValue(game.getResult(state, action), player, Double.NEGATIVE_INFINITY,
                         Double.POSITIVE_INFINITY, 1);
-                if (timer.timeOutOccurred())
+                if (timeOutOccurred())
                     break; // exit from action loop
                 newResults.add(action, value);
                 if (logEnabled)
@@ -105,7 +169,7 @@ public class IterativeDeepeningAlphaBetaSearch<S, A, P> implements AdversarialSe
                 System.out.println(logText);
             if (newResults.size() > 0) {
                 results = newResults.actions;
-                if (!timer.timeOutOccurred()) {
+                if (!timeOutOccurred()) {
                     if (hasSafeWinner(newResults.utilValues.get(0)))
                         break; // exit from iterative deepening loop
                     else if (newResults.size() > 1
@@ -113,49 +177,152 @@ public class IterativeDeepeningAlphaBetaSearch<S, A, P> implements AdversarialSe
                         break; // exit from iterative deepening loop
                 }
             }
-        } while (!timer.timeOutOccurred() && heuristicEvaluationUsed);
+        } while (!timeOutOccurred() && heuristicEvaluationUsed);
         return results.get(0);
     }
 
     // returns an utility value
     public double maxValue(S state, P player, double alpha, double beta, int depth) {
-        updateMetrics(depth);
-        if (game.isTerminal(state) || depth >= currDepthLimit || timer.timeOutOccurred()) {
-            return eval(state, player);
-        } else {
-            double value = Double.NEGATIVE_INFINITY;
-            for (A action : orderActions(state, game.getActions(state), player, depth)) {
-                value = Math.max(value, minValue(game.getResult(state, action), //
-                        player, alpha, beta, depth + 1));
-                if (value >= beta)
-                    return value;
-                alpha = Math.max(alpha, value);
-            }
-            return value;
-        }
+        return alphaBetaValue(state, player, alpha, beta, depth, true);
     }
 
     // returns an utility value
     public double minValue(S state, P player, double alpha, double beta, int depth) {
+        return alphaBetaValue(state, player, alpha, beta, depth, false);
+    }
+
+    @SuppressWarnings("unchecked")
+    private double alphaBetaValue(S state, P player, double alpha, double beta, int depth, boolean isMax) {
         updateMetrics(depth);
-        if (game.isTerminal(state) || depth >= currDepthLimit || timer.timeOutOccurred()) {
+        if (game.isTerminal(state) || depth >= currDepthLimit || timeOutOccurred())
             return eval(state, player);
-        } else {
-            double value = Double.POSITIVE_INFINITY;
-            for (A action : orderActions(state, game.getActions(state), player, depth)) {
-                value = Math.min(value, maxValue(game.getResult(state, action), //
-                        player, alpha, beta, depth + 1));
-                if (value <= alpha)
-                    return value;
+
+        int searchDepth = currDepthLimit - depth;
+        boolean heuristicUsedBefore = heuristicEvaluationUsed;
+        heuristicEvaluationUsed = false;
+        long hash = 0;
+        A hashAction = null;
+        if (transpositionTable != null) {
+            hash = ((HashableGame<S, A, P>) game).getStateHash(state);
+            TranspositionTable.Entry<A> entry = transpositionTable.get(hash);
+            if (entry != null) {
+                hashAction = entry.getBestAction();
+                // values of earlier decisions may refer to another player
+                if (entry.getAge() == transpositionTable.getAge() && entry.getDepth() >= searchDepth
+                        && isCutoff(entry, alpha, beta)) {
+                    transpositionHits.increment();
+                    heuristicEvaluationUsed = heuristicUsedBefore || entry.isHeuristic();
+                    return entry.getValue();
+                }
+            }
+        }
+
+        double alphaOrig = alpha;
+        double betaOrig = beta;
+        double value = isMax ? Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY;
+        A bestAction = null;
+        boolean cutoff = false;
+        List<A> actions = orderActions(state, game.getActions(state), player, depth);
+        for (A action : applyMoveOrdering(actions, hashAction, depth)) {
+            S result = game.getResult(state, action);
+            if (isMax) {
+                double childValue = minValue(result, player, alpha, beta, depth + 1);
+                if (childValue > value || bestAction == null) {
+                    value = childValue;
+                    bestAction = action;
+                }
+                if (value >= beta) {
+                    cutoff = true;
+                    break;
+                }
+                alpha = Math.max(alpha, value);
+            } else {
+                double childValue = maxValue(result, player, alpha, beta, depth + 1);
+                if (childValue < value || bestAction == null) {
+                    value = childValue;
+                    bestAction = action;
+                }
+                if (value <= alpha) {
+                    cutoff = true;
+                    break;
+                }
                 beta = Math.min(beta, value);
             }
-            return value;
+        }
+        if (cutoff)
+            recordCutoff(bestAction, depth, searchDepth);
+        boolean heuristicUsed = heuristicEvaluationUsed;
+        heuristicEvaluationUsed = heuristicUsedBefore || heuristicUsed;
+        if (transpositionTable != null && !timeOutOccurred()) {
+            TranspositionTable.Bound bound = TranspositionTable.Bound.EXACT;
+            if (cutoff)
+                bound = isMax ? TranspositionTable.Bound.LOWER : TranspositionTable.Bound.UPPER;
+            else if (isMax && value <= alphaOrig || !isMax && value >= betaOrig)
+                bound = isMax ? TranspositionTable.Bound.UPPER : TranspositionTable.Bound.LOWER;
+            transpositionTable.put(hash, searchDepth, value, bound, bestAction, heuristicUsed);
+        }
+        return value;
+    }
+
+    private boolean isCutoff(TranspositionTable.Entry<A> entry, double alpha, double beta) {
+        switch (entry.getBound()) {
+            case LOWER:
+                return entry.getValue() >= beta;
+            case UPPER:
+                return entry.getValue() <= alpha;
+            default:
+                return true;
         }
     }
 
+    /**
+     * Moves the best action from the transposition table to the front,
+     * followed by the killer moves of the depth. The remaining actions are
+     * sorted by history score. Sorting is stable.
+     */
+    private List<A> applyMoveOrdering(List<A> actions, A hashAction, int depth) {
+        if (hashAction == null && !killerMovesEnabled && !historyHeuristicEnabled)
+            return actions;
+        Object[] killers = killerMovesEnabled && depth < killerMoves.length ? killerMoves[depth] : null;
+        List<A> result = new ArrayList<>(actions);
+        result.sort((a1, a2) -> Long.compare(getOrderingScore(a2, hashAction, killers),
+                getOrderingScore(a1, hashAction, killers)));
+        return result;
+    }
+
+    private long getOrderingScore(A action, A hashAction, Object[] killers) {
+        if (action.equals(hashAction))
+            return Long.MAX_VALUE;
+        if (killers != null) {
+            if (action.equals(killers[0]))
+                return Long.MAX_VALUE - 1;
+            if (action.equals(killers[1]))
+                return Long.MAX_VALUE - 2;
+        }
+        return historyHeuristicEnabled ? history.getOrDefault(action, 0L) : 0;
+    }
+
+    private void recordCutoff(A action, int depth, int searchDepth) {
+        if (killerMovesEnabled) {
+            if (depth >= killerMoves.length)
+                killerMoves = Arrays.copyOf(killerMoves, depth + 8);
+            Object[] killers = killerMoves[depth];
+            if (killers == null) {
+                killers = new Object[2];
+                killerMoves[depth] = killers;
+            }
+            if (!action.equals(killers[0])) {
+                killers[1] = killers[0];
+                killers[0] = action;
+            }
+        }
+        if (historyHeuristicEnabled)
+            history.merge(action, (long) searchDepth * searchDepth, Long::sum);
+    }
+
     private void updateMetrics(int depth) {
-        metrics.incrementInt(METRICS_NODES_EXPANDED);
-        metrics.set(METRICS_MAX_DEPTH, Math.max(metrics.getInt(METRICS_MAX_DEPTH), depth));
+        nodesExpanded.increment();
+        maxDepth.update(depth);
     }
 
     /**
@@ -163,7 +330,11 @@ public class IterativeDeepeningAlphaBetaSearch<S, A, P> implements AdversarialSe
      */
     @Override
     public Metrics getMetrics() {
-        return metrics;
+        return metrics.asMetrics();
+    }
+
+    private boolean timeOutOccurred() {
+        return cancelled || taskCancelled.get() || timer.timeOutOccurred();
     }
 
     /**
@@ -1,6 +1,7 @@
 package aima.core.search.adversarial;
 
 import aima.core.search.framework.Metrics;
+import aima.core.search.framework.MetricsRegistry;
 
 /**
  * Artificial Intelligence A Modern Approach (3rd Edition): page 169.<br>
@@ -44,7 +45,8 @@ public class MinimaxSearch<S, A, P> implements AdversarialSearch<S, A> {
 	public final static String METRICS_NODES_EXPANDED = "nodesExpanded";
 
 	private Game<S, A, P> game;
-	private Metrics metrics = new Metrics();
+	private MetricsRegistry metrics = new MetricsRegistry();
+	private MetricsRegistry.Counter nodesExpanded = metrics.counter(METRICS_NODES_EXPANDED);
 
 	/**
 	 * Creates a new search object for a given game.
@@ -59,7 +61,8 @@ public class MinimaxSearch<S, A, P> implements AdversarialSearch<S, A> {
 
 	@Override
 	public A makeDecision(S state) {
-		metrics = new Metrics();
+		metrics = new MetricsRegistry();
+		nodesExpanded = metrics.counter(METRICS_NODES_EXPANDED);
 		A result = null;
 		double resultValue = Double.NEGATIVE_INFINITY;
 		P player = game.getPlayer(state);
@@ -84,7 +87,7 @@ public class MinimaxSearch<S, A, P> implements AdversarialSearch<S, A> {
 //    }
 
 	public double maxValue(S state, P player) { // returns an utility value
-		metrics.incrementInt(METRICS_NODES_EXPANDED);
+		nodesExpanded.increment();
 		if (game.isTerminal(state))
 			return game.getUtility(state, player);
 		return game.getActions(state).stream()
@@ -93,7 +96,7 @@ public class MinimaxSearch<S, A, P> implements AdversarialSearch<S, A> {
 	}
 
 	public double minValue(S state, P player) { // returns an utility value
-		metrics.incrementInt(METRICS_NODES_EXPANDED);
+		nodesExpanded.increment();
 		if (game.isTerminal(state))
 			return game.getUtility(state, player);
 		return game.getActions(state).stream()
@@ -103,6 +106,6 @@ public class MinimaxSearch<S, A, P> implements AdversarialSearch<S, A> {
 
 	@Override
 	public Metrics getMetrics() {
-		return metrics;
+		return metrics.asMetrics();
 	}
 }
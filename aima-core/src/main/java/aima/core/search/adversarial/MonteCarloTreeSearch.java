@@ -1,13 +1,16 @@
 package aima.core.search.adversarial;
 
-import aima.core.search.framework.GameTree;
 import aima.core.search.framework.Metrics;
-import aima.core.search.framework.Node;
-import aima.core.search.framework.NodeFactory;
+import aima.core.search.framework.MetricsRegistry;
+import aima.core.util.Tasks;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Random;
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.function.Supplier;
 
 /**
  * Artificial Intelligence A Modern Approach (4th Edition): page ???.<br>
@@ -28,7 +31,23 @@ import java.util.Random;
  * Figure ?.? The Monte Carlo tree search algorithm. A game tree, tree, is initialized, and
  * then we repeat the cycle of SELECT / EXPAND / SIMULATE/ BACKPROPAGATE until we run  out
  * of time, and return the move that led to the node with the highest number of playouts.
- *
+ * <p>
+ * Tree nodes are linked explicitly to their children and maintain atomic win
+ * and visit counters. Each worker records the path of its current playout, so
+ * backpropagation costs O(depth). Win values
+ * are sums of utilities from the perspective of the player who made the move
+ * leading to the node (utilities are expected to be in [0, 1]). The search
+ * budget is given either as number of playouts or as computation time.
+ * Besides sequential search, two parallelization modes are supported:
+ * </p>
+ * <ul>
+ * <li>{@link Parallelization#ROOT}: each worker builds its own tree and the
+ * root statistics are merged at the end.</li>
+ * <li>{@link Parallelization#TREE}: all workers share one tree. Virtual loss
+ * is applied to nodes on the path of running playouts, so that concurrent
+ * workers prefer different branches.</li>
+ * </ul>
+ * Workers are executed in a configurable {@link ForkJoinPool}.
  *
  * @author Suyash Jain
  *
@@ -41,106 +60,324 @@ import java.util.Random;
  */
 
 public class MonteCarloTreeSearch<S, A, P> implements AdversarialSearch<S, A> {
-	private int iterations = 0;
-	private Game<S, A, P> game;
-	private GameTree<S, A> tree;
-	
+
+	public final static String METRICS_PLAYOUTS = "playouts";
+	public final static String METRICS_PLAYOUTS_PER_SECOND = "playoutsPerSecond";
+	public final static String METRICS_TREE_SIZE = "treeSize";
+
+	public enum Parallelization {
+		NONE, ROOT, TREE
+	}
+
+	private final Game<S, A, P> game;
+	private final List<P> players;
+	private int iterations;
+	private int timeLimit = -1; // in milliseconds
+	private Parallelization parallelization = Parallelization.NONE;
+	private ForkJoinPool pool = ForkJoinPool.commonPool();
+	private int workers = -1;
+	private double explorationConstant = Math.sqrt(2);
+	private int virtualLoss = 1;
+	private Long seed = null;
+
+	private MetricsRegistry metrics = new MetricsRegistry();
+
+	/**
+	 * Creates a sequential search which performs the given number of playouts
+	 * per decision.
+	 */
 	public MonteCarloTreeSearch(Game<S, A, P> game, int iterations) {
 		this.game = game;
+		this.players = Arrays.asList(game.getPlayers());
 		this.iterations = iterations;
-		tree = new GameTree<>();
 	}
-	
+
+	/** Sets the number of playouts per decision and disables the time limit. */
+	public void setIterations(int iterations) {
+		this.iterations = iterations;
+		timeLimit = -1;
+	}
+
+	/**
+	 * Replaces the playout budget by a time budget.
+	 *
+	 * @param millis Computation time per decision in milliseconds.
+	 */
+	public void setTimeLimit(int millis) {
+		timeLimit = millis;
+	}
+
+	/**
+	 * Enables parallel search.
+	 *
+	 * @param mode    Root or tree parallelization (or none).
+	 * @param pool    The pool which executes the workers.
+	 * @param workers Number of workers, -1 for the parallelism of the pool.
+	 */
+	public void setParallelization(Parallelization mode, ForkJoinPool pool, int workers) {
+		this.parallelization = mode;
+		this.pool = pool;
+		this.workers = workers;
+	}
+
+	/** Sets the constant which weights exploration in the UCT formula (default sqrt(2)). */
+	public void setExplorationConstant(double c) {
+		explorationConstant = c;
+	}
+
+	/** Sets the number of losses which are virtually added to nodes during tree parallel playouts. */
+	public void setVirtualLoss(int virtualLoss) {
+		this.virtualLoss = virtualLoss;
+	}
+
+	/**
+	 * Makes sequential and root parallel search with a playout budget
+	 * reproducible. Worker i uses a random generator with seed
+	 * <code>seed + i</code>. In root parallel search, each worker performs its
+	 * own share of the playouts. Tree parallel search and time budgets depend
+	 * on thread scheduling.
+	 */
+	public void setSeed(long seed) {
+		this.seed = seed;
+	}
+
 	@Override
 	public A makeDecision(S state) {
+		metrics = new MetricsRegistry();
+		MetricsRegistry.Counter playouts = metrics.counter(METRICS_PLAYOUTS);
+		MetricsRegistry.Counter treeSize = metrics.counter(METRICS_TREE_SIZE);
+		long startTime = System.nanoTime();
+
+		int numWorkers = parallelization == Parallelization.NONE ? 1
+				: (workers > 0 ? workers : pool.getParallelism());
 		// tree <-- NODE(state)
-		tree.addRoot(state);
-		// while TIME-REMAINING() do
-		while (iterations != 0) {
-			// leaf <-- SELECT(tree)
-			Node<S, A> leaf = select(tree);
-			// child <-- EXPAND(leaf)
-			Node<S, A> child = expand(leaf);
-			// result <-- SIMULATE(child)
-			// result = true if player of root node wins
-			boolean result = simulate(child);
-			// BACKPROPAGATE(result, child)
-			backpropagate(result, child);
-			// repeat the four steps for set number of iterations
-			--iterations;
+		TreeNode<S, A> sharedRoot = new TreeNode<>(null, state, -1, game.getActions(state));
+		List<TreeNode<S, A>> roots = new ArrayList<>();
+		List<Worker> tasks = new ArrayList<>();
+		// with root parallelization, each worker gets its own share of the
+		// playouts, so that seeded searches do not depend on scheduling
+		boolean sharedBudget = parallelization != Parallelization.ROOT;
+		Supplier<Boolean> taskCancelled = Tasks.currCancellation();
+		Budget budget = new Budget(startTime, iterations, taskCancelled);
+		for (int i = 0; i < numWorkers; i++) {
+			TreeNode<S, A> root = parallelization == Parallelization.ROOT && i > 0
+					? new TreeNode<>(null, state, -1, game.getActions(state)) : sharedRoot;
+			if (!sharedBudget)
+				budget = new Budget(startTime, iterations / numWorkers + (i < iterations % numWorkers ? 1 : 0),
+						taskCancelled);
+			if (!roots.contains(root))
+				roots.add(root);
+			Random random = seed != null ? new Random(seed + i) : new Random();
+			tasks.add(new Worker(root, random, budget, playouts, treeSize));
 		}
+		if (numWorkers == 1) {
+			tasks.get(0).run();
+		} else {
+			List<ForkJoinTask<?>> futures = new ArrayList<>();
+			for (Worker task : tasks)
+				futures.add(pool.submit(task));
+			for (ForkJoinTask<?> future : futures)
+				future.join();
+		}
+		double seconds = (System.nanoTime() - startTime) / 1e9;
+		metrics.doubleGauge(METRICS_PLAYOUTS_PER_SECOND).set(seconds > 0 ? playouts.longValue() / seconds : 0);
 		// return the move in ACTIONS(state) whose node has highest number of playouts
-		return bestAction(tree.getRoot());
+		return bestAction(roots);
 	}
-	
-	private Node<S, A> select(GameTree gameTree) {
-		Node<S, A> node = gameTree.getRoot();
-		while (!game.isTerminal(node.getState()) && isNodeFullyExpanded(node)) {
-			node = gameTree.getChildWithMaxUCT(node);
+
+	/**
+	 * Returns the playouts, the playouts per second, and the number of created
+	 * tree nodes of the last decision.
+	 */
+	@Override
+	public Metrics getMetrics() {
+		return metrics.asMetrics();
+	}
+
+	private A bestAction(List<TreeNode<S, A>> roots) {
+		Map<A, Long> playoutsPerAction = new LinkedHashMap<>();
+		for (TreeNode<S, A> root : roots)
+			for (TreeNode<S, A> child : root.children)
+				playoutsPerAction.merge(child.action, (long) child.visits.get(), Long::sum);
+		A result = null;
+		long maxPlayouts = -1;
+		for (Map.Entry<A, Long> entry : playoutsPerAction.entrySet()) {
+			if (entry.getValue() > maxPlayouts) {
+				result = entry.getKey();
+				maxPlayouts = entry.getValue();
+			}
 		}
-		return node;
+		return result;
 	}
-	
-	private Node<S, A> expand(Node<S, A> leaf) {
-		if (game.isTerminal(leaf.getState())) return leaf;
-		else {
-			Node<S, A> child = randomlySelectUnvisitedChild(leaf);
+
+	/** Executes playouts until the budget is exhausted. */
+	private class Worker implements Runnable {
+		private final TreeNode<S, A> root;
+		private final Random random;
+		private final Budget budget;
+		private final MetricsRegistry.Counter playouts;
+		private final MetricsRegistry.Counter treeSize;
+		private final double[] utilities = new double[players.size()];
+		private final List<TreeNode<S, A>> path = new ArrayList<>();
+		private final boolean useVirtualLoss = parallelization == Parallelization.TREE;
+
+		Worker(TreeNode<S, A> root, Random random, Budget budget, MetricsRegistry.Counter playouts,
+			   MetricsRegistry.Counter treeSize) {
+			this.root = root;
+			this.random = random;
+			this.budget = budget;
+			this.playouts = playouts;
+			this.treeSize = treeSize;
+		}
+
+		@Override
+		public void run() {
+			// while TIME-REMAINING() do
+			while (budget.tryAcquire()) {
+				path.clear();
+				// leaf <-- SELECT(tree)
+				TreeNode<S, A> leaf = select();
+				// child <-- EXPAND(leaf)
+				TreeNode<S, A> child = expand(leaf);
+				// result <-- SIMULATE(child)
+				simulate(child.state);
+				// BACKPROPAGATE(result, child)
+				backpropagate();
+				playouts.increment();
+			}
+		}
+
+		private TreeNode<S, A> select() {
+			TreeNode<S, A> node = root;
+			visit(node);
+			while (node.isFullyExpanded() && !node.children.isEmpty()) {
+				node = childWithMaxUCT(node);
+				visit(node);
+			}
+			return node;
+		}
+
+		private TreeNode<S, A> expand(TreeNode<S, A> leaf) {
+			A action = leaf.pollUntriedAction(random);
+			if (action == null)
+				return leaf; // terminal state or expanded concurrently
+			S state = game.getResult(leaf.state, action);
+			List<A> actions = game.isTerminal(state) ? Collections.emptyList() : game.getActions(state);
+			TreeNode<S, A> child = new TreeNode<>(action, state, players.indexOf(game.getPlayer(leaf.state)),
+					actions);
+			leaf.children.add(child);
+			treeSize.increment();
+			visit(child);
 			return child;
 		}
-	}
-	
-	private boolean simulate(Node<S, A> node) {
-		while (!game.isTerminal(node.getState())) {
-			Random rand = new Random();
-			A a = game.getActions(node.getState()).get(rand.nextInt(game.getActions(node.getState()).size()));
-			S result = game.getResult(node.getState(), a);
-			NodeFactory nodeFactory = new NodeFactory();
-			node = nodeFactory.createNode(result);
-		}
-		if (game.getUtility(node.getState(), game.getPlayer(tree.getRoot().getState())) > 0) return true;
-		else return false;
-	}
-	
-	private void backpropagate(boolean result, Node<S, A> node) {
-		tree.updateStats(result, node);
-		if (tree.getParent(node) != null) backpropagate(result, tree.getParent(node));
-	}
-	
-	private A bestAction(Node<S, A> root) {
-		Node<S, A> bestChild = tree.getChildWithMaxPlayouts(root);
-		for (A a : game.getActions(root.getState())) {
-			S result = game.getResult(root.getState(), a);
-			if (result.equals(bestChild.getState())) return a;
-		}
-		return null;
-	}
-	
-	private boolean isNodeFullyExpanded(Node<S, A> node) {
-		List<S> visitedChildren = tree.getVisitedChildren(node);
-		for (A a : game.getActions(node.getState())) {
-			S result = game.getResult(node.getState(), a);
-			if (!visitedChildren.contains(result)) {
-				return false;
+
+		/** Plays randomly until the game ends and stores the utilities for all players. */
+		private void simulate(S state) {
+			while (!game.isTerminal(state)) {
+				List<A> actions = game.getActions(state);
+				state = game.getResult(state, actions.get(random.nextInt(actions.size())));
+			}
+			for (int i = 0; i < utilities.length; i++)
+				utilities[i] = game.getUtility(state, players.get(i));
+		}
+
+		private void backpropagate() {
+			for (TreeNode<S, A> node : path) {
+				if (node.moverIdx >= 0)
+					node.wins.add(utilities[node.moverIdx]);
+				if (useVirtualLoss)
+					node.visits.addAndGet(1 - virtualLoss);
+			}
+		}
+
+		private void visit(TreeNode<S, A> node) {
+			path.add(node);
+			// with virtual loss, visits are counted when the node is entered
+			if (useVirtualLoss)
+				node.visits.addAndGet(virtualLoss);
+			else
+				node.visits.incrementAndGet();
+		}
+
+		private TreeNode<S, A> childWithMaxUCT(TreeNode<S, A> node) {
+			double logParentVisits = Math.log(Math.max(1, node.visits.get()));
+			TreeNode<S, A> result = null;
+			double maxUct = Double.NEGATIVE_INFINITY;
+			int ties = 0;
+			for (TreeNode<S, A> child : node.children) {
+				int visits = Math.max(1, child.visits.get());
+				double uct = child.wins.sum() / visits + explorationConstant * Math.sqrt(logParentVisits / visits);
+				if (uct > maxUct) {
+					maxUct = uct;
+					result = child;
+					ties = 1;
+				} else if (uct == maxUct && random.nextInt(++ties) == 0) {
+					result = child; // reservoir sampling among equally good children
+				}
 			}
+			return result;
 		}
-		return true;
 	}
-	
-	
-	private Node<S, A> randomlySelectUnvisitedChild(Node<S, A> node) {
-		List<S> unvisitedChildren = new ArrayList<>();
-		List<S> visitedChildren = tree.getVisitedChildren(node);
-		for (A a : game.getActions(node.getState())) {
-			S result = game.getResult(node.getState(), a);
-			if (!visitedChildren.contains(result)) unvisitedChildren.add(result);
-		}
-		Random rand = new Random();
-		Node<S, A> newChild = tree.addChild(node, unvisitedChildren.get(rand.nextInt(unvisitedChildren.size())));
-		return newChild;
+
+	/** Node of the search tree with explicit links and thread-safe statistics. */
+	private static class TreeNode<S, A> {
+		final A action;
+		final S state;
+		/** Index of the player who made the move leading to this node, -1 for the root. */
+		final int moverIdx;
+		final List<TreeNode<S, A>> children = new CopyOnWriteArrayList<>();
+		final AtomicInteger visits = new AtomicInteger();
+		final DoubleAdder wins = new DoubleAdder();
+		private final List<A> untriedActions;
+		private volatile boolean fullyExpanded;
+
+		TreeNode(A action, S state, int moverIdx, List<A> actions) {
+			this.action = action;
+			this.state = state;
+			this.moverIdx = moverIdx;
+			untriedActions = new ArrayList<>(actions);
+			fullyExpanded = untriedActions.isEmpty();
+		}
+
+		boolean isFullyExpanded() {
+			return fullyExpanded;
+		}
+
+		/** Removes and returns a random untried action or returns null if all actions have been tried. */
+		synchronized A pollUntriedAction(Random random) {
+			if (untriedActions.isEmpty())
+				return null;
+			int idx = random.nextInt(untriedActions.size());
+			A result = untriedActions.get(idx);
+			untriedActions.set(idx, untriedActions.get(untriedActions.size() - 1));
+			untriedActions.remove(untriedActions.size() - 1);
+			if (untriedActions.isEmpty())
+				fullyExpanded = true;
+			return result;
+		}
 	}
-	
-	@Override
-	public Metrics getMetrics() {
-		return null;
+
+	/**
+	 * Playout or time budget of one or more workers. It is exhausted early if
+	 * the task which started the search is cancelled.
+	 */
+	private class Budget {
+		private final AtomicInteger remainingPlayouts;
+		private final long deadline;
+		private final Supplier<Boolean> taskCancelled;
+
+		Budget(long startTime, int playouts, Supplier<Boolean> taskCancelled) {
+			remainingPlayouts = new AtomicInteger(playouts);
+			deadline = timeLimit >= 0 ? startTime + timeLimit * 1000000L : Long.MAX_VALUE;
+			this.taskCancelled = taskCancelled;
+		}
+
+		boolean tryAcquire() {
+			if (taskCancelled.get())
+				return false;
+			if (timeLimit >= 0)
+				return System.nanoTime() < deadline;
+			return remainingPlayouts.getAndDecrement() > 0;
+		}
 	}
 }
@@ -0,0 +1,152 @@
+package aima.core.search.adversarial;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Supplier;
+
+import aima.core.search.framework.Metrics;
+import aima.core.search.framework.MetricsRegistry;
+import aima.core.util.Tasks;
+
+/**
+ * Parallel iterative deepening alpha-beta search based on the Lazy SMP scheme.
+ * All threads search the same root position independently, each with its own
+ * {@link IterativeDeepeningAlphaBetaSearch} object, but they share one
+ * {@link TranspositionTable}. Results found by one thread are used by the
+ * others for cutoffs and action ordering, so the threads together reach
+ * larger depths than a single thread. To diversify the work, every second
+ * helper thread starts iterative deepening with depth limit 2. The decision of
+ * the main thread is returned; when it terminates, all helper threads are
+ * stopped. Time limit and termination criteria are exactly those of the
+ * search objects. Additionally, all threads stop when the calling task is
+ * cancelled (see {@link Tasks}).
+ * <p>
+ * The main thread runs in the calling thread, helper threads in a
+ * configurable {@link ForkJoinPool}. Its parallelism should not be smaller
+ * than the number of helper threads.
+ * </p>
+ *
+ * @param <S> Type which is used for states in the game.
+ * @param <A> Type which is used for actions in the game.
+ * @param <P> Type which is used for players in the game.
+ */
+public class ParallelAlphaBetaSearch<S, A, P> implements AdversarialSearch<S, A> {
+
+    public final static String METRICS_NODES_EXPANDED = "nodesExpanded";
+    public final static String METRICS_MAX_DEPTH = "maxDepth";
+    public final static String METRICS_NODES_PER_SECOND = "nodesPerSecond";
+    /** Prefix for metrics of single threads, e.g. <code>thread0.nodesPerSecond</code>. */
+    public final static String METRICS_THREAD_PREFIX = "thread";
+
+    private final List<IterativeDeepeningAlphaBetaSearch<S, A, P>> searches = new ArrayList<>();
+    private final TranspositionTable<A> transpositionTable;
+    private ForkJoinPool pool = ForkJoinPool.commonPool();
+    private MetricsRegistry metrics = new MetricsRegistry();
+
+    /**
+     * Creates a parallel search for a given game. Each thread uses a standard
+     * iterative deepening search with killer moves and history heuristic.
+     *
+     * @param game    The game.
+     * @param utilMin Utility value of worst state for this player.
+     * @param utilMax Utility value of best state for this player.
+     * @param time    Maximal computation time in seconds.
+     * @param threads Number of search threads (including the main thread).
+     */
+    public static <STATE, ACTION, PLAYER> ParallelAlphaBetaSearch<STATE, ACTION, PLAYER> createFor(
+            HashableGame<STATE, ACTION, PLAYER> game, double utilMin, double utilMax, int time, int threads) {
+        return new ParallelAlphaBetaSearch<>(() -> {
+            IterativeDeepeningAlphaBetaSearch<STATE, ACTION, PLAYER> search =
+                    new IterativeDeepeningAlphaBetaSearch<>(game, utilMin, utilMax, time);
+            search.setKillerMovesEnabled(true);
+            search.setHistoryHeuristicEnabled(true);
+            return search;
+        }, threads, new TranspositionTable<>(1 << 20));
+    }
+
+    /**
+     * Creates a parallel search.
+     *
+     * @param searchFactory Provides one search object per thread. The game of
+     *                      the search objects must be a {@link HashableGame}.
+     * @param threads       Number of search threads (including the main
+     *                      thread).
+     * @param table         Transposition table which is shared by all threads.
+     */
+    public ParallelAlphaBetaSearch(Supplier<? extends IterativeDeepeningAlphaBetaSearch<S, A, P>> searchFactory,
+                                   int threads, TranspositionTable<A> table) {
+        if (threads < 1)
+            throw new IllegalArgumentException("At least one thread is needed.");
+        transpositionTable = table;
+        for (int i = 0; i < threads; i++) {
+            IterativeDeepeningAlphaBetaSearch<S, A, P> search = searchFactory.get();
+            search.setTranspositionTable(table);
+            search.sharedTranspositionTable = true;
+            search.firstDepthLimit = i % 2 == 0 ? 1 : 2;
+            searches.add(search);
+        }
+    }
+
+    /** Sets the pool which executes the helper threads (default: common pool). */
+    public void setPool(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    public int getThreadCount() {
+        return searches.size();
+    }
+
+    @Override
+    public A makeDecision(S state) {
+        metrics = new MetricsRegistry();
+        transpositionTable.incrementAge();
+        Supplier<Boolean> taskCancelled = Tasks.currCancellation();
+        for (IterativeDeepeningAlphaBetaSearch<S, A, P> search : searches) {
+            search.cancelled = false;
+            search.taskCancelled = taskCancelled;
+        }
+        long startTime = System.nanoTime();
+        List<ForkJoinTask<?>> helpers = new ArrayList<>();
+        for (IterativeDeepeningAlphaBetaSearch<S, A, P> search : searches.subList(1, searches.size()))
+            helpers.add(pool.submit(() -> search.makeDecision(state)));
+        A result;
+        try {
+            result = searches.get(0).makeDecision(state);
+        } finally {
+            for (IterativeDeepeningAlphaBetaSearch<S, A, P> search : searches)
+                search.cancelled = true;
+            for (ForkJoinTask<?> helper : helpers)
+                helper.join();
+        }
+        updateMetrics((System.nanoTime() - startTime) / 1e9);
+        return result;
+    }
+
+    private void updateMetrics(double seconds) {
+        long nodesTotal = 0;
+        for (int i = 0; i < searches.size(); i++) {
+            Metrics m = searches.get(i).getMetrics();
+            long nodes = m.getLong(IterativeDeepeningAlphaBetaSearch.METRICS_NODES_EXPANDED);
+            nodesTotal += nodes;
+            String prefix = METRICS_THREAD_PREFIX + i + ".";
+            metrics.counter(prefix + METRICS_NODES_EXPANDED).add(nodes);
+            metrics.doubleGauge(prefix + METRICS_NODES_PER_SECOND).set(seconds > 0 ? nodes / seconds : 0);
+            metrics.longGauge(prefix + METRICS_MAX_DEPTH).set(m.getInt(IterativeDeepeningAlphaBetaSearch.METRICS_MAX_DEPTH));
+        }
+        metrics.counter(METRICS_NODES_EXPANDED).add(nodesTotal);
+        metrics.doubleGauge(METRICS_NODES_PER_SECOND).set(seconds > 0 ? nodesTotal / seconds : 0);
+        metrics.longGauge(METRICS_MAX_DEPTH).set(searches.get(0).getMetrics()
+                .getInt(IterativeDeepeningAlphaBetaSearch.METRICS_MAX_DEPTH));
+    }
+
+    /**
+     * Returns nodes expanded, nodes per second, and max depth of the last
+     * decision, in total and for each thread.
+     */
+    @Override
+    public Metrics getMetrics() {
+        return metrics.asMetrics();
+    }
+}
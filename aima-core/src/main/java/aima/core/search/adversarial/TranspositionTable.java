@@ -0,0 +1,185 @@
+package aima.core.search.adversarial;
+
+import java.util.Arrays;
+
+/**
+ * Fixed-size hash table which stores results of previous searches for game
+ * positions. Each entry holds the position hash, the depth of the search below
+ * the position, a value together with the kind of bound it represents, and the
+ * best action found. Iterative deepening profits in two ways: entries of deep
+ * enough searches cut off the search, and the best actions of shallower
+ * searches are tried first.
+ * <p>
+ * Positions are mapped to slots by hash value. If two positions compete for a
+ * slot, the {@link ReplacementPolicy} decides which one is kept. Entries are
+ * immutable and replaced as a whole, so readers always see consistent
+ * entries. This allows to share one table between several search threads
+ * without locking (see {@link ParallelAlphaBetaSearch}). Concurrent stores
+ * for the same slot may overwrite each other, which only costs search work.
+ * </p>
+ *
+ * @param <A> Type which is used for actions in the game.
+ */
+public class TranspositionTable<A> {
+
+    /**
+     * Specifies how the stored value relates to the exact minimax value of the
+     * position.
+     */
+    public enum Bound {
+        EXACT, LOWER, UPPER
+    }
+
+    /**
+     * Decides whether an entry for a different position is overwritten.
+     */
+    @FunctionalInterface
+    public interface ReplacementPolicy {
+        /** Always overwrites the stored entry. */
+        ReplacementPolicy ALWAYS = (stored, depth, age) -> true;
+        /** Keeps the stored entry if it results from a deeper search. */
+        ReplacementPolicy DEPTH_PREFERRED = (stored, depth, age) -> depth >= stored.getDepth();
+        /**
+         * Like {@link #DEPTH_PREFERRED}, but entries from earlier searches
+         * (with smaller age) are always overwritten.
+         */
+        ReplacementPolicy AGED_DEPTH_PREFERRED = (stored, depth, age) ->
+                age != stored.getAge() || depth >= stored.getDepth();
+
+        boolean replace(Entry<?> stored, int depth, int age);
+    }
+
+    private final Entry<A>[] entries;
+    private final int mask;
+    private final ReplacementPolicy policy;
+    private volatile int age;
+
+    /**
+     * Creates a table with {@link ReplacementPolicy#AGED_DEPTH_PREFERRED}.
+     *
+     * @param capacity Number of entries (rounded up to a power of two).
+     */
+    public TranspositionTable(int capacity) {
+        this(capacity, ReplacementPolicy.AGED_DEPTH_PREFERRED);
+    }
+
+    public TranspositionTable(int capacity, ReplacementPolicy policy) {
+        int size = 1;
+        while (size < capacity)
+            size <<= 1;
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        Entry<A>[] table = (Entry<A>[]) new Entry[size];
+        entries = table;
+        mask = size - 1;
+        this.policy = policy;
+    }
+
+    public int getCapacity() {
+        return entries.length;
+    }
+
+    /**
+     * Returns the current age. Entries are stamped with the age at which they
+     * are stored.
+     */
+    public int getAge() {
+        return age;
+    }
+
+    /**
+     * Increments the age. Should be called at the beginning of each new
+     * search (e.g. for every decision).
+     */
+    public void incrementAge() {
+        age++;
+    }
+
+    /**
+     * Returns the entry for the given position or null if the position is not
+     * contained.
+     */
+    public Entry<A> get(long hash) {
+        Entry<A> entry = entries[index(hash)];
+        return entry != null && entry.hash == hash ? entry : null;
+    }
+
+    /**
+     * Stores a search result for the given position. Results for the same
+     * position are always overwritten, results for other positions only if
+     * the replacement policy agrees.
+     *
+     * @param hash       Hash value of the position.
+     * @param depth      Depth of the search below the position.
+     * @param value      Result of the search.
+     * @param bound      Specifies whether value is exact or a bound.
+     * @param bestAction Action which lead to the value (may be null).
+     * @param heuristic  Indicates that non-terminal states have been evaluated.
+     */
+    public void put(long hash, int depth, double value, Bound bound, A bestAction, boolean heuristic) {
+        int idx = index(hash);
+        Entry<A> entry = entries[idx];
+        int currAge = age;
+        if (entry == null || entry.hash == hash || policy.replace(entry, depth, currAge))
+            entries[idx] = new Entry<>(hash, depth, value, bound, bestAction, heuristic, currAge);
+    }
+
+    public void clear() {
+        Arrays.fill(entries, null);
+        age = 0;
+    }
+
+    private int index(long hash) {
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+    /**
+     * Search result for a position.
+     */
+    public static class Entry<A> {
+        private final long hash;
+        private final int depth;
+        private final double value;
+        private final Bound bound;
+        private final A bestAction;
+        private final boolean heuristic;
+        private final int age;
+
+        private Entry(long hash, int depth, double value, Bound bound, A bestAction, boolean heuristic, int age) {
+            this.hash = hash;
+            this.depth = depth;
+            this.value = value;
+            this.bound = bound;
+            this.bestAction = bestAction;
+            this.heuristic = heuristic;
+            this.age = age;
+        }
+
+        public int getDepth() {
+            return depth;
+        }
+
+        public double getValue() {
+            return value;
+        }
+
+        public Bound getBound() {
+            return bound;
+        }
+
+        public A getBestAction() {
+            return bestAction;
+        }
+
+        /**
+         * Returns true if non-terminal states have been evaluated to compute
+         * the value.
+         */
+        public boolean isHeuristic() {
+            return heuristic;
+        }
+
+        public int getAge() {
+            return age;
+        }
+    }
+}
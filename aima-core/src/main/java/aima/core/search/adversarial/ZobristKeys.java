@@ -0,0 +1,48 @@
+package aima.core.search.adversarial;
+
+import java.util.Random;
+
+/**
+ * Provides random keys for Zobrist hashing. A state is hashed by XOR-ing the
+ * keys of all (position, piece) combinations which are present in the state.
+ * When a piece is placed or removed, the hash value is updated by XOR-ing the
+ * corresponding key. Keys are generated with a fixed seed, so hash values are
+ * the same in every run.
+ */
+public final class ZobristKeys {
+
+    private static final long SEED = 0x5DEECE66DL;
+    private static volatile long[] keys = createKeys(256);
+
+    private ZobristKeys() {
+    }
+
+    /**
+     * Returns the key with the given index. Games typically use
+     * <code>position * numberOfPieceTypes + pieceType</code> as index.
+     */
+    public static long get(int index) {
+        long[] k = keys;
+        if (index >= k.length)
+            k = grow(index + 1);
+        return k[index];
+    }
+
+    private static synchronized long[] grow(int minSize) {
+        if (keys.length < minSize)
+            keys = createKeys(Math.max(minSize, 2 * keys.length));
+        return keys;
+    }
+
+    // same seed, so smaller key arrays are prefixes of larger ones
+    private static long[] createKeys(int size) {
+        Random random = new Random(SEED);
+        long[] result = new long[size];
+        for (int i = 0; i < size; i++) {
+            do {
+                result[i] = random.nextLong();
+            } while (result[i] == 0);
+        }
+        return result;
+    }
+}
@@ -1,7 +1,7 @@
 package aima.core.search.csp;
 
 import aima.core.search.csp.inference.InferenceLog;
-import aima.core.util.Tasks;
+import aima.core.util.SearchBudget;
 
 import java.util.Optional;
 
@@ -48,8 +48,11 @@ import java.util.Optional;
  */
 public abstract class AbstractBacktrackingSolver<VAR extends Variable, VAL> extends CspSolver<VAR, VAL> {
 
+    private SearchBudget currBudget;
+
     /** Applies a recursive backtracking search to solve the CSP. */
     public Optional<Assignment<VAR, VAL>> solve(CSP<VAR, VAL> csp) {
+        currBudget = startBudget();
         Assignment<VAR, VAL> result = backtrack(csp, new Assignment<>());
         return result != null ? Optional.of(result) : Optional.empty();
     }
@@ -57,11 +60,11 @@ public abstract class AbstractBacktrackingSolver<VAR extends Variable, VAL> exte
     /**
      * Template method, which can be configured by overriding the three
      * primitive operations below.
-     * @return An assignment (possibly incomplete if task was cancelled) or null if no solution was found.
+     * @return An assignment (possibly incomplete if the budget was exhausted) or null if no solution was found.
      */
     private Assignment<VAR, VAL> backtrack(CSP<VAR, VAL> csp, Assignment<VAR, VAL> assignment) {
         Assignment<VAR, VAL> result = null;
-        if (assignment.isComplete(csp.getVariables()) || Tasks.currIsCancelled()) {
+        if (assignment.isComplete(csp.getVariables()) || currBudget.spend()) {
             result = assignment;
         } else {
             VAR var = selectUnassignedVariable(csp, assignment);
@@ -0,0 +1,74 @@
+package aima.core.search.csp;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Represents a constraint which forbids equal values for all variables of its
+ * scope. Compared to a clique of binary not-equal constraints, it enables much
+ * stronger propagation (see {@link aima.core.search.csp.inference.GACStrategy})
+ * and needs only one constraint object.
+ * <p>
+ * For integer variables, an offset can be added to the value of each scope
+ * variable before comparison. This way, e.g. the diagonal constraints of the
+ * n-queens problem can be expressed as all-different constraints on
+ * <code>row(i) + i</code> and <code>row(i) - i</code>.
+ * </p>
+ */
+public class AllDiffConstraint<VAR extends Variable, VAL> implements Constraint<VAR, VAL> {
+
+	private List<VAR> scope;
+	private int[] offsets;
+
+	public AllDiffConstraint(List<VAR> scope) {
+		this.scope = new ArrayList<>(scope);
+	}
+
+	/**
+	 * Creates a constraint which requires <code>x1 + offsets[0], ... , xn + offsets[n-1]</code>
+	 * to be pairwise different.
+	 */
+	public static <VAR extends Variable> AllDiffConstraint<VAR, Integer> withOffsets(List<VAR> scope, int[] offsets) {
+		if (offsets.length != scope.size())
+			throw new IllegalArgumentException("Number of offsets does not match scope size.");
+		AllDiffConstraint<VAR, Integer> result = new AllDiffConstraint<>(scope);
+		result.offsets = offsets;
+		return result;
+	}
+
+	@Override
+	public List<VAR> getScope() {
+		return scope;
+	}
+
+	/** Returns true if values are compared after adding integer offsets. */
+	public boolean hasOffsets() {
+		return offsets != null;
+	}
+
+	/** Returns the offset for the i-th scope variable (0 if the constraint has no offsets). */
+	public int getOffset(int i) {
+		return offsets != null ? offsets[i] : 0;
+	}
+
+	/**
+	 * Returns the object which is compared for the given value of the i-th
+	 * scope variable: the value itself or the value plus offset.
+	 */
+	public Object getKey(int i, VAL value) {
+		return offsets != null ? (Object) ((Integer) value + offsets[i]) : value;
+	}
+
+	@Override
+	public boolean isSatisfiedWith(Assignment<VAR, VAL> assignment) {
+		Set<Object> keys = new HashSet<>();
+		for (int i = 0; i < scope.size(); i++) {
+			VAL value = assignment.getValue(scope.get(i));
+			if (value != null && !keys.add(getKey(i, value)))
+				return false;
+		}
+		return true;
+	}
+}
@@ -2,6 +2,8 @@ package aima.core.search.csp;
 
 import aima.core.search.framework.Metrics;
 
+import java.util.concurrent.atomic.AtomicInteger;
+
 /**
  * Interface which allows interested clients to register at a CSP solver
  * and follow its progress step by step.
@@ -20,31 +22,32 @@ public interface CspListener<VAR extends Variable, VAL> {
 
     /**
      * A simple CSP listener implementation which counts assignment changes and changes caused by
-     * inference steps and provides some metrics.
+     * inference steps and provides some metrics. It can be shared by solvers running in
+     * different threads.
      * @author Ruediger Lunde
      */
     class StepCounter<VAR extends Variable, VAL> implements CspListener<VAR, VAL> {
-        private int assignmentCount = 0;
-        private int inferenceCount = 0;
+        private final AtomicInteger assignmentCount = new AtomicInteger();
+        private final AtomicInteger inferenceCount = new AtomicInteger();
 
         @Override
         public void stateChanged(CSP<VAR, VAL> csp, Assignment<VAR, VAL> assignment, VAR variable) {
             if (assignment != null)
-                ++assignmentCount;
+                assignmentCount.incrementAndGet();
             else
-                ++inferenceCount;
+                inferenceCount.incrementAndGet();
         }
 
         public void reset() {
-            assignmentCount = 0;
-            inferenceCount = 0;
+            assignmentCount.set(0);
+            inferenceCount.set(0);
         }
 
         public Metrics getResults() {
             Metrics result = new Metrics();
-            result.set("assignmentCount", assignmentCount);
-            if (inferenceCount != 0)
-                result.set("inferenceCount", inferenceCount);
+            result.set("assignmentCount", assignmentCount.get());
+            if (inferenceCount.get() != 0)
+                result.set("inferenceCount", inferenceCount.get());
             return result;
         }
     }
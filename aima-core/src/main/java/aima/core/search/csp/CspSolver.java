@@ -1,14 +1,18 @@
 package aima.core.search.csp;
 
-import java.util.ArrayList;
+import aima.core.util.SearchBudget;
+
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * Base class for CSP solver implementations. Solving a CSP means finding an
  * assignment, which is consistent and complete with respect to a CSP. This
  * abstract class provides the central interface method and additionally an
- * implementation of an observer mechanism.
+ * implementation of an observer mechanism. Listeners can be added and removed
+ * while a solver is running in another thread. Without listeners, notifications
+ * cost nothing but a check whether the listener list is empty.
  *
  * @param <VAR> Type which is used to represent variables
  * @param <VAL> Type which is used to represent the values in the domains
@@ -18,7 +22,8 @@ import java.util.Optional;
  */
 public abstract class CspSolver<VAR extends Variable, VAL> {
 
-    private List<CspListener<VAR, VAL>> listeners = new ArrayList<>();
+    private final List<CspListener<VAR, VAL>> listeners = new CopyOnWriteArrayList<>();
+    private SearchBudget budget;
 
     /**
      * Computes a solution to the given CSP, which specifies values for all
@@ -29,6 +34,30 @@ public abstract class CspSolver<VAR extends Variable, VAL> {
      */
     public abstract Optional<Assignment<VAR, VAL>> solve(CSP<VAR, VAL> csp);
 
+    /**
+     * Sets a budget which limits subsequent solver runs. Each tried
+     * assignment counts as one node. When the budget is exhausted, the solver
+     * stops and returns the best (possibly incomplete) assignment found so
+     * far or empty.
+     *
+     * @param budget a budget or null for unlimited search.
+     */
+    public void setBudget(SearchBudget budget) {
+        this.budget = budget;
+    }
+
+    public SearchBudget getBudget() {
+        return budget;
+    }
+
+    /**
+     * Returns the budget to be used by a new solver run, which is a fresh
+     * unlimited budget if none was set.
+     */
+    protected SearchBudget startBudget() {
+        return budget != null ? budget : new SearchBudget();
+    }
+
     /**
      * Adds a CSP listener to the solution strategy.
      *
@@ -48,9 +77,16 @@ public abstract class CspSolver<VAR extends Variable, VAL> {
         listeners.remove(listener);
     }
 
+    /** Returns true if at least one listener is registered. */
+    public boolean hasCspListeners() {
+        return !listeners.isEmpty();
+    }
 
     /** Informs all registered listeners about a state change. */
     protected void fireStateChanged(CSP<VAR, VAL> csp, Assignment<VAR, VAL> assignment, VAR variable) {
-        listeners.forEach(listener -> listener.stateChanged(csp, assignment, variable));
+        if (!listeners.isEmpty()) {
+            for (CspListener<VAR, VAL> listener : listeners)
+                listener.stateChanged(csp, assignment, variable);
+        }
     }
 }
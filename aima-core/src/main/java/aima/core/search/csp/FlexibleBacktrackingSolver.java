@@ -1,8 +1,8 @@
 package aima.core.search.csp;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 import aima.core.search.csp.inference.*;
 
@@ -76,11 +76,17 @@ public class FlexibleBacktrackingSolver<VAR extends Variable, VAL> extends Abstr
      */
     @Override
     protected VAR selectUnassignedVariable(CSP<VAR, VAL> csp, Assignment<VAR, VAL> assignment) {
-        List<VAR> vars = csp.getVariables().stream().filter(v -> !assignment.contains(v)).
-                collect(Collectors.toList());
-        if (varSelectionStrategy != null)
-            vars = varSelectionStrategy.apply(csp, vars);
-        return vars.get(0);
+        if (varSelectionStrategy == null) {
+            for (VAR var : csp.getVariables())
+                if (!assignment.contains(var))
+                    return var;
+            throw new IllegalStateException("All variables are assigned.");
+        }
+        List<VAR> vars = new ArrayList<>();
+        for (VAR var : csp.getVariables())
+            if (!assignment.contains(var))
+                vars.add(var);
+        return varSelectionStrategy.apply(csp, vars).get(0);
     }
 
     /**
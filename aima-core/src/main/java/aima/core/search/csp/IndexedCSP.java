@@ -0,0 +1,344 @@
+package aima.core.search.csp;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A compact CSP representation for large problems. Variables are addressed by
+ * their index in the variable list and the values of a variable by their
+ * position in the variable's initial domain (its universe). Current domains
+ * are represented as bitsets over the universe, so domain reduction does not
+ * allocate new domain objects. All reductions are recorded on a trail and can
+ * be undone in reverse order by {@link #undoTrail(int)}.
+ * <p>
+ * The class can be used everywhere a {@link CSP} is expected. The inference
+ * strategies detect this representation and work directly on the bitsets,
+ * other code uses the generic interface. {@link #getDomain(Variable)} creates
+ * domain objects on demand and caches them until the next change of the
+ * respective domain. Values always keep the order of the universe.
+ * </p>
+ * <p>
+ * Setting a domain which is a subset of the variable's universe is a reduction
+ * and recorded on the trail. Setting a domain with new values redefines the
+ * universe. This is meant for problem setup and cannot be undone. Variables
+ * whose universes contain the same values in the same order share one
+ * universe object, so only the bitsets are stored per variable.
+ * </p>
+ *
+ * @param <VAR> Type which is used to represent variables
+ * @param <VAL> Type which is used to represent the values in the domains
+ */
+public class IndexedCSP<VAR extends Variable, VAL> extends CSP<VAR, VAL> {
+
+    private int numVars;
+    /** Initial values of each variable. Position i corresponds to bit i. */
+    private Universe[] universes = new Universe[0];
+    /** Known universes by their values, used to share universes between variables. */
+    private Map<List<Object>, Universe> universeCache = new HashMap<>();
+    private long[][] bits = new long[0][];
+    private int[] sizes = new int[0];
+    private Domain<VAL>[] domainCache = newDomainArray(0);
+
+    // the trail, one entry per changed bitset word
+    private int[] trailVars = new int[64];
+    private int[] trailWords = new int[64];
+    private long[] trailBits = new long[64];
+    private int trailSize;
+
+    /**
+     * Creates a new empty CSP.
+     */
+    public IndexedCSP() {
+    }
+
+    /**
+     * Creates a new CSP with the given variables and empty domains.
+     */
+    public IndexedCSP(List<VAR> vars) {
+        vars.forEach(this::addVariable);
+    }
+
+    /**
+     * Creates a compact copy of the given CSP with the same variables,
+     * domains, and constraints.
+     */
+    public IndexedCSP(CSP<VAR, VAL> csp) {
+        for (VAR var : csp.getVariables()) {
+            addVariable(var);
+            setDomain(var, csp.getDomain(var));
+        }
+        csp.getConstraints().forEach(this::addConstraint);
+    }
+
+    @Override
+    protected void addVariable(VAR var) {
+        super.addVariable(var);
+        if (numVars == sizes.length) {
+            int capacity = Math.max(8, 2 * numVars);
+            universes = Arrays.copyOf(universes, capacity);
+            bits = Arrays.copyOf(bits, capacity);
+            sizes = Arrays.copyOf(sizes, capacity);
+            domainCache = Arrays.copyOf(domainCache, capacity);
+        }
+        universes[numVars] = getUniverse(new ArrayList<>());
+        bits[numVars] = new long[0];
+        numVars++;
+    }
+
+    @Override
+    public void setDomain(VAR var, Domain<VAL> domain) {
+        int varIdx = indexOf(var);
+        long[] newBits = new long[bits[varIdx].length];
+        for (VAL value : domain) {
+            Integer pos = universes[varIdx].positions.get(value);
+            if (pos == null) {
+                setUniverse(varIdx, domain);
+                return;
+            }
+            newBits[pos >>> 6] |= 1L << pos;
+        }
+        long[] words = bits[varIdx];
+        for (int w = 0; w < words.length; w++) {
+            if (words[w] != newBits[w]) {
+                pushTrail(varIdx, w, words[w]);
+                sizes[varIdx] += Long.bitCount(newBits[w]) - Long.bitCount(words[w]);
+                words[w] = newBits[w];
+                domainCache[varIdx] = null;
+            }
+        }
+    }
+
+    private void setUniverse(int varIdx, Domain<VAL> domain) {
+        List<Object> domainValues = new ArrayList<>(domain.size());
+        for (VAL value : domain)
+            domainValues.add(value);
+        Universe universe = getUniverse(domainValues);
+        universes[varIdx] = universe;
+        int size = universe.values.length;
+        long[] words = new long[(size + 63) >>> 6];
+        for (int i = 0; i < size; i++)
+            words[i >>> 6] |= 1L << i;
+        bits[varIdx] = words;
+        sizes[varIdx] = size;
+        domainCache[varIdx] = null;
+    }
+
+    /** Returns the universe for the given domain values, creating it if necessary. */
+    private Universe getUniverse(List<Object> domainValues) {
+        Universe result = universeCache.get(domainValues);
+        if (result == null) {
+            HashMap<Object, Integer> pos = new HashMap<>();
+            List<Object> values = new ArrayList<>(domainValues.size());
+            for (Object value : domainValues)
+                if (pos.putIfAbsent(value, values.size()) == null)
+                    values.add(value);
+            result = new Universe(universeCache.size(), values.toArray(), pos);
+            universeCache.put(domainValues, result);
+        }
+        return result;
+    }
+
+    @Override
+    public Domain<VAL> getDomain(Variable var) {
+        int varIdx = indexOf(var);
+        Domain<VAL> result = domainCache[varIdx];
+        if (result == null) {
+            List<VAL> values = new ArrayList<>(sizes[varIdx]);
+            for (int pos = nextValue(varIdx, 0); pos >= 0; pos = nextValue(varIdx, pos + 1))
+                values.add(getValue(varIdx, pos));
+            result = new Domain<>(values);
+            domainCache[varIdx] = result;
+        }
+        return result;
+    }
+
+    @Override
+    public boolean removeValueFromDomain(VAR var, VAL value) {
+        int varIdx = indexOf(var);
+        int pos = indexOfValue(varIdx, value);
+        return pos >= 0 && removeValue(varIdx, pos);
+    }
+
+    /** Returns the size of the universe of the specified variable. */
+    public int getUniverseSize(int varIdx) {
+        return universes[varIdx].values.length;
+    }
+
+    /**
+     * Returns an id of the universe of the specified variable. Variables with
+     * the same id share the universe, ids are numbered from 0 on.
+     */
+    public int getUniverseId(int varIdx) {
+        return universes[varIdx].id;
+    }
+
+    /** Returns the number of different universes (an upper bound for the universe ids). */
+    public int getUniverseCount() {
+        return universeCache.size();
+    }
+
+    /** Returns the value at the given universe position of the specified variable. */
+    @SuppressWarnings("unchecked")
+    public VAL getValue(int varIdx, int pos) {
+        return (VAL) universes[varIdx].values[pos];
+    }
+
+    /** Returns the universe position of the value or -1 if it is not part of the universe. */
+    public int indexOfValue(int varIdx, VAL value) {
+        Integer pos = universes[varIdx].positions.get(value);
+        return pos != null ? pos : -1;
+    }
+
+    /** Returns the number of values in the current domain of the specified variable. */
+    public int getDomainSize(int varIdx) {
+        return sizes[varIdx];
+    }
+
+    /** Checks whether the current domain of the specified variable contains the value at the given position. */
+    public boolean containsValue(int varIdx, int pos) {
+        long[] words = bits[varIdx];
+        int w = pos >>> 6;
+        return w < words.length && (words[w] & (1L << pos)) != 0;
+    }
+
+    /**
+     * Returns the first position greater or equal <code>from</code> whose
+     * value is contained in the current domain of the specified variable, or
+     * -1 if there is none. Values can be removed while iterating.
+     */
+    public int nextValue(int varIdx, int from) {
+        long[] words = bits[varIdx];
+        int w = from >>> 6;
+        if (w >= words.length)
+            return -1;
+        long word = words[w] & (-1L << from);
+        while (true) {
+            if (word != 0)
+                return (w << 6) + Long.numberOfTrailingZeros(word);
+            if (++w == words.length)
+                return -1;
+            word = words[w];
+        }
+    }
+
+    /**
+     * Removes the value at the given position from the current domain of the
+     * specified variable. The change is recorded on the trail.
+     *
+     * @return true if the domain was reduced.
+     */
+    public boolean removeValue(int varIdx, int pos) {
+        long[] words = bits[varIdx];
+        int w = pos >>> 6;
+        long mask = 1L << pos;
+        if (w >= words.length || (words[w] & mask) == 0)
+            return false;
+        pushTrail(varIdx, w, words[w]);
+        words[w] &= ~mask;
+        sizes[varIdx]--;
+        domainCache[varIdx] = null;
+        return true;
+    }
+
+    /**
+     * Reduces the current domain of the specified variable to the value at
+     * the given position. The change is recorded on the trail.
+     *
+     * @return true if the domain was reduced.
+     */
+    public boolean reduceDomainTo(int varIdx, int pos) {
+        long[] words = bits[varIdx];
+        boolean reduced = false;
+        for (int w = 0; w < words.length; w++) {
+            long newWord = (w == pos >>> 6) ? words[w] & (1L << pos) : 0L;
+            if (words[w] != newWord) {
+                pushTrail(varIdx, w, words[w]);
+                sizes[varIdx] += Long.bitCount(newWord) - Long.bitCount(words[w]);
+                words[w] = newWord;
+                reduced = true;
+            }
+        }
+        if (reduced)
+            domainCache[varIdx] = null;
+        return reduced;
+    }
+
+    /**
+     * Returns the current length of the trail. The value can be used as mark
+     * for {@link #undoTrail(int)}.
+     */
+    public int getTrailSize() {
+        return trailSize;
+    }
+
+    /**
+     * Undoes all domain reductions which have been recorded after the trail
+     * had the given size.
+     */
+    public void undoTrail(int mark) {
+        while (trailSize > mark) {
+            trailSize--;
+            int varIdx = trailVars[trailSize];
+            int w = trailWords[trailSize];
+            long[] words = bits[varIdx];
+            sizes[varIdx] += Long.bitCount(trailBits[trailSize]) - Long.bitCount(words[w]);
+            words[w] = trailBits[trailSize];
+            domainCache[varIdx] = null;
+        }
+    }
+
+    private void pushTrail(int varIdx, int w, long oldWord) {
+        if (trailSize == trailVars.length) {
+            int capacity = 2 * trailSize;
+            trailVars = Arrays.copyOf(trailVars, capacity);
+            trailWords = Arrays.copyOf(trailWords, capacity);
+            trailBits = Arrays.copyOf(trailBits, capacity);
+        }
+        trailVars[trailSize] = varIdx;
+        trailWords[trailSize] = w;
+        trailBits[trailSize] = oldWord;
+        trailSize++;
+    }
+
+    /**
+     * Returns a copy with its own domains and an empty trail. Universes and
+     * constraints are shared.
+     */
+    @Override
+    public IndexedCSP<VAR, VAL> copyDomains() {
+        IndexedCSP<VAR, VAL> result = (IndexedCSP<VAR, VAL>) super.copyDomains();
+        result.universes = universes.clone();
+        result.universeCache = new HashMap<>(universeCache);
+        result.bits = new long[bits.length][];
+        for (int i = 0; i < numVars; i++)
+            result.bits[i] = bits[i].clone();
+        result.sizes = sizes.clone();
+        result.domainCache = domainCache.clone();
+        result.trailVars = new int[64];
+        result.trailWords = new int[64];
+        result.trailBits = new long[64];
+        result.trailSize = 0;
+        return result;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static <VAL> Domain<VAL>[] newDomainArray(int size) {
+        return (Domain<VAL>[]) new Domain[size];
+    }
+
+    /** The values of a universe and their positions. */
+    private static class Universe {
+        final int id;
+        final Object[] values;
+        final HashMap<Object, Integer> positions;
+
+        Universe(int id, Object[] values, HashMap<Object, Integer> positions) {
+            this.id = id;
+            this.values = values;
+            this.positions = positions;
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package aima.core.search.csp;
+
+import java.util.List;
+
+/**
+ * A constraint on integer variables which can be checked without an
+ * assignment object. Inference strategies use the integer form as fast path
+ * (see {@link aima.core.search.csp.inference.GACStrategy}).
+ */
+public interface IntConstraint<VAR extends Variable> extends Constraint<VAR, Integer> {
+
+	/**
+	 * Checks a complete tuple of values. The values are given in the order of
+	 * the scope.
+	 */
+	boolean isSatisfiedWith(int[] values);
+
+	/**
+	 * Returns true if some variables of the scope are unassigned, and the result
+	 * of the tuple check otherwise.
+	 */
+	@Override
+	default boolean isSatisfiedWith(Assignment<VAR, Integer> assignment) {
+		List<VAR> scope = getScope();
+		int[] values = new int[scope.size()];
+		for (int i = 0; i < values.length; i++) {
+			Integer value = assignment.getValue(scope.get(i));
+			if (value == null)
+				return true;
+			values[i] = value;
+		}
+		return isSatisfiedWith(values);
+	}
+}
@@ -1,14 +1,13 @@
 package aima.core.search.csp;
 
-import aima.core.util.Tasks;
-import aima.core.util.Util;
+import aima.core.util.SearchBudget;
 
 import java.util.*;
 
 /**
  * Artificial Intelligence A Modern Approach (3rd Ed.): Figure 6.8, Page 221.<br>
  * <br>
- * 
+ *
  * <pre>
  * <code>
  * function MIN-CONFLICTS(csp, max-steps) returns a solution or failure
@@ -23,12 +22,45 @@ import java.util.*;
  *    return failure
  * </code>
  * </pre>
- * 
+ *
  * Figure 6.8 The MIN-CONFLICTS algorithm for solving CSPs by local search. The
  * initial state may be chosen randomly or by a greedy assignment process that
  * chooses a minimal-conflict value for each variable in turn. The CONFLICTS
  * function counts the number of constraints violated by a particular value,
  * given the rest of the current assignment.
+ * <p>
+ * This implementation evaluates constraints incrementally. It maintains a
+ * violation flag for each constraint and the set of conflicted variables, and
+ * after each step only re-evaluates the constraints of the changed variable.
+ * So the solution test and the selection of a conflicted variable take
+ * constant time, and a step costs time proportional to the number of
+ * evaluated values times the number of constraints of the selected variable.
+ * {@link AllDiffConstraint}s are not evaluated as a whole. Instead, the solver
+ * counts for each key how many scope variables share it, and CONFLICTS counts
+ * each other variable with the same key as one conflict, as if the constraint
+ * was a clique of binary not-equal constraints. So the conflicts of a value
+ * with an all-different constraint are looked up in constant time.
+ * </p>
+ * <p>
+ * The initial assignment is built greedily by default: variables are assigned
+ * in turn, each with a value which minimizes the conflicts with the variables
+ * assigned before. By default, all values of the domain are evaluated. For
+ * large domains, a value sample size bounds the number of evaluated values:
+ * then a fixed number of sampled values competes with the current value.
+ * Half of them are taken from the values which are not used by any variable
+ * of an all-different constraint without offsets. Large problems like
+ * n-queens with a million queens should be stated with all-different
+ * constraints (see {@link aima.core.search.csp.examples.NQueensCSP}) and
+ * solved with a sample size of about 100. Then a few hundred steps suffice
+ * after greedy initialization.
+ * </p>
+ * <p>
+ * Two extensions help to escape from plateaus and local minima. A tabu tenure
+ * forbids a variable to return to the value it just left for the given number
+ * of steps, unless that value is free of conflicts. A restart interval
+ * replaces the current assignment by a new initial one if the number of
+ * conflicted variables has not improved for the given number of steps.
+ * </p>
  *
  * @param <VAR> Type which is used to represent variables
  * @param <VAL> Type which is used to represent the values in the domains
@@ -38,11 +70,16 @@ import java.util.*;
  */
 public class MinConflictsSolver<VAR extends Variable, VAL> extends CspSolver<VAR, VAL> {
 	private int maxSteps;
+	private int tabuTenure;
+	private int restartInterval;
+	private int valueSampleSize;
+	private boolean greedyInitialization = true;
+	private Random random = new Random();
 
 	/**
 	 * Constructs a min-conflicts strategy with a given number of steps allowed
 	 * before giving up.
-	 * 
+	 *
 	 * @param maxSteps
 	 *            the number of steps allowed before giving up
 	 */
@@ -50,59 +87,552 @@ public class MinConflictsSolver<VAR extends Variable, VAL> extends CspSolver<VAR
 		this.maxSteps = maxSteps;
 	}
 
+	/**
+	 * Forbids a variable to return to its previous value for the given number
+	 * of steps (0 disables tabu search). Uses the fluent interface design
+	 * pattern.
+	 */
+	public MinConflictsSolver<VAR, VAL> setTabuTenure(int steps) {
+		tabuTenure = steps;
+		return this;
+	}
+
+	/**
+	 * Restarts with a new initial assignment if the number of conflicted
+	 * variables did not decrease for the given number of steps (0 disables
+	 * restarts). The assignment is built like the first one, greedily or
+	 * randomly (see {@link #setGreedyInitialization(boolean)}); greedy
+	 * initialization breaks ties randomly, so restarts still differ. Uses the
+	 * fluent interface design pattern.
+	 */
+	public MinConflictsSolver<VAR, VAL> setRestartInterval(int steps) {
+		restartInterval = steps;
+		return this;
+	}
+
+	/**
+	 * Bounds the number of values which are evaluated when a value is chosen
+	 * for a variable (0 evaluates all values of the domain). Uses the fluent
+	 * interface design pattern.
+	 */
+	public MinConflictsSolver<VAR, VAL> setValueSampleSize(int size) {
+		valueSampleSize = size;
+		return this;
+	}
+
+	/**
+	 * Chooses between a greedy (default) and a random initial assignment.
+	 * Uses the fluent interface design pattern.
+	 */
+	public MinConflictsSolver<VAR, VAL> setGreedyInitialization(boolean b) {
+		greedyInitialization = b;
+		return this;
+	}
+
+	/**
+	 * Sets the source of all random choices, e.g. a seeded one to make runs
+	 * reproducible. Uses the fluent interface design pattern.
+	 */
+	public MinConflictsSolver<VAR, VAL> setRandom(Random random) {
+		this.random = random;
+		return this;
+	}
+
 	public Optional<Assignment<VAR, VAL>> solve(CSP<VAR, VAL> csp) {
-		Assignment<VAR, VAL> current = generateRandomAssignment(csp);
-		fireStateChanged(csp, current, null);
-		for (int i = 0; i < maxSteps && !Tasks.currIsCancelled(); i++) {
-			if (current.isSolution(csp)) {
-				return Optional.of(current);
+		SearchBudget budget = startBudget();
+		ConflictTracker tracker = new ConflictTracker(csp);
+		tracker.initialize();
+		fireStateChanged(csp, tracker.assignment, null);
+		int minConflicted = Integer.MAX_VALUE;
+		int lastImprovement = 0;
+		for (int i = 0; i < maxSteps && !budget.spend(); i++) {
+			if (tracker.isSolution()) {
+				return Optional.of(tracker.assignment);
+			} else if (restartInterval > 0 && i - lastImprovement >= restartInterval) {
+				tracker.initialize();
+				fireStateChanged(csp, tracker.assignment, null);
+				minConflicted = Integer.MAX_VALUE;
+				lastImprovement = i;
 			} else {
-				Set<VAR> vars = getConflictedVariables(current, csp);
-				VAR var = Util.selectRandomlyFromSet(vars);
-				VAL value = getMinConflictValueFor(var, current, csp);
-				current.add(var, value);
-				fireStateChanged(csp, current, var);
+				int varIdx = tracker.selectConflictedVariable();
+				VAL value = tracker.getMinConflictValueFor(varIdx, i);
+				tracker.setValue(varIdx, value, i);
+				fireStateChanged(csp, tracker.assignment, tracker.vars.get(varIdx));
+				if (tracker.numConflicted < minConflicted) {
+					minConflicted = tracker.numConflicted;
+					lastImprovement = i;
+				}
 			}
 		}
 		return Optional.empty();
 	}
 
-	private Assignment<VAR, VAL> generateRandomAssignment(CSP<VAR, VAL> csp) {
-		Assignment<VAR, VAL> result = new Assignment<>();
-		for (VAR var : csp.getVariables()) {
-			VAL randomValue = Util.selectRandomlyFromList(csp.getDomain(var).asList());
-			result.add(var, randomValue);
+	/**
+	 * Maintains a complete assignment together with violation flags for all
+	 * constraints and the set of conflicted variables.
+	 */
+	private class ConflictTracker {
+		final CSP<VAR, VAL> csp;
+		final List<VAR> vars;
+		final Assignment<VAR, VAL> assignment = new Assignment<>();
+		final Object[] values;
+
+		// general constraints, evaluated with the assignment
+		final List<Constraint<VAR, VAL>> constraints = new ArrayList<>();
+		final int[][] constraintScopes;
+		final boolean[] violated;
+		final int[][] varConstraints;
+
+		// all-different constraints, evaluated by key counting
+		final List<KeyCounter> counters = new ArrayList<>();
+		/** For each variable pairs of counter index and scope position. */
+		final int[][] varCounters;
+
+		/**
+		 * Number of violated constraints plus number of shared all-different
+		 * keys per variable. A variable is conflicted if this is positive.
+		 */
+		final int[] conflictSources;
+		/** Conflicted variables in arbitrary order, allows sampling in constant time. */
+		final int[] conflicted;
+		final int[] conflictedPos;
+		int numConflicted;
+
+		final Object[] tabuValues;
+		final int[] tabuUntil;
+		/** The best values found so far. */
+		Object[] candidates = new Object[16];
+
+		ConflictTracker(CSP<VAR, VAL> csp) {
+			this.csp = csp;
+			vars = csp.getVariables();
+			int n = vars.size();
+			values = new Object[n];
+			int[] numConstraints = new int[n];
+			int[] numCounters = new int[n];
+			List<int[]> scopes = new ArrayList<>();
+			for (Constraint<VAR, VAL> constraint : csp.getConstraints()) {
+				int[] scope = constraint.getScope().stream().mapToInt(csp::indexOf).toArray();
+				if (constraint instanceof AllDiffConstraint) {
+					counters.add(new KeyCounter((AllDiffConstraint<VAR, VAL>) constraint, scope, getCommonDomain(scope)));
+					for (int v : scope)
+						numCounters[v]++;
+				} else {
+					constraints.add(constraint);
+					scopes.add(scope);
+					for (int v : scope)
+						numConstraints[v]++;
+				}
+			}
+			constraintScopes = scopes.toArray(new int[scopes.size()][]);
+			violated = new boolean[constraintScopes.length];
+			varConstraints = new int[n][];
+			varCounters = new int[n][];
+			for (int v = 0; v < n; v++) {
+				varConstraints[v] = new int[numConstraints[v]];
+				varCounters[v] = new int[2 * numCounters[v]];
+			}
+			Arrays.fill(numConstraints, 0);
+			Arrays.fill(numCounters, 0);
+			for (int c = 0; c < constraintScopes.length; c++)
+				for (int v : constraintScopes[c])
+					varConstraints[v][numConstraints[v]++] = c;
+			for (int c = 0; c < counters.size(); c++) {
+				int[] scope = counters.get(c).scope;
+				for (int i = 0; i < scope.length; i++) {
+					varCounters[scope[i]][numCounters[scope[i]]++] = c;
+					varCounters[scope[i]][numCounters[scope[i]]++] = i;
+				}
+			}
+			conflictSources = new int[n];
+			conflicted = new int[n];
+			conflictedPos = new int[n];
+			tabuValues = new Object[n];
+			tabuUntil = new int[n];
 		}
-		return result;
-	}
 
-	private Set<VAR> getConflictedVariables(Assignment<VAR, VAL> assignment, CSP<VAR, VAL> csp) {
-		Set<VAR> result = new LinkedHashSet<>();
-		csp.getConstraints().stream().filter(constraint -> !constraint.isSatisfiedWith(assignment)).
-				map(Constraint::getScope).forEach(result::addAll);
-		return result;
-	}
+		/**
+		 * Returns the domain of the variables with the given indices if they
+		 * all share the same domain object, and null otherwise.
+		 */
+		private Domain<VAL> getCommonDomain(int[] scope) {
+			Domain<VAL> result = csp.getDomain(vars.get(scope[0]));
+			for (int v : scope)
+				if (csp.getDomain(vars.get(v)) != result)
+					return null;
+			return result;
+		}
 
-	private VAL getMinConflictValueFor(VAR var, Assignment<VAR, VAL> assignment, CSP<VAR, VAL> csp) {
-		List<Constraint<VAR, VAL>> constraints = csp.getConstraints(var);
-		Assignment<VAR, VAL> testAssignment = assignment.clone();
-		int minConflict = Integer.MAX_VALUE;
-		List<VAL> resultCandidates = new ArrayList<>();
-		for (VAL value : csp.getDomain(var)) {
-			testAssignment.add(var, value);
-			int currConflict = countConflicts(testAssignment, constraints);
-			if (currConflict <= minConflict) {
-				if (currConflict < minConflict) {
-					resultCandidates.clear();
-					minConflict = currConflict;
+		/**
+		 * Assigns values to all variables, greedily or randomly, and
+		 * initializes all counters.
+		 */
+		void initialize() {
+			Arrays.fill(conflictSources, 0);
+			numConflicted = 0;
+			Arrays.fill(values, null);
+			Arrays.fill(tabuValues, null);
+			counters.forEach(KeyCounter::clear);
+			for (VAR var : vars)
+				assignment.remove(var);
+			for (int v = 0; v < vars.size(); v++) {
+				VAL value;
+				if (greedyInitialization) {
+					value = getMinConflictValueFor(v, 0);
+				} else {
+					Domain<VAL> domain = csp.getDomain(vars.get(v));
+					value = domain.get(random.nextInt(domain.size()));
+				}
+				values[v] = value;
+				assignment.add(vars.get(v), value);
+				for (int k = 0; k < varCounters[v].length; k += 2)
+					counters.get(varCounters[v][k]).add(v, varCounters[v][k + 1], value);
+			}
+			for (int c = 0; c < violated.length; c++) {
+				violated[c] = !constraints.get(c).isSatisfiedWith(assignment);
+				if (violated[c])
+					for (int v : constraintScopes[c])
+						changeConflictSources(v, 1);
+			}
+		}
+
+		boolean isSolution() {
+			return numConflicted == 0;
+		}
+
+		int selectConflictedVariable() {
+			return conflicted[random.nextInt(numConflicted)];
+		}
+
+		/**
+		 * Returns a value which minimizes the number of conflicts with the
+		 * other assigned variables. Ties are broken randomly, tabu values are
+		 * only considered if they are free of conflicts. If the value sample
+		 * size is smaller than the domain, only the current value and the
+		 * given number of sampled values are evaluated. Half of the samples
+		 * are taken from the unused values of all-different constraints (if
+		 * tracked), the others from the whole domain. Sampling stops at the
+		 * first value without conflicts.
+		 */
+		@SuppressWarnings("unchecked")
+		VAL getMinConflictValueFor(int varIdx, int step) {
+			VAR var = vars.get(varIdx);
+			VAL current = (VAL) values[varIdx];
+			boolean tabuActive = tabuValues[varIdx] != null && step < tabuUntil[varIdx];
+			Domain<VAL> domain = csp.getDomain(var);
+			boolean sampling = valueSampleSize > 0 && valueSampleSize < domain.size();
+			int numValues = sampling ? valueSampleSize : domain.size();
+			int numFreeSamples = sampling ? numValues / 2 : 0;
+			int minConflicts = Integer.MAX_VALUE;
+			int numCandidates = 0;
+			if (sampling && current != null && !(tabuActive && current.equals(tabuValues[varIdx]))) {
+				minConflicts = countConflicts(varIdx, current, true);
+				candidates[numCandidates++] = current;
+			}
+			int[] vc = varCounters[varIdx];
+			int k = 0;
+			for (int j = 0; j < numValues; j++) {
+				VAL value = null;
+				while (j < numFreeSamples && value == null && k < vc.length) {
+					value = counters.get(vc[k]).sampleFreeValue();
+					if (value == null)
+						k += 2;
+				}
+				if (value == null)
+					value = domain.get(sampling ? random.nextInt(domain.size()) : j);
+				int conflicts = countConflicts(varIdx, value, value.equals(current));
+				if (conflicts > minConflicts || tabuActive && conflicts > 0 && value.equals(tabuValues[varIdx]))
+					continue;
+				if (conflicts < minConflicts) {
+					minConflicts = conflicts;
+					numCandidates = 0;
+				}
+				if (numCandidates == candidates.length)
+					candidates = Arrays.copyOf(candidates, 2 * numCandidates);
+				candidates[numCandidates++] = value;
+				if (sampling && conflicts == 0) {
+					// values are sampled in random order, so the first free value is a random one
+					numCandidates = 1;
+					candidates[0] = value;
+					break;
+				}
+			}
+			if (varConstraints[varIdx].length > 0) {
+				if (current != null)
+					assignment.add(var, current);
+				else
+					assignment.remove(var);
+			}
+			if (numCandidates == 0)
+				return current != null ? current : domain.get(random.nextInt(domain.size()));
+			return (VAL) candidates[random.nextInt(numCandidates)];
+		}
+
+		/**
+		 * Counts conflicts of var with the value. Leaves the value in the
+		 * assignment if var has general constraints.
+		 */
+		private int countConflicts(int varIdx, VAL value, boolean isCurrent) {
+			int[] vc = varCounters[varIdx];
+			// the variable itself is counted if the value is its current value
+			int result = isCurrent ? -vc.length / 2 : 0;
+			for (int k = 0; k < vc.length; k += 2)
+				result += counters.get(vc[k]).getCount(vc[k + 1], value);
+			if (varConstraints[varIdx].length > 0) {
+				assignment.add(vars.get(varIdx), value);
+				for (int c : varConstraints[varIdx])
+					if (!constraints.get(c).isSatisfiedWith(assignment))
+						result++;
+			}
+			return result;
+		}
+
+		@SuppressWarnings("unchecked")
+		void setValue(int varIdx, VAL value, int step) {
+			VAL old = (VAL) values[varIdx];
+			if (value.equals(old))
+				return;
+			int[] vc = varCounters[varIdx];
+			for (int k = 0; k < vc.length; k += 2) {
+				KeyCounter counter = counters.get(vc[k]);
+				counter.remove(varIdx, vc[k + 1], old);
+				counter.add(varIdx, vc[k + 1], value);
+			}
+			values[varIdx] = value;
+			assignment.add(vars.get(varIdx), value);
+			for (int c : varConstraints[varIdx]) {
+				boolean v = !constraints.get(c).isSatisfiedWith(assignment);
+				if (v != violated[c]) {
+					violated[c] = v;
+					for (int var : constraintScopes[c])
+						changeConflictSources(var, v ? 1 : -1);
+				}
+			}
+			if (tabuTenure > 0) {
+				tabuValues[varIdx] = old;
+				tabuUntil[varIdx] = step + 1 + tabuTenure;
+			}
+		}
+
+		void changeConflictSources(int varIdx, int delta) {
+			int old = conflictSources[varIdx];
+			conflictSources[varIdx] = old + delta;
+			if (old == 0) {
+				conflictedPos[varIdx] = numConflicted;
+				conflicted[numConflicted++] = varIdx;
+			} else if (old + delta == 0) {
+				int pos = conflictedPos[varIdx];
+				int last = conflicted[--numConflicted];
+				conflicted[pos] = last;
+				conflictedPos[last] = pos;
+			}
+		}
+
+		/**
+		 * Counts for an all-different constraint how many scope variables
+		 * share a key. Each entry holds the count and the sum of the indices
+		 * of the variables with that key, which identifies the remaining
+		 * variable when the count drops to one. Keys of integer values are
+		 * used directly, other keys are mapped to integer ids first.
+		 * <p>
+		 * If the constraint has no offsets and all scope variables share one
+		 * domain, the counter also tracks the unused values of that domain.
+		 * They are kept in an array which may contain used values and
+		 * duplicates; these are discarded lazily when they are sampled.
+		 * </p>
+		 */
+		private class KeyCounter {
+			final AllDiffConstraint<VAR, VAL> constraint;
+			final int[] scope;
+			final CountTable intKeys;
+			final CountTable objectKeys;
+			final HashMap<Object, Integer> objectIds = new HashMap<>();
+			/** The common domain of the scope variables if free values are tracked. */
+			final Domain<VAL> freeDomain;
+			Object[] freeValues;
+			int numFree;
+
+			KeyCounter(AllDiffConstraint<VAR, VAL> constraint, int[] scope, Domain<VAL> commonDomain) {
+				this.constraint = constraint;
+				this.scope = scope;
+				intKeys = new CountTable(scope.length);
+				objectKeys = new CountTable(16);
+				freeDomain = constraint.hasOffsets() ? null : commonDomain;
+			}
+
+			void clear() {
+				intKeys.clear();
+				objectKeys.clear();
+				if (freeDomain != null) {
+					if (freeValues == null || freeValues.length < freeDomain.size())
+						freeValues = new Object[freeDomain.size()];
+					for (int i = 0; i < freeDomain.size(); i++)
+						freeValues[i] = freeDomain.get(i);
+					numFree = freeDomain.size();
+				}
+			}
+
+			/**
+			 * Returns a random value of the common domain which is not used
+			 * by any scope variable, or null if there is none or free values
+			 * are not tracked.
+			 */
+			@SuppressWarnings("unchecked")
+			VAL sampleFreeValue() {
+				while (numFree > 0) {
+					int i = random.nextInt(numFree);
+					VAL value = (VAL) freeValues[i];
+					if (getCount(0, value) == 0)
+						return value;
+					freeValues[i] = freeValues[--numFree];
+					freeValues[numFree] = null;
+				}
+				return null;
+			}
+
+			int getCount(int pos, VAL value) {
+				if (value instanceof Integer) {
+					return intKeys.getCount((Integer) value + constraint.getOffset(pos));
+				} else {
+					Integer id = objectIds.get(constraint.getKey(pos, value));
+					return id != null ? objectKeys.getCount(id) : 0;
+				}
+			}
+
+			void add(int varIdx, int pos, VAL value) {
+				CountTable table;
+				int slot;
+				if (value instanceof Integer) {
+					table = intKeys;
+					slot = table.getSlot((Integer) value + constraint.getOffset(pos));
+				} else {
+					Object key = constraint.getKey(pos, value);
+					Integer id = objectIds.get(key);
+					if (id == null)
+						objectIds.put(key, id = objectIds.size());
+					table = objectKeys;
+					slot = table.getSlot(id);
+				}
+				int count = table.add(slot, varIdx);
+				if (count == 2) {
+					changeConflictSources(table.getIndexSum(slot) - varIdx, 1);
+					changeConflictSources(varIdx, 1);
+				} else if (count > 2) {
+					changeConflictSources(varIdx, 1);
+				}
+			}
+
+			void remove(int varIdx, int pos, VAL value) {
+				CountTable table;
+				int slot;
+				if (value instanceof Integer) {
+					table = intKeys;
+					slot = table.getSlot((Integer) value + constraint.getOffset(pos));
+				} else {
+					table = objectKeys;
+					slot = table.getSlot(objectIds.get(constraint.getKey(pos, value)));
+				}
+				int count = table.add(slot, -varIdx - 1);
+				if (count == 0 && freeDomain != null) {
+					if (numFree == freeValues.length)
+						freeValues = Arrays.copyOf(freeValues, 2 * numFree);
+					freeValues[numFree++] = value;
+				} else if (count == 1) {
+					changeConflictSources(table.getIndexSum(slot), -1);
+					changeConflictSources(varIdx, -1);
+				} else if (count > 1) {
+					changeConflictSources(varIdx, -1);
 				}
-				resultCandidates.add(value);
 			}
 		}
-		 return (!resultCandidates.isEmpty()) ? Util.selectRandomlyFromList(resultCandidates) : null;
 	}
 
-	private int countConflicts(Assignment<VAR, VAL> assignment, List<Constraint<VAR, VAL>> constraints) {
-		return (int) constraints.stream().filter(constraint -> !constraint.isSatisfiedWith(assignment)).count();
+	/**
+	 * Hash table with int keys which counts variables per key and sums up
+	 * their indices. Open addressing with linear probing, each slot occupies
+	 * four consecutive array elements (used flag, key, count, index sum), so
+	 * a lookup usually touches only one cache line. Entries are never removed.
+	 */
+	private static class CountTable {
+		private int[] slots;
+		private int mask;
+		private int shift;
+		private int size;
+
+		CountTable(int expectedSize) {
+			init(Math.max(16, Integer.highestOneBit(Math.max(1, expectedSize)) * 4));
+		}
+
+		private void init(int capacity) {
+			slots = new int[4 * capacity];
+			mask = capacity - 1;
+			shift = 32 - Integer.numberOfTrailingZeros(capacity);
+			size = 0;
+		}
+
+		void clear() {
+			Arrays.fill(slots, 0);
+			size = 0;
+		}
+
+		int getCount(int key) {
+			int idx = (key * 0x9E3779B9) >>> shift;
+			int base;
+			while (slots[base = idx << 2] != 0) {
+				if (slots[base + 1] == key)
+					return slots[base + 2];
+				idx = (idx + 1) & mask;
+			}
+			return 0;
+		}
+
+		/** Returns the slot of the key, which is created if necessary. */
+		int getSlot(int key) {
+			int idx = (key * 0x9E3779B9) >>> shift;
+			int base;
+			while (slots[base = idx << 2] != 0) {
+				if (slots[base + 1] == key)
+					return base;
+				idx = (idx + 1) & mask;
+			}
+			if (2 * (size + 1) > mask + 1) {
+				rehash();
+				return getSlot(key);
+			}
+			slots[base] = 1;
+			slots[base + 1] = key;
+			size++;
+			return base;
+		}
+
+		/**
+		 * Adds variable index i (if i &gt;= 0) or removes variable index -i-1
+		 * and returns the new count.
+		 */
+		int add(int slot, int i) {
+			if (i >= 0) {
+				slots[slot + 3] += i;
+				return ++slots[slot + 2];
+			} else {
+				slots[slot + 3] += i + 1;
+				return --slots[slot + 2];
+			}
+		}
+
+		int getIndexSum(int slot) {
+			return slots[slot + 3];
+		}
+
+		private void rehash() {
+			int[] old = slots;
+			init(2 * (mask + 1));
+			for (int base = 0; base < old.length; base += 4) {
+				if (old[base] != 0) {
+					int slot = getSlot(old[base + 1]);
+					slots[slot + 2] = old[base + 2];
+					slots[slot + 3] = old[base + 3];
+				}
+			}
+		}
 	}
 }
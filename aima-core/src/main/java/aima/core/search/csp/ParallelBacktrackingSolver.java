@@ -0,0 +1,149 @@
+package aima.core.search.csp;
+
+import aima.core.util.SearchBudget;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Splits the top levels of the backtracking tree into independent subproblems
+ * and solves them in parallel. Up to the split depth, the solver selects
+ * variables and orders values exactly like the backtracking solvers provided
+ * by the factory. Each consistent choice of values for the split variables
+ * becomes a fork/join task, which works on a copy of the CSP whose split
+ * variables have singleton domains. Below the split depth, a fresh solver from
+ * the factory solves the restricted copy. Idle threads of the
+ * {@link ForkJoinPool} steal pending subproblems, so the load is balanced even
+ * if the subtrees differ very much in size. The first solution found cancels
+ * all other tasks; it is not necessarily the solution which a sequential
+ * search would find first.
+ * <p>
+ * If a budget is set, each subproblem runs on a child of it (see
+ * {@link SearchBudget#createChild()}). So the limits apply to the search as a
+ * whole, cancelling the budget stops all subproblems, and an empty result
+ * proves that no solution exists only if the budget status is
+ * {@link SearchBudget.Status#WITHIN_BUDGET}.
+ * </p>
+ *
+ * @param <VAR> Type which is used to represent variables
+ * @param <VAL> Type which is used to represent the values in the domains
+ */
+public class ParallelBacktrackingSolver<VAR extends Variable, VAL> extends CspSolver<VAR, VAL> {
+
+    private final Supplier<? extends AbstractBacktrackingSolver<VAR, VAL>> solverFactory;
+    private final int splitDepth;
+    private ForkJoinPool pool = ForkJoinPool.commonPool();
+
+    /**
+     * Creates a parallel solver.
+     *
+     * @param solverFactory Provides one backtracking solver per subproblem.
+     * @param splitDepth    Number of tree levels which are split into tasks.
+     */
+    public ParallelBacktrackingSolver(Supplier<? extends AbstractBacktrackingSolver<VAR, VAL>> solverFactory,
+                                      int splitDepth) {
+        if (splitDepth < 0)
+            throw new IllegalArgumentException("Split depth must not be negative.");
+        this.solverFactory = solverFactory;
+        this.splitDepth = splitDepth;
+    }
+
+    /** Sets the pool which executes the tasks (default: common pool). */
+    public ParallelBacktrackingSolver<VAR, VAL> setPool(ForkJoinPool pool) {
+        this.pool = pool;
+        return this;
+    }
+
+    @Override
+    public Optional<Assignment<VAR, VAL>> solve(CSP<VAR, VAL> csp) {
+        Search search = new Search(startBudget(), solverFactory.get());
+        pool.invoke(search.new SplitTask(csp.copyDomains(), new Assignment<>()));
+        return Optional.ofNullable(search.solution.get());
+    }
+
+    /** State shared by all tasks of one solver run. */
+    private class Search {
+        final SearchBudget budget;
+        final AbstractBacktrackingSolver<VAR, VAL> splitter;
+        final AtomicReference<Assignment<VAR, VAL>> solution = new AtomicReference<>();
+        final Queue<SearchBudget> activeBudgets = new ConcurrentLinkedQueue<>();
+
+        Search(SearchBudget budget, AbstractBacktrackingSolver<VAR, VAL> splitter) {
+            this.budget = budget;
+            this.splitter = splitter;
+        }
+
+        void solveSubproblem(CSP<VAR, VAL> csp) {
+            AbstractBacktrackingSolver<VAR, VAL> solver = solverFactory.get();
+            SearchBudget subBudget = budget.createChild();
+            solver.setBudget(subBudget);
+            if (hasCspListeners())
+                solver.addCspListener(this::forward);
+            activeBudgets.add(subBudget);
+            try {
+                if (solution.get() != null || subBudget.isExhausted())
+                    return; // a solution was found meanwhile, or the budget is exhausted
+                Optional<Assignment<VAR, VAL>> result = solver.solve(csp);
+                if (result.isPresent() && subBudget.getStatus() == SearchBudget.Status.WITHIN_BUDGET
+                        && solution.compareAndSet(null, result.get())) {
+                    for (SearchBudget other : activeBudgets)
+                        other.cancel();
+                }
+            } finally {
+                activeBudgets.remove(subBudget);
+            }
+        }
+
+        void forward(CSP<VAR, VAL> csp, Assignment<VAR, VAL> assignment, VAR variable) {
+            synchronized (ParallelBacktrackingSolver.this) {
+                fireStateChanged(csp, assignment, variable);
+            }
+        }
+
+        /** Splits the tree at one node, or solves the subproblem below split depth. */
+        class SplitTask extends RecursiveAction {
+            private static final long serialVersionUID = 1L;
+            private final CSP<VAR, VAL> csp;
+            private final Assignment<VAR, VAL> assignment;
+
+            SplitTask(CSP<VAR, VAL> csp, Assignment<VAR, VAL> assignment) {
+                this.csp = csp;
+                this.assignment = assignment;
+            }
+
+            @Override
+            protected void compute() {
+                if (solution.get() != null)
+                    return;
+                if (assignment.getVariables().size() >= splitDepth || assignment.isComplete(csp.getVariables())) {
+                    solveSubproblem(csp);
+                    return;
+                }
+                VAR var;
+                Iterable<VAL> values;
+                synchronized (splitter) { // strategies may keep state
+                    var = splitter.selectUnassignedVariable(csp, assignment);
+                    values = splitter.orderDomainValues(csp, assignment, var);
+                }
+                List<SplitTask> subtasks = new ArrayList<>();
+                for (VAL value : values) {
+                    Assignment<VAR, VAL> childAssignment = assignment.clone();
+                    childAssignment.add(var, value);
+                    if (childAssignment.isConsistent(csp.getConstraints(var))) {
+                        CSP<VAR, VAL> childCsp = csp.copyDomains();
+                        childCsp.setDomain(var, new Domain<>(value));
+                        subtasks.add(new SplitTask(childCsp, childAssignment));
+                    }
+                }
+                invokeAll(subtasks);
+            }
+        }
+    }
+}
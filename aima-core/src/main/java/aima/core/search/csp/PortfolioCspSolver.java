@@ -0,0 +1,152 @@
+package aima.core.search.csp;
+
+import aima.core.util.SearchBudget;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Races several differently configured CSP solvers against each other. All
+ * member solvers work on their own copy of the CSP in parallel, and the first
+ * conclusive answer cancels the others. An answer is conclusive if it is a
+ * solution or if a complete solver (a backtracking or tree solver) reports
+ * that no solution exists within its budget. An empty result of a local search
+ * solver like {@link MinConflictsSolver} is not conclusive.
+ * <p>
+ * The first member runs in the calling thread, the others in a configurable
+ * {@link ForkJoinPool}. Members must not share strategy objects, as those may
+ * keep state during a solver run. If a budget is set, each member runs on a
+ * child of it (see {@link SearchBudget#createChild()}). So the limits apply to
+ * the race as a whole and cancelling the budget stops all members. If no
+ * member gives a conclusive answer because the budget is exhausted, the budget
+ * status tells the reason.
+ * </p>
+ * <p>
+ * Example:
+ * <pre>
+ * CspSolver&lt;Variable, Integer&gt; solver = new PortfolioCspSolver&lt;&gt;(
+ *         new FlexibleBacktrackingSolver&lt;Variable, Integer&gt;().setAll(),
+ *         new MinConflictsSolver&lt;&gt;(100000));
+ * Optional&lt;Assignment&lt;Variable, Integer&gt;&gt; solution = solver.solve(csp);
+ * </pre>
+ * </p>
+ *
+ * @param <VAR> Type which is used to represent variables
+ * @param <VAL> Type which is used to represent the values in the domains
+ */
+public class PortfolioCspSolver<VAR extends Variable, VAL> extends CspSolver<VAR, VAL> {
+
+    private final List<CspSolver<VAR, VAL>> members;
+    private ForkJoinPool pool = ForkJoinPool.commonPool();
+    private CspSolver<VAR, VAL> lastWinner;
+
+    @SafeVarargs
+    public PortfolioCspSolver(CspSolver<VAR, VAL>... members) {
+        this.members = new ArrayList<>(members.length);
+        for (CspSolver<VAR, VAL> member : members)
+            this.members.add(member);
+        checkMembers();
+    }
+
+    public PortfolioCspSolver(List<? extends CspSolver<VAR, VAL>> members) {
+        this.members = new ArrayList<>(members);
+        checkMembers();
+    }
+
+    private void checkMembers() {
+        if (members.isEmpty())
+            throw new IllegalArgumentException("At least one member solver is needed.");
+    }
+
+    /** Sets the pool which executes the member solvers (default: common pool). */
+    public PortfolioCspSolver<VAR, VAL> setPool(ForkJoinPool pool) {
+        this.pool = pool;
+        return this;
+    }
+
+    /** Returns the member which gave the conclusive answer in the last run or null. */
+    public CspSolver<VAR, VAL> getLastWinner() {
+        return lastWinner;
+    }
+
+    @Override
+    public Optional<Assignment<VAR, VAL>> solve(CSP<VAR, VAL> csp) {
+        SearchBudget budget = startBudget();
+        AtomicReference<Member> winner = new AtomicReference<>();
+        List<Member> runs = new ArrayList<>();
+        for (CspSolver<VAR, VAL> solver : members)
+            runs.add(new Member(solver, budget.createChild(), csp.copyDomains(), winner, runs));
+
+        List<ForkJoinTask<?>> helpers = new ArrayList<>();
+        for (Member run : runs.subList(1, runs.size()))
+            helpers.add(pool.submit(run::run));
+        try {
+            runs.get(0).run();
+        } finally {
+            for (ForkJoinTask<?> helper : helpers)
+                helper.join();
+        }
+        Member result = winner.get();
+        lastWinner = result != null ? result.solver : null;
+        return result != null ? result.result : Optional.empty();
+    }
+
+    /** Returns true if an empty result of the solver proves that the CSP has no solution. */
+    private static boolean isComplete(CspSolver<?, ?> solver) {
+        return solver instanceof AbstractBacktrackingSolver || solver instanceof TreeCspSolver;
+    }
+
+    /** One run of a member solver. */
+    private class Member {
+        final CspSolver<VAR, VAL> solver;
+        final SearchBudget budget;
+        final CSP<VAR, VAL> csp;
+        final AtomicReference<Member> winner;
+        final List<Member> runs;
+        Optional<Assignment<VAR, VAL>> result = Optional.empty();
+
+        Member(CspSolver<VAR, VAL> solver, SearchBudget budget, CSP<VAR, VAL> csp,
+               AtomicReference<Member> winner, List<Member> runs) {
+            this.solver = solver;
+            this.budget = budget;
+            this.csp = csp;
+            this.winner = winner;
+            this.runs = runs;
+        }
+
+        void run() {
+            SearchBudget oldBudget = solver.getBudget();
+            CspListener<VAR, VAL> forwarder = null;
+            if (hasCspListeners()) {
+                forwarder = this::forward;
+                solver.addCspListener(forwarder);
+            }
+            solver.setBudget(budget);
+            try {
+                if (winner.get() == null)
+                    result = solver.solve(csp);
+            } finally {
+                solver.setBudget(oldBudget);
+                if (forwarder != null)
+                    solver.removeCspListener(forwarder);
+            }
+            boolean conclusive = result.isPresent() ? result.get().isSolution(csp)
+                    : isComplete(solver) && budget.getStatus() == SearchBudget.Status.WITHIN_BUDGET;
+            if (conclusive && winner.compareAndSet(null, this)) {
+                for (Member other : runs)
+                    if (other != this)
+                        other.budget.cancel();
+            }
+        }
+
+        void forward(CSP<VAR, VAL> csp, Assignment<VAR, VAL> assignment, VAR variable) {
+            synchronized (PortfolioCspSolver.this) {
+                fireStateChanged(csp, assignment, variable);
+            }
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package aima.core.search.csp;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Represents a linear constraint min &lt;= c1*x1 + ... + cn*xn &lt;= max on
+ * integer variables. Equality is expressed by min = max.
+ */
+public class SumConstraint<VAR extends Variable> implements IntConstraint<VAR> {
+
+	private List<VAR> scope;
+	private int[] coefficients;
+	private int min;
+	private int max;
+
+	/** Creates a constraint for the plain sum of the variables. */
+	public SumConstraint(List<VAR> scope, int min, int max) {
+		this(scope, null, min, max);
+	}
+
+	/**
+	 * Creates a constraint for the weighted sum of the variables.
+	 * @param coefficients one coefficient per scope variable, or null for all ones.
+	 */
+	public SumConstraint(List<VAR> scope, int[] coefficients, int min, int max) {
+		this.scope = new ArrayList<>(scope);
+		if (coefficients == null) {
+			coefficients = new int[scope.size()];
+			Arrays.fill(coefficients, 1);
+		} else if (coefficients.length != scope.size()) {
+			throw new IllegalArgumentException("Number of coefficients does not match scope size.");
+		}
+		this.coefficients = coefficients;
+		this.min = min;
+		this.max = max;
+	}
+
+	@Override
+	public List<VAR> getScope() {
+		return scope;
+	}
+
+	public int getCoefficient(int i) {
+		return coefficients[i];
+	}
+
+	public int getMin() {
+		return min;
+	}
+
+	public int getMax() {
+		return max;
+	}
+
+	@Override
+	public boolean isSatisfiedWith(int[] values) {
+		long sum = 0;
+		for (int i = 0; i < values.length; i++)
+			sum += (long) coefficients[i] * values[i];
+		return sum >= min && sum <= max;
+	}
+}
@@ -0,0 +1,51 @@
+package aima.core.search.csp;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Represents a constraint in extensional form. The relation is given as list
+ * of allowed tuples, each tuple listing values in the order of the scope.
+ */
+public class TableConstraint<VAR extends Variable, VAL> implements Constraint<VAR, VAL> {
+
+	private List<VAR> scope;
+	private List<List<VAL>> tuples;
+	private Set<List<VAL>> tupleSet;
+
+	public TableConstraint(List<VAR> scope, List<List<VAL>> tuples) {
+		this.scope = new ArrayList<>(scope);
+		this.tuples = new ArrayList<>(tuples.size());
+		for (List<VAL> tuple : tuples) {
+			if (tuple.size() != scope.size())
+				throw new IllegalArgumentException("Tuple " + tuple + " does not match scope size.");
+			this.tuples.add(new ArrayList<>(tuple));
+		}
+		tupleSet = new HashSet<>(this.tuples);
+	}
+
+	@Override
+	public List<VAR> getScope() {
+		return scope;
+	}
+
+	/** Returns the allowed tuples. */
+	public List<List<VAL>> getTuples() {
+		return Collections.unmodifiableList(tuples);
+	}
+
+	@Override
+	public boolean isSatisfiedWith(Assignment<VAR, VAL> assignment) {
+		List<VAL> values = new ArrayList<>(scope.size());
+		for (VAR var : scope) {
+			VAL value = assignment.getValue(var);
+			if (value == null)
+				return true;
+			values.add(value);
+		}
+		return tupleSet.contains(values);
+	}
+}
@@ -1,5 +1,6 @@
 package aima.core.search.csp.examples;
 
+import aima.core.search.csp.AllDiffConstraint;
 import aima.core.search.csp.CSP;
 import aima.core.search.csp.Domain;
 import aima.core.search.csp.Variable;
@@ -7,9 +8,26 @@ import aima.core.search.csp.Variable;
 import java.util.ArrayList;
 import java.util.List;
 
+/**
+ * Represents the n-queens problem as CSP. Variable Qi holds the row of the
+ * queen in column i.
+ */
 public class NQueensCSP extends CSP<Variable, Integer> {
 
+	/** Creates a CSP with one binary constraint for each pair of queens and rows or diagonals. */
 	public NQueensCSP(int size) {
+		this(size, false);
+	}
+
+	/**
+	 * Creates a CSP for the n-queens problem.
+	 *
+	 * @param useAllDiff if true, three all-different constraints (rows and
+	 *                   both diagonal directions) are used instead of
+	 *                   n*(n-1) binary constraints. This formulation is
+	 *                   suitable for very large boards.
+	 */
+	public NQueensCSP(int size, boolean useAllDiff) {
 		for (int i = 0; i < size; i++)
 			addVariable(new Variable("Q" + (i+1)));
 		
@@ -21,12 +39,24 @@ public class NQueensCSP extends CSP<Variable, Integer> {
 		for (Variable var : getVariables())
 			setDomain(var, positions);
 
-		for (int i = 0; i < size; i++) {
-			Variable var1 = getVariables().get(i);
-			for (int j = i+1; j < size; j++) {
-				Variable var2 = getVariables().get(j);
-				addConstraint(new DiffNotEqualConstraint(var1, var2, 0));
-				addConstraint(new DiffNotEqualConstraint(var1, var2, j-i));
+		if (useAllDiff) {
+			int[] ascending = new int[size];
+			int[] descending = new int[size];
+			for (int i = 0; i < size; i++) {
+				ascending[i] = i;
+				descending[i] = -i;
+			}
+			addConstraint(new AllDiffConstraint<>(getVariables()));
+			addConstraint(AllDiffConstraint.withOffsets(getVariables(), ascending));
+			addConstraint(AllDiffConstraint.withOffsets(getVariables(), descending));
+		} else {
+			for (int i = 0; i < size; i++) {
+				Variable var1 = getVariables().get(i);
+				for (int j = i+1; j < size; j++) {
+					Variable var2 = getVariables().get(j);
+					addConstraint(new DiffNotEqualConstraint(var1, var2, 0));
+					addConstraint(new DiffNotEqualConstraint(var1, var2, j-i));
+				}
 			}
 		}
 	}
@@ -54,6 +54,11 @@ public class AC3Strategy<VAR extends Variable, VAL> implements InferenceStrategy
 	public InferenceLog<VAR, VAL> apply(CSP<VAR, VAL> csp) {
 		Queue<VAR> queue = QueueFactory.createFifoQueueNoDuplicates();
 		queue.addAll(csp.getVariables());
+		if (csp instanceof IndexedCSP) {
+			TrailLog<VAR, VAL> log = new TrailLog<>((IndexedCSP<VAR, VAL>) csp);
+			reduceDomains(queue, (IndexedCSP<VAR, VAL>) csp, log);
+			return log;
+		}
 		DomainLog<VAR, VAL> log = new DomainLog<>();
 		reduceDomains(queue, csp, log);
 		return log.compactify();
@@ -68,6 +73,8 @@ public class AC3Strategy<VAR extends Variable, VAL> implements InferenceStrategy
 	 *         undo the operation.
 	 */
 	public InferenceLog<VAR, VAL> apply(CSP<VAR, VAL> csp, Assignment<VAR, VAL> assignment, VAR var) {
+		if (csp instanceof IndexedCSP)
+			return apply((IndexedCSP<VAR, VAL>) csp, assignment.getValue(var), var);
 		Domain<VAL> domain = csp.getDomain(var);
 		VAL value = assignment.getValue(var);
 		assert domain.contains(value);
@@ -82,6 +89,20 @@ public class AC3Strategy<VAR extends Variable, VAL> implements InferenceStrategy
 		return log.compactify();
 	}
 
+	/** Variant of the method above which works directly on the bitset domains. */
+	private InferenceLog<VAR, VAL> apply(IndexedCSP<VAR, VAL> csp, VAL value, VAR var) {
+		int varIdx = csp.indexOf(var);
+		TrailLog<VAR, VAL> log = new TrailLog<>(csp);
+		assert csp.containsValue(varIdx, csp.indexOfValue(varIdx, value));
+		if (csp.getDomainSize(varIdx) > 1) {
+			Queue<VAR> queue = QueueFactory.createFifoQueue();
+			queue.add(var);
+			csp.reduceDomainTo(varIdx, csp.indexOfValue(varIdx, value));
+			reduceDomains(queue, csp, log);
+		}
+		return log;
+	}
+
 	/**
 	 * For efficiency reasons the queue manages updated variables vj whereas the original AC3
 	 * manages neighbor arcs (vi, vj). Constraints which are not binary are ignored.
@@ -128,4 +149,44 @@ public class AC3Strategy<VAR extends Variable, VAL> implements InferenceStrategy
 		}
 		return false;
 	}
+
+	private void reduceDomains(Queue<VAR> queue, IndexedCSP<VAR, VAL> csp, TrailLog<VAR, VAL> log) {
+		Assignment<VAR, VAL> assignment = new Assignment<>();
+		while (!queue.isEmpty()) {
+			VAR var = queue.remove();
+			for (Constraint<VAR, VAL> constraint : csp.getConstraints(var)) {
+				VAR neighbor = csp.getNeighbor(var, constraint);
+				if (neighbor != null && revise(neighbor, var, constraint, csp, assignment)) {
+					if (csp.getDomainSize(csp.indexOf(neighbor)) == 0) {
+						log.setEmptyDomainFound(true);
+						return;
+					}
+					queue.add(neighbor);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Establishes arc-consistency for (xi, xj) by removing unsupported values
+	 * from the bitset domain of xi.
+	 * @return value true if the domain of xi was reduced.
+	 */
+	private boolean revise(VAR xi, VAR xj, Constraint<VAR, VAL> constraint,
+			IndexedCSP<VAR, VAL> csp, Assignment<VAR, VAL> assignment) {
+		int i = csp.indexOf(xi);
+		int j = csp.indexOf(xj);
+		boolean revised = false;
+		for (int vi = csp.nextValue(i, 0); vi >= 0; vi = csp.nextValue(i, vi + 1)) {
+			assignment.add(xi, csp.getValue(i, vi));
+			boolean supported = false;
+			for (int vj = csp.nextValue(j, 0); vj >= 0 && !supported; vj = csp.nextValue(j, vj + 1)) {
+				assignment.add(xj, csp.getValue(j, vj));
+				supported = constraint.isSatisfiedWith(assignment);
+			}
+			if (!supported)
+				revised |= csp.removeValue(i, vi);
+		}
+		return revised;
+	}
 }
@@ -3,6 +3,7 @@ package aima.core.search.csp.inference;
 import aima.core.search.csp.Assignment;
 import aima.core.search.csp.CSP;
 import aima.core.search.csp.Constraint;
+import aima.core.search.csp.IndexedCSP;
 import aima.core.search.csp.Variable;
 
 /**
@@ -25,6 +26,8 @@ public class ForwardCheckingStrategy<VAR extends Variable, VAL> implements Infer
      */
     @Override
     public InferenceLog<VAR, VAL> apply(CSP<VAR, VAL> csp, Assignment<VAR, VAL> assignment, VAR var) {
+        if (csp instanceof IndexedCSP)
+            return apply((IndexedCSP<VAR, VAL>) csp, assignment, var);
         DomainLog<VAR, VAL> log = new DomainLog<>();
         for (Constraint<VAR, VAL> constraint : csp.getConstraints(var)) {
             VAR neighbor = csp.getNeighbor(var, constraint);
@@ -40,6 +43,29 @@ public class ForwardCheckingStrategy<VAR extends Variable, VAL> implements Infer
         return log;
     }
 
+    /** Variant of the method above which works directly on the bitset domains. */
+    private InferenceLog<VAR, VAL> apply(IndexedCSP<VAR, VAL> csp, Assignment<VAR, VAL> assignment, VAR var) {
+        TrailLog<VAR, VAL> log = new TrailLog<>(csp);
+        for (Constraint<VAR, VAL> constraint : csp.getConstraints(var)) {
+            VAR neighbor = csp.getNeighbor(var, constraint);
+            if (neighbor != null && !assignment.contains(neighbor)) {
+                int nIdx = csp.indexOf(neighbor);
+                boolean revised = false;
+                for (int pos = csp.nextValue(nIdx, 0); pos >= 0; pos = csp.nextValue(nIdx, pos + 1)) {
+                    assignment.add(neighbor, csp.getValue(nIdx, pos));
+                    if (!constraint.isSatisfiedWith(assignment))
+                        revised |= csp.removeValue(nIdx, pos);
+                    assignment.remove(neighbor);
+                }
+                if (revised && csp.getDomainSize(nIdx) == 0) {
+                    log.setEmptyDomainFound(true);
+                    return log;
+                }
+            }
+        }
+        return log;
+    }
+
     /**
      * Removes all values from the domain of <code>var</code> which are not consistent with
      * <code>constraint</code> and <code>assignment</code>. Modifies the domain log accordingly so
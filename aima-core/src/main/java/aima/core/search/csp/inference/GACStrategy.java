@@ -0,0 +1,883 @@
+package aima.core.search.csp.inference;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import aima.core.search.csp.*;
+
+/**
+ * Establishes generalized arc consistency (GAC): every value in the domain of
+ * a variable has a support in each constraint on the variable, that is, a
+ * tuple of values from the current domains of the other scope variables
+ * which together with the value satisfies the constraint. For binary
+ * constraints, this is arc consistency. Constraints of arbitrary arity are
+ * supported. Propagation is organized by a queue of constraints, each of them
+ * is revised by a propagator which fits the kind of constraint:
+ * <ul>
+ * <li>Binary constraints: AC-3 with residual supports in the style of
+ * AC-2001/AC-3rm. The last support found for a value is remembered in both
+ * directions and only searched anew if it was removed.</li>
+ * <li>{@link AllDiffConstraint}: Regin's filtering algorithm based on a
+ * maximum matching between variables and values. It removes all values which
+ * cannot be part of any solution of the constraint.</li>
+ * <li>{@link SumConstraint}: Bounds consistency. Values are removed if the
+ * sum bounds cannot be met with any values of the other variables. This is
+ * weaker than GAC, but polynomial.</li>
+ * <li>{@link TableConstraint}: Tuples are checked against the current
+ * domains. Values without valid tuple are removed.</li>
+ * <li>Other constraints: Support search over the domains of the scope with
+ * residual supports. The effort grows exponentially with the arity.</li>
+ * </ul>
+ * Constraints implementing {@link IntConstraint} are checked on integer
+ * tuples, all others by means of an assignment.
+ * <p>
+ * The strategy works on {@link IndexedCSP} instances only, e.g.
+ * <code>solver.solve(new IndexedCSP&lt;&gt;(csp))</code>. It keeps data about
+ * the last CSP it was applied to and should not be shared between solvers
+ * running at the same time.
+ * </p>
+ *
+ * @param <VAR> Type which is used to represent variables
+ * @param <VAL> Type which is used to represent the values in the domains
+ */
+public class GACStrategy<VAR extends Variable, VAL> implements InferenceStrategy<VAR, VAL> {
+
+	private IndexedCSP<VAR, VAL> preparedCsp;
+	private Propagator[] propagators;
+	/** Maps variable indices to the indices of the propagators of their constraints. */
+	private int[][] varPropagators;
+	/** Integer values of the universes of integer variables by universe id, computed on demand. */
+	private int[][] intValues;
+
+	// propagation queue (ring buffer, each propagator at most once)
+	private int[] queue;
+	private boolean[] queued;
+	private int qHead;
+	private int qSize;
+
+	// variables changed by the current propagator
+	private int[] changedVars;
+	private boolean[] changed;
+	private int numChanged;
+
+	private final Assignment<VAR, VAL> checkAssignment = new Assignment<>();
+
+	/**
+	 * Establishes GAC for all constraints.
+	 *
+	 * @return An object which indicates success/failure and contains data to
+	 *         undo the operation.
+	 */
+	@Override
+	public InferenceLog<VAR, VAL> apply(CSP<VAR, VAL> csp) {
+		IndexedCSP<VAR, VAL> icsp = toIndexedCSP(csp);
+		prepare(icsp);
+		TrailLog<VAR, VAL> log = new TrailLog<>(icsp);
+		for (int i = 0; i < propagators.length; i++)
+			enqueue(i);
+		if (!propagate(icsp))
+			log.setEmptyDomainFound(true);
+		return log;
+	}
+
+	/**
+	 * Reduces the domain of the specified variable to the assigned value and
+	 * reestablishes GAC. It is assumed that the provided CSP was GAC before
+	 * the call.
+	 *
+	 * @return An object which indicates success/failure and contains data to
+	 *         undo the operation.
+	 */
+	@Override
+	public InferenceLog<VAR, VAL> apply(CSP<VAR, VAL> csp, Assignment<VAR, VAL> assignment, VAR var) {
+		IndexedCSP<VAR, VAL> icsp = toIndexedCSP(csp);
+		if (icsp != preparedCsp)
+			prepare(icsp);
+		TrailLog<VAR, VAL> log = new TrailLog<>(icsp);
+		int varIdx = icsp.indexOf(var);
+		int pos = icsp.indexOfValue(varIdx, assignment.getValue(var));
+		assert icsp.containsValue(varIdx, pos);
+		if (icsp.reduceDomainTo(varIdx, pos)) {
+			for (int p : varPropagators[varIdx])
+				enqueue(p);
+			if (!propagate(icsp))
+				log.setEmptyDomainFound(true);
+		}
+		return log;
+	}
+
+	private IndexedCSP<VAR, VAL> toIndexedCSP(CSP<VAR, VAL> csp) {
+		if (!(csp instanceof IndexedCSP))
+			throw new IllegalArgumentException("GACStrategy requires an IndexedCSP.");
+		return (IndexedCSP<VAR, VAL>) csp;
+	}
+
+	/** Creates propagators for all constraints of the CSP. */
+	private void prepare(IndexedCSP<VAR, VAL> csp) {
+		preparedCsp = csp;
+		List<Constraint<VAR, VAL>> constraints = csp.getConstraints();
+		List<VAR> vars = csp.getVariables();
+		intValues = new int[csp.getUniverseCount()][];
+		propagators = newPropagatorArray(constraints.size());
+		IdentityHashMap<Constraint<VAR, VAL>, Integer> indices = new IdentityHashMap<>();
+		for (int i = 0; i < propagators.length; i++) {
+			Constraint<VAR, VAL> constraint = constraints.get(i);
+			int[] scope = constraint.getScope().stream().mapToInt(csp::indexOf).toArray();
+			if (constraint instanceof AllDiffConstraint)
+				propagators[i] = new AllDiffPropagator(constraint, scope, csp);
+			else if (constraint instanceof SumConstraint)
+				propagators[i] = new SumPropagator(constraint, scope, csp);
+			else if (constraint instanceof TableConstraint)
+				propagators[i] = new TablePropagator(constraint, scope, csp);
+			else if (scope.length == 2)
+				propagators[i] = new BinaryPropagator(constraint, scope, csp);
+			else
+				propagators[i] = new NaryPropagator(constraint, scope, csp);
+			indices.put(constraint, i);
+		}
+		varPropagators = new int[vars.size()][];
+		for (int v = 0; v < vars.size(); v++)
+			varPropagators[v] = csp.getConstraints(vars.get(v)).stream().mapToInt(indices::get).toArray();
+		queue = new int[propagators.length];
+		queued = new boolean[propagators.length];
+		qHead = 0;
+		qSize = 0;
+		changedVars = new int[vars.size()];
+		changed = new boolean[vars.size()];
+		numChanged = 0;
+	}
+
+	private void enqueue(int p) {
+		if (!queued[p]) {
+			queued[p] = true;
+			queue[(qHead + qSize++) % queue.length] = p;
+		}
+	}
+
+	/**
+	 * Revises constraints until the queue is empty.
+	 *
+	 * @return false if a domain became empty.
+	 */
+	private boolean propagate(IndexedCSP<VAR, VAL> csp) {
+		while (qSize > 0) {
+			int p = queue[qHead];
+			qHead = (qHead + 1) % queue.length;
+			qSize--;
+			queued[p] = false;
+			boolean consistent = propagators[p].propagate(csp);
+			for (int i = 0; i < numChanged; i++) {
+				int varIdx = changedVars[i];
+				changed[varIdx] = false;
+				if (consistent)
+					for (int other : varPropagators[varIdx])
+						if (other != p)
+							enqueue(other);
+			}
+			numChanged = 0;
+			if (!consistent) {
+				while (qSize > 0) {
+					queued[queue[qHead]] = false;
+					qHead = (qHead + 1) % queue.length;
+					qSize--;
+				}
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/** Removes a value and remembers the variable for propagation. */
+	private void removeValue(IndexedCSP<VAR, VAL> csp, int varIdx, int pos) {
+		if (csp.removeValue(varIdx, pos) && !changed[varIdx]) {
+			changed[varIdx] = true;
+			changedVars[numChanged++] = varIdx;
+		}
+	}
+
+	private int[] getIntValues(IndexedCSP<VAR, VAL> csp, int varIdx) {
+		int universeId = csp.getUniverseId(varIdx);
+		int[] result = intValues[universeId];
+		if (result == null) {
+			result = new int[csp.getUniverseSize(varIdx)];
+			for (int pos = 0; pos < result.length; pos++)
+				result[pos] = (Integer) csp.getValue(varIdx, pos);
+			intValues[universeId] = result;
+		}
+		return result;
+	}
+
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private Propagator[] newPropagatorArray(int size) {
+		return new GACStrategy.Propagator[size];
+	}
+
+	/**
+	 * Revises the domains of the variables of one constraint.
+	 */
+	private abstract class Propagator {
+		final Constraint<VAR, VAL> constraint;
+		/** Variable indices in scope order. */
+		final int[] vars;
+
+		Propagator(Constraint<VAR, VAL> constraint, int[] vars) {
+			this.constraint = constraint;
+			this.vars = vars;
+		}
+
+		/**
+		 * Removes values without support until the constraint is GAC (or
+		 * another consistency level specified by the propagator).
+		 *
+		 * @return false if a domain became empty.
+		 */
+		abstract boolean propagate(IndexedCSP<VAR, VAL> csp);
+	}
+
+	/**
+	 * Checks tuples of value positions against a constraint, either by
+	 * integer tuple or by assignment.
+	 */
+	private abstract class CheckingPropagator extends Propagator {
+		private final IntConstraint<?> intConstraint;
+		private final int[][] scopeIntValues;
+		private final int[] ints;
+
+		CheckingPropagator(Constraint<VAR, VAL> constraint, int[] vars, IndexedCSP<VAR, VAL> csp) {
+			super(constraint, vars);
+			if (constraint instanceof IntConstraint) {
+				intConstraint = (IntConstraint<?>) constraint;
+				scopeIntValues = new int[vars.length][];
+				for (int i = 0; i < vars.length; i++)
+					scopeIntValues[i] = getIntValues(csp, vars[i]);
+				ints = new int[vars.length];
+			} else {
+				intConstraint = null;
+				scopeIntValues = null;
+				ints = null;
+			}
+		}
+
+		/** Checks a complete tuple of value positions (in scope order). */
+		boolean check(IndexedCSP<VAR, VAL> csp, int[] tuple) {
+			if (intConstraint != null) {
+				for (int i = 0; i < tuple.length; i++)
+					ints[i] = scopeIntValues[i][tuple[i]];
+				return intConstraint.isSatisfiedWith(ints);
+			}
+			List<VAR> scope = constraint.getScope();
+			for (int i = 0; i < tuple.length; i++)
+				checkAssignment.add(scope.get(i), csp.getValue(vars[i], tuple[i]));
+			return constraint.isSatisfiedWith(checkAssignment);
+		}
+	}
+
+	/** AC-3 with bidirectional residual supports. */
+	private class BinaryPropagator extends CheckingPropagator {
+		/** residues[i][pos] is the last support in the other variable found for pos in variable i. */
+		private final int[][] residues = new int[2][];
+		private final int[] tuple = new int[2];
+
+		BinaryPropagator(Constraint<VAR, VAL> constraint, int[] vars, IndexedCSP<VAR, VAL> csp) {
+			super(constraint, vars, csp);
+			for (int i = 0; i < 2; i++) {
+				residues[i] = new int[csp.getUniverseSize(vars[i])];
+				Arrays.fill(residues[i], -1);
+			}
+		}
+
+		@Override
+		boolean propagate(IndexedCSP<VAR, VAL> csp) {
+			// revise alternately until one direction remains unchanged
+			int result = revise(csp, 0);
+			if (result < 0)
+				return false;
+			for (int i = 1; ; i = 1 - i) {
+				result = revise(csp, i);
+				if (result <= 0)
+					return result == 0;
+			}
+		}
+
+		/**
+		 * Removes the values of variable i which have no support in the other variable.
+		 * @return -1 if the domain became empty, 1 if it was reduced, and 0 otherwise.
+		 */
+		private int revise(IndexedCSP<VAR, VAL> csp, int i) {
+			int j = 1 - i;
+			int xi = vars[i];
+			int xj = vars[j];
+			int result = 0;
+			for (int a = csp.nextValue(xi, 0); a >= 0; a = csp.nextValue(xi, a + 1)) {
+				int res = residues[i][a];
+				if (res >= 0 && csp.containsValue(xj, res))
+					continue;
+				tuple[i] = a;
+				int b = csp.nextValue(xj, 0);
+				while (b >= 0) {
+					tuple[j] = b;
+					if (check(csp, tuple))
+						break;
+					b = csp.nextValue(xj, b + 1);
+				}
+				if (b >= 0) {
+					residues[i][a] = b;
+					residues[j][b] = a;
+				} else {
+					removeValue(csp, xi, a);
+					result = 1;
+				}
+			}
+			return result == 1 && csp.getDomainSize(xi) == 0 ? -1 : result;
+		}
+	}
+
+	/** Support search for constraints of arbitrary arity with residual supports. */
+	private class NaryPropagator extends CheckingPropagator {
+		/** residues[i][pos] is the last supporting tuple found for pos in variable i. */
+		private final int[][][] residues;
+		private final int[] tuple;
+
+		NaryPropagator(Constraint<VAR, VAL> constraint, int[] vars, IndexedCSP<VAR, VAL> csp) {
+			super(constraint, vars, csp);
+			residues = new int[vars.length][][];
+			for (int i = 0; i < vars.length; i++)
+				residues[i] = new int[csp.getUniverseSize(vars[i])][];
+			tuple = new int[vars.length];
+		}
+
+		@Override
+		boolean propagate(IndexedCSP<VAR, VAL> csp) {
+			boolean reduced = true;
+			while (reduced) {
+				reduced = false;
+				for (int i = 0; i < vars.length; i++) {
+					for (int a = csp.nextValue(vars[i], 0); a >= 0; a = csp.nextValue(vars[i], a + 1)) {
+						int[] res = residues[i][a];
+						if (res != null && isValid(csp, res))
+							continue;
+						tuple[i] = a;
+						if (findSupport(csp, i, 0)) {
+							res = tuple.clone();
+							for (int k = 0; k < vars.length; k++)
+								residues[k][res[k]] = res;
+						} else {
+							removeValue(csp, vars[i], a);
+							reduced = true;
+						}
+					}
+					if (csp.getDomainSize(vars[i]) == 0)
+						return false;
+				}
+			}
+			return true;
+		}
+
+		private boolean isValid(IndexedCSP<VAR, VAL> csp, int[] t) {
+			for (int k = 0; k < vars.length; k++)
+				if (!csp.containsValue(vars[k], t[k]))
+					return false;
+			return true;
+		}
+
+		/** Completes the tuple from position k on, skipping the fixed position i. */
+		private boolean findSupport(IndexedCSP<VAR, VAL> csp, int i, int k) {
+			if (k == vars.length)
+				return check(csp, tuple);
+			if (k == i)
+				return findSupport(csp, i, k + 1);
+			for (int b = csp.nextValue(vars[k], 0); b >= 0; b = csp.nextValue(vars[k], b + 1)) {
+				tuple[k] = b;
+				if (findSupport(csp, i, k + 1))
+					return true;
+			}
+			return false;
+		}
+	}
+
+	/** Removes all values which do not occur in a tuple which is valid for the current domains. */
+	private class TablePropagator extends Propagator {
+		private final int[][] tuples;
+		/** supportStamps[i][pos] == stamp marks supported values. */
+		private final int[][] supportStamps;
+		private int stamp;
+
+		TablePropagator(Constraint<VAR, VAL> constraint, int[] vars, IndexedCSP<VAR, VAL> csp) {
+			super(constraint, vars);
+			List<? extends List<?>> valueTuples = ((TableConstraint<?, ?>) constraint).getTuples();
+			int[][] posTuples = new int[valueTuples.size()][];
+			int count = 0;
+			nextTuple:
+			for (List<?> valueTuple : valueTuples) {
+				int[] posTuple = new int[vars.length];
+				for (int i = 0; i < vars.length; i++) {
+					@SuppressWarnings("unchecked")
+					int pos = csp.indexOfValue(vars[i], (VAL) valueTuple.get(i));
+					if (pos < 0)
+						continue nextTuple; // value not in universe
+					posTuple[i] = pos;
+				}
+				posTuples[count++] = posTuple;
+			}
+			tuples = Arrays.copyOf(posTuples, count);
+			supportStamps = new int[vars.length][];
+			for (int i = 0; i < vars.length; i++)
+				supportStamps[i] = new int[csp.getUniverseSize(vars[i])];
+		}
+
+		/**
+		 * One pass suffices: a removed value occurs in no valid tuple, so the
+		 * removal does not invalidate supports of other values.
+		 */
+		@Override
+		boolean propagate(IndexedCSP<VAR, VAL> csp) {
+			stamp++;
+			nextTuple:
+			for (int[] tuple : tuples) {
+				for (int i = 0; i < vars.length; i++)
+					if (!csp.containsValue(vars[i], tuple[i]))
+						continue nextTuple;
+				for (int i = 0; i < vars.length; i++)
+					supportStamps[i][tuple[i]] = stamp;
+			}
+			for (int i = 0; i < vars.length; i++) {
+				for (int a = csp.nextValue(vars[i], 0); a >= 0; a = csp.nextValue(vars[i], a + 1))
+					if (supportStamps[i][a] != stamp)
+						removeValue(csp, vars[i], a);
+				if (csp.getDomainSize(vars[i]) == 0)
+					return false;
+			}
+			return true;
+		}
+	}
+
+	/**
+	 * Bounds consistency for linear sums. For each term, the minimal and
+	 * maximal contributions of the other terms define the range of values
+	 * which can still reach the sum bounds.
+	 */
+	private class SumPropagator extends Propagator {
+		private final int[] coefficients;
+		private final long min;
+		private final long max;
+		private final int[][] values;
+		/** Value positions of each variable, sorted by value. */
+		private final int[][] sortedPositions;
+		private final long[] termMin;
+		private final long[] termMax;
+
+		SumPropagator(Constraint<VAR, VAL> constraint, int[] vars, IndexedCSP<VAR, VAL> csp) {
+			super(constraint, vars);
+			SumConstraint<?> sum = (SumConstraint<?>) constraint;
+			coefficients = new int[vars.length];
+			values = new int[vars.length][];
+			sortedPositions = new int[vars.length][];
+			for (int i = 0; i < vars.length; i++) {
+				coefficients[i] = sum.getCoefficient(i);
+				int[] vals = getIntValues(csp, vars[i]);
+				values[i] = vals;
+				sortedPositions[i] = IntStream.range(0, vals.length).boxed()
+						.sorted((p1, p2) -> Integer.compare(vals[p1], vals[p2])).mapToInt(p -> p).toArray();
+			}
+			min = sum.getMin();
+			max = sum.getMax();
+			termMin = new long[vars.length];
+			termMax = new long[vars.length];
+		}
+
+		@Override
+		boolean propagate(IndexedCSP<VAR, VAL> csp) {
+			boolean reduced = true;
+			while (reduced) {
+				reduced = false;
+				long sumMin = 0;
+				long sumMax = 0;
+				for (int i = 0; i < vars.length; i++) {
+					long lo = (long) coefficients[i] * minValue(csp, i);
+					long hi = (long) coefficients[i] * maxValue(csp, i);
+					termMin[i] = Math.min(lo, hi);
+					termMax[i] = Math.max(lo, hi);
+					sumMin += termMin[i];
+					sumMax += termMax[i];
+				}
+				if (sumMin > max || sumMax < min)
+					return false;
+				for (int i = 0; i < vars.length; i++) {
+					long lower = min - (sumMax - termMax[i]);
+					long upper = max - (sumMin - termMin[i]);
+					if (termMin[i] < lower || termMax[i] > upper) {
+						for (int a = csp.nextValue(vars[i], 0); a >= 0; a = csp.nextValue(vars[i], a + 1)) {
+							long term = (long) coefficients[i] * values[i][a];
+							if (term < lower || term > upper) {
+								removeValue(csp, vars[i], a);
+								reduced = true;
+							}
+						}
+						if (csp.getDomainSize(vars[i]) == 0)
+							return false;
+					}
+				}
+			}
+			return true;
+		}
+
+		private int minValue(IndexedCSP<VAR, VAL> csp, int i) {
+			for (int pos : sortedPositions[i])
+				if (csp.containsValue(vars[i], pos))
+					return values[i][pos];
+			throw new IllegalStateException("Empty domain.");
+		}
+
+		private int maxValue(IndexedCSP<VAR, VAL> csp, int i) {
+			int[] sorted = sortedPositions[i];
+			for (int k = sorted.length - 1; k >= 0; k--)
+				if (csp.containsValue(vars[i], sorted[k]))
+					return values[i][sorted[k]];
+			throw new IllegalStateException("Empty domain.");
+		}
+	}
+
+	/**
+	 * Regin's algorithm. A maximum matching between variables and values is
+	 * maintained. A value can be removed from a variable if the edge is not
+	 * in the matching, does not lie on an alternating cycle (variable and
+	 * value in different strongly connected components), and does not lie on
+	 * an alternating path starting at a free value. Values are identified by
+	 * their keys, which include the offsets of the constraint if any. The
+	 * graph algorithms use explicit stacks, so their depth is not limited by
+	 * the call stack.
+	 */
+	private class AllDiffPropagator extends Propagator {
+		private final int numValues;
+		/**
+		 * Maps value positions of each scope variable to common value ids
+		 * (after adding the shift of the variable). Variables with the same
+		 * universe share their rows.
+		 */
+		private final int[][] valueIds;
+		private final int[] idShifts;
+		private final int[] matchPos;
+		private final int[] matchVar;
+		private final int[] visited;
+		private int visitStamp;
+		// augmenting path: variables and the positions tried for them
+		private final int[] pathVar;
+		private final int[] pathPos;
+
+		// graph data: nodes 0..n-1 are variables, n..n+m-1 values
+		private final int[] valueEdgeStart;
+		private int[] valueEdges = new int[16];
+		private final boolean[] reachable;
+		private final int[] nodeIndex;
+		private final int[] lowLink;
+		private final int[] component;
+		private final int[] stack;
+		private final boolean[] onStack;
+		private int stackSize;
+		private int counter;
+		// DFS of Tarjan's algorithm: nodes and their next edges
+		private final int[] callNode;
+		private final int[] callEdge;
+
+		AllDiffPropagator(Constraint<VAR, VAL> constraint, int[] vars, IndexedCSP<VAR, VAL> csp) {
+			super(constraint, vars);
+			AllDiffConstraint<VAR, VAL> allDiff = (AllDiffConstraint<VAR, VAL>) constraint;
+			valueIds = new int[vars.length][];
+			idShifts = new int[vars.length];
+			int range = allDiff.hasOffsets() ? shareIntValues(allDiff, csp) : -1;
+			numValues = range >= 0 ? range : shareValueIds(allDiff, csp);
+			int numNodes = vars.length + numValues;
+			matchPos = new int[vars.length];
+			Arrays.fill(matchPos, -1);
+			matchVar = new int[numValues];
+			Arrays.fill(matchVar, -1);
+			visited = new int[numValues];
+			pathVar = new int[vars.length];
+			pathPos = new int[vars.length];
+			valueEdgeStart = new int[numValues + 1];
+			reachable = new boolean[numNodes];
+			nodeIndex = new int[numNodes];
+			lowLink = new int[numNodes];
+			component = new int[numNodes];
+			stack = new int[numNodes];
+			onStack = new boolean[numNodes];
+			callNode = new int[numNodes];
+			callEdge = new int[numNodes];
+		}
+
+		/**
+		 * Uses the integer values of the universes as value ids, shifted by
+		 * the offsets. Returns the number of value ids or -1 if the keys are
+		 * too sparse for this representation.
+		 */
+		private int shareIntValues(AllDiffConstraint<VAR, VAL> allDiff, IndexedCSP<VAR, VAL> csp) {
+			long minKey = Long.MAX_VALUE;
+			long maxKey = Long.MIN_VALUE;
+			long maxUniverseSize = 0;
+			int[][] bounds = new int[csp.getUniverseCount()][];
+			for (int i = 0; i < vars.length; i++) {
+				int u = csp.getUniverseId(vars[i]);
+				if (bounds[u] == null) {
+					int min = Integer.MAX_VALUE;
+					int max = Integer.MIN_VALUE;
+					for (int value : getIntValues(csp, vars[i])) {
+						min = Math.min(min, value);
+						max = Math.max(max, value);
+					}
+					bounds[u] = new int[] { min, max };
+				}
+				if (bounds[u][0] <= bounds[u][1]) {
+					minKey = Math.min(minKey, (long) bounds[u][0] + allDiff.getOffset(i));
+					maxKey = Math.max(maxKey, (long) bounds[u][1] + allDiff.getOffset(i));
+					maxUniverseSize = Math.max(maxUniverseSize, csp.getUniverseSize(vars[i]));
+				}
+			}
+			if (minKey > maxKey || maxKey - minKey + 1 > 4 * (vars.length + maxUniverseSize))
+				return -1;
+			for (int i = 0; i < vars.length; i++) {
+				valueIds[i] = getIntValues(csp, vars[i]);
+				idShifts[i] = (int) (allDiff.getOffset(i) - minKey);
+			}
+			return (int) (maxKey - minKey + 1);
+		}
+
+		/**
+		 * Numbers the keys of all values and returns the number of value ids.
+		 * Rows are shared between variables with the same universe and offset.
+		 */
+		private int shareValueIds(AllDiffConstraint<VAR, VAL> allDiff, IndexedCSP<VAR, VAL> csp) {
+			HashMap<Object, Integer> ids = new HashMap<>();
+			HashMap<Long, int[]> rows = new HashMap<>();
+			for (int i = 0; i < vars.length; i++) {
+				long rowKey = ((long) csp.getUniverseId(vars[i]) << 32) | (allDiff.getOffset(i) & 0xffffffffL);
+				int[] row = rows.get(rowKey);
+				if (row == null) {
+					row = new int[csp.getUniverseSize(vars[i])];
+					for (int pos = 0; pos < row.length; pos++) {
+						Object value = allDiff.getKey(i, csp.getValue(vars[i], pos));
+						Integer id = ids.get(value);
+						if (id == null) {
+							id = ids.size();
+							ids.put(value, id);
+						}
+						row[pos] = id;
+					}
+					rows.put(rowKey, row);
+				}
+				valueIds[i] = row;
+			}
+			return ids.size();
+		}
+
+		private int valueId(int i, int pos) {
+			return valueIds[i][pos] + idShifts[i];
+		}
+
+		@Override
+		boolean propagate(IndexedCSP<VAR, VAL> csp) {
+			int n = vars.length;
+			// repair the matching
+			for (int i = 0; i < n; i++) {
+				if (matchPos[i] >= 0 && !csp.containsValue(vars[i], matchPos[i])) {
+					matchVar[valueId(i, matchPos[i])] = -1;
+					matchPos[i] = -1;
+				}
+			}
+			for (int i = 0; i < n; i++) {
+				if (matchPos[i] < 0) {
+					visitStamp++;
+					if (!augment(csp, i))
+						return false;
+				}
+			}
+			buildValueEdges(csp);
+			markReachableFromFreeValues();
+			computeComponents();
+			for (int i = 0; i < n; i++) {
+				for (int a = csp.nextValue(vars[i], 0); a >= 0; a = csp.nextValue(vars[i], a + 1)) {
+					int valueNode = n + valueId(i, a);
+					if (a != matchPos[i] && !reachable[valueNode] && component[i] != component[valueNode])
+						removeValue(csp, vars[i], a);
+				}
+			}
+			return true;
+		}
+
+		/**
+		 * Searches an augmenting path starting at variable i (depth-first).
+		 * Each variable on the path first looks for a free value, before
+		 * values matched to other variables are tried. If a free value is
+		 * found, the matching is flipped along the path.
+		 */
+		private boolean augment(IndexedCSP<VAR, VAL> csp, int i) {
+			int depth = 0;
+			pathVar[0] = i;
+			pathPos[0] = csp.nextValue(vars[i], 0);
+			while (depth >= 0) {
+				int var = pathVar[depth];
+				int a = pathPos[depth];
+				if (a >= 0 && a == csp.nextValue(vars[var], 0)) {
+					int free = findFreeValue(csp, var);
+					if (free >= 0) {
+						pathPos[depth] = free;
+						flipPath(depth);
+						return true;
+					}
+				}
+				if (a < 0) {
+					// no value left, continue with the next value of the predecessor
+					if (--depth >= 0)
+						pathPos[depth] = csp.nextValue(vars[pathVar[depth]], pathPos[depth] + 1);
+					continue;
+				}
+				int v = valueId(var, a);
+				if (visited[v] != visitStamp) {
+					visited[v] = visitStamp;
+					if (matchVar[v] < 0) {
+						flipPath(depth);
+						return true;
+					}
+					depth++;
+					pathVar[depth] = matchVar[v];
+					pathPos[depth] = csp.nextValue(vars[matchVar[v]], 0);
+				} else {
+					pathPos[depth] = csp.nextValue(vars[var], a + 1);
+				}
+			}
+			return false;
+		}
+
+		/** Returns the position of an unvisited free value of the variable or -1. */
+		private int findFreeValue(IndexedCSP<VAR, VAL> csp, int i) {
+			for (int a = csp.nextValue(vars[i], 0); a >= 0; a = csp.nextValue(vars[i], a + 1)) {
+				int v = valueId(i, a);
+				if (matchVar[v] < 0 && visited[v] != visitStamp)
+					return a;
+			}
+			return -1;
+		}
+
+		/** Matches the variables of the path up to the given depth with the values tried for them. */
+		private void flipPath(int depth) {
+			for (int d = depth; d >= 0; d--) {
+				matchPos[pathVar[d]] = pathPos[d];
+				matchVar[valueId(pathVar[d], pathPos[d])] = pathVar[d];
+			}
+		}
+
+		/**
+		 * Stores the edges from values to variables which are not part of
+		 * the matching in compressed form.
+		 */
+		private void buildValueEdges(IndexedCSP<VAR, VAL> csp) {
+			Arrays.fill(valueEdgeStart, 0);
+			int numEdges = 0;
+			for (int i = 0; i < vars.length; i++) {
+				for (int a = csp.nextValue(vars[i], 0); a >= 0; a = csp.nextValue(vars[i], a + 1)) {
+					if (a != matchPos[i]) {
+						valueEdgeStart[valueId(i, a) + 1]++;
+						numEdges++;
+					}
+				}
+			}
+			for (int v = 0; v < numValues; v++)
+				valueEdgeStart[v + 1] += valueEdgeStart[v];
+			if (valueEdges.length < numEdges)
+				valueEdges = new int[Math.max(numEdges, 2 * valueEdges.length)];
+			int[] fill = Arrays.copyOf(valueEdgeStart, numValues);
+			for (int i = 0; i < vars.length; i++)
+				for (int a = csp.nextValue(vars[i], 0); a >= 0; a = csp.nextValue(vars[i], a + 1))
+					if (a != matchPos[i])
+						valueEdges[fill[valueId(i, a)]++] = i;
+		}
+
+		private void markReachableFromFreeValues() {
+			int n = vars.length;
+			Arrays.fill(reachable, false);
+			stackSize = 0;
+			for (int v = 0; v < numValues; v++) {
+				if (matchVar[v] < 0) {
+					reachable[n + v] = true;
+					stack[stackSize++] = n + v;
+				}
+			}
+			while (stackSize > 0) {
+				int node = stack[--stackSize];
+				if (node < n) {
+					int valueNode = n + valueId(node, matchPos[node]);
+					if (!reachable[valueNode]) {
+						reachable[valueNode] = true;
+						stack[stackSize++] = valueNode;
+					}
+				} else {
+					for (int e = valueEdgeStart[node - n]; e < valueEdgeStart[node - n + 1]; e++) {
+						if (!reachable[valueEdges[e]]) {
+							reachable[valueEdges[e]] = true;
+							stack[stackSize++] = valueEdges[e];
+						}
+					}
+				}
+			}
+		}
+
+		/** Tarjan's algorithm for strongly connected components. */
+		private void computeComponents() {
+			Arrays.fill(nodeIndex, -1);
+			stackSize = 0;
+			counter = 0;
+			for (int node = 0; node < nodeIndex.length; node++)
+				if (nodeIndex[node] < 0)
+					strongConnect(node);
+		}
+
+		/**
+		 * Visits all nodes reachable from the root which have not been visited
+		 * yet. Variable nodes have one edge (to the matched value), value
+		 * nodes the edges stored by {@link #buildValueEdges(IndexedCSP)}.
+		 */
+		private void strongConnect(int root) {
+			int depth = 0;
+			enter(root, 0);
+			while (depth >= 0) {
+				int node = callNode[depth];
+				if (callEdge[depth] < edgeEnd(node)) {
+					int succ = successor(node, callEdge[depth]++);
+					if (nodeIndex[succ] < 0)
+						enter(succ, ++depth);
+					else if (onStack[succ])
+						lowLink[node] = Math.min(lowLink[node], nodeIndex[succ]);
+				} else {
+					if (lowLink[node] == nodeIndex[node]) {
+						int member;
+						do {
+							member = stack[--stackSize];
+							onStack[member] = false;
+							component[member] = node;
+						} while (member != node);
+					}
+					if (--depth >= 0)
+						lowLink[callNode[depth]] = Math.min(lowLink[callNode[depth]], lowLink[node]);
+				}
+			}
+		}
+
+		private void enter(int node, int depth) {
+			nodeIndex[node] = lowLink[node] = counter++;
+			stack[stackSize++] = node;
+			onStack[node] = true;
+			callNode[depth] = node;
+			callEdge[depth] = node < vars.length ? 0 : valueEdgeStart[node - vars.length];
+		}
+
+		private int edgeEnd(int node) {
+			return node < vars.length ? 1 : valueEdgeStart[node - vars.length + 1];
+		}
+
+		private int successor(int node, int edge) {
+			return node < vars.length ? vars.length + valueId(node, matchPos[node]) : valueEdges[edge];
+		}
+	}
+}
@@ -0,0 +1,48 @@
+package aima.core.search.csp.inference;
+
+import aima.core.search.csp.CSP;
+import aima.core.search.csp.IndexedCSP;
+import aima.core.search.csp.Variable;
+
+/**
+ * Inference log for {@link IndexedCSP}. Instead of saving old domains, it just
+ * remembers the size of the CSP's trail when inference started. Undo restores
+ * all domains by rolling back the trail to that mark. As the trail is a
+ * stack, logs must be undone in reverse order of their creation, which is
+ * the case in backtracking search.
+ */
+public class TrailLog<VAR extends Variable, VAL> implements InferenceLog<VAR, VAL> {
+	private final IndexedCSP<VAR, VAL> csp;
+	private final int mark;
+	private boolean emptyDomainObserved;
+
+	public TrailLog(IndexedCSP<VAR, VAL> csp) {
+		this.csp = csp;
+		mark = csp.getTrailSize();
+	}
+
+	public void setEmptyDomainFound(boolean b) {
+		emptyDomainObserved = b;
+	}
+
+	/** Returns true if no domain was changed since this log was created. */
+	@Override
+	public boolean isEmpty() {
+		return csp.getTrailSize() == mark;
+	}
+
+	@Override
+	public boolean inconsistencyFound() {
+		return emptyDomainObserved;
+	}
+
+	@Override
+	public void undo(CSP<VAR, VAL> csp) {
+		assert csp == this.csp;
+		this.csp.undoTrail(mark);
+	}
+
+	public String toString() {
+		return "trail[" + mark + ".." + csp.getTrailSize() + "]" + (emptyDomainObserved ? " !" : "");
+	}
+}
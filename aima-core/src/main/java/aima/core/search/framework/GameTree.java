@@ -16,6 +16,7 @@ import java.util.Random;
 
 public class GameTree<S, A> {
 	HashMap<Node<S, A>, List<Node<S, A>>> gameTree;
+	HashMap<Node<S, A>, Node<S, A>> parents;
 	HashMap<S, Double> Wi, Ni;
 	NodeFactory<S, A> nodeFactory;
 	Node<S, A> root;
@@ -23,6 +24,7 @@ public class GameTree<S, A> {
 	
 	public GameTree() {
 		this.gameTree = new HashMap<>();
+		this.parents = new HashMap<>();
 		this.nodeFactory = new NodeFactory<>();
 		Wi = new HashMap<>();
 		Ni = new HashMap<>();
@@ -55,24 +57,14 @@ public class GameTree<S, A> {
 		List<Node<S, A>> children = successors(parent);
 		children.add(newChild);
 		gameTree.put(parent, children);
+		parents.put(newChild, parent);
 		Wi.put(child, 0.0);
 		Ni.put(child, 0.0);
 		return newChild;
 	}
 	
 	public Node<S, A> getParent(Node<S, A> node) {
-		Node<S, A> parent = null;
-		for (Node<S, A> key : gameTree.keySet()) {
-			List<Node<S, A>> children = successors(key);
-			for (Node<S, A> child : children) {
-				if (child.getState() == node.getState()) {
-					parent = key;
-					break;
-				}
-			}
-			if (parent != null) break;
-		}
-		return parent;
+		return parents.get(node);
 	}
 	
 	public List<Node<S, A>> successors(Node<S, A> node) {
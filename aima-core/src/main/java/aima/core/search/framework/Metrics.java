@@ -5,7 +5,9 @@ import java.util.Set;
 import java.util.TreeMap;
 
 /**
- * Stores key-value pairs for efficiency analysis.
+ * Stores key-value pairs for efficiency analysis. Algorithms with hot inner
+ * loops should prefer a {@link MetricsRegistry} and expose its read-only view
+ * ({@link MetricsRegistry#asMetrics()}) instead of updating strings.
  * 
  * @author Ravi Mohan
  * @author Ruediger Lunde
@@ -58,7 +60,9 @@ public class Metrics {
 
 	/** Sorts the key-value pairs by key names and formats them as equations. */
 	public String toString() {
-		TreeMap<String, String> map = new TreeMap<String, String>(hash);
+		TreeMap<String, String> map = new TreeMap<String, String>();
+		for (String key : keySet())
+			map.put(key, get(key));
 		return map.toString();
 	}
 }
@@ -0,0 +1,304 @@
+package aima.core.search.framework;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Typed, lock-free replacement for the string-backed {@link Metrics} storage.
+ * Values are kept in primitive counters, gauges, max-trackers, and nanosecond
+ * timers which can be updated concurrently without synchronization. Metric
+ * objects are registered once (typically when a search is created) and then
+ * updated directly in the inner loops of the algorithms. For compatibility,
+ * {@link #asMetrics()} provides a read-only {@link Metrics} view, which
+ * formats the current values on demand.
+ */
+public class MetricsRegistry {
+
+	private final Map<String, Metric> metrics = new ConcurrentHashMap<>();
+	private final Metrics view = new View();
+
+	/** Returns the counter with the given name, creating it if necessary. */
+	public Counter counter(String name) {
+		return register(name, Counter.class, new Counter());
+	}
+
+	/** Returns the integer gauge with the given name, creating it if necessary. */
+	public LongGauge longGauge(String name) {
+		return register(name, LongGauge.class, new LongGauge());
+	}
+
+	/** Returns the floating point gauge with the given name, creating it if necessary. */
+	public DoubleGauge doubleGauge(String name) {
+		return register(name, DoubleGauge.class, new DoubleGauge());
+	}
+
+	/** Returns the max-tracker with the given name, creating it if necessary. */
+	public MaxTracker maxTracker(String name) {
+		return register(name, MaxTracker.class, new MaxTracker());
+	}
+
+	/** Returns the nanosecond timer with the given name, creating it if necessary. */
+	public Timer timer(String name) {
+		return register(name, Timer.class, new Timer());
+	}
+
+	/** Returns the metric with the given name or null if it does not exist. */
+	public Metric get(String name) {
+		return metrics.get(name);
+	}
+
+	/** Returns the names of all registered metrics. */
+	public Set<String> keySet() {
+		return Collections.unmodifiableSet(metrics.keySet());
+	}
+
+	/** Sets all registered metrics to zero. */
+	public void reset() {
+		metrics.values().forEach(Metric::reset);
+	}
+
+	/**
+	 * Returns a read-only {@link Metrics} object which reflects the current
+	 * values of this registry.
+	 */
+	public Metrics asMetrics() {
+		return view;
+	}
+
+	@Override
+	public String toString() {
+		return view.toString();
+	}
+
+	private <T extends Metric> T register(String name, Class<T> type, T metric) {
+		Metric result = metrics.putIfAbsent(name, metric);
+		if (result == null)
+			result = metric;
+		if (!type.isInstance(result))
+			throw new IllegalArgumentException("Metric " + name + " is already registered as "
+					+ result.getClass().getSimpleName() + ".");
+		return type.cast(result);
+	}
+
+	///////////////////////////////////////////////////////////////////////////////////////////
+	// nested metric types
+
+	/** Common base class of all metric types. */
+	public static abstract class Metric {
+		public abstract long longValue();
+
+		public double doubleValue() {
+			return longValue();
+		}
+
+		/** Formats the value in the same way as {@link Metrics#set(String, long)}. */
+		public String valueAsString() {
+			return Long.toString(longValue());
+		}
+
+		public abstract void reset();
+
+		@Override
+		public String toString() {
+			return valueAsString();
+		}
+	}
+
+	/** Monotonic counter, e.g. for expanded nodes. */
+	public static final class Counter extends Metric {
+		private final LongAdder value = new LongAdder();
+
+		public void increment() {
+			value.increment();
+		}
+
+		public void add(long delta) {
+			value.add(delta);
+		}
+
+		@Override
+		public long longValue() {
+			return value.sum();
+		}
+
+		@Override
+		public void reset() {
+			value.reset();
+		}
+	}
+
+	/** Holds the last integer value which was set, e.g. a queue size. */
+	public static final class LongGauge extends Metric {
+		private volatile long value;
+
+		public void set(long value) {
+			this.value = value;
+		}
+
+		@Override
+		public long longValue() {
+			return value;
+		}
+
+		@Override
+		public void reset() {
+			value = 0;
+		}
+	}
+
+	/**
+	 * Holds the last floating point value which was set, e.g. a path cost. As
+	 * with the string-based metrics, the cleared value is formatted as "0".
+	 */
+	public static final class DoubleGauge extends Metric {
+		private volatile double value;
+		private volatile boolean isSet;
+
+		public void set(double value) {
+			this.value = value;
+			isSet = true;
+		}
+
+		@Override
+		public long longValue() {
+			return (long) value;
+		}
+
+		@Override
+		public double doubleValue() {
+			return value;
+		}
+
+		@Override
+		public String valueAsString() {
+			return isSet ? Double.toString(value) : "0";
+		}
+
+		@Override
+		public void reset() {
+			isSet = false;
+			value = 0;
+		}
+	}
+
+	/** Keeps track of the maximum of all reported values, e.g. a maximal depth. */
+	public static final class MaxTracker extends Metric {
+		private final LongAccumulator value = new LongAccumulator(Math::max, 0);
+
+		public void update(long value) {
+			this.value.accumulate(value);
+		}
+
+		@Override
+		public long longValue() {
+			return value.get();
+		}
+
+		@Override
+		public void reset() {
+			value.reset();
+		}
+	}
+
+	/**
+	 * Accumulates elapsed time in nanoseconds. Typical usage:
+	 * <code>long start = timer.start(); ...; timer.stop(start);</code>
+	 */
+	public static final class Timer extends Metric {
+		private final LongAdder nanos = new LongAdder();
+		private final LongAdder count = new LongAdder();
+
+		public long start() {
+			return System.nanoTime();
+		}
+
+		/** Records the time elapsed since <code>startNanos</code> and returns it. */
+		public long stop(long startNanos) {
+			long elapsed = System.nanoTime() - startNanos;
+			record(elapsed);
+			return elapsed;
+		}
+
+		public void record(long elapsedNanos) {
+			nanos.add(elapsedNanos);
+			count.increment();
+		}
+
+		/** Returns the number of recorded time intervals. */
+		public long count() {
+			return count.sum();
+		}
+
+		/** Returns the sum of all recorded time intervals in nanoseconds. */
+		@Override
+		public long longValue() {
+			return nanos.sum();
+		}
+
+		@Override
+		public void reset() {
+			nanos.reset();
+			count.reset();
+		}
+	}
+
+	/**
+	 * Read-only metrics view. Values are taken directly from the registry and
+	 * are not parsed from strings.
+	 */
+	private class View extends Metrics {
+
+		@Override
+		public void set(String name, int i) {
+			throw new UnsupportedOperationException("Metrics view of a registry is read-only.");
+		}
+
+		@Override
+		public void set(String name, double d) {
+			throw new UnsupportedOperationException("Metrics view of a registry is read-only.");
+		}
+
+		@Override
+		public void set(String name, long l) {
+			throw new UnsupportedOperationException("Metrics view of a registry is read-only.");
+		}
+
+		@Override
+		public void incrementInt(String name) {
+			throw new UnsupportedOperationException("Metrics view of a registry is read-only.");
+		}
+
+		@Override
+		public int getInt(String name) {
+			Metric metric = metrics.get(name);
+			return metric != null ? (int) metric.longValue() : 0;
+		}
+
+		@Override
+		public double getDouble(String name) {
+			Metric metric = metrics.get(name);
+			return metric != null ? metric.doubleValue() : Double.NaN;
+		}
+
+		@Override
+		public long getLong(String name) {
+			Metric metric = metrics.get(name);
+			return metric != null ? metric.longValue() : 0l;
+		}
+
+		@Override
+		public String get(String name) {
+			Metric metric = metrics.get(name);
+			return metric != null ? metric.valueAsString() : null;
+		}
+
+		@Override
+		public Set<String> keySet() {
+			return MetricsRegistry.this.keySet();
+		}
+	}
+}
@@ -5,11 +5,22 @@ import aima.core.search.framework.problem.Problem;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.function.Consumer;
+import java.util.function.Predicate;
 
 /**
  * Instances of this class are responsible for node creation and successor generation. They
  * compute path costs, support progress tracking, and count the number of
  * {@link #getSuccessors(Node, Problem)} calls.
+ * <p>
+ * Searches which expand many nodes should use
+ * {@link #getSuccessors(Node, Problem, Predicate, List)}. It fills a
+ * caller-owned buffer and creates nodes only for successor states which pass
+ * a filter (e.g. a check against the explored set). Actions are obtained via
+ * {@link Problem#forEachAction(Object, Consumer)}, so problems which override
+ * it are expanded without an intermediate action list. The factory itself keeps
+ * no expansion state, so concurrent searches can share it as long as they
+ * use their own buffers (node listeners are not synchronized).
+ * </p>
  *
  * @param <S> The type used to represent states
  * @param <A> The type of the actions to be used to navigate through the state space
@@ -64,16 +75,39 @@ public class NodeFactory<S, A> {
 	 *         specified problem.
 	 */
 	public List<Node<S, A>> getSuccessors(Node<S, A> node, Problem<S, A> problem) {
-		List<Node<S, A>> successors = new ArrayList<>();
-
-		for (A action : problem.getActions(node.getState())) {
-			S successorState = problem.getResult(node.getState(), action);
+		return getSuccessors(node, problem, null, new ArrayList<>());
+	}
 
-			double stepCost = problem.getStepCosts(node.getState(), action, successorState);
-			successors.add(createNode(successorState, node, action, stepCost));
-		}
+	/**
+	 * Expands the specified node and stores the children in the specified
+	 * buffer. Successor states which are rejected by the filter are dropped
+	 * before any node is created for them.
+	 *
+	 * @param node
+	 *            the node to expand
+	 * @param problem
+	 *            the problem the specified node is within.
+	 * @param stateFilter
+	 *            accepts the states for which nodes should be created, or
+	 *            null to accept all states.
+	 * @param buffer
+	 *            the list to be filled; it is cleared first.
+	 *
+	 * @return the buffer.
+	 */
+	public List<Node<S, A>> getSuccessors(Node<S, A> node, Problem<S, A> problem, Predicate<? super S> stateFilter,
+										  List<Node<S, A>> buffer) {
+		buffer.clear();
+		S state = node.getState();
+		problem.forEachAction(state, action -> {
+			S successorState = problem.getResult(state, action);
+			if (stateFilter == null || stateFilter.test(successorState)) {
+				double stepCost = problem.getStepCosts(state, action, successorState);
+				buffer.add(createNode(successorState, node, action, stepCost));
+			}
+		});
 		notifyListeners(node);
-		return successors;
+		return buffer;
 	}
 
 	///////////////////////////////////////////////////////////////////////
@@ -1,8 +1,11 @@
 package aima.core.search.framework;
 
 import aima.core.search.framework.problem.Problem;
+import aima.core.search.framework.qsearch.GraphSearchReducedFrontier;
 import aima.core.search.framework.qsearch.QueueSearch;
+import aima.core.util.SearchBudget;
 
+import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
 import java.util.Queue;
@@ -29,6 +32,19 @@ public abstract class QueueBasedSearch<S, A> implements SearchForActions<S, A>,
 		this.frontier = queue;
 	}
 
+	/**
+	 * Creates a priority queue frontier which fits to the given search
+	 * implementation. For {@link GraphSearchReducedFrontier}, an indexed
+	 * priority queue with node states as keys is returned, which replaces
+	 * worse frontier nodes by decrease-key.
+	 */
+	protected static <S, A> Queue<Node<S, A>> createPriorityQueue(QueueSearch<S, A> impl,
+																  Comparator<? super Node<S, A>> comparator) {
+		if (impl instanceof GraphSearchReducedFrontier)
+			return QueueFactory.createIndexedPriorityQueue(comparator, Node::getState);
+		return QueueFactory.createPriorityQueue(comparator);
+	}
+
 	@Override
 	public Optional<List<A>> findActions(Problem<S, A> p) {
 		impl.getNodeFactory().useParentLinks(true);
@@ -45,6 +61,11 @@ public abstract class QueueBasedSearch<S, A> implements SearchForActions<S, A>,
 		return SearchUtils.toState(node);
 	}
 
+	@Override
+	public void setBudget(SearchBudget budget) {
+		impl.setBudget(budget);
+	}
+
 	@Override
 	public Metrics getMetrics() {
 		return impl.getMetrics();
@@ -1,6 +1,9 @@
 package aima.core.search.framework;
 
+import aima.core.util.datastructure.IndexedPriorityQueue;
+
 import java.util.*;
+import java.util.function.Function;
 
 /**
  * Factory class for queues. Changes made here will affect all queue based
@@ -18,6 +21,19 @@ public class QueueFactory {
 		return new PriorityQueue<E>(11, comparator);
 	}
 
+	/**
+	 * Returns an {@link IndexedPriorityQueue} which holds at most one element
+	 * per key and supports decrease-key in logarithmic time. Used with node
+	 * states as keys, it is recognized by
+	 * {@link aima.core.search.framework.qsearch.GraphSearchReducedFrontier}.
+	 * A binary heap is used, so ties are broken in the same way as by
+	 * {@link #createPriorityQueue(Comparator)}.
+	 */
+	public static <E, K> Queue<E> createIndexedPriorityQueue(Comparator<? super E> comparator,
+															  Function<? super E, ? extends K> keyExtractor) {
+		return new IndexedPriorityQueue<E, K>(comparator, keyExtractor, 2);
+	}
+
 	/**
 	 * Returns a Last-in-first-out (Lifo) view on a {@link LinkedList}.
 	 */
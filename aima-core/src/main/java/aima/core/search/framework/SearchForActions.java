@@ -1,6 +1,7 @@
 package aima.core.search.framework;
 
 import aima.core.search.framework.problem.Problem;
+import aima.core.util.SearchBudget;
 
 import java.util.List;
 import java.util.Optional;
@@ -31,6 +32,20 @@ public interface SearchForActions<S, A> {
 	 */
 	Optional<List<A>> findActions(Problem<S, A> p);
 
+	/**
+	 * Sets a budget which limits nodes, time, and memory of subsequent
+	 * searches. When it is exhausted, the search stops and returns the best
+	 * result found so far. A budget status other than
+	 * {@link SearchBudget.Status#WITHIN_BUDGET} indicates that the result is
+	 * preliminary.
+	 *
+	 * @param budget
+	 *            a budget or null for unlimited search
+	 */
+	default void setBudget(SearchBudget budget) {
+		// the default implementation ignores the budget
+	}
+
 	/**
 	 * Returns all the metrics of the search.
 	 */
@@ -0,0 +1,20 @@
+package aima.core.search.framework;
+
+/**
+ * Optional service which maps states to primitive keys. Graph search
+ * implementations which are provided with an encoder store explored states and
+ * frontier lookup entries in primitive open addressing hash tables instead of
+ * boxed hash sets and maps. For large state spaces this reduces the heap
+ * consumption per state considerably.
+ * <p>
+ * The mapping must be injective: different states must be encoded by
+ * different keys. States which fit into 32 bits just return their
+ * <code>int</code> key widened to <code>long</code>.
+ * </p>
+ *
+ * @param <S> The type used to represent states
+ */
+@FunctionalInterface
+public interface StateEncoder<S> {
+	long encode(S state);
+}
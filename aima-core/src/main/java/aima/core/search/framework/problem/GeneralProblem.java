@@ -1,7 +1,9 @@
 package aima.core.search.framework.problem;
 
 import java.util.List;
+import java.util.function.BiConsumer;
 import java.util.function.BiFunction;
+import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Predicate;
 
@@ -21,6 +23,7 @@ public class GeneralProblem<S, A> implements Problem<S, A> {
     private BiFunction<S, A, S> resultFn;
     private Predicate<S> goalTest;
     private StepCostFunction<S, A> stepCostFn;
+    private BiConsumer<S, Consumer<? super A>> forEachActionFn;
 
     /**
      * Constructs a problem with the specified components, which includes a step
@@ -72,6 +75,19 @@ public class GeneralProblem<S, A> implements Problem<S, A> {
         this(initialState, actionsFn, resultFn, goalTest, (s, a, sPrimed) -> 1.0);
     }
 
+    /**
+     * Sets a function which passes the applicable actions of a state to a
+     * consumer without building a list. It must produce the same actions as the
+     * actions function. If not set, {@link #forEachAction(Object, Consumer)}
+     * iterates over the list returned by the actions function.
+     *
+     * @return this problem.
+     */
+    public GeneralProblem<S, A> setForEachActionFn(BiConsumer<S, Consumer<? super A>> forEachActionFn) {
+        this.forEachActionFn = forEachActionFn;
+        return this;
+    }
+
     public S getInitialState() {
         return initialState;
     }
@@ -80,6 +96,14 @@ public class GeneralProblem<S, A> implements Problem<S, A> {
         return actionsFn.apply(state);
     }
 
+    @Override
+    public void forEachAction(S state, Consumer<? super A> consumer) {
+        if (forEachActionFn != null)
+            forEachActionFn.accept(state, consumer);
+        else
+            actionsFn.apply(state).forEach(consumer);
+    }
+
     public S getResult(S state, A action) {
         return resultFn.apply(state, action);
     }
@@ -3,6 +3,7 @@ package aima.core.search.framework.problem;
 import aima.core.search.framework.Node;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * Artificial Intelligence A Modern Approach (3rd Edition): page 66.<br>
@@ -47,6 +48,17 @@ public interface Problem<S, A> extends OnlineSearchProblem<S, A> {
      */
     List<A> getActions(S state);
 
+    /**
+     * Passes each action which is applicable in the given state to the consumer.
+     * The default implementation iterates over the list returned by
+     * {@link #getActions(Object)}. Problems which can enumerate their actions
+     * without building a list should override this method; node expansion uses it
+     * to avoid the list allocation.
+     */
+    default void forEachAction(S state, Consumer<? super A> consumer) {
+        getActions(state).forEach(consumer);
+    }
+
     /**
      * Returns the description of what each action does.
      */
@@ -4,9 +4,10 @@ import aima.core.search.framework.Node;
 import aima.core.search.framework.NodeFactory;
 import aima.core.search.framework.problem.BidirectionalProblem;
 import aima.core.search.framework.problem.Problem;
-import aima.core.util.Tasks;
+import aima.core.util.SearchBudget;
 
 import java.util.*;
+import java.util.function.Predicate;
 
 /**
  * Artificial Intelligence A Modern Approach (3rd Edition): page 90.<br>
@@ -44,8 +45,14 @@ public class BidirectionalSearch<S, A> extends QueueSearch<S, A> {
 	private boolean isReverseActionTestEnabled = true;
 
 	// index 0: original problem, index 1: reverse problem
-	private List<Map<S, ExtendedNode<S, A>>> explored;
+	private List<StateMap<S, ExtendedNode<S, A>>> explored;
 	private ExtendedNode<S, A> goalStateNode;
+	// reused for all expansions; without early goal test, successors of states explored in the
+	// same problem are never goal-tested and therefore dropped before node creation
+	private final List<Node<S, A>> successors = new ArrayList<>();
+	private final List<Predicate<S>> successorStateFilters = Arrays.asList(
+			state -> explored.get(ORG_P_IDX).get(state) == null,
+			state -> explored.get(REV_P_IDX).get(state) == null);
 
 	public BidirectionalSearch() {
 		this(new NodeFactory<>());
@@ -54,8 +61,8 @@ public class BidirectionalSearch<S, A> extends QueueSearch<S, A> {
 	public BidirectionalSearch(NodeFactory<S, A> nodeFactory) {
 		super(nodeFactory);
 		explored = new ArrayList<>(2);
-		explored.add(new HashMap<>());
-		explored.add(new HashMap<>());
+		explored.add(StateMap.create(null));
+		explored.add(StateMap.create(null));
 	}
 
 	/**
@@ -85,8 +92,9 @@ public class BidirectionalSearch<S, A> extends QueueSearch<S, A> {
 		nodeFactory.useParentLinks(true); // bidirectional search needs parents!
 		this.frontier = frontier;
 		clearMetrics();
-		explored.get(ORG_P_IDX).clear();
-		explored.get(REV_P_IDX).clear();
+		SearchBudget budget = startBudget();
+		explored.set(ORG_P_IDX, StateMap.create(stateEncoder));
+		explored.set(REV_P_IDX, StateMap.create(stateEncoder));
 
 		Problem<S, A> orgP = ((BidirectionalProblem<S, A>) problem).getOriginalProblem();
 		Problem<S, A> revP = ((BidirectionalProblem<S, A>) problem).getReverseProblem();
@@ -101,7 +109,7 @@ public class BidirectionalSearch<S, A> extends QueueSearch<S, A> {
 		addToFrontier(initStateNode);
 		addToFrontier(goalStateNode);
 
-		while (!isFrontierEmpty() && !Tasks.currIsCancelled()) {
+		while (!isFrontierEmpty() && !budget.spend()) {
 			// choose a leaf node and remove it from the frontier
 			ExtendedNode<S, A> node = (ExtendedNode) removeFromFrontier();
 			ExtendedNode<S, A> nodeFromOtherProblem;
@@ -111,18 +119,22 @@ public class BidirectionalSearch<S, A> extends QueueSearch<S, A> {
 				return getSolution(orgP, node, nodeFromOtherProblem);
 
 			// expand the chosen node and add successor nodes to the frontier
-			for (Node<S, A> s : nodeFactory.getSuccessors(node, problem)) {
-				ExtendedNode<S, A> successor = new ExtendedNode<>(s, node.getProblemIndex());
+			nodeFactory.getSuccessors(node, problem,
+					earlyGoalTest ? null : successorStateFilters.get(node.getProblemIndex()), successors);
+			for (int i = 0; i < successors.size(); i++) {
+				ExtendedNode<S, A> successor = new ExtendedNode<>(successors.get(i), node.getProblemIndex());
 				if (!isReverseActionTestEnabled || node.getProblemIndex() == ORG_P_IDX
 						|| getReverseAction(orgP, successor) != null) {
 
 					if (earlyGoalTest
-							&& (nodeFromOtherProblem = getCorrespondingNodeFromOtherProblem(successor)) != null)
+							&& (nodeFromOtherProblem = getCorrespondingNodeFromOtherProblem(successor)) != null) {
+						successors.clear();
 						return getSolution(orgP, successor, nodeFromOtherProblem);
-
+					}
 					addToFrontier(successor);
 				}
 			}
+			successors.clear();
 		}
 		// if the frontier is empty then return failure
 		return Optional.empty();
@@ -209,8 +221,7 @@ public class BidirectionalSearch<S, A> extends QueueSearch<S, A> {
 				return Optional.empty();
 			}
 		}
-		metrics.set(METRIC_PATH_COST, orgNode.getPathCost());
-		return Optional.of(orgNode);
+		return asOptional(orgNode);
 	}
 
 	/**
@@ -233,7 +244,7 @@ public class BidirectionalSearch<S, A> extends QueueSearch<S, A> {
 	@SuppressWarnings("unchecked")
 	private boolean isExplored(Node<S, A> node) {
 		ExtendedNode<S, A> eNode =  (ExtendedNode) node;
-		return explored.get(eNode.getProblemIndex()).containsKey(eNode.getState());
+		return explored.get(eNode.getProblemIndex()).get(eNode.getState()) != null;
 	}
 
 	@SuppressWarnings("unchecked")
@@ -1,9 +1,7 @@
 package aima.core.search.framework.qsearch;
 
-import java.util.HashSet;
 import java.util.Optional;
 import java.util.Queue;
-import java.util.Set;
 
 import aima.core.search.framework.Node;
 import aima.core.search.framework.NodeFactory;
@@ -47,7 +45,7 @@ import aima.core.search.framework.problem.Problem;
  */
 public class GraphSearch<S, A> extends TreeSearch<S, A> {
 
-	private Set<S> explored = new HashSet<>();
+	private StateSet<S> explored = StateSet.create(null);
 
 	public GraphSearch() {
 		this(new NodeFactory<>());
@@ -64,10 +62,18 @@ public class GraphSearch<S, A> extends TreeSearch<S, A> {
 	@Override
 	public Optional<Node<S, A>> findNode(Problem<S, A> problem, Queue<Node<S, A>> frontier) {
 		// initialize the explored set to be empty
-		explored.clear();
+		explored = StateSet.create(stateEncoder);
 		return super.findNode(problem, frontier);
 	}
 
+	/**
+	 * Drops successors of already explored states before nodes are created.
+	 */
+	@Override
+	protected boolean isSuccessorStateAccepted(S state) {
+		return !explored.contains(state);
+	}
+
 	/**
 	 * Inserts the node at the tail of the frontier if the corresponding state
 	 * was not yet explored.
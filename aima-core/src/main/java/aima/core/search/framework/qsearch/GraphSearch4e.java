@@ -5,7 +5,7 @@ import java.util.*;
 import aima.core.search.framework.Node;
 import aima.core.search.framework.NodeFactory;
 import aima.core.search.framework.problem.Problem;
-import aima.core.util.Tasks;
+import aima.core.util.SearchBudget;
 
 /**
  * Artificial Intelligence A Modern Approach (4th Edition): ??
@@ -68,6 +68,7 @@ public class GraphSearch4e<S, A> extends QueueSearch<S, A> {
 	@Override
 	public Optional<Node<S, A>> findNode(Problem<S, A> problem, Queue<Node<S, A>> frontier) {
 		clearMetrics();
+		SearchBudget budget = startBudget();
 		this.frontier = frontier;
 		nodeComparator = (frontier instanceof PriorityQueue<?>) ?
 				((PriorityQueue<Node<S, A>>) frontier).comparator() : null;
@@ -77,7 +78,7 @@ public class GraphSearch4e<S, A> extends QueueSearch<S, A> {
 		/// reached <- a table of {state: node}; initially empty
 		/// solution <- failure
 		addToFrontier(root);
-		Hashtable<S, Node<S, A>> reached = new Hashtable<>();
+		StateMap<S, Node<S, A>> reached = StateMap.create(stateEncoder);
 		Node<S, A> solution = null;
 
 		// missing in pseudocode...
@@ -86,7 +87,7 @@ public class GraphSearch4e<S, A> extends QueueSearch<S, A> {
 			return asOptional(root);
 
 		/// while frontier is not empty and solution can possibly be improved do
-		while (!frontier.isEmpty() && canPossiblyBeImproved(solution) && !Tasks.currIsCancelled()) {
+		while (!frontier.isEmpty() && canPossiblyBeImproved(solution) && !budget.spend()) {
 			/// parent <- some node that we choose to remove from frontier
 			Node<S, A> parent = removeFromFrontier();
 
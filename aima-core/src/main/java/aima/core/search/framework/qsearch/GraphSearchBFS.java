@@ -1,9 +1,7 @@
 package aima.core.search.framework.qsearch;
 
-import java.util.HashSet;
 import java.util.Optional;
 import java.util.Queue;
-import java.util.Set;
 
 import aima.core.search.framework.Node;
 import aima.core.search.framework.NodeFactory;
@@ -43,8 +41,8 @@ import aima.core.search.framework.problem.Problem;
  */
 public class GraphSearchBFS<S, A> extends TreeSearch<S, A> {
 
-	private Set<S> explored = new HashSet<>();
-	private Set<S> frontierStates = new HashSet<>();
+	private StateSet<S> explored = StateSet.create(null);
+	private StateSet<S> frontierStates = StateSet.create(null);
 
 	public GraphSearchBFS() {
 		this(new NodeFactory<>());
@@ -62,11 +60,20 @@ public class GraphSearchBFS<S, A> extends TreeSearch<S, A> {
 	@Override
 	public Optional<Node<S, A>> findNode(Problem<S, A> problem, Queue<Node<S, A>> frontier) {
 		// initialize the explored set to be empty
-		explored.clear();
-		frontierStates.clear();
+		explored = StateSet.create(stateEncoder);
+		frontierStates = StateSet.create(stateEncoder);
 		return super.findNode(problem, frontier);
 	}
 
+	/**
+	 * Drops successors of states which are already explored or in the frontier
+	 * before nodes are created.
+	 */
+	@Override
+	protected boolean isSuccessorStateAccepted(S state) {
+		return !explored.contains(state) && !frontierStates.contains(state);
+	}
+
 	/**
 	 * Inserts the node at the tail of the frontier if the corresponding state
 	 * is not already a frontier state and was not yet explored.
@@ -5,6 +5,7 @@ import java.util.*;
 import aima.core.search.framework.Node;
 import aima.core.search.framework.NodeFactory;
 import aima.core.search.framework.problem.Problem;
+import aima.core.util.datastructure.IndexedPriorityQueue;
 
 /**
  * Artificial Intelligence A Modern Approach (3rd Edition): Figure 3.7, page 77.
@@ -35,6 +36,11 @@ import aima.core.search.framework.problem.Problem;
  * implementation checks whether another node for the same state already exists
  * and decides whether to replace it or ignore the new node depending on the
  * node's costs (comparator of priority queue is used, if available).
+ * If the frontier is an {@link IndexedPriorityQueue} with node states as keys
+ * (see {@link aima.core.search.framework.QueueFactory#createIndexedPriorityQueue(Comparator, java.util.function.Function)}),
+ * the queue's own index is used and worse frontier nodes are replaced by
+ * decrease-key in logarithmic time instead of linear time removal. A state
+ * encoder, if available, is passed to the queue as key encoder.
  *
  * @param <S> The type used to represent states
  * @param <A> The type of the actions to be used to navigate through the state space
@@ -45,9 +51,10 @@ import aima.core.search.framework.problem.Problem;
  */
 public class GraphSearchReducedFrontier<S, A> extends TreeSearch<S, A> {
 
-	private Set<S> explored = new HashSet<>();
-	private Map<S, Node<S, A>> frontierNodeLookup = new HashMap<>();
+	private StateSet<S> explored = StateSet.create(null);
+	private StateMap<S, Node<S, A>> frontierNodeLookup = StateMap.create(null);
 	private Comparator<? super Node<S, A>> nodeComparator = null;
+	private IndexedPriorityQueue<Node<S, A>, ?> indexedFrontier = null;
 
 	public GraphSearchReducedFrontier() {
 		this(new NodeFactory<>());
@@ -64,10 +71,18 @@ public class GraphSearchReducedFrontier<S, A> extends TreeSearch<S, A> {
 	@Override
 	public Optional<Node<S, A>> findNode(Problem<S, A> problem, Queue<Node<S, A>> frontier) {
 		// initialize the explored set to be empty
-		if (frontier instanceof PriorityQueue<?>)
+		indexedFrontier = null;
+		if (frontier instanceof PriorityQueue<?>) {
 			nodeComparator = ((PriorityQueue<Node<S, A>>) frontier).comparator();
-		explored.clear();
-		frontierNodeLookup.clear();
+		} else if (frontier instanceof IndexedPriorityQueue<?, ?>) {
+			@SuppressWarnings("unchecked")
+			IndexedPriorityQueue<Node<S, A>, S> queue = (IndexedPriorityQueue<Node<S, A>, S>) frontier;
+			queue.setKeyEncoder(stateEncoder != null ? stateEncoder::encode : null);
+			indexedFrontier = queue;
+			nodeComparator = indexedFrontier.comparator();
+		}
+		explored = StateSet.create(stateEncoder);
+		frontierNodeLookup = StateMap.create(stateEncoder);
 		return super.findNode(problem, frontier);
 	}
 
@@ -75,6 +90,14 @@ public class GraphSearchReducedFrontier<S, A> extends TreeSearch<S, A> {
 		return nodeComparator;
 	}
 
+	/**
+	 * Drops successors of already explored states before nodes are created.
+	 */
+	@Override
+	protected boolean isSuccessorStateAccepted(S state) {
+		return !explored.contains(state);
+	}
+
 	/**
 	 * Inserts the node into the frontier if the node's state is not yet
 	 * explored and not present in the frontier. If a second node for the same
@@ -85,6 +108,13 @@ public class GraphSearchReducedFrontier<S, A> extends TreeSearch<S, A> {
 	@Override
 	protected void addToFrontier(Node<S, A> node) {
 		if (!explored.contains(node.getState())) {
+			if (indexedFrontier != null) {
+				// insert child or replace frontier node of child.STATE with
+				// higher cost (decrease-key)
+				if (indexedFrontier.add(node))
+					updateMetrics(frontier.size());
+				return;
+			}
 			Node<S, A> frontierNode = frontierNodeLookup.get(node.getState());
 			if (frontierNode == null) {
 				// child.STATE is not in frontier and not yet explored
@@ -111,7 +141,8 @@ public class GraphSearchReducedFrontier<S, A> extends TreeSearch<S, A> {
 	@Override
 	protected Node<S, A> removeFromFrontier() {
 		Node<S, A> result = frontier.remove();
-		frontierNodeLookup.remove(result.getState());
+		if (indexedFrontier == null)
+			frontierNodeLookup.remove(result.getState());
 		// add the node to the explored set
 		explored.add(result.getState());
 		updateMetrics(frontier.size());
@@ -1,9 +1,12 @@
 package aima.core.search.framework.qsearch;
 
 import aima.core.search.framework.Metrics;
+import aima.core.search.framework.MetricsRegistry;
 import aima.core.search.framework.Node;
 import aima.core.search.framework.NodeFactory;
+import aima.core.search.framework.StateEncoder;
 import aima.core.search.framework.problem.Problem;
+import aima.core.util.SearchBudget;
 
 import java.util.Optional;
 import java.util.Queue;
@@ -30,12 +33,18 @@ public abstract class QueueSearch<S, A> {
 
 	final protected NodeFactory<S, A> nodeFactory;
 	protected boolean earlyGoalTest = false;
-	protected Metrics metrics = new Metrics();
+	protected StateEncoder<S> stateEncoder = null;
+	private SearchBudget budget = null;
+	protected final MetricsRegistry metrics = new MetricsRegistry();
+	private final MetricsRegistry.Counter nodesExpanded = metrics.counter(METRIC_NODES_EXPANDED);
+	private final MetricsRegistry.LongGauge queueSize = metrics.longGauge(METRIC_QUEUE_SIZE);
+	private final MetricsRegistry.MaxTracker maxQueueSize = metrics.maxTracker(METRIC_MAX_QUEUE_SIZE);
+	private final MetricsRegistry.DoubleGauge pathCost = metrics.doubleGauge(METRIC_PATH_COST);
 
 	/** Stores the provided node expander and adds a node listener to it. */
 	protected QueueSearch(NodeFactory<S, A> nodeFactory) {
 		this.nodeFactory = nodeFactory;
-		nodeFactory.addNodeListener((node) -> metrics.incrementInt(METRIC_NODES_EXPANDED));
+		nodeFactory.addNodeListener((node) -> nodesExpanded.increment());
 	}
 
 	/**
@@ -62,6 +71,36 @@ public abstract class QueueSearch<S, A> {
 		earlyGoalTest = b;
 	}
 
+	/**
+	 * Provides a mapping from states to primitive keys. Graph search
+	 * implementations use it to store explored states and frontier lookup
+	 * entries in primitive hash tables. Tree search ignores it.
+	 *
+	 * @param encoder
+	 *            An injective state encoder or null to use standard hash sets
+	 *            and maps of states.
+	 */
+	public void setStateEncoder(StateEncoder<S> encoder) {
+		stateEncoder = encoder;
+	}
+
+	/**
+	 * Sets a budget which limits the resources of subsequent searches. When
+	 * it is exhausted, the search stops and returns the best solution found
+	 * so far, which is usually empty.
+	 *
+	 * @param budget
+	 *            A budget or null for unlimited search (which can only be
+	 *            stopped by cancellation).
+	 */
+	public void setBudget(SearchBudget budget) {
+		this.budget = budget;
+	}
+
+	public SearchBudget getBudget() {
+		return budget;
+	}
+
 	public NodeFactory<S, A> getNodeFactory() {
 		return nodeFactory;
 	}
@@ -70,29 +109,31 @@ public abstract class QueueSearch<S, A> {
 	 * Returns all the search metrics.
 	 */
 	public Metrics getMetrics() {
-		return metrics;
+		return metrics.asMetrics();
 	}
 
 	/**
 	 * Sets all metrics to zero.
 	 */
 	protected void clearMetrics() {
-		metrics.set(METRIC_NODES_EXPANDED, 0);
-		metrics.set(METRIC_QUEUE_SIZE, 0);
-		metrics.set(METRIC_MAX_QUEUE_SIZE, 0);
-		metrics.set(METRIC_PATH_COST, 0);
+		metrics.reset();
+	}
+
+	/**
+	 * Returns the budget to be used by a new search, which is a fresh
+	 * unlimited budget if none was set.
+	 */
+	protected SearchBudget startBudget() {
+		return budget != null ? budget : new SearchBudget();
 	}
 
 	protected void updateMetrics(int queueSize) {
-		metrics.set(METRIC_QUEUE_SIZE, queueSize);
-		int maxQSize = metrics.getInt(METRIC_MAX_QUEUE_SIZE);
-		if (queueSize > maxQSize) {
-			metrics.set(METRIC_MAX_QUEUE_SIZE, queueSize);
-		}
+		this.queueSize.set(queueSize);
+		maxQueueSize.update(queueSize);
 	}
 
 	protected Optional<Node<S, A>> asOptional(Node<S, A> node) {
-		metrics.set(METRIC_PATH_COST, node.getPathCost());
+		pathCost.set(node.getPathCost());
 		return Optional.of(node);
 	}
 }
\ No newline at end of file
@@ -0,0 +1,84 @@
+package aima.core.search.framework.qsearch;
+
+import aima.core.search.framework.StateEncoder;
+import aima.core.util.datastructure.LongHashMap;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Map from states to values (typically nodes) used by the graph search
+ * implementations. Depending on the availability of a {@link StateEncoder},
+ * entries are stored in a standard hash map or under primitive keys in a
+ * {@link LongHashMap}. Null values are not supported.
+ *
+ * @param <S> The type used to represent states
+ * @param <V> The type of the values
+ */
+abstract class StateMap<S, V> {
+
+	static <S, V> StateMap<S, V> create(StateEncoder<S> encoder) {
+		return encoder != null ? new Encoded<>(encoder) : new Boxed<>();
+	}
+
+	abstract V get(S state);
+
+	abstract V put(S state, V value);
+
+	abstract V remove(S state);
+
+	abstract void clear();
+
+	private static class Boxed<S, V> extends StateMap<S, V> {
+		private final Map<S, V> entries = new HashMap<>();
+
+		@Override
+		V get(S state) {
+			return entries.get(state);
+		}
+
+		@Override
+		V put(S state, V value) {
+			return entries.put(state, value);
+		}
+
+		@Override
+		V remove(S state) {
+			return entries.remove(state);
+		}
+
+		@Override
+		void clear() {
+			entries.clear();
+		}
+	}
+
+	private static class Encoded<S, V> extends StateMap<S, V> {
+		private final StateEncoder<S> encoder;
+		private final LongHashMap<V> entries = new LongHashMap<>();
+
+		Encoded(StateEncoder<S> encoder) {
+			this.encoder = encoder;
+		}
+
+		@Override
+		V get(S state) {
+			return entries.get(encoder.encode(state));
+		}
+
+		@Override
+		V put(S state, V value) {
+			return entries.put(encoder.encode(state), value);
+		}
+
+		@Override
+		V remove(S state) {
+			return entries.remove(encoder.encode(state));
+		}
+
+		@Override
+		void clear() {
+			entries.clear();
+		}
+	}
+}
@@ -0,0 +1,82 @@
+package aima.core.search.framework.qsearch;
+
+import aima.core.search.framework.StateEncoder;
+import aima.core.util.datastructure.LongHashSet;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Set of states used by the graph search implementations. Depending on the
+ * availability of a {@link StateEncoder}, states are stored in a standard
+ * hash set or as primitive keys in a {@link LongHashSet}.
+ *
+ * @param <S> The type used to represent states
+ */
+abstract class StateSet<S> {
+
+	static <S> StateSet<S> create(StateEncoder<S> encoder) {
+		return encoder != null ? new Encoded<>(encoder) : new Boxed<>();
+	}
+
+	abstract boolean add(S state);
+
+	abstract boolean contains(S state);
+
+	abstract boolean remove(S state);
+
+	abstract void clear();
+
+	private static class Boxed<S> extends StateSet<S> {
+		private final Set<S> states = new HashSet<>();
+
+		@Override
+		boolean add(S state) {
+			return states.add(state);
+		}
+
+		@Override
+		boolean contains(S state) {
+			return states.contains(state);
+		}
+
+		@Override
+		boolean remove(S state) {
+			return states.remove(state);
+		}
+
+		@Override
+		void clear() {
+			states.clear();
+		}
+	}
+
+	private static class Encoded<S> extends StateSet<S> {
+		private final StateEncoder<S> encoder;
+		private final LongHashSet keys = new LongHashSet();
+
+		Encoded(StateEncoder<S> encoder) {
+			this.encoder = encoder;
+		}
+
+		@Override
+		boolean add(S state) {
+			return keys.add(encoder.encode(state));
+		}
+
+		@Override
+		boolean contains(S state) {
+			return keys.contains(encoder.encode(state));
+		}
+
+		@Override
+		boolean remove(S state) {
+			return keys.remove(encoder.encode(state));
+		}
+
+		@Override
+		void clear() {
+			keys.clear();
+		}
+	}
+}
@@ -1,12 +1,15 @@
 package aima.core.search.framework.qsearch;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 import java.util.Queue;
+import java.util.function.Predicate;
 
 import aima.core.search.framework.Node;
 import aima.core.search.framework.NodeFactory;
 import aima.core.search.framework.problem.Problem;
-import aima.core.util.Tasks;
+import aima.core.util.SearchBudget;
 
 /**
  * Artificial Intelligence A Modern Approach (3rd Edition): Figure 3.7, page 77.
@@ -37,6 +40,9 @@ import aima.core.util.Tasks;
 public class TreeSearch<S, A> extends QueueSearch<S, A> {
 
 	protected Queue<Node<S, A>> frontier;
+	// reused for all expansions
+	private final List<Node<S, A>> successors = new ArrayList<>();
+	private final Predicate<S> successorStateFilter = this::isSuccessorStateAccepted;
 
 	public TreeSearch() {
 		this(new NodeFactory<>());
@@ -65,13 +71,14 @@ public class TreeSearch<S, A> extends QueueSearch<S, A> {
 	public Optional<Node<S, A>> findNode(Problem<S, A> problem, Queue<Node<S, A>> frontier) {
 		this.frontier = frontier;
 		clearMetrics();
+		SearchBudget budget = startBudget();
 		// initialize the frontier using the initial state of the problem
 		Node<S, A> root = nodeFactory.createNode(problem.getInitialState());
 		addToFrontier(root);
 		if (earlyGoalTest && problem.testSolution(root))
 			return asOptional(root);
 
-		while (!isFrontierEmpty() && !Tasks.currIsCancelled()) {
+		while (!isFrontierEmpty() && !budget.spend()) {
 			// choose a leaf node and remove it from the frontier
 			Node<S, A> node = removeFromFrontier();
 			// if the node contains a goal state then return the corresponding solution
@@ -79,16 +86,31 @@ public class TreeSearch<S, A> extends QueueSearch<S, A> {
 				return asOptional(node);
 
 			// expand the chosen node and add the successor nodes to the frontier
-			for (Node<S, A> successor : nodeFactory.getSuccessors(node, problem)) {
+			nodeFactory.getSuccessors(node, problem, successorStateFilter, successors);
+			for (int i = 0; i < successors.size(); i++) {
+				Node<S, A> successor = successors.get(i);
 				addToFrontier(successor);
-				if (earlyGoalTest && problem.testSolution(successor))
+				if (earlyGoalTest && problem.testSolution(successor)) {
+					successors.clear();
 					return asOptional(successor);
+				}
 			}
+			successors.clear();
 		}
 		// if the frontier is empty then return failure
 		return Optional.empty();
 	}
 
+	/**
+	 * Primitive operation which is called during node expansion before a node
+	 * is created for a successor state. Returning false prevents node creation,
+	 * which is useful for states which would be dropped anyway by
+	 * {@link #addToFrontier(Node)}. This implementation accepts all states.
+	 */
+	protected boolean isSuccessorStateAccepted(S state) {
+		return true;
+	}
+
 	/**
 	 * Primitive operation which inserts the node at the tail of the frontier.
 	 */
@@ -2,7 +2,6 @@ package aima.core.search.informed;
 
 import aima.core.search.framework.Node;
 import aima.core.search.framework.QueueBasedSearch;
-import aima.core.search.framework.QueueFactory;
 import aima.core.search.framework.qsearch.QueueSearch;
 
 import java.util.Comparator;
@@ -38,7 +37,7 @@ public class BestFirstSearch<S, A> extends QueueBasedSearch<S, A> implements Inf
 	 *            node.
 	 */
 	public BestFirstSearch(QueueSearch<S, A> impl, final EvaluationFunction<S, A> evalFn) {
-		super(impl, QueueFactory.createPriorityQueue(Comparator.comparing(evalFn::applyAsDouble)));
+		super(impl, createPriorityQueue(impl, Comparator.comparing(evalFn::applyAsDouble)));
 		this.evalFn = evalFn;
 	}
 
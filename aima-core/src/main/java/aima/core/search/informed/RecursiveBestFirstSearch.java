@@ -2,6 +2,7 @@ package aima.core.search.informed;
 
 import aima.core.search.framework.*;
 import aima.core.search.framework.problem.Problem;
+import aima.core.util.SearchBudget;
 
 import java.util.HashSet;
 import java.util.List;
@@ -57,10 +58,15 @@ public class RecursiveBestFirstSearch<S, A> implements SearchForActions<S, A>, I
     private final EvaluationFunction<S, A> evalFn;
     private boolean avoidLoops;
     private final NodeFactory<S, A> nodeFactory;
+    private SearchBudget budget;
+    private SearchBudget currBudget;
 
     // stores the states on the current path if avoidLoops is true.
     private Set<S> explored = new HashSet<>();
-    private Metrics metrics;
+    private final MetricsRegistry metrics = new MetricsRegistry();
+    private final MetricsRegistry.Counter nodesExpanded = metrics.counter(METRIC_NODES_EXPANDED);
+    private final MetricsRegistry.MaxTracker maxRecursiveDepth = metrics.maxTracker(METRIC_MAX_RECURSIVE_DEPTH);
+    private final MetricsRegistry.DoubleGauge pathCost = metrics.doubleGauge(METRIC_PATH_COST);
 
     public RecursiveBestFirstSearch(EvaluationFunction<S, A> evalFn) {
         this(evalFn, false);
@@ -78,8 +84,7 @@ public class RecursiveBestFirstSearch<S, A> implements SearchForActions<S, A>, I
         this.evalFn = evalFn;
         this.avoidLoops = avoidLoops;
         this.nodeFactory = nodeFactory;
-        nodeFactory.addNodeListener((node) -> metrics.incrementInt(METRIC_NODES_EXPANDED));
-        metrics = new Metrics();
+        nodeFactory.addNodeListener((node) -> nodesExpanded.increment());
     }
 
     /**
@@ -96,33 +101,37 @@ public class RecursiveBestFirstSearch<S, A> implements SearchForActions<S, A>, I
     public Optional<List<A>> findActions(Problem<S, A> p) {
         explored.clear();
         clearMetrics();
+        currBudget = budget != null ? budget : new SearchBudget();
 
         // RBFS(problem, MAKE-NODE(INITIAL-STATE[problem]), infinity)
         Node<S, A> n = nodeFactory.createNode(p.getInitialState());
         SearchResult<S, A> sr = rbfs(p, n, evalFn.applyAsDouble(n), INFINITY, 0);
         if (sr.hasSolution()) {
             Node<S, A> s = sr.getSolutionNode();
-            metrics.set(METRIC_PATH_COST, s.getPathCost());
+            pathCost.set(s.getPathCost());
             return Optional.of(SearchUtils.getSequenceOfActions(s));
         }
         return Optional.empty();
     }
 
+    @Override
+    public void setBudget(SearchBudget budget) {
+        this.budget = budget;
+    }
+
     /**
      * Returns all the search metrics.
      */
     @Override
     public Metrics getMetrics() {
-        return metrics;
+        return metrics.asMetrics();
     }
 
     /**
      * Sets all metrics to zero.
      */
     private void clearMetrics() {
-        metrics.set(METRIC_NODES_EXPANDED, 0);
-        metrics.set(METRIC_MAX_RECURSIVE_DEPTH, 0);
-        metrics.set(METRIC_PATH_COST, 0.0);
+        metrics.reset();
     }
 
     @Override
@@ -146,6 +155,8 @@ public class RecursiveBestFirstSearch<S, A> implements SearchForActions<S, A>, I
         // if problem.GOAL-TEST(node.STATE) then return SOLUTION(node)
         if (p.testSolution(node))
             return getResult(null, node, fLimit);
+        if (currBudget.spend())
+            return getResult(node, null, INFINITY);
 
         // successors <- []
         // for each action in problem.ACTION(node.STATE) do
@@ -183,6 +194,9 @@ public class RecursiveBestFirstSearch<S, A> implements SearchForActions<S, A>, I
             if (sr.hasSolution()) {
                 return getResult(node, sr.getSolutionNode(), sr.getFCostLimit());
             }
+            // give up if the budget is exhausted
+            if (currBudget.getStatus() != SearchBudget.Status.WITHIN_BUDGET)
+                return getResult(node, null, INFINITY);
         }
     }
 
@@ -240,10 +254,7 @@ public class RecursiveBestFirstSearch<S, A> implements SearchForActions<S, A>, I
      * @param recursiveDepth the depth of the current path
      */
     private void updateMetrics(int recursiveDepth) {
-        int maxRdepth = metrics.getInt(METRIC_MAX_RECURSIVE_DEPTH);
-        if (recursiveDepth > maxRdepth) {
-            metrics.set(METRIC_MAX_RECURSIVE_DEPTH, recursiveDepth);
-        }
+        maxRecursiveDepth.update(recursiveDepth);
     }
 
     private static class SearchResult<S, A> {
@@ -1,14 +1,18 @@
 package aima.core.search.local;
 
 import aima.core.search.framework.Metrics;
-import aima.core.util.Tasks;
-import aima.core.util.Util;
+import aima.core.util.SearchBudget;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 import java.util.function.Predicate;
+import java.util.stream.IntStream;
 
 /**
  * Artificial Intelligence A Modern Approach (3rd Edition): Figure 4.8, page
@@ -42,6 +46,16 @@ import java.util.function.Predicate;
  * Figure 4.8 A genetic algorithm. The algorithm is the same as the one
  * diagrammed in Figure 4.6, with one variation: in this more popular version,
  * each mating of two parents produces only one offspring, not two.
+ * <p>
+ * The fitness of each individual is computed once per generation, optionally
+ * in parallel. Random selection uses binary search over the cumulative
+ * fitness values and costs O(log n). In the island model, the population is
+ * split into sub-populations which evolve in parallel, each with its own
+ * random generator seeded from the main one. Every few generations, the best
+ * individuals of each island replace the worst individuals of the next island
+ * (ring topology). As migration is performed at fixed generations and in a
+ * fixed order, runs with a seeded random generator are reproducible.
+ * </p>
  * 
  * @author Ciaran O'Reilly
  * @author Mike Stampone
@@ -66,6 +80,15 @@ public class GeneticAlgorithm<A> {
 	protected Random random;
 	private List<ProgressTracker<A>> progressTrackers = new ArrayList<>();
 
+	private boolean parallelFitnessEvaluation;
+	private int islandCount = 1;
+	private int migrationInterval = 10;
+	private int migrationSize = 1;
+	private ForkJoinPool pool = ForkJoinPool.commonPool();
+	private SearchBudget budget;
+	// random generator of the island which is processed by the current thread
+	private final ThreadLocal<Random> islandRandom = new ThreadLocal<>();
+
 	public GeneticAlgorithm(int individualLength, Collection<A> finiteAlphabet, double mutationProbability) {
 		this(individualLength, finiteAlphabet, mutationProbability, new Random());
 	}
@@ -80,6 +103,56 @@ public class GeneticAlgorithm<A> {
 		assert (this.mutationProbability >= 0.0 && this.mutationProbability <= 1.0);
 	}
 
+	/**
+	 * Enables parallel computation of fitness values. The fitness function
+	 * must be thread-safe.
+	 */
+	public void setParallelFitnessEvaluation(boolean b) {
+		parallelFitnessEvaluation = b;
+	}
+
+	/**
+	 * Enables the island model. With more than one island, the islands are
+	 * evolved concurrently, so the fitness function and overridden operators
+	 * like {@link #reproduce(Individual, Individual)} and
+	 * {@link #mutate(Individual)} are called from several threads at once and
+	 * must be thread-safe (e.g. stateless). The goal test is only called by
+	 * the calling thread.
+	 *
+	 * @param islandCount
+	 *            number of sub-populations, 1 disables the island model.
+	 * @param migrationInterval
+	 *            number of generations between migrations. The termination
+	 *            criteria are checked after each migration.
+	 * @param migrationSize
+	 *            number of individuals which migrate from one island to the
+	 *            next.
+	 */
+	public void setIslandModel(int islandCount, int migrationInterval, int migrationSize) {
+		if (islandCount < 1 || migrationInterval < 1 || migrationSize < 0)
+			throw new IllegalArgumentException("Illegal island model parameters.");
+		this.islandCount = islandCount;
+		this.migrationInterval = migrationInterval;
+		this.migrationSize = migrationSize;
+	}
+
+	/**
+	 * Sets the pool which is used for parallel fitness evaluation and for the
+	 * islands (default: common pool).
+	 */
+	public void setPool(ForkJoinPool pool) {
+		this.pool = pool;
+	}
+
+	/**
+	 * Sets a budget which limits subsequent runs. Each fitness evaluation
+	 * counts as one node. When the budget is exhausted, the best individual
+	 * found so far is returned.
+	 */
+	public void setBudget(SearchBudget budget) {
+		this.budget = budget;
+	}
+
 	/** Progress tracers can be used to display progress information. */
 	public void addProgressTracer(ProgressTracker<A> pTracker) {
 		progressTrackers.add(pTracker);
@@ -119,28 +192,34 @@ public class GeneticAlgorithm<A> {
 	// FITNESS-FN, a function that measures the fitness of an individual
 	public Individual<A> geneticAlgorithm(Collection<Individual<A>> initPopulation, FitnessFunction<A> fitnessFn,
 										  Predicate<Individual<A>> goalTest, long maxTimeMilliseconds) {
-		Individual<A> bestIndividual = null;
-
 		// Create a local copy of the population to work with
 		List<Individual<A>> population = new ArrayList<>(initPopulation);
 		// Validate the population and setup the instrumentation
 		validatePopulation(population);
+		SearchBudget currBudget = budget != null ? budget : new SearchBudget();
+		if (islandCount > 1)
+			return islandModel(population, fitnessFn, goalTest, maxTimeMilliseconds, currBudget);
+
+		Individual<A> bestIndividual = null;
 		updateMetrics(population, 0, 0L);
 
 		long startTime = System.currentTimeMillis();
+		double[] fValues = evaluateFitness(population, fitnessFn);
 
 		// repeat
 		int itCount = 0;
 		do {
-			population = nextGeneration(population, fitnessFn);
-			bestIndividual = retrieveBestIndividual(population, fitnessFn);
+			population = nextGeneration(population, new PopulationFitness<>(fitnessFn, population, fValues));
+			fValues = evaluateFitness(population, fitnessFn);
+			bestIndividual = retrieveBestIndividual(population, fValues);
 
 			updateMetrics(population, ++itCount, System.currentTimeMillis() - startTime);
 
 			// until some individual is fit enough, or enough time has elapsed
 			if (maxTimeMilliseconds > 0L && (System.currentTimeMillis() - startTime) > maxTimeMilliseconds)
 				break;
-			if (Tasks.currIsCancelled())
+			// one call per generation, so time and cancellation are checked each time
+			if (currBudget.spend(population.size()) || currBudget.isExhausted())
 				break;
 		} while (!goalTest.test(bestIndividual));
 
@@ -150,20 +229,166 @@ public class GeneticAlgorithm<A> {
 	}
 
 	public Individual<A> retrieveBestIndividual(Collection<Individual<A>> population, FitnessFunction<A> fitnessFn) {
+		List<Individual<A>> popList = new ArrayList<>(population);
+		return retrieveBestIndividual(popList, evaluateFitness(popList, fitnessFn));
+	}
+
+	/**
+	 * Returns the best individual of the population with respect to the
+	 * given fitness values.
+	 */
+	protected Individual<A> retrieveBestIndividual(List<Individual<A>> population, double[] fValues) {
 		Individual<A> bestIndividual = null;
 		double bestSoFarFValue = Double.NEGATIVE_INFINITY;
-
-		for (Individual<A> individual : population) {
-			double fValue = fitnessFn.apply(individual);
-			if (fValue > bestSoFarFValue) {
-				bestIndividual = individual;
-				bestSoFarFValue = fValue;
+		for (int i = 0; i < fValues.length; i++) {
+			if (fValues[i] > bestSoFarFValue) {
+				bestIndividual = population.get(i);
+				bestSoFarFValue = fValues[i];
 			}
 		}
+		return bestIndividual;
+	}
+
+	/**
+	 * Island model version of the genetic algorithm. The population is split
+	 * into sub-populations of (almost) equal size which evolve in parallel.
+	 * Termination criteria are checked after each migration.
+	 */
+	private Individual<A> islandModel(List<Individual<A>> population, FitnessFunction<A> fitnessFn,
+									  Predicate<Individual<A>> goalTest, long maxTimeMilliseconds,
+									  SearchBudget currBudget) {
+		int count = Math.min(islandCount, population.size());
+		List<Island> islands = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			int from = i * population.size() / count;
+			int to = (i + 1) * population.size() / count;
+			islands.add(new Island(new ArrayList<>(population.subList(from, to)), new Random(random.nextLong())));
+		}
+		updateMetrics(population, 0, 0L);
+		long startTime = System.currentTimeMillis();
+		Individual<A> bestIndividual;
+		int itCount = 0;
+		// repeat
+		do {
+			List<ForkJoinTask<?>> tasks = new ArrayList<>(count);
+			for (Island island : islands)
+				tasks.add(pool.submit(() -> island.evolve(fitnessFn, migrationInterval)));
+			for (ForkJoinTask<?> task : tasks)
+				task.join();
+			itCount += migrationInterval;
+			migrate(islands);
+
+			population = new ArrayList<>();
+			double[] fValues = new double[0];
+			for (Island island : islands) {
+				fValues = Arrays.copyOf(fValues, population.size() + island.fValues.length);
+				System.arraycopy(island.fValues, 0, fValues, population.size(), island.fValues.length);
+				population.addAll(island.population);
+			}
+			bestIndividual = retrieveBestIndividual(population, fValues);
+			updateMetrics(population, itCount, System.currentTimeMillis() - startTime);
+			notifyProgressTrackers(itCount, population);
 
+			// until some individual is fit enough, or enough time has elapsed
+			if (maxTimeMilliseconds > 0L && (System.currentTimeMillis() - startTime) > maxTimeMilliseconds)
+				break;
+			if (currBudget.spend((long) population.size() * migrationInterval) || currBudget.isExhausted())
+				break;
+		} while (!goalTest.test(bestIndividual));
 		return bestIndividual;
 	}
 
+	/**
+	 * Copies of the best individuals of each island replace the worst
+	 * individuals of the next island.
+	 */
+	private void migrate(List<Island> islands) {
+		List<List<Integer>> emigrants = new ArrayList<>(islands.size());
+		for (Island island : islands)
+			emigrants.add(island.sortedIndices(false).subList(0, Math.min(migrationSize, island.population.size())));
+		// copy first, then replace
+		List<List<Individual<A>>> individuals = new ArrayList<>(islands.size());
+		List<double[]> fValues = new ArrayList<>(islands.size());
+		for (int i = 0; i < islands.size(); i++) {
+			Island island = islands.get(i);
+			List<Individual<A>> inds = new ArrayList<>();
+			double[] fVals = new double[emigrants.get(i).size()];
+			for (int j = 0; j < fVals.length; j++) {
+				int idx = emigrants.get(i).get(j);
+				inds.add(new Individual<>(island.population.get(idx).getRepresentation()));
+				fVals[j] = island.fValues[idx];
+			}
+			individuals.add(inds);
+			fValues.add(fVals);
+		}
+		for (int i = 0; i < islands.size(); i++)
+			islands.get((i + 1) % islands.size()).replaceWorst(individuals.get(i), fValues.get(i));
+	}
+
+	/** Sub-population with its own random generator. */
+	private class Island {
+		private List<Individual<A>> population;
+		private double[] fValues;
+		private final Random islandRandom;
+
+		Island(List<Individual<A>> population, Random random) {
+			this.population = population;
+			this.islandRandom = random;
+		}
+
+		void evolve(FitnessFunction<A> fitnessFn, int generations) {
+			GeneticAlgorithm.this.islandRandom.set(islandRandom);
+			try {
+				if (fValues == null)
+					fValues = evaluateFitness(population, fitnessFn);
+				for (int i = 0; i < generations; i++) {
+					population = nextGeneration(population, new PopulationFitness<>(fitnessFn, population, fValues));
+					fValues = evaluateFitness(population, fitnessFn);
+				}
+			} finally {
+				GeneticAlgorithm.this.islandRandom.remove();
+			}
+		}
+
+		void replaceWorst(List<Individual<A>> immigrants, double[] immigrantFValues) {
+			List<Integer> indices = sortedIndices(true);
+			for (int i = 0; i < immigrants.size() && i < indices.size(); i++) {
+				population.set(indices.get(i), immigrants.get(i));
+				fValues[indices.get(i)] = immigrantFValues[i];
+			}
+		}
+
+		/** Returns the indices of the individuals ordered by fitness. */
+		List<Integer> sortedIndices(boolean ascending) {
+			List<Integer> result = new ArrayList<>(population.size());
+			for (int i = 0; i < population.size(); i++)
+				result.add(i);
+			Comparator<Integer> comp = Comparator.comparingDouble(i -> fValues[i]);
+			result.sort(ascending ? comp : comp.reversed());
+			return result;
+		}
+	}
+
+	/**
+	 * Computes the fitness of all individuals (in parallel if enabled).
+	 */
+	protected double[] evaluateFitness(List<Individual<A>> population, FitnessFunction<A> fitnessFn) {
+		if (fitnessFn instanceof PopulationFitness) {
+			double[] fValues = ((PopulationFitness<A>) fitnessFn).getFValues(population);
+			if (fValues != null)
+				return fValues;
+		}
+		double[] result = new double[population.size()];
+		if (parallelFitnessEvaluation && islandRandom.get() == null) {
+			pool.submit(() -> IntStream.range(0, result.length).parallel()
+					.forEach(i -> result[i] = fitnessFn.apply(population.get(i)))).join();
+		} else {
+			for (int i = 0; i < result.length; i++)
+				result[i] = fitnessFn.apply(population.get(i));
+		}
+		return result;
+	}
+
 	/**
 	 * Sets the population size and number of iterations to zero.
 	 */
@@ -228,7 +453,11 @@ public class GeneticAlgorithm<A> {
 	//
 	/**
 	 * Primitive operation which is responsible for creating the next
-	 * generation. Override to get progress information!
+	 * generation. Override to get progress information! The fitness function
+	 * passed by the algorithm knows the fitness values of the individuals in
+	 * <code>population</code>, so {@link #evaluateFitness(List, FitnessFunction)}
+	 * and {@link #randomSelection(List, FitnessFunction)} do not compute them
+	 * again.
 	 */
 	protected List<Individual<A>> nextGeneration(List<Individual<A>> population, FitnessFunction<A> fitnessFn) {
 		// new_population <- empty set
@@ -242,43 +471,99 @@ public class GeneticAlgorithm<A> {
 			// child <- REPRODUCE(x, y)
 			Individual<A> child = reproduce(x, y);
 			// if (small random probability) then child <- MUTATE(child)
-			if (random.nextDouble() <= mutationProbability) {
+			if (getRandom().nextDouble() <= mutationProbability) {
 				child = mutate(child);
 			}
 			// add child to new_population
 			newPopulation.add(child);
 		}
-		notifyProgressTrackers(getIterations(), population);
+		if (islandRandom.get() == null)
+			notifyProgressTrackers(getIterations(), population);
 		return newPopulation;
 	}
 
 	// RANDOM-SELECTION(population, FITNESS-FN)
 	protected Individual<A> randomSelection(List<Individual<A>> population, FitnessFunction<A> fitnessFn) {
+		double[] cumulativeFValues = null;
+		if (fitnessFn instanceof PopulationFitness)
+			cumulativeFValues = ((PopulationFitness<A>) fitnessFn).getCumulativeFValues(population);
+		if (cumulativeFValues == null)
+			cumulativeFValues = cumulativeSums(evaluateFitness(population, fitnessFn));
+		return randomSelection(population, cumulativeFValues);
+	}
+
+	/**
+	 * Selects an individual with probability proportional to its fitness by
+	 * binary search.
+	 *
+	 * @param cumulativeFValues
+	 *            element i contains the sum of the fitness values of the
+	 *            individuals 0 to i.
+	 */
+	protected Individual<A> randomSelection(List<Individual<A>> population, double[] cumulativeFValues) {
 		// Default result is last individual
 		// (just to avoid problems with rounding errors)
-		Individual<A> selected = population.get(population.size() - 1);
+		int selectedIdx = population.size() - 1;
+		double total = cumulativeFValues[cumulativeFValues.length - 1];
+		double prob = getRandom().nextDouble();
+		if (total > 0) {
+			int idx = Arrays.binarySearch(cumulativeFValues, prob * total);
+			if (idx < 0)
+				idx = -idx - 1; // insertion point: first element greater than the key
+			else
+				while (idx > 0 && cumulativeFValues[idx - 1] == cumulativeFValues[idx])
+					idx--; // first of equal elements
+			selectedIdx = Math.min(idx, selectedIdx);
+		}
+		Individual<A> selected = population.get(selectedIdx);
+		selected.incDescendants();
+		return selected;
+	}
 
-		// Determine all of the fitness values
-		double[] fValues = new double[population.size()];
-		for (int i = 0; i < population.size(); i++) {
-			fValues[i] = fitnessFn.apply(population.get(i));
+	/**
+	 * Fitness function which is passed to {@link #nextGeneration(List, FitnessFunction)}.
+	 * It knows the fitness values of the individuals of one population and
+	 * delegates to the original fitness function for all other individuals.
+	 */
+	private static class PopulationFitness<A> implements FitnessFunction<A> {
+		private final FitnessFunction<A> fitnessFn;
+		private final List<Individual<A>> population;
+		private final double[] fValues;
+		private double[] cumulativeFValues;
+
+		PopulationFitness(FitnessFunction<A> fitnessFn, List<Individual<A>> population, double[] fValues) {
+			this.fitnessFn = fitnessFn;
+			this.population = population;
+			this.fValues = fValues;
 		}
-		// Normalize the fitness values
-		fValues = Util.normalize(fValues);
-		double prob = random.nextDouble();
-		double totalSoFar = 0.0;
-		for (int i = 0; i < fValues.length; i++) {
-			// Are at last element so assign by default
-			// in case there are rounding issues with the normalized values
-			totalSoFar += fValues[i];
-			if (prob <= totalSoFar) {
-				selected = population.get(i);
-				break;
-			}
+
+		@Override
+		public double apply(Individual<A> individual) {
+			return fitnessFn.apply(individual);
 		}
 
-		selected.incDescendants();
-		return selected;
+		/** Returns the known fitness values if they belong to the population, null otherwise. */
+		double[] getFValues(List<Individual<A>> population) {
+			return population == this.population ? fValues : null;
+		}
+
+		double[] getCumulativeFValues(List<Individual<A>> population) {
+			if (population != this.population)
+				return null;
+			if (cumulativeFValues == null)
+				cumulativeFValues = cumulativeSums(fValues);
+			return cumulativeFValues;
+		}
+	}
+
+	private static double[] cumulativeSums(double[] fValues) {
+		double[] result = new double[fValues.length];
+		double sum = 0;
+		for (int i = 0; i < fValues.length; i++) {
+			sum += fValues[i];
+			result[i] = sum;
+		}
+		return result;
 	}
 
 	// function REPRODUCE(x, y) returns an individual
@@ -308,7 +593,17 @@ public class GeneticAlgorithm<A> {
 }
 
 	protected int randomOffset(int length) {
-		return random.nextInt(length);
+		return getRandom().nextInt(length);
+	}
+
+	/**
+	 * Returns the random generator to be used by the current thread. In the
+	 * island model, each island has its own generator. Subclasses should use
+	 * this method instead of accessing the field directly.
+	 */
+	protected Random getRandom() {
+		Random result = islandRandom.get();
+		return result != null ? result : random;
 	}
 
 	protected void validatePopulation(Collection<Individual<A>> population) {
@@ -44,7 +44,7 @@ public class GeneticAlgorithmForNumbers extends GeneticAlgorithm<Double> {
 	public Individual<Double> createRandomIndividual() {
 		List<Double> representation = new ArrayList<Double>(individualLength);
 		for (int i = 0; i < individualLength; i++)
-			representation.add(minimum + random.nextDouble() * (maximum - minimum));
+			representation.add(minimum + getRandom().nextDouble() * (maximum - minimum));
 		return new Individual<Double>(representation);
 	}
 
@@ -55,7 +55,7 @@ public class GeneticAlgorithmForNumbers extends GeneticAlgorithm<Double> {
 	@Override
 	protected Individual<Double> reproduce(Individual<Double> x, Individual<Double> y) {
 		List<Double> newRep = new ArrayList<Double>(x.length());
-		double r = random.nextDouble();
+		double r = getRandom().nextDouble();
 		for (int i = 0; i < x.length(); i++)
 			newRep.add(x.getRepresentation().get(i) * r + y.getRepresentation().get(i) * (1 - r));
 		return new Individual<>(newRep);
@@ -71,7 +71,7 @@ public class GeneticAlgorithmForNumbers extends GeneticAlgorithm<Double> {
 		List<Double> rep = child.getRepresentation();
 		List<Double> newRep = new ArrayList<Double>();
 		for (double num : rep) {
-			double r = random.nextDouble() - 0.5;
+			double r = getRandom().nextDouble() - 0.5;
 			num += r * r * r * (maximum - minimum) / 2;
 			if (num < minimum)
 				num = minimum;
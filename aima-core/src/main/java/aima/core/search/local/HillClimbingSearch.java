@@ -3,7 +3,7 @@ package aima.core.search.local;
 import aima.core.search.framework.*;
 import aima.core.search.framework.problem.Problem;
 import aima.core.search.informed.Informed;
-import aima.core.util.Tasks;
+import aima.core.util.SearchBudget;
 
 import java.util.List;
 import java.util.Optional;
@@ -42,8 +42,11 @@ public class HillClimbingSearch<S, A> implements SearchForActions<S, A>, SearchF
 
     private ToDoubleFunction<Node<S, A>> evalFn = null;
     private final NodeFactory<S, A> nodeFactory;
+    private SearchBudget budget;
     private S lastState = null;
-    private Metrics metrics = new Metrics();
+    private final MetricsRegistry metrics = new MetricsRegistry();
+    private final MetricsRegistry.Counter nodesExpanded = metrics.counter(METRIC_NODES_EXPANDED);
+    private final MetricsRegistry.DoubleGauge nodeValue = metrics.doubleGauge(METRIC_NODE_VALUE);
 
     /**
      * Constructs a hill-climbing search for a specified evaluation function.
@@ -57,7 +60,7 @@ public class HillClimbingSearch<S, A> implements SearchForActions<S, A>, SearchF
     public HillClimbingSearch(ToDoubleFunction<Node<S, A>> evalFn, NodeFactory<S, A> nodeFactory) {
         this.evalFn = evalFn;
         this.nodeFactory = nodeFactory;
-        nodeFactory.addNodeListener((node) -> metrics.incrementInt(METRIC_NODES_EXPANDED));
+        nodeFactory.addNodeListener((node) -> nodesExpanded.increment());
     }
 
     @Override
@@ -82,12 +85,13 @@ public class HillClimbingSearch<S, A> implements SearchForActions<S, A>, SearchF
     /// function HILL-CLIMBING(problem) returns a state that is a local maximum
     public Optional<Node<S, A>> findNode(Problem<S, A> p) {
         clearMetrics();
+        SearchBudget currBudget = budget != null ? budget : new SearchBudget();
         /// current <- MAKE-NODE(problem.INITIAL-STATE)
         Node<S, A> current = nodeFactory.createNode(p.getInitialState());
         Node<S, A> neighbor;
         /// loop do
-        while (!Tasks.currIsCancelled()) {
-            metrics.set(METRIC_NODE_VALUE, getValue(current));
+        while (!currBudget.spend()) {
+            nodeValue.set(getValue(current));
             List<Node<S, A>> children = nodeFactory.getSuccessors(current, p);
             /// neighbor <- a highest-valued successor of current
             neighbor = getHighestValuedNodeFrom(children);
@@ -122,25 +126,30 @@ public class HillClimbingSearch<S, A> implements SearchForActions<S, A>, SearchF
     }
 
     /**
-     * Returns the last explored state which is at least a local maximum if search was not cancelled by the user.
+     * Returns the last explored state which is at least a local maximum if search was not cancelled by the user
+     * and the budget was not exhausted. Otherwise, it is the best state found so far.
      */
     public S getLastState() {
         return lastState;
     }
 
+    @Override
+    public void setBudget(SearchBudget budget) {
+        this.budget = budget;
+    }
+
     /**
      * Returns all the search metrics.
      */
     public Metrics getMetrics() {
-        return metrics;
+        return metrics.asMetrics();
     }
 
     /**
      * Sets all metrics to zero.
      */
     private void clearMetrics() {
-        metrics.set(METRIC_NODES_EXPANDED, 0);
-        metrics.set(METRIC_NODE_VALUE, 0);
+        metrics.reset();
     }
 
     @Override
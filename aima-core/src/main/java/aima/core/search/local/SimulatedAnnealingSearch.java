@@ -2,7 +2,7 @@ package aima.core.search.local;
 
 import aima.core.search.framework.*;
 import aima.core.search.framework.problem.Problem;
-import aima.core.util.Tasks;
+import aima.core.util.SearchBudget;
 import aima.core.util.Util;
 
 import java.util.List;
@@ -47,9 +47,13 @@ public class SimulatedAnnealingSearch<S, A> implements SearchForActions<S, A>, S
 	private final ToDoubleFunction<Node<S, A>> energyFn;
 	private final Scheduler scheduler;
 	private final NodeFactory<S, A> nodeFactory;
+	private SearchBudget budget;
 
 	private S lastState;
-	private Metrics metrics = new Metrics();
+	private final MetricsRegistry metrics = new MetricsRegistry();
+	private final MetricsRegistry.Counter nodesExpanded = metrics.counter(METRIC_NODES_EXPANDED);
+	private final MetricsRegistry.DoubleGauge temperatureGauge = metrics.doubleGauge(METRIC_TEMPERATURE);
+	private final MetricsRegistry.DoubleGauge nodeValue = metrics.doubleGauge(METRIC_NODE_VALUE);
 
 	/**
 	 * Constructs a simulated annealing search for the specified energy
@@ -79,7 +83,7 @@ public class SimulatedAnnealingSearch<S, A> implements SearchForActions<S, A>, S
 		this.energyFn = energyFn;
 		this.scheduler = scheduler;
 		this.nodeFactory = nodeFactory;
-		nodeFactory.addNodeListener((node) -> metrics.incrementInt(METRIC_NODES_EXPANDED));
+		nodeFactory.addNodeListener((node) -> nodesExpanded.increment());
 	}
 	
 	@Override
@@ -104,11 +108,12 @@ public class SimulatedAnnealingSearch<S, A> implements SearchForActions<S, A>, S
 	/// function SIMULATED-ANNEALING(problem, schedule) returns a solution state
 	public Optional<Node<S, A>> findNode(Problem<S, A> p) {
 		clearMetrics();
+		SearchBudget currBudget = budget != null ? budget : new SearchBudget();
 		/// current <- MAKE-NODE(problem.INITIAL-STATE)
 		Node<S, A> current = nodeFactory.createNode(p.getInitialState());
 		/// for t = 1 to INFINITY do
 		int timeStep = 0;
-		while (!Tasks.currIsCancelled()) {
+		while (!currBudget.spend()) {
 			/// temperature <- schedule(t)
 			double temperature = scheduler.getTemp(timeStep);
 			timeStep++;
@@ -147,26 +152,29 @@ public class SimulatedAnnealingSearch<S, A> implements SearchForActions<S, A>, S
 		return lastState;
 	}
 	
+	@Override
+	public void setBudget(SearchBudget budget) {
+		this.budget = budget;
+	}
+
 	/**
 	 * Returns all the search metrics.
 	 */
 	@Override
 	public Metrics getMetrics() {
-		return metrics;
+		return metrics.asMetrics();
 	}
 	
 	private void updateMetrics(double temperature, double value) {
-		metrics.set(METRIC_TEMPERATURE, temperature);
-		metrics.set(METRIC_NODE_VALUE, value);
+		temperatureGauge.set(temperature);
+		nodeValue.set(value);
 	}
 	
 	/**
 	 * Sets all metrics to zero.
 	 */
 	private void clearMetrics() {
-		metrics.set(METRIC_NODES_EXPANDED, 0);
-		metrics.set(METRIC_TEMPERATURE, 0);
-		metrics.set(METRIC_NODE_VALUE, 0);
+		metrics.reset();
 	}
 
 	@Override
@@ -2,7 +2,7 @@ package aima.core.search.uninformed;
 
 import aima.core.search.framework.*;
 import aima.core.search.framework.problem.Problem;
-import aima.core.util.Tasks;
+import aima.core.util.SearchBudget;
 
 import java.util.List;
 import java.util.Optional;
@@ -45,7 +45,11 @@ public class DepthLimitedSearch<S, A> implements SearchForActions<S, A>, SearchF
 	public final Node<S, A> cutoffNode = new Node<>(null);
 	private final int limit;
 	private final NodeFactory<S, A> nodeFactory;
-	private Metrics metrics = new Metrics();
+	private SearchBudget budget;
+	private SearchBudget currBudget;
+	private final MetricsRegistry metrics = new MetricsRegistry();
+	private final MetricsRegistry.Counter nodesExpanded = metrics.counter(METRIC_NODES_EXPANDED);
+	private final MetricsRegistry.DoubleGauge pathCost = metrics.doubleGauge(METRIC_PATH_COST);
 
 	public DepthLimitedSearch(int limit) {
 		this(limit, new NodeFactory<>());
@@ -80,6 +84,7 @@ public class DepthLimitedSearch<S, A> implements SearchForActions<S, A>, SearchF
 	
 	public Optional<Node<S, A>> findNode(Problem<S, A> p) {
 		clearMetrics();
+		currBudget = budget != null ? budget : new SearchBudget();
 		// return RECURSIVE-DLS(MAKE-NODE(INITIAL-STATE[problem]), problem,
 		// limit)
 		Node<S, A> node = recursiveDLS(nodeFactory.createNode(p.getInitialState()), p, limit);
@@ -95,17 +100,17 @@ public class DepthLimitedSearch<S, A> implements SearchForActions<S, A>, SearchF
 	private Node<S, A> recursiveDLS(Node<S, A> node, Problem<S, A> problem, int limit) {
 		// if problem.GOAL-TEST(node.STATE) then return SOLUTION(node)
 		if (problem.testSolution(node)) {
-			metrics.set(METRIC_PATH_COST, node.getPathCost());
+			pathCost.set(node.getPathCost());
 			return node;
-		} else if (0 == limit || Tasks.currIsCancelled()) {
-			// else if limit = 0 then return cutoff
+		} else if (0 == limit || currBudget.spend()) {
+			// else if limit = 0 then return cutoff (also if the budget is exhausted)
 			return cutoffNode;
 		} else {
 			// else
 			// cutoff_occurred? <- false
 			boolean cutoffOccurred = false;
 			// for each action in problem.ACTIONS(node.STATE) do
-			metrics.incrementInt(METRIC_NODES_EXPANDED);
+			nodesExpanded.increment();
 			for (Node<S, A> child : nodeFactory.getSuccessors(node, problem)) {
 				// child <- CHILD-NODE(problem, node, action)
 				// result <- RECURSIVE-DLS(child, problem, limit - 1)
@@ -128,12 +133,17 @@ public class DepthLimitedSearch<S, A> implements SearchForActions<S, A>, SearchF
 		return node.isPresent() && node.get() == cutoffNode;
 	}
 
+	@Override
+	public void setBudget(SearchBudget budget) {
+		this.budget = budget;
+	}
+
 	/**
 	 * Returns all the search metrics.
 	 */
 	@Override
 	public Metrics getMetrics() {
-		return metrics;
+		return metrics.asMetrics();
 	}
 
 	@Override
@@ -150,7 +160,6 @@ public class DepthLimitedSearch<S, A> implements SearchForActions<S, A>, SearchF
 	 * Sets the nodes expanded and path cost metrics to zero.
 	 */
 	private void clearMetrics() {
-		metrics.set(METRIC_NODES_EXPANDED, 0);
-		metrics.set(METRIC_PATH_COST, 0);
+		metrics.reset();
 	}
 }
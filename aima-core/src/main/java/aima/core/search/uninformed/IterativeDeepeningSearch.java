@@ -2,7 +2,7 @@ package aima.core.search.uninformed;
 
 import aima.core.search.framework.*;
 import aima.core.search.framework.problem.Problem;
-import aima.core.util.Tasks;
+import aima.core.util.SearchBudget;
 
 import java.util.List;
 import java.util.Optional;
@@ -34,7 +34,10 @@ public class IterativeDeepeningSearch<S, A> implements SearchForActions<S, A>, S
 	public static final String METRIC_PATH_COST = "pathCost";
 
 	private final NodeFactory<S, A> nodeFactory;
-	private final Metrics metrics;
+	private SearchBudget budget;
+	private final MetricsRegistry metrics = new MetricsRegistry();
+	private final MetricsRegistry.Counter nodesExpanded = metrics.counter(METRIC_NODES_EXPANDED);
+	private final MetricsRegistry.DoubleGauge pathCost = metrics.doubleGauge(METRIC_PATH_COST);
 
 	public IterativeDeepeningSearch() {
 		this(new NodeFactory<>());
@@ -42,7 +45,6 @@ public class IterativeDeepeningSearch<S, A> implements SearchForActions<S, A>, S
 	
 	public IterativeDeepeningSearch(NodeFactory<S, A> nodeFactory) {
 		this.nodeFactory = nodeFactory;
-		this.metrics = new Metrics();
 	}
 	
 	
@@ -61,17 +63,19 @@ public class IterativeDeepeningSearch<S, A> implements SearchForActions<S, A>, S
 	}
 
 	/**
-	 * Returns a solution node if a solution was found, empty if no solution is reachable or the task was cancelled
-	 * by the user.
+	 * Returns a solution node if a solution was found, empty if no solution is reachable or the budget is exhausted
+	 * (e.g. because the task was cancelled by the user).
 	 * @param p
 	 * @return
 	 */
 	private Optional<Node<S, A>> findNode(Problem<S, A> p) {
 		clearMetrics();
+		SearchBudget currBudget = budget != null ? budget : new SearchBudget();
 		// for depth = 0 to infinity do
-		for (int i = 0; !Tasks.currIsCancelled(); i++) {
+		for (int i = 0; !currBudget.isExhausted(); i++) {
 			// result <- DEPTH-LIMITED-SEARCH(problem, depth)
 			DepthLimitedSearch<S, A> dls = new DepthLimitedSearch<>(i, nodeFactory);
+			dls.setBudget(currBudget);
 			Optional<Node<S, A>> result = dls.findNode(p);
 			updateMetrics(dls.getMetrics());
 			// if result != cutoff then return result
@@ -81,9 +85,14 @@ public class IterativeDeepeningSearch<S, A> implements SearchForActions<S, A>, S
 		return Optional.empty();
 	}
 	
+	@Override
+	public void setBudget(SearchBudget budget) {
+		this.budget = budget;
+	}
+
 	@Override
 	public Metrics getMetrics() {
-		return metrics;
+		return metrics.asMetrics();
 	}
 
 	@Override
@@ -105,13 +114,11 @@ public class IterativeDeepeningSearch<S, A> implements SearchForActions<S, A>, S
 	 * Sets the nodes expanded and path cost metrics to zero.
 	 */
 	private void clearMetrics() {
-		metrics.set(METRIC_NODES_EXPANDED, 0);
-		metrics.set(METRIC_PATH_COST, 0);
+		metrics.reset();
 	}
 
 	private void updateMetrics(Metrics dlsMetrics) {
-		metrics.set(METRIC_NODES_EXPANDED,
-				metrics.getInt(METRIC_NODES_EXPANDED) + dlsMetrics.getInt(METRIC_NODES_EXPANDED));
-		metrics.set(METRIC_PATH_COST, dlsMetrics.getDouble(METRIC_PATH_COST));
+		nodesExpanded.add(dlsMetrics.getLong(METRIC_NODES_EXPANDED));
+		pathCost.set(dlsMetrics.getDouble(METRIC_PATH_COST));
 	}
 }
\ No newline at end of file
@@ -4,7 +4,6 @@ import java.util.Comparator;
 
 import aima.core.search.framework.Node;
 import aima.core.search.framework.QueueBasedSearch;
-import aima.core.search.framework.QueueFactory;
 import aima.core.search.framework.qsearch.GraphSearch;
 import aima.core.search.framework.qsearch.QueueSearch;
 
@@ -56,6 +55,6 @@ public class UniformCostSearch<S, A> extends QueueBasedSearch<S, A> {
 	 * search execution strategy.
 	 */
 	public UniformCostSearch(QueueSearch<S, A> impl) {
-		super(impl, QueueFactory.createPriorityQueue(Comparator.comparing(Node::getPathCost)));
+		super(impl, createPriorityQueue(impl, Comparator.comparing(Node::getPathCost)));
 	}
 }
\ No newline at end of file
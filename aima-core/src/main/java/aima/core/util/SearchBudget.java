@@ -0,0 +1,279 @@
+package aima.core.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Limits the resources which an algorithm may spend on a task. Three limits
+ * can be combined: a maximal number of nodes (or comparable units of work like
+ * DPLL calls or resolution steps), a wall-clock time limit, and a limit for
+ * the estimated memory consumption, which is measured as growth of the used
+ * heap since the budget was started. Additionally, cancellation of the current
+ * task (see {@link Tasks#currIsCancelled()}) or a call of {@link #cancel()}
+ * exhausts the budget.
+ * <p>
+ * Algorithms call {@link #spend()} once per node in their inner loops. The
+ * node limit is checked exactly, all other limits only every
+ * {@link #CHECK_INTERVAL} calls, so the check is cheap enough even for very
+ * fast node expansions. When the budget is exhausted, algorithms stop and
+ * return the best result they have (which may be empty). The reason can be
+ * obtained by {@link #getStatus()} and remains until the budget is
+ * {@link #reset() reset}.
+ * </p>
+ * <p>
+ * The budget is started with the first call of {@link #spend()} or
+ * {@link #isExhausted()} and covers all subsequent work of all algorithms it
+ * is passed to. A budget object should not be used by several threads at the
+ * same time. Only {@link #cancel()} may be called from other threads.
+ * </p>
+ * <p>
+ * Parallel workers use child budgets (see {@link #createChild()}). A child
+ * charges its nodes to the parent if the parent or one of its ancestors has a
+ * node limit (otherwise the shared counter is not touched), and checks the
+ * limits and the cancellation of the parent. Cancellation of the task which
+ * created the children is checked by the top-level budget, so workers in a
+ * thread pool notice it, too. If the parent is exhausted, all children are exhausted with
+ * the same status. Cancelling a child only stops the child, so parallel
+ * algorithms can stop workers whose results are no longer needed without
+ * affecting the status of the parent. {@link #copyLimits()} provides
+ * independent budgets instead.
+ * </p>
+ * Example:
+ * <pre>
+ * SearchBudget budget = new SearchBudget().setNodeLimit(100000).setTimeLimit(500);
+ * search.setBudget(budget);
+ * Optional&lt;List&lt;Action&gt;&gt; actions = search.findActions(problem);
+ * if (!actions.isPresent() &amp;&amp; budget.getStatus() != SearchBudget.Status.WITHIN_BUDGET)
+ *     ... // search was aborted, not unsuccessful
+ * </pre>
+ */
+public class SearchBudget {
+
+	/** Number of {@link #spend()} calls between two checks of time, memory, and cancellation. */
+	public static final int CHECK_INTERVAL = 64;
+
+	public enum Status {
+		WITHIN_BUDGET, NODE_LIMIT_EXCEEDED, TIME_LIMIT_EXCEEDED, MEMORY_LIMIT_EXCEEDED, CANCELLED
+	}
+
+	private long nodeLimit = Long.MAX_VALUE;
+	private long timeLimitNanos = Long.MAX_VALUE;
+	private long memoryLimit = Long.MAX_VALUE;
+
+	private boolean started;
+	private long startTime;
+	private long startMemory;
+	private long nodes;
+	private int countdown;
+	private volatile Status status = Status.WITHIN_BUDGET;
+	private volatile boolean cancelled;
+
+	/** The budget to which nodes are charged, null for top-level budgets. */
+	private final SearchBudget parent;
+	/** True if the parent or one of its ancestors has a node limit. */
+	private final boolean chargeParent;
+	/** Nodes counted by the children of this budget. */
+	private final AtomicLong childNodes = new AtomicLong();
+	/**
+	 * Tests cancellation of the task, used by top-level budgets only. Bound
+	 * to the creating thread when a child is created.
+	 */
+	private Supplier<Boolean> taskCancelled = Tasks::currIsCancelled;
+
+	/** Creates a budget without limits, which is only exhausted by cancellation. */
+	public SearchBudget() {
+		parent = null;
+		chargeParent = false;
+	}
+
+	private SearchBudget(SearchBudget parent) {
+		this.parent = parent;
+		chargeParent = parent.nodeLimit != Long.MAX_VALUE || parent.chargeParent;
+	}
+
+	/** Sets the maximal number of nodes. */
+	public SearchBudget setNodeLimit(long nodeLimit) {
+		this.nodeLimit = nodeLimit;
+		return this;
+	}
+
+	/** Sets the time limit in milliseconds, measured from the start of the budget. */
+	public SearchBudget setTimeLimit(long millis) {
+		timeLimitNanos = millis < Long.MAX_VALUE / 1000000 ? millis * 1000000 : Long.MAX_VALUE;
+		return this;
+	}
+
+	/** Sets the maximal growth of the used heap in bytes. */
+	public SearchBudget setMemoryLimit(long bytes) {
+		memoryLimit = bytes;
+		return this;
+	}
+
+	/**
+	 * Returns a new budget with the same limits, which is not yet started and
+	 * independent of this budget.
+	 */
+	public SearchBudget copyLimits() {
+		SearchBudget result = new SearchBudget();
+		result.nodeLimit = nodeLimit;
+		result.timeLimitNanos = timeLimitNanos;
+		result.memoryLimit = memoryLimit;
+		return result;
+	}
+
+	/**
+	 * Returns a new budget which shares the limits of this budget. Nodes
+	 * spent on the child are counted by this budget as well if a node limit
+	 * has been set for this budget or one of its ancestors (so limits should
+	 * be set before children are created). Time is measured
+	 * from the start of this budget, which is started now if necessary. The
+	 * child is exhausted when this budget is exhausted, and if the child
+	 * detects that a limit is exceeded, this budget gets the corresponding
+	 * status. Children can be used by other threads than this budget, but
+	 * each child only by one thread at a time. Cancellation of the current
+	 * task (see {@link Tasks#currCancellation()}) exhausts this budget and
+	 * all its children, even if they are used by other threads.
+	 */
+	public SearchBudget createChild() {
+		synchronized (this) {
+			if (!started)
+				start();
+			if (parent == null)
+				taskCancelled = Tasks.currCancellation();
+			return new SearchBudget(this);
+		}
+	}
+
+	/**
+	 * Exhausts the budget with status {@link Status#CANCELLED}. The algorithm
+	 * using the budget notices this with its next limit check. This method can
+	 * be called from any thread.
+	 */
+	public void cancel() {
+		cancelled = true;
+	}
+
+	/**
+	 * Counts one node and returns true if the budget is exhausted. To be
+	 * called in inner loops.
+	 */
+	public boolean spend() {
+		return spend(1);
+	}
+
+	/**
+	 * Counts the given number of nodes and returns true if the budget is
+	 * exhausted.
+	 */
+	public boolean spend(long numNodes) {
+		if (status != Status.WITHIN_BUDGET)
+			return true;
+		if (!started)
+			start();
+		nodes += numNodes;
+		if (chargeParent && parent.spendForChild(numNodes))
+			exhaust(parent.status);
+		else if (nodes > nodeLimit)
+			exhaust(Status.NODE_LIMIT_EXCEEDED);
+		else if (--countdown <= 0)
+			checkLimits();
+		return status != Status.WITHIN_BUDGET;
+	}
+
+	/**
+	 * Checks all limits without counting nodes and returns true if the budget
+	 * is exhausted.
+	 */
+	public boolean isExhausted() {
+		if (status == Status.WITHIN_BUDGET) {
+			if (!started)
+				start();
+			checkLimits();
+		}
+		return status != Status.WITHIN_BUDGET;
+	}
+
+	/**
+	 * Returns {@link Status#WITHIN_BUDGET} as long as the budget is not
+	 * exhausted, otherwise the reason of exhaustion.
+	 */
+	public Status getStatus() {
+		return status;
+	}
+
+	/**
+	 * Returns the number of nodes which have been counted since start,
+	 * including the nodes of the children if they are charged to this budget
+	 * (see {@link #createChild()}).
+	 */
+	public long getNodes() {
+		return nodes + childNodes.get();
+	}
+
+	/** Returns the time in milliseconds since start. */
+	public long getElapsedTime() {
+		return started ? (System.nanoTime() - startTime) / 1000000 : 0;
+	}
+
+	/**
+	 * Resets counters and status. The limits are kept, time and memory
+	 * consumption are measured from the next start.
+	 */
+	public void reset() {
+		started = false;
+		nodes = 0;
+		childNodes.set(0);
+		status = Status.WITHIN_BUDGET;
+		cancelled = false;
+	}
+
+	private void start() {
+		started = true;
+		startTime = System.nanoTime();
+		if (memoryLimit != Long.MAX_VALUE)
+			startMemory = usedMemory();
+		countdown = CHECK_INTERVAL;
+	}
+
+	private void checkLimits() {
+		countdown = CHECK_INTERVAL;
+		if (cancelled || parent == null && taskCancelled.get())
+			exhaust(Status.CANCELLED);
+		else if (parent != null && parent.checkLimitsForChild())
+			exhaust(parent.status);
+		else if (timeLimitNanos != Long.MAX_VALUE && System.nanoTime() - startTime > timeLimitNanos)
+			exhaust(Status.TIME_LIMIT_EXCEEDED);
+		else if (memoryLimit != Long.MAX_VALUE && usedMemory() - startMemory > memoryLimit)
+			exhaust(Status.MEMORY_LIMIT_EXCEEDED);
+	}
+
+	/** Counts nodes of a child and returns true if this budget is exhausted. */
+	private boolean spendForChild(long numNodes) {
+		if (status == Status.WITHIN_BUDGET) {
+			long total = childNodes.addAndGet(numNodes) + nodes;
+			if (chargeParent && parent.spendForChild(numNodes))
+				exhaust(parent.status);
+			else if (total > nodeLimit)
+				exhaust(Status.NODE_LIMIT_EXCEEDED);
+		}
+		return status != Status.WITHIN_BUDGET;
+	}
+
+	/** Checks all limits for a child and returns true if this budget is exhausted. */
+	private synchronized boolean checkLimitsForChild() {
+		if (status == Status.WITHIN_BUDGET)
+			checkLimits();
+		return status != Status.WITHIN_BUDGET;
+	}
+
+	/** Sets the status unless the budget is already exhausted. */
+	private synchronized void exhaust(Status reason) {
+		if (status == Status.WITHIN_BUDGET)
+			status = reason;
+	}
+
+	private static long usedMemory() {
+		Runtime runtime = Runtime.getRuntime();
+		return runtime.totalMemory() - runtime.freeMemory();
+	}
+}
@@ -31,6 +31,14 @@ public class Tasks {
         return isCancelledFn.get();
     }
 
+    /**
+     * Returns a test for cancellation of the current task which can be called from other threads, e.g. by
+     * workers which the task runs in a thread pool.
+     */
+    public static Supplier<Boolean> currCancellation() {
+        return currCancellationFn.get();
+    }
+
 
     // the default implementation uses CancellableThread
 
@@ -47,6 +55,12 @@ public class Tasks {
 
     private static Supplier<Boolean> isCancelledFn = CancellableThread::currIsCancelled;
 
+    private static Supplier<Supplier<Boolean>> currCancellationFn =
+            () -> {
+                Thread thread = Thread.currentThread();
+                return thread instanceof CancellableThread ? ((CancellableThread) thread)::isCancelled : isCancelledFn;
+            };
+
 
     // functionality can be changed at runtime
 
@@ -61,4 +75,8 @@ public class Tasks {
     public static void setIsCancelledFn(Supplier<Boolean> isCancelledFn) {
         Tasks.isCancelledFn = isCancelledFn;
     }
+
+    public static void setCurrCancellationFn(Supplier<Supplier<Boolean>> currCancellationFn) {
+        Tasks.currCancellationFn = currCancellationFn;
+    }
 }
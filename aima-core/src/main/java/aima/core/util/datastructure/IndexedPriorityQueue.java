@@ -0,0 +1,270 @@
+package aima.core.util.datastructure;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/**
+ * Priority queue based on a d-ary heap which keeps an index from element keys
+ * to heap positions. The queue holds at most one element per key. Adding an
+ * element whose key is already present works as decrease-key: the contained
+ * element is replaced if the new element is smaller with respect to the
+ * comparator, otherwise the new element is rejected. Replacement, removal,
+ * and containment checks cost O(log n) or less, compared to O(n) for
+ * {@link PriorityQueue#remove(Object)}.
+ * <p>
+ * With arity 2, elements are moved exactly like in {@link PriorityQueue}, so
+ * both queues return equal elements in the same order.
+ * </p>
+ * <p>
+ * By default, the index is a {@link HashMap}. If keys can be mapped
+ * injectively to <code>long</code> values (see
+ * {@link #setKeyEncoder(ToLongFunction)}), a {@link LongHashMap} is used
+ * instead, which avoids boxing and hashing of the keys.
+ * </p>
+ *
+ * @param <E> Type of the elements
+ * @param <K> Type of the keys (e.g. states of search nodes)
+ */
+public class IndexedPriorityQueue<E, K> extends AbstractQueue<E> {
+
+	private final Comparator<? super E> comparator;
+	private final Function<? super E, ? extends K> keyExtractor;
+	private final int arity;
+	private final Map<K, Slot<E>> index = new HashMap<>();
+	private ToLongFunction<? super K> keyEncoder;
+	private LongHashMap<Slot<E>> encodedIndex;
+	private Slot<E>[] heap;
+	private int size;
+
+	/**
+	 * Creates a queue based on a 4-ary heap.
+	 *
+	 * @param comparator   Defines the priority (smallest element comes first).
+	 * @param keyExtractor Maps elements to keys.
+	 */
+	public IndexedPriorityQueue(Comparator<? super E> comparator, Function<? super E, ? extends K> keyExtractor) {
+		this(comparator, keyExtractor, 4);
+	}
+
+	/**
+	 * Creates a queue based on a heap with the given number of children per
+	 * heap node.
+	 */
+	public IndexedPriorityQueue(Comparator<? super E> comparator, Function<? super E, ? extends K> keyExtractor,
+								int arity) {
+		if (arity < 2)
+			throw new IllegalArgumentException("Arity must be at least 2.");
+		this.comparator = comparator;
+		this.keyExtractor = keyExtractor;
+		this.arity = arity;
+		@SuppressWarnings({ "unchecked", "rawtypes" })
+		Slot<E>[] slots = (Slot<E>[]) new Slot[16];
+		heap = slots;
+	}
+
+	public Comparator<? super E> comparator() {
+		return comparator;
+	}
+
+	/**
+	 * Sets an injective mapping from keys to primitive keys, which are then
+	 * used for indexing, or null to index the keys themselves. Contained
+	 * elements are indexed anew.
+	 */
+	public void setKeyEncoder(ToLongFunction<? super K> keyEncoder) {
+		this.keyEncoder = keyEncoder;
+		index.clear();
+		encodedIndex = keyEncoder != null ? new LongHashMap<>(size) : null;
+		for (int i = 0; i < size; i++)
+			putSlot(keyExtractor.apply(heap[i].element), heap[i]);
+	}
+
+	/**
+	 * Inserts the element if no element with the same key is contained.
+	 * Otherwise, the contained element is replaced if the new element is
+	 * smaller (decrease-key).
+	 *
+	 * @return true if the queue changed.
+	 */
+	@Override
+	public boolean offer(E e) {
+		K key = keyExtractor.apply(e);
+		Slot<E> slot = getSlot(key);
+		if (slot == null) {
+			if (size == heap.length)
+				heap = Arrays.copyOf(heap, size * 2);
+			slot = new Slot<>(e, size);
+			putSlot(key, slot);
+			heap[size++] = slot;
+			siftUp(slot);
+			return true;
+		} else if (comparator.compare(e, slot.element) < 0) {
+			slot.element = e;
+			siftUp(slot);
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Same as {@link #offer(Object)}. In contrast to other queues, false is
+	 * returned (instead of throwing an exception) if the element was
+	 * rejected.
+	 */
+	@Override
+	public boolean add(E e) {
+		return offer(e);
+	}
+
+	/** Returns the element with the given key, or null if no such element is contained. */
+	public E getByKey(K key) {
+		Slot<E> slot = getSlot(key);
+		return slot != null ? slot.element : null;
+	}
+
+	public boolean containsKey(K key) {
+		return getSlot(key) != null;
+	}
+
+	@Override
+	public E poll() {
+		if (size == 0)
+			return null;
+		Slot<E> result = heap[0];
+		removeAt(0);
+		return result.element;
+	}
+
+	@Override
+	public E peek() {
+		return size > 0 ? heap[0].element : null;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public boolean contains(Object o) {
+		Slot<E> slot = getSlot(keyExtractor.apply((E) o));
+		return slot != null && slot.element.equals(o);
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public boolean remove(Object o) {
+		Slot<E> slot = getSlot(keyExtractor.apply((E) o));
+		if (slot != null && slot.element.equals(o)) {
+			removeAt(slot.pos);
+			return true;
+		}
+		return false;
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public void clear() {
+		Arrays.fill(heap, 0, size, null);
+		index.clear();
+		if (encodedIndex != null)
+			encodedIndex.clear();
+		size = 0;
+	}
+
+	/** Iterates over the elements in heap order (not in priority order). */
+	@Override
+	public Iterator<E> iterator() {
+		return new Iterator<E>() {
+			private int pos = 0;
+
+			@Override
+			public boolean hasNext() {
+				return pos < size;
+			}
+
+			@Override
+			public E next() {
+				if (pos >= size)
+					throw new NoSuchElementException();
+				return heap[pos++].element;
+			}
+		};
+	}
+
+	private void removeAt(int pos) {
+		Slot<E> removed = heap[pos];
+		K key = keyExtractor.apply(removed.element);
+		if (encodedIndex != null)
+			encodedIndex.remove(keyEncoder.applyAsLong(key));
+		else
+			index.remove(key);
+		Slot<E> last = heap[--size];
+		heap[size] = null;
+		if (pos < size) {
+			last.pos = pos;
+			heap[pos] = last;
+			siftDown(last);
+			if (heap[pos] == last)
+				siftUp(last);
+		}
+	}
+
+	private Slot<E> getSlot(K key) {
+		return encodedIndex != null ? encodedIndex.get(keyEncoder.applyAsLong(key)) : index.get(key);
+	}
+
+	private void putSlot(K key, Slot<E> slot) {
+		if (encodedIndex != null)
+			encodedIndex.put(keyEncoder.applyAsLong(key), slot);
+		else
+			index.put(key, slot);
+	}
+
+	private void siftUp(Slot<E> slot) {
+		int pos = slot.pos;
+		while (pos > 0) {
+			int parentPos = (pos - 1) / arity;
+			Slot<E> parent = heap[parentPos];
+			if (comparator.compare(slot.element, parent.element) >= 0)
+				break;
+			heap[pos] = parent;
+			parent.pos = pos;
+			pos = parentPos;
+		}
+		heap[pos] = slot;
+		slot.pos = pos;
+	}
+
+	private void siftDown(Slot<E> slot) {
+		int pos = slot.pos;
+		while (true) {
+			int firstChild = pos * arity + 1;
+			if (firstChild >= size)
+				break;
+			int minPos = firstChild;
+			int end = Math.min(firstChild + arity, size);
+			for (int c = firstChild + 1; c < end; c++)
+				if (comparator.compare(heap[c].element, heap[minPos].element) < 0)
+					minPos = c;
+			if (comparator.compare(slot.element, heap[minPos].element) <= 0)
+				break;
+			heap[pos] = heap[minPos];
+			heap[pos].pos = pos;
+			pos = minPos;
+		}
+		heap[pos] = slot;
+		slot.pos = pos;
+	}
+
+	private static class Slot<E> {
+		E element;
+		int pos;
+
+		Slot(E element, int pos) {
+			this.element = element;
+			this.pos = pos;
+		}
+	}
+}
@@ -0,0 +1,164 @@
+package aima.core.util.datastructure;
+
+import java.util.Arrays;
+
+/**
+ * Hash map with primitive <code>long</code> keys. Like {@link LongHashSet}, it
+ * uses open addressing with linear probing. Keys and values are stored in two
+ * parallel arrays, so no entry objects are created. Null values are not
+ * supported because null is used to signal missing keys.
+ *
+ * @param <V> Type of the values
+ */
+public class LongHashMap<V> {
+	private static final float LOAD_FACTOR = 0.5f;
+
+	private long[] keys;
+	private Object[] values;
+	private int mask;
+	private int size;
+	private V zeroValue;
+
+	public LongHashMap() {
+		this(16);
+	}
+
+	public LongHashMap(int expectedSize) {
+		int capacity = LongHashing.capacityFor(expectedSize, LOAD_FACTOR);
+		keys = new long[capacity];
+		values = new Object[capacity];
+		mask = capacity - 1;
+	}
+
+	/** Returns the value for the given key, or null if the key is not contained. */
+	@SuppressWarnings("unchecked")
+	public V get(long key) {
+		if (key == 0)
+			return zeroValue;
+		int idx = LongHashing.mix(key) & mask;
+		long k;
+		while ((k = keys[idx]) != 0) {
+			if (k == key)
+				return (V) values[idx];
+			idx = (idx + 1) & mask;
+		}
+		return null;
+	}
+
+	public boolean containsKey(long key) {
+		return get(key) != null;
+	}
+
+	/**
+	 * Associates the value with the key.
+	 *
+	 * @return the previous value for the key, or null if there was none.
+	 */
+	@SuppressWarnings("unchecked")
+	public V put(long key, V value) {
+		if (value == null)
+			throw new IllegalArgumentException("Null values are not supported.");
+		if (key == 0) {
+			V result = zeroValue;
+			if (result == null)
+				size++;
+			zeroValue = value;
+			return result;
+		}
+		int idx = LongHashing.mix(key) & mask;
+		while (keys[idx] != 0) {
+			if (keys[idx] == key) {
+				V result = (V) values[idx];
+				values[idx] = value;
+				return result;
+			}
+			idx = (idx + 1) & mask;
+		}
+		keys[idx] = key;
+		values[idx] = value;
+		if (++size > keys.length * LOAD_FACTOR)
+			rehash(keys.length * 2);
+		return null;
+	}
+
+	/**
+	 * Removes the key from the map.
+	 *
+	 * @return the value which was associated with the key, or null.
+	 */
+	@SuppressWarnings("unchecked")
+	public V remove(long key) {
+		if (key == 0) {
+			V result = zeroValue;
+			if (result != null)
+				size--;
+			zeroValue = null;
+			return result;
+		}
+		int idx = LongHashing.mix(key) & mask;
+		while (keys[idx] != 0) {
+			if (keys[idx] == key) {
+				V result = (V) values[idx];
+				shiftBack(idx);
+				size--;
+				return result;
+			}
+			idx = (idx + 1) & mask;
+		}
+		return null;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	public void clear() {
+		if (size > 0) {
+			Arrays.fill(keys, 0);
+			Arrays.fill(values, null);
+			zeroValue = null;
+			size = 0;
+		}
+	}
+
+	private void shiftBack(int gap) {
+		int idx = gap;
+		while (true) {
+			idx = (idx + 1) & mask;
+			long k = keys[idx];
+			if (k == 0)
+				break;
+			int home = LongHashing.mix(k) & mask;
+			// move the entry if its home slot is not in the cyclic range (gap, idx]
+			if (((idx - home) & mask) >= ((idx - gap) & mask)) {
+				keys[gap] = k;
+				values[gap] = values[idx];
+				gap = idx;
+			}
+		}
+		keys[gap] = 0;
+		values[gap] = null;
+	}
+
+	private void rehash(int newCapacity) {
+		long[] oldKeys = keys;
+		Object[] oldValues = values;
+		keys = new long[newCapacity];
+		values = new Object[newCapacity];
+		mask = newCapacity - 1;
+		for (int i = 0; i < oldKeys.length; i++) {
+			long k = oldKeys[i];
+			if (k != 0) {
+				int idx = LongHashing.mix(k) & mask;
+				while (keys[idx] != 0)
+					idx = (idx + 1) & mask;
+				keys[idx] = k;
+				values[idx] = oldValues[i];
+			}
+		}
+	}
+}
@@ -0,0 +1,139 @@
+package aima.core.util.datastructure;
+
+import java.util.Arrays;
+
+/**
+ * Hash set for primitive <code>long</code> values. It uses open addressing
+ * with linear probing and stores the keys in one flat array, so no boxing and
+ * no entry objects are needed. The key 0 is used to mark empty slots and is
+ * handled separately.
+ */
+public class LongHashSet {
+	private static final float LOAD_FACTOR = 0.5f;
+
+	private long[] keys;
+	private int mask;
+	private int size;
+	private boolean containsZero;
+
+	public LongHashSet() {
+		this(16);
+	}
+
+	public LongHashSet(int expectedSize) {
+		int capacity = LongHashing.capacityFor(expectedSize, LOAD_FACTOR);
+		keys = new long[capacity];
+		mask = capacity - 1;
+	}
+
+	/**
+	 * Adds the given key to the set.
+	 *
+	 * @return true if the set did not already contain the key.
+	 */
+	public boolean add(long key) {
+		if (key == 0) {
+			if (containsZero)
+				return false;
+			containsZero = true;
+			size++;
+			return true;
+		}
+		int idx = LongHashing.mix(key) & mask;
+		while (keys[idx] != 0) {
+			if (keys[idx] == key)
+				return false;
+			idx = (idx + 1) & mask;
+		}
+		keys[idx] = key;
+		if (++size > keys.length * LOAD_FACTOR)
+			rehash(keys.length * 2);
+		return true;
+	}
+
+	public boolean contains(long key) {
+		if (key == 0)
+			return containsZero;
+		int idx = LongHashing.mix(key) & mask;
+		long k;
+		while ((k = keys[idx]) != 0) {
+			if (k == key)
+				return true;
+			idx = (idx + 1) & mask;
+		}
+		return false;
+	}
+
+	/**
+	 * Removes the given key from the set. Deletion shifts back subsequent
+	 * entries of the probe sequence, so no tombstones are left behind.
+	 *
+	 * @return true if the set contained the key.
+	 */
+	public boolean remove(long key) {
+		if (key == 0) {
+			if (!containsZero)
+				return false;
+			containsZero = false;
+			size--;
+			return true;
+		}
+		int idx = LongHashing.mix(key) & mask;
+		while (keys[idx] != 0) {
+			if (keys[idx] == key) {
+				shiftBack(idx);
+				size--;
+				return true;
+			}
+			idx = (idx + 1) & mask;
+		}
+		return false;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	public void clear() {
+		if (size > 0) {
+			Arrays.fill(keys, 0);
+			containsZero = false;
+			size = 0;
+		}
+	}
+
+	private void shiftBack(int gap) {
+		int idx = gap;
+		while (true) {
+			idx = (idx + 1) & mask;
+			long k = keys[idx];
+			if (k == 0)
+				break;
+			int home = LongHashing.mix(k) & mask;
+			// move the entry if its home slot is not in the cyclic range (gap, idx]
+			if (((idx - home) & mask) >= ((idx - gap) & mask)) {
+				keys[gap] = k;
+				gap = idx;
+			}
+		}
+		keys[gap] = 0;
+	}
+
+	private void rehash(int newCapacity) {
+		long[] oldKeys = keys;
+		keys = new long[newCapacity];
+		mask = newCapacity - 1;
+		for (long k : oldKeys) {
+			if (k != 0) {
+				int idx = LongHashing.mix(k) & mask;
+				while (keys[idx] != 0)
+					idx = (idx + 1) & mask;
+				keys[idx] = k;
+			}
+		}
+	}
+}
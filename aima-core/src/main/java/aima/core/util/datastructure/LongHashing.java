@@ -0,0 +1,32 @@
+package aima.core.util.datastructure;
+
+/**
+ * Hash function and sizing helpers shared by the open addressing hash tables
+ * for primitive keys.
+ */
+final class LongHashing {
+
+	private LongHashing() {
+	}
+
+	/**
+	 * Scrambles the bits of the key (finalizer of MurmurHash3) so that keys
+	 * which differ only in high bits are spread over the table.
+	 */
+	static int mix(long key) {
+		key ^= key >>> 33;
+		key *= 0xff51afd7ed558ccdL;
+		key ^= key >>> 33;
+		key *= 0xc4ceb9fe1a85ec53L;
+		key ^= key >>> 33;
+		return (int) key;
+	}
+
+	/** Returns a power of two which can hold the expected number of keys. */
+	static int capacityFor(int expectedSize, float loadFactor) {
+		int capacity = 8;
+		while (capacity * loadFactor < expectedSize)
+			capacity <<= 1;
+		return capacity;
+	}
+}
@@ -9,6 +9,7 @@ import aima.core.environment.tictactoe.TicTacToeState;
 import aima.core.search.adversarial.AlphaBetaSearch;
 import aima.core.search.adversarial.IterativeDeepeningAlphaBetaSearch;
 import aima.core.search.adversarial.MinimaxSearch;
+import aima.core.search.adversarial.TranspositionTable;
 import aima.core.util.datastructure.XYLocation;
 
 /**
@@ -173,4 +174,55 @@ public class TicTacToeTest {
 		int expandedNodes = search.getMetrics().getInt(MinimaxSearch.METRICS_NODES_EXPANDED);
 		Assert.assertEquals(76035, expandedNodes);
 	}
+
+	@Test
+	public void testZobristHash() {
+		TicTacToeState state1 = game.getResult(game.getResult(state, new XYLocation(0, 0)), new XYLocation(1, 1));
+		TicTacToeState state2 = game.getResult(game.getResult(state, new XYLocation(1, 1)), new XYLocation(0, 0));
+		Assert.assertNotEquals(state1.getZobristHash(), state2.getZobristHash()); // different marks
+		TicTacToeState state3 = game.getResult(game.getResult(game.getResult(state2, new XYLocation(2, 2)),
+				new XYLocation(1, 0)), new XYLocation(1, 1));
+		TicTacToeState state4 = game.getResult(game.getResult(game.getResult(state, new XYLocation(2, 2)),
+				new XYLocation(0, 0)), new XYLocation(1, 1));
+		TicTacToeState state5 = game.getResult(game.getResult(state4, new XYLocation(1, 0)),
+				new XYLocation(2, 1));
+		state3 = game.getResult(state3, new XYLocation(2, 1));
+		Assert.assertEquals(state3, state5);
+		Assert.assertEquals(state3.getZobristHash(), state5.getZobristHash());
+		String[] board = new String[] { TicTacToeState.X, TicTacToeState.EMPTY, TicTacToeState.EMPTY,
+				TicTacToeState.EMPTY, TicTacToeState.O, TicTacToeState.EMPTY, TicTacToeState.EMPTY,
+				TicTacToeState.EMPTY, TicTacToeState.EMPTY };
+		TicTacToeState state6 = game.getResult(game.getResult(state, new XYLocation(0, 0)), new XYLocation(1, 1));
+		Assert.assertEquals(state6.getZobristHash(), new TicTacToeState(board, TicTacToeState.X).getZobristHash());
+		Assert.assertNotEquals(state6.getZobristHash(), new TicTacToeState(board, TicTacToeState.O).getZobristHash());
+	}
+
+	@Test
+	public void testIterativeDeepeningAlphaBetaWithEnhancements() {
+		IterativeDeepeningAlphaBetaSearch<TicTacToeState, XYLocation, String> search = IterativeDeepeningAlphaBetaSearch
+				.createFor(game, 0.0, 1.0, 100);
+		XYLocation plainDecision = search.makeDecision(state);
+		int plainNodes = search.getMetrics().getInt(MinimaxSearch.METRICS_NODES_EXPANDED);
+		double plainValue = game.getUtility(playOut(search), TicTacToeState.X);
+
+		search.setTranspositionTable(new TranspositionTable<>(1 << 16));
+		search.setKillerMovesEnabled(true);
+		search.setHistoryHeuristicEnabled(true);
+		XYLocation decision = search.makeDecision(state);
+		int nodes = search.getMetrics().getInt(MinimaxSearch.METRICS_NODES_EXPANDED);
+		Assert.assertTrue(nodes < plainNodes / 2);
+		Assert.assertTrue(search.getMetrics().getInt(IterativeDeepeningAlphaBetaSearch.METRICS_TRANSPOSITION_HITS) > 0);
+		Assert.assertNotNull(decision);
+		Assert.assertNotNull(plainDecision);
+		// perfect play ends in a draw
+		Assert.assertEquals(0.5, plainValue, epsilon);
+		Assert.assertEquals(0.5, game.getUtility(playOut(search), TicTacToeState.X), epsilon);
+	}
+
+	private TicTacToeState playOut(IterativeDeepeningAlphaBetaSearch<TicTacToeState, XYLocation, String> search) {
+		TicTacToeState s = state;
+		while (!game.isTerminal(s))
+			s = game.getResult(s, search.makeDecision(s));
+		return s;
+	}
 }
@@ -1,6 +1,7 @@
 package aima.test.core.unit.environment.wumpusworld;
 
 import aima.core.environment.wumpusworld.*;
+import aima.core.logic.propositional.inference.CDCLSatisfiable;
 import aima.core.logic.propositional.inference.DPLL;
 import aima.core.logic.propositional.inference.DPLLSatisfiable;
 import aima.core.logic.propositional.inference.OptimizedDPLL;
@@ -29,19 +30,35 @@ public class WumpusKnowledgeBaseTest {
     public static Collection<Object[]> inferenceAlgorithmSettings() {
         return Arrays.asList(new Object[][] {
         		{new DPLLSatisfiable()}, 
-        		{new OptimizedDPLL()}   
+        		{new OptimizedDPLL()},
+        		{new CDCLSatisfiable()},
+        		{null} // incremental solver of the knowledge base
         });
     }
     
     public WumpusKnowledgeBaseTest(DPLL dpll) {
     	this.dpll = dpll;
     }
+
+	private WumpusKnowledgeBase createKB(int caveXDim, int caveYDim, AgentPosition start) {
+		return dpll != null ? new WumpusKnowledgeBase(caveXDim, caveYDim, start, dpll)
+				: new WumpusKnowledgeBase(caveXDim, caveYDim, start);
+	}
+
+	private WumpusKnowledgeBase createKB(int caveXDim, int caveYDim) {
+		return dpll != null ? new WumpusKnowledgeBase(caveXDim, caveYDim, dpll)
+				: new WumpusKnowledgeBase(caveXDim, caveYDim);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testNullSolverIsRejected() {
+		new WumpusKnowledgeBase(2, 2, new AgentPosition(1, 1, AgentPosition.Orientation.FACING_EAST), null);
+	}
 	
 	@Test
 	public void testAskCurrentPosition() {
 		// Create very small cave in order to make inference for tests faster.
-		WumpusKnowledgeBase KB = new WumpusKnowledgeBase
-				(2, 2, new AgentPosition(1, 1, AgentPosition.Orientation.FACING_EAST), dpll);
+		WumpusKnowledgeBase KB = createKB(2, 2, new AgentPosition(1, 1, AgentPosition.Orientation.FACING_EAST));
 		// NOTE: in the 2x2 cave for this set of assertion tests, 
 		// we are going to have no pits and the wumpus in [2,2]
 		// this needs to be correctly set up in order to keep the KB consistent.
@@ -88,19 +105,19 @@ public class WumpusKnowledgeBaseTest {
 		WumpusKnowledgeBase KB;
 		int t = 0;
 		
-		KB = new WumpusKnowledgeBase(2, 2, new AgentPosition(1, 1, AgentPosition.Orientation.FACING_EAST), dpll);
+		KB = createKB(2, 2, new AgentPosition(1, 1, AgentPosition.Orientation.FACING_EAST));
 		step(KB, new WumpusPercept(), t);
 		Assert.assertEquals(new HashSet<Room>() {{add(new Room(1,1)); add(new Room(1,2)); add(new Room(2, 1));}}, KB.askSafeRooms(t));
 		
-		KB =  new WumpusKnowledgeBase(2, 2, new AgentPosition(1, 1, AgentPosition.Orientation.FACING_EAST), dpll);
+		KB =  createKB(2, 2, new AgentPosition(1, 1, AgentPosition.Orientation.FACING_EAST));
 		step(KB, new WumpusPercept().setStench(), t);
 		Assert.assertEquals(new HashSet<Room>() {{add(new Room(1,1));}}, KB.askSafeRooms(t));
 
-		KB =  new WumpusKnowledgeBase(2, 2, new AgentPosition(1, 1, AgentPosition.Orientation.FACING_EAST), dpll);
+		KB =  createKB(2, 2, new AgentPosition(1, 1, AgentPosition.Orientation.FACING_EAST));
 		step(KB, new WumpusPercept().setBreeze(), t);
 		Assert.assertEquals(new HashSet<Room>() {{add(new Room(1,1));}}, KB.askSafeRooms(t));
 		
-		KB =  new WumpusKnowledgeBase(2, 2, new AgentPosition(1, 1, AgentPosition.Orientation.FACING_EAST), dpll);
+		KB =  createKB(2, 2, new AgentPosition(1, 1, AgentPosition.Orientation.FACING_EAST));
 		step(KB, new WumpusPercept().setStench().setBreeze(), t);
 		Assert.assertEquals(new HashSet<Room>() {{add(new Room(1,1));}}, KB.askSafeRooms(t));
 	}
@@ -108,7 +125,7 @@ public class WumpusKnowledgeBaseTest {
 	@Test
 	public void testAskGlitter() {
 		WumpusKnowledgeBase KB =
-				new WumpusKnowledgeBase(2, 2, new AgentPosition(1, 1, AgentPosition.Orientation.FACING_EAST), dpll);
+				createKB(2, 2, new AgentPosition(1, 1, AgentPosition.Orientation.FACING_EAST));
 		step(KB, new WumpusPercept(), 0);
 		Assert.assertFalse(KB.askGlitter(0));
 		step(KB, new WumpusPercept(), 1);
@@ -125,7 +142,7 @@ public class WumpusKnowledgeBaseTest {
 		WumpusKnowledgeBase KB;
 		int t = 0;
 		
-		KB =  new WumpusKnowledgeBase(2, 2, new AgentPosition(1, 1, AgentPosition.Orientation.FACING_EAST), dpll);
+		KB =  createKB(2, 2, new AgentPosition(1, 1, AgentPosition.Orientation.FACING_EAST));
 		step(KB, new WumpusPercept(), t);
 		Assert.assertEquals(new HashSet<Room>() {{add(new Room(1,2)); add(new Room(2, 1)); add(new Room(2,2));}}, KB.askUnvisitedRooms(t));
 		KB.makeActionSentence(WumpusAction.FORWARD, t); // Move agent to [2,1]
@@ -141,15 +158,15 @@ public class WumpusKnowledgeBaseTest {
 		WumpusKnowledgeBase KB;
 		int t = 0;
 		
-		KB =  new WumpusKnowledgeBase(2, 2, dpll);
+		KB =  createKB(2, 2);
 		step(KB, new WumpusPercept(), t);
 		Assert.assertEquals(new HashSet<Room>() {{add(new Room(2,2));}}, KB.askPossibleWumpusRooms(t));	
 		
-		KB =  new WumpusKnowledgeBase(2, 2, dpll);
+		KB =  createKB(2, 2);
 		step(KB, new WumpusPercept().setStench(), t);
 		Assert.assertEquals(new HashSet<Room>() {{add(new Room(1,2)); add(new Room(2, 1));}}, KB.askPossibleWumpusRooms(t));		
 
-		KB =  new WumpusKnowledgeBase(3, 3, dpll);
+		KB =  createKB(3, 3);
 		step(KB, new WumpusPercept(), t);
 		Assert.assertEquals(new HashSet<Room>() {{add(new Room(1,3)); add(new Room(2,2)); add(new Room(2,3)); add(new Room(3,1)); add(new Room(3,2)); add(new Room(3,3));}}, KB.askPossibleWumpusRooms(t));
 		KB.makeActionSentence(WumpusAction.FORWARD, t); // Move agent to [2,1]
@@ -161,11 +178,11 @@ public class WumpusKnowledgeBaseTest {
 		WumpusKnowledgeBase KB;
 		int t = 0;
 		
-		KB = new WumpusKnowledgeBase(2, 2, dpll);
+		KB = createKB(2, 2);
 		step(KB, new WumpusPercept(), t);
 		Assert.assertEquals(new HashSet<Room>() {{add(new Room(1,1)); add(new Room(1,2)); add(new Room(2,1));}}, KB.askNotUnsafeRooms(t));	
 		
-		KB =  new WumpusKnowledgeBase(2, 2, dpll);
+		KB =  createKB(2, 2);
 		step(KB, new WumpusPercept().setStench(), t);
 		Assert.assertEquals(new HashSet<Room>() {{add(new Room(1,1)); add(new Room(1,2)); add(new Room(2, 1)); add(new Room(2,2));}}, KB.askNotUnsafeRooms(t));		
 	}
@@ -173,8 +190,7 @@ public class WumpusKnowledgeBaseTest {
 	@Test
 	public void testExampleInSection7_2_described_pg268_AIMA3e() {
 		// Make smaller in order to reduce the inference time required, this still covers all the relevant rooms for the example
-		WumpusKnowledgeBase KB = new WumpusKnowledgeBase
-				(3, 3, new AgentPosition(1, 1, AgentPosition.Orientation.FACING_EAST), dpll);
+		WumpusKnowledgeBase KB = createKB(3, 3, new AgentPosition(1, 1, AgentPosition.Orientation.FACING_EAST));
 		int t = 0;
 		// 0
 		step(KB, new WumpusPercept(), t);
@@ -6,6 +6,8 @@ import java.util.Map;
 
 import org.junit.Assert;
 
+import aima.core.logic.fol.domain.FOLDomain;
+import aima.core.logic.fol.inference.FOLFCAsk;
 import aima.core.logic.fol.inference.InferenceProcedure;
 import aima.core.logic.fol.inference.InferenceResult;
 import aima.core.logic.fol.inference.proof.Proof;
@@ -504,4 +506,49 @@ public abstract class CommonFOLInferenceProcedureTests {
 					.getAnswerBindings().size());
 		}
 	}
-}
\ No newline at end of file
+
+	/**
+	 * Asks all Path queries of a chain of 8 constants with one back edge and
+	 * compares the answers with those of {@link FOLFCAsk}. The rule for Path
+	 * is left-recursive.
+	 * 
+	 * @return the knowledge base which uses the specified procedure.
+	 */
+	protected FOLKnowledgeBase testTransitiveClosureAgreesWithFOLFCAsk(
+			InferenceProcedure infp) {
+		int n = 8;
+		FOLKnowledgeBase expected = createTransitiveClosureKnowledgeBase(
+				new FOLFCAsk(), n);
+		FOLKnowledgeBase kb = createTransitiveClosureKnowledgeBase(infp, n);
+		for (int i = 0; i < n; i++) {
+			for (int j = 0; j < n; j++) {
+				String query = "Path(C" + i + ",C" + j + ")";
+				Assert.assertEquals(query, expected.ask(query).isTrue(), kb
+						.ask(query).isTrue());
+			}
+		}
+		return kb;
+	}
+
+	protected FOLKnowledgeBase createTransitiveClosureKnowledgeBase(
+			InferenceProcedure infp, int n) {
+		FOLKnowledgeBase kb = new FOLKnowledgeBase(createPathDomain(n), infp);
+		for (int i = 0; i + 1 < n; i++) {
+			kb.tell("Edge(C" + i + ",C" + (i + 1) + ")");
+		}
+		kb.tell("Edge(C" + (n - 1) + ",C" + (n / 2) + ")");
+		kb.tell("(Edge(x,y) => Path(x,y))");
+		kb.tell("((Path(x,y) AND Edge(y,z)) => Path(x,z))");
+		return kb;
+	}
+
+	protected FOLDomain createPathDomain(int n) {
+		FOLDomain domain = new FOLDomain();
+		for (int i = 0; i < n; i++) {
+			domain.addConstant("C" + i);
+		}
+		domain.addPredicate("Edge");
+		domain.addPredicate("Path");
+		return domain;
+	}
+}
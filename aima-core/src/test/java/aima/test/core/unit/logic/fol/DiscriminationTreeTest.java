@@ -0,0 +1,140 @@
+package aima.test.core.unit.logic.fol;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import aima.core.logic.fol.DiscriminationTree;
+import aima.core.logic.fol.Unifier;
+import aima.core.logic.fol.domain.FOLDomain;
+import aima.core.logic.fol.parsing.FOLParser;
+import aima.core.logic.fol.parsing.ast.Constant;
+import aima.core.logic.fol.parsing.ast.Function;
+import aima.core.logic.fol.parsing.ast.Predicate;
+import aima.core.logic.fol.parsing.ast.Sentence;
+import aima.core.logic.fol.parsing.ast.Term;
+import aima.core.logic.fol.parsing.ast.Variable;
+
+public class DiscriminationTreeTest {
+
+	private FOLParser parser;
+	private DiscriminationTree<String> tree;
+
+	@Before
+	public void setUp() {
+		FOLDomain domain = new FOLDomain();
+		domain.addConstant("A");
+		domain.addConstant("B");
+		domain.addFunction("F");
+		domain.addPredicate("P");
+		domain.addPredicate("Q");
+		parser = new FOLParser(domain);
+		tree = new DiscriminationTree<String>();
+		for (String s : new String[] { "P(A, B)", "P(x, B)", "P(A, F(y))", "P(x, x)", "P(F(A), F(z))", "Q(A)" })
+			tree.add(parse(s), s);
+	}
+
+	@Test
+	public void testRetrieval() {
+		Assert.assertEquals(Arrays.asList("P(A, B)", "P(x, B)", "P(x, x)"), tree.getUnifiable(parse("P(A, B)")));
+		Assert.assertEquals(Arrays.asList("P(A, F(y))", "P(x, x)", "P(F(A), F(z))"),
+				tree.getUnifiable(parse("P(u, F(A))")));
+		Assert.assertEquals(Arrays.asList("P(x, B)", "P(x, x)"), tree.getGeneralizations(parse("P(B, B)")));
+		Assert.assertEquals(Arrays.asList("P(A, B)", "P(x, B)"), tree.getInstances(parse("P(u, B)")));
+		Assert.assertEquals(Arrays.asList("P(x, B)"), tree.getVariants(parse("P(u, B)")));
+		// non-linear variables are not distinguished by the index
+		Assert.assertEquals(Arrays.asList("P(A, F(y))", "P(x, x)"), tree.getGeneralizations(parse("P(A, F(B))")));
+		Assert.assertTrue(tree.getUnifiable(parse("Q(B)")).isEmpty());
+	}
+
+	@Test
+	public void testRemove() {
+		Assert.assertEquals(6, tree.size());
+		Assert.assertTrue(tree.remove(parse("P(A, F(y))"), "P(A, F(y))"));
+		Assert.assertFalse(tree.remove(parse("P(A, F(y))"), "P(A, F(y))"));
+		Assert.assertEquals(5, tree.size());
+		Assert.assertEquals(Arrays.asList("P(x, x)", "P(F(A), F(z))"), tree.getUnifiable(parse("P(u, F(A))")));
+		tree.clear();
+		Assert.assertEquals(0, tree.size());
+		Assert.assertTrue(tree.getUnifiable(parse("P(u, v)")).isEmpty());
+	}
+
+	@Test
+	public void testNoUnifiableTermIsMissed() {
+		Random random = new Random(5);
+		Unifier unifier = new Unifier();
+		DiscriminationTree<Predicate> index = new DiscriminationTree<Predicate>();
+		List<Predicate> stored = new ArrayList<Predicate>();
+		for (int i = 0; i < 200; i++) {
+			Predicate p = randomAtom(random);
+			index.add(p, p);
+			stored.add(p);
+		}
+		for (int i = 0; i < 200; i++) {
+			Predicate query = randomAtom(random);
+			List<Predicate> unifiable = index.getUnifiable(query);
+			List<Predicate> generalizations = index.getGeneralizations(query);
+			List<Predicate> instances = index.getInstances(query);
+			for (Predicate p : stored) {
+				if (unifier.unify(query, rename(p, "s", false)) != null)
+					Assert.assertTrue(unifiable.contains(p));
+				// variables of the query must not be bound
+				if (unifier.unify(rename(p, "s", false), rename(query, "C", true)) != null)
+					Assert.assertTrue(generalizations.contains(p));
+				if (unifier.unify(query, rename(p, "C", true)) != null)
+					Assert.assertTrue(instances.contains(p));
+			}
+			Assert.assertTrue(unifiable.containsAll(generalizations));
+			Assert.assertTrue(unifiable.containsAll(instances));
+		}
+	}
+
+	private Sentence parse(String s) {
+		return parser.parse(s);
+	}
+
+	private Predicate randomAtom(Random random) {
+		List<Term> args = new ArrayList<Term>();
+		for (int i = 0; i < 2; i++)
+			args.add(randomTerm(random, 2));
+		return new Predicate(random.nextBoolean() ? "P" : "Q", args);
+	}
+
+	private Term randomTerm(Random random, int depth) {
+		int r = random.nextInt(depth > 0 ? 4 : 3);
+		if (r == 0)
+			return new Variable(random.nextBoolean() ? "x" : "y");
+		if (r == 1)
+			return new Constant("A");
+		if (r == 2)
+			return new Constant("B");
+		return new Function("F", Arrays.asList(randomTerm(random, depth - 1)));
+	}
+
+	// renames variables or replaces them by constants
+	private Predicate rename(Predicate p, String suffix, boolean toConstant) {
+		List<Term> args = new ArrayList<Term>();
+		for (Term t : p.getArgs())
+			args.add(rename(t, suffix, toConstant));
+		return new Predicate(p.getPredicateName(), args);
+	}
+
+	private Term rename(Term t, String suffix, boolean toConstant) {
+		if (t instanceof Variable) {
+			String name = ((Variable) t).getValue() + suffix;
+			return toConstant ? new Constant(name) : new Variable(name);
+		}
+		if (t instanceof Function) {
+			List<Term> args = new ArrayList<Term>();
+			for (Term arg : t.getArgs())
+				args.add(rename(arg, suffix, toConstant));
+			return new Function(((Function) t).getFunctionName(), args);
+		}
+		return t;
+	}
+}
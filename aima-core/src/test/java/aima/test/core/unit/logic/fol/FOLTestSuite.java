@@ -3,12 +3,14 @@ package aima.test.core.unit.logic.fol;
 import org.junit.runner.RunWith;
 import org.junit.runners.Suite;
 
+import aima.test.core.unit.logic.fol.flat.TrailUnifierTest;
 import aima.test.core.unit.logic.fol.inference.DemodulationTest;
 import aima.test.core.unit.logic.fol.inference.FOLBCAskTest;
 import aima.test.core.unit.logic.fol.inference.FOLFCAskTest;
 import aima.test.core.unit.logic.fol.inference.FOLModelEliminationTest;
 import aima.test.core.unit.logic.fol.inference.FOLOTTERLikeTheoremProverTest;
 import aima.test.core.unit.logic.fol.inference.FOLTFMResolutionTest;
+import aima.test.core.unit.logic.fol.inference.FOLSemiNaiveFCAskTest;
 import aima.test.core.unit.logic.fol.inference.ParamodulationTest;
 import aima.test.core.unit.logic.fol.kb.FOLKnowledgeBaseTest;
 import aima.test.core.unit.logic.fol.kb.data.ChainTest;
@@ -19,11 +21,12 @@ import aima.test.core.unit.logic.fol.parsing.FOLParserTest;
 @RunWith(Suite.class)
 @Suite.SuiteClasses({ DemodulationTest.class, FOLBCAskTest.class,
 		FOLFCAskTest.class, FOLModelEliminationTest.class,
-		FOLOTTERLikeTheoremProverTest.class, FOLTFMResolutionTest.class,
+		FOLOTTERLikeTheoremProverTest.class, FOLSemiNaiveFCAskTest.class,
+		FOLTFMResolutionTest.class, FeatureVectorIndexTest.class,
 		ParamodulationTest.class, ChainTest.class, ClauseTest.class,
 		FOLKnowledgeBaseTest.class, FOLLexerTest.class, FOLParserTest.class,
-		CNFConverterTest.class, PredicateCollectorTest.class,
-		SubstVisitorTest.class, SubsumptionEliminationTest.class,
+		CNFConverterTest.class, DiscriminationTreeTest.class, PredicateCollectorTest.class,
+		SubstVisitorTest.class, SubsumptionEliminationTest.class, TrailUnifierTest.class,
 		UnifierTest.class, VariableCollectorTest.class })
 public class FOLTestSuite {
 
@@ -0,0 +1,136 @@
+package aima.test.core.unit.logic.fol;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import aima.core.logic.fol.FeatureVectorIndex;
+import aima.core.logic.fol.domain.FOLDomain;
+import aima.core.logic.fol.kb.data.Clause;
+import aima.core.logic.fol.kb.data.Literal;
+import aima.core.logic.fol.parsing.FOLParser;
+import aima.core.logic.fol.parsing.ast.AtomicSentence;
+import aima.core.logic.fol.parsing.ast.Constant;
+import aima.core.logic.fol.parsing.ast.Function;
+import aima.core.logic.fol.parsing.ast.Predicate;
+import aima.core.logic.fol.parsing.ast.Term;
+import aima.core.logic.fol.parsing.ast.Variable;
+
+public class FeatureVectorIndexTest {
+
+	private FOLParser parser;
+	private FeatureVectorIndex index;
+
+	@Before
+	public void setUp() {
+		FOLDomain domain = new FOLDomain();
+		domain.addConstant("A");
+		domain.addConstant("B");
+		domain.addFunction("F");
+		domain.addPredicate("P");
+		domain.addPredicate("Q");
+		domain.addPredicate("R");
+		parser = new FOLParser(domain);
+		index = new FeatureVectorIndex();
+	}
+
+	@Test
+	public void testRetrieval() {
+		Clause c1 = clause("P(x)");
+		Clause c2 = clause("P(A)", "Q(y)");
+		Clause c3 = clause("P(F(A))", "Q(B)", "~R(A)");
+		Clause c4 = clause("Q(x)", "~R(x)");
+		for (Clause c : new Clause[] { c1, c2, c3, c4 })
+			Assert.assertTrue(index.add(c));
+		// variants are stored only once
+		Assert.assertFalse(index.add(clause("P(z)")));
+		Assert.assertEquals(4, index.size());
+
+		// a clause is a candidate for itself
+		Assert.assertEquals(Arrays.asList(c1, c2), index.getSubsumingCandidates(c2));
+		Assert.assertTrue(index.getSubsumingCandidates(c3).containsAll(Arrays.asList(c1, c2, c4)));
+		Assert.assertEquals(Arrays.asList(c4, c3), index.getSubsumedCandidates(c4));
+		Assert.assertTrue(index.getSubsumedCandidates(c1).containsAll(Arrays.asList(c2, c3)));
+		// no stored clause has two negative literals
+		Assert.assertTrue(index.getSubsumedCandidates(clause("~P(x)", "~Q(x)")).isEmpty());
+	}
+
+	@Test
+	public void testRemove() {
+		Clause c1 = clause("P(x)");
+		Clause c2 = clause("P(A)", "Q(y)");
+		index.add(c1);
+		index.add(c2);
+		Assert.assertFalse(index.remove(clause("Q(x)")));
+		Assert.assertTrue(index.remove(clause("P(A)", "Q(z)")));
+		Assert.assertFalse(index.remove(c2));
+		Assert.assertEquals(1, index.size());
+		Assert.assertEquals(Arrays.asList(c1), index.getSubsumedCandidates(c1));
+		index.clear();
+		Assert.assertEquals(0, index.size());
+		Assert.assertTrue(index.getSubsumingCandidates(c2).isEmpty());
+	}
+
+	@Test
+	public void testCandidatesContainAllSubsumingClauses() {
+		Random random = new Random(42);
+		List<Clause> clauses = new ArrayList<Clause>();
+		for (int i = 0; i < 200; i++) {
+			Clause c = randomClause(random);
+			if (index.add(c))
+				clauses.add(c);
+		}
+		int subsumptions = 0;
+		for (Clause c1 : clauses) {
+			List<Clause> subsumed = index.getSubsumedCandidates(c1);
+			for (Clause c2 : clauses) {
+				if (c1.subsumes(c2)) {
+					subsumptions++;
+					Assert.assertTrue(c1 + " / " + c2, subsumed.contains(c2));
+					Assert.assertTrue(c1 + " / " + c2, index.getSubsumingCandidates(c2).contains(c1));
+				}
+			}
+		}
+		Assert.assertTrue(subsumptions > 0);
+	}
+
+	private Clause randomClause(Random random) {
+		String[] predicates = { "P", "Q", "R" };
+		Clause result = new Clause();
+		int size = 1 + random.nextInt(3);
+		for (int i = 0; i < size; i++) {
+			AtomicSentence atom = new Predicate(predicates[random.nextInt(predicates.length)],
+					Arrays.asList(randomTerm(random, 1)));
+			result.addLiteral(new Literal(atom, random.nextInt(4) == 0));
+		}
+		return result;
+	}
+
+	private Term randomTerm(Random random, int depth) {
+		switch (random.nextInt(depth > 0 ? 4 : 3)) {
+		case 0:
+			return new Variable("x");
+		case 1:
+			return new Variable("y");
+		case 2:
+			return new Constant(random.nextBoolean() ? "A" : "B");
+		default:
+			return new Function("F", Arrays.asList(randomTerm(random, depth - 1)));
+		}
+	}
+
+	private Clause clause(String... literals) {
+		Clause result = new Clause();
+		for (String l : literals) {
+			boolean negated = l.startsWith("~");
+			AtomicSentence atom = (AtomicSentence) parser.parse(negated ? l.substring(1) : l);
+			result.addLiteral(new Literal(atom, negated));
+		}
+		return result;
+	}
+}
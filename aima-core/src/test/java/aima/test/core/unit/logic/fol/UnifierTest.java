@@ -1,6 +1,8 @@
 package aima.test.core.unit.logic.fol;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Hashtable;
 import java.util.List;
 import java.util.Map;
@@ -8,7 +10,11 @@ import java.util.Map;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameters;
 
+import aima.core.logic.fol.InternedUnifier;
 import aima.core.logic.fol.Unifier;
 import aima.core.logic.fol.domain.DomainFactory;
 import aima.core.logic.fol.domain.FOLDomain;
@@ -25,16 +31,27 @@ import aima.core.logic.fol.parsing.ast.Variable;
  * @author Ravi Mohan
  * @author Ciaran O'Reilly
  */
+@RunWith(Parameterized.class)
 public class UnifierTest {
 
 	private FOLParser parser;
 	private Unifier unifier;
 	private Map<Variable, Term> theta;
+	private final boolean interned;
+
+	@Parameters(name = "{index}: interned={0}")
+	public static Collection<Object[]> unifierSettings() {
+		return Arrays.asList(new Object[][] { { false }, { true } });
+	}
+
+	public UnifierTest(boolean interned) {
+		this.interned = interned;
+	}
 
 	@Before
 	public void setUp() {
 		parser = new FOLParser(DomainFactory.knowsDomain());
-		unifier = new Unifier();
+		unifier = interned ? new InternedUnifier() : new Unifier();
 		theta = new Hashtable<Variable, Term>();
 	}
 
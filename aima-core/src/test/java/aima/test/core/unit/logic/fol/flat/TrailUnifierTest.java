@@ -0,0 +1,115 @@
+package aima.test.core.unit.logic.fol.flat;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import aima.core.logic.fol.domain.FOLDomain;
+import aima.core.logic.fol.flat.FOLSymbolTable;
+import aima.core.logic.fol.flat.FlatTerm;
+import aima.core.logic.fol.flat.FlatTermEncoder;
+import aima.core.logic.fol.flat.TrailUnifier;
+import aima.core.logic.fol.parsing.FOLParser;
+import aima.core.logic.fol.parsing.ast.Variable;
+
+public class TrailUnifierTest {
+
+	private FOLParser parser;
+	private FlatTermEncoder encoder;
+	private TrailUnifier unifier;
+
+	@Before
+	public void setUp() {
+		FOLDomain domain = new FOLDomain();
+		domain.addConstant("A");
+		domain.addConstant("B");
+		domain.addFunction("F");
+		domain.addFunction("G");
+		domain.addPredicate("P");
+		parser = new FOLParser(domain);
+		encoder = new FlatTermEncoder(new FOLSymbolTable());
+		unifier = new TrailUnifier();
+	}
+
+	@Test
+	public void testEncodeDecode() {
+		FlatTerm t1 = encode("P(F(x,A),G(y),x)");
+		Assert.assertEquals(7, t1.size());
+		Assert.assertTrue(t1.isVariable(2));
+		Assert.assertEquals(0, t1.getVariable(2));
+		Assert.assertEquals(4, t1.getEnd(1));
+		Assert.assertEquals(t1.getCell(2), t1.getCell(6));
+		Assert.assertEquals("P(F(x,A),G(y),x)", encoder.decode(t1).toString());
+		// same symbols and variables give equal terms
+		Assert.assertEquals(t1, encode("P(F(x,A),G(y),x)"));
+		Assert.assertNotEquals(t1, encode("P(F(y,A),G(x),y)"));
+	}
+
+	@Test
+	public void testSymbolsWithDifferentArity() {
+		FOLSymbolTable symbols = encoder.getSymbolTable();
+		int f1 = symbols.getId(FOLSymbolTable.Kind.FUNCTION, "F", 1);
+		int f2 = symbols.getId(FOLSymbolTable.Kind.FUNCTION, "F", 2);
+		Assert.assertNotEquals(f1, f2);
+		Assert.assertEquals(f2, symbols.getId(FOLSymbolTable.Kind.FUNCTION, "F", 2));
+		Assert.assertEquals(2, symbols.getArity(f2));
+		Assert.assertEquals("F", symbols.getName(f1));
+	}
+
+	@Test
+	public void testUnifyAndResolve() {
+		FlatTerm t1 = encode("P(F(x,A),y)");
+		FlatTerm t2 = encode("P(F(B,z),G(z))");
+		Assert.assertTrue(unifier.unify(t1, t2));
+		Assert.assertEquals("P(F(B,A),G(A))", encoder.decode(unifier.resolve(t1, 0)).toString());
+		Assert.assertEquals("P(F(B,A),G(A))", encoder.decode(unifier.resolve(t2, 0)).toString());
+		// bindings are triangular, y is bound to G(z)
+		int y = encoder.getVariableNumber(new Variable("y"));
+		Assert.assertEquals("G(z)", encoder.decodeTerm(unifier.getBindingTerm(y), unifier.getBindingPosition(y))
+				.toString());
+	}
+
+	@Test
+	public void testMarkAndUndo() {
+		FlatTerm t1 = encode("P(x,y)");
+		int mark = unifier.mark();
+		Assert.assertTrue(unifier.unify(t1, encode("P(A,B)")));
+		Assert.assertEquals(2, unifier.getTrailSize());
+		int inner = unifier.mark();
+		// conflicts with the current bindings and leaves them unchanged
+		Assert.assertFalse(unifier.unify(t1, encode("P(A,A)")));
+		Assert.assertEquals(inner, unifier.getTrailSize());
+		unifier.undo(mark);
+		Assert.assertEquals(0, unifier.getTrailSize());
+		Assert.assertFalse(unifier.isBound(encoder.getVariableNumber(new Variable("x"))));
+		Assert.assertTrue(unifier.unify(t1, encode("P(A,A)")));
+		Assert.assertEquals("P(A,A)", encoder.decode(unifier.resolve(t1, 0)).toString());
+	}
+
+	@Test
+	public void testFailedUnificationUndoesPartialBindings() {
+		Assert.assertFalse(unifier.unify(encode("P(x,y,A)"), encode("P(A,B,B)")));
+		Assert.assertEquals(0, unifier.getTrailSize());
+	}
+
+	@Test
+	public void testOccurCheck() {
+		FlatTerm t1 = encode("P(x,F(x,A))");
+		FlatTerm t2 = encode("P(G(y),y)");
+		Assert.assertFalse(unifier.unify(t1, t2));
+		unifier.setOccurCheck(false);
+		Assert.assertTrue(unifier.unify(t1, t2));
+	}
+
+	@Test
+	public void testVariableChains() {
+		FlatTerm t1 = encode("P(x,y,z,x)");
+		FlatTerm t2 = encode("P(y,z,x,F(A,B))");
+		Assert.assertTrue(unifier.unify(t1, t2));
+		Assert.assertEquals("P(F(A,B),F(A,B),F(A,B),F(A,B))", encoder.decode(unifier.resolve(t1, 0)).toString());
+	}
+
+	private FlatTerm encode(String atom) {
+		return encoder.encode(parser.parse(atom));
+	}
+}
@@ -1,8 +1,12 @@
 package aima.test.core.unit.logic.fol.inference;
 
+import org.junit.Assert;
 import org.junit.Test;
 
 import aima.core.logic.fol.inference.FOLBCAsk;
+import aima.core.logic.fol.inference.InferenceResult;
+import aima.core.logic.fol.kb.FOLKnowledgeBase;
+import aima.core.util.SearchBudget;
 import aima.test.core.unit.logic.fol.CommonFOLInferenceProcedureTests;
 
 /**
@@ -40,4 +44,60 @@ public class FOLBCAskTest extends CommonFOLInferenceProcedureTests {
 	public void testDefiniteClauseKBWeaponsQueryCriminalXReturnsWestSucceeds() {
 		testDefiniteClauseKBWeaponsQueryCriminalXReturnsWestSucceeds(new FOLBCAsk());
 	}
-}
\ No newline at end of file
+
+	@Test
+	public void testTabledDefiniteClauseKBs() {
+		testDefiniteClauseKBKingsQueryCriminalXFalse(new FOLBCAsk(true));
+		testDefiniteClauseKBKingsQueryRichardEvilFalse(new FOLBCAsk(true));
+		testDefiniteClauseKBKingsQueryJohnEvilSucceeds(new FOLBCAsk(true));
+		testDefiniteClauseKBKingsQueryEvilXReturnsJohnSucceeds(new FOLBCAsk(true));
+		testDefiniteClauseKBKingsQueryKingXReturnsJohnAndRichardSucceeds(new FOLBCAsk(true));
+		testDefiniteClauseKBWeaponsQueryCriminalXReturnsWestSucceeds(new FOLBCAsk(true));
+	}
+
+	@Test
+	public void testTabledLeftRecursion() {
+		FOLKnowledgeBase kb = testTransitiveClosureAgreesWithFOLFCAsk(new FOLBCAsk(true));
+		InferenceResult answer = kb.ask("Path(x,C2)");
+		Assert.assertEquals(2, answer.getProofs().size());
+
+		// Without tabling, the left-recursive rule is expanded until the
+		// budget is exhausted.
+		String[] queries = { "Path(C0,C2)", "Path(C5,C2)" };
+		for (int i = 0; i < queries.length; i++) {
+			FOLBCAsk bc = new FOLBCAsk();
+			bc.setBudget(new SearchBudget().setNodeLimit(2000));
+			answer = createTransitiveClosureKnowledgeBase(bc, 8).ask(queries[i]);
+			Assert.assertTrue(answer.isUnknownDueToTimeout() || answer.isPartialResultDueToTimeout());
+
+			bc = new FOLBCAsk(true);
+			bc.setBudget(new SearchBudget().setNodeLimit(2000));
+			answer = createTransitiveClosureKnowledgeBase(bc, 8).ask(queries[i]);
+			Assert.assertFalse(answer.isUnknownDueToTimeout());
+			Assert.assertFalse(answer.isPartialResultDueToTimeout());
+			Assert.assertEquals(0 == i, answer.isTrue());
+		}
+	}
+
+	@Test
+	public void testTablesReusedUntilTell() {
+		FOLBCAsk bc = new FOLBCAsk(true);
+		SearchBudget budget = new SearchBudget();
+		bc.setBudget(budget);
+		FOLKnowledgeBase kb = new FOLKnowledgeBase(createPathDomain(4), bc);
+		kb.tell("Edge(C0,C1)");
+		kb.tell("Edge(C1,C2)");
+		kb.tell("(Edge(x,y) => Path(x,y))");
+		kb.tell("((Path(x,y) AND Edge(y,z)) => Path(x,z))");
+		Assert.assertTrue(kb.ask("Path(C0,C2)").isTrue());
+		Assert.assertFalse(kb.ask("Path(C0,C3)").isTrue());
+
+		// answered from the complete table of Path(C0,C3)
+		long nodes = budget.getNodes();
+		Assert.assertFalse(kb.ask("Path(C0,C3)").isTrue());
+		Assert.assertEquals(nodes + 1, budget.getNodes());
+
+		kb.tell("Edge(C2,C3)");
+		Assert.assertTrue(kb.ask("Path(C0,C3)").isTrue());
+	}
+}
@@ -1,20 +1,26 @@
 package aima.test.core.unit.logic.fol.inference;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
 import java.util.List;
 
 import org.junit.Assert;
 import org.junit.Test;
 
 import aima.core.logic.fol.CNFConverter;
+import aima.core.logic.fol.InternedUnifier;
 import aima.core.logic.fol.domain.FOLDomain;
 import aima.core.logic.fol.inference.FOLOTTERLikeTheoremProver;
 import aima.core.logic.fol.inference.InferenceResult;
+import aima.core.logic.fol.inference.otter.defaultimpl.AgeWeightClauseHeuristic;
 import aima.core.logic.fol.inference.otter.defaultimpl.DefaultClauseSimplifier;
+import aima.core.logic.fol.inference.otter.defaultimpl.DefaultLightestClauseHeuristic;
 import aima.core.logic.fol.kb.FOLKnowledgeBase;
 import aima.core.logic.fol.kb.data.CNF;
 import aima.core.logic.fol.kb.data.Clause;
 import aima.core.logic.fol.parsing.FOLParser;
+import aima.core.logic.fol.parsing.ast.AtomicSentence;
 import aima.core.logic.fol.parsing.ast.Sentence;
 import aima.core.logic.fol.parsing.ast.TermEquality;
 import aima.test.core.unit.logic.fol.CommonFOLInferenceProcedureTests;
@@ -153,6 +159,87 @@ public class FOLOTTERLikeTheoremProverTest extends
 				false));
 	}
 
+	@Test
+	public void testInternedUnifierWeaponsQueryCriminalXReturnsWestSucceeds() {
+		FOLOTTERLikeTheoremProver prover = new FOLOTTERLikeTheoremProver(false);
+		prover.setUnifier(new InternedUnifier());
+		testDefiniteClauseKBWeaponsQueryCriminalXReturnsWestSucceeds(prover);
+	}
+
+	@Test
+	public void testInternedUnifierLovesAnimalQueryNotKillsJackTunaSucceeds() {
+		FOLOTTERLikeTheoremProver prover = new FOLOTTERLikeTheoremProver(false);
+		prover.setUnifier(new InternedUnifier());
+		testFullFOLKBLovesAnimalQueryNotKillsJackTunaSucceeds(prover, false);
+	}
+
+	@Test
+	public void testAgeWeightClauseHeuristic() {
+		FOLDomain domain = new FOLDomain();
+		domain.addConstant("A");
+		domain.addConstant("B");
+		domain.addFunction("F");
+		domain.addPredicate("P");
+		domain.addPredicate("Q");
+		FOLParser parser = new FOLParser(domain);
+		Clause heavy = new Clause();
+		heavy.addPositiveLiteral((AtomicSentence) parser.parse("P(A)"));
+		heavy.addPositiveLiteral((AtomicSentence) parser.parse("Q(B)"));
+		Clause light1 = new Clause();
+		light1.addPositiveLiteral((AtomicSentence) parser.parse("P(A)"));
+		Clause light2 = new Clause();
+		light2.addPositiveLiteral((AtomicSentence) parser.parse("P(F(A))"));
+		Clause light3 = new Clause();
+		light3.addPositiveLiteral((AtomicSentence) parser.parse("P(F(F(A)))"));
+
+		AgeWeightClauseHeuristic heuristic = new AgeWeightClauseHeuristic(1);
+		heuristic.initialSOS(new LinkedHashSet<Clause>(Arrays.asList(heavy, light1, light2)));
+		heuristic.addedClauseToSOS(light3);
+		// one clause by weight, one by age
+		Clause[] expected = { light1, heavy, light2, light3 };
+		for (Clause e : expected) {
+			Clause c = heuristic.getLightestClause();
+			Assert.assertSame(e, c);
+			heuristic.removedClauseFromSOS(c);
+		}
+		Assert.assertNull(heuristic.getLightestClause());
+	}
+
+	@Test
+	public void testAgeWeightClauseHeuristicQueries() {
+		FOLOTTERLikeTheoremProver prover = new FOLOTTERLikeTheoremProver(false);
+		prover.setLightestClauseHeuristic(new AgeWeightClauseHeuristic());
+		testDefiniteClauseKBWeaponsQueryCriminalXReturnsWestSucceeds(prover);
+		testFullFOLKBLovesAnimalQueryNotKillsJackTunaSucceeds(prover, false);
+		prover.setUseParamodulation(true);
+		testEqualityNoAxiomsKBabcAEqualsCSucceeds(prover, false);
+	}
+
+	@Test
+	public void testParallelInferenceSelectsSameClauses() {
+		int n = 12;
+		int[] selected = new int[2];
+		for (int run = 0; run < 2; run++) {
+			final int r = run;
+			FOLOTTERLikeTheoremProver prover = new FOLOTTERLikeTheoremProver(false);
+			prover.setParallelInference(run == 1);
+			prover.setLightestClauseHeuristic(new DefaultLightestClauseHeuristic() {
+				@Override
+				public Clause getLightestClause() {
+					selected[r]++;
+					return super.getLightestClause();
+				}
+			});
+			FOLKnowledgeBase kb = createTransitiveClosureKnowledgeBase(prover, n);
+			Assert.assertTrue(kb.ask("Path(C0, C" + (n - 1) + ")").isTrue());
+		}
+		Assert.assertEquals(selected[0], selected[1]);
+		// paramodulation with all usable clauses
+		FOLOTTERLikeTheoremProver prover = new FOLOTTERLikeTheoremProver(true);
+		prover.setParallelInference(true);
+		testEqualityAndSubstitutionNoAxiomsKBabcdPDSucceeds(prover, false);
+	}
+
 	@Test
 	public void testHornClauseKBRingOfThievesQuerySkisXReturnsNancyRedBertDrew() {
 		// This KB ends up being infinite when resolving, however 2
@@ -0,0 +1,131 @@
+package aima.test.core.unit.logic.fol.inference;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import aima.core.logic.fol.domain.DomainFactory;
+import aima.core.logic.fol.domain.FOLDomain;
+import aima.core.logic.fol.inference.FOLSemiNaiveFCAsk;
+import aima.core.logic.fol.inference.InferenceResult;
+import aima.core.logic.fol.inference.proof.ProofStep;
+import aima.core.logic.fol.kb.FOLKnowledgeBase;
+import aima.core.logic.fol.kb.FOLKnowledgeBaseFactory;
+import aima.core.logic.fol.parsing.ast.Constant;
+import aima.core.logic.fol.parsing.ast.Variable;
+import aima.test.core.unit.logic.fol.CommonFOLInferenceProcedureTests;
+
+public class FOLSemiNaiveFCAskTest extends CommonFOLInferenceProcedureTests {
+
+	@Test
+	public void testDefiniteClauseKBKingsQueryCriminalXFalse() {
+		testDefiniteClauseKBKingsQueryCriminalXFalse(new FOLSemiNaiveFCAsk());
+	}
+
+	@Test
+	public void testDefiniteClauseKBKingsQueryRichardEvilFalse() {
+		testDefiniteClauseKBKingsQueryRichardEvilFalse(new FOLSemiNaiveFCAsk());
+	}
+
+	@Test
+	public void testDefiniteClauseKBKingsQueryJohnEvilSucceeds() {
+		testDefiniteClauseKBKingsQueryJohnEvilSucceeds(new FOLSemiNaiveFCAsk());
+	}
+
+	@Test
+	public void testDefiniteClauseKBKingsQueryEvilXReturnsJohnSucceeds() {
+		testDefiniteClauseKBKingsQueryEvilXReturnsJohnSucceeds(new FOLSemiNaiveFCAsk());
+	}
+
+	@Test
+	public void testDefiniteClauseKBKingsQueryKingXReturnsJohnAndRichardSucceeds() {
+		testDefiniteClauseKBKingsQueryKingXReturnsJohnAndRichardSucceeds(new FOLSemiNaiveFCAsk());
+	}
+
+	@Test
+	public void testDefiniteClauseKBWeaponsQueryCriminalXReturnsWestSucceeds() {
+		testDefiniteClauseKBWeaponsQueryCriminalXReturnsWestSucceeds(new FOLSemiNaiveFCAsk());
+	}
+
+	@Test
+	public void testProofContainsPremiseSteps() {
+		FOLKnowledgeBase wkb = FOLKnowledgeBaseFactory
+				.createWeaponsKnowledgeBase(new FOLSemiNaiveFCAsk());
+		InferenceResult answer = wkb.ask("Criminal(x)");
+		Assert.assertEquals(1, answer.getProofs().size());
+		// Weapon(M1), Sells(West,M1,Nono) and Hostile(Nono) are derived
+		ProofStep step = answer.getProofs().get(0).getSteps()
+				.get(answer.getProofs().get(0).getSteps().size() - 1);
+		Assert.assertEquals(3, step.getPredecessorSteps().size());
+		Assert.assertEquals(4, answer.getProofs().get(0).getSteps().size());
+	}
+
+	@Test
+	public void testIncrementalTell() {
+		FOLSemiNaiveFCAsk fc = new FOLSemiNaiveFCAsk();
+		FOLDomain domain = DomainFactory.kingsDomain();
+		domain.addPredicate("Dangerous");
+		FOLKnowledgeBase kkb = new FOLKnowledgeBase(domain, fc);
+		kkb.tell("((King(x) AND Greedy(x)) => Evil(x))");
+		kkb.tell("King(John)");
+		kkb.tell("King(Richard)");
+		kkb.tell("Greedy(John)");
+		Assert.assertFalse(kkb.ask("Evil(Richard)").isTrue());
+		// King(John), King(Richard), Greedy(John), Evil(John)
+		Assert.assertEquals(4, fc.getNumberKnownFacts());
+
+		kkb.tell("Greedy(Richard)");
+		InferenceResult answer = kkb.ask("Evil(x)");
+		Assert.assertTrue(answer.isTrue());
+		Assert.assertEquals(2, answer.getProofs().size());
+		Assert.assertEquals(new Constant("John"), answer.getProofs().get(0)
+				.getAnswerBindings().get(new Variable("x")));
+		Assert.assertEquals(new Constant("Richard"), answer.getProofs().get(1)
+				.getAnswerBindings().get(new Variable("x")));
+		Assert.assertEquals(6, fc.getNumberKnownFacts());
+
+		// New rules are applied to the facts derived before
+		kkb.tell("(Evil(x) => Dangerous(x))");
+		Assert.assertTrue(kkb.ask("Dangerous(Richard)").isTrue());
+
+		kkb.clear();
+		kkb.tell("King(John)");
+		Assert.assertFalse(kkb.ask("Evil(John)").isTrue());
+		Assert.assertEquals(1, fc.getNumberKnownFacts());
+	}
+
+	@Test
+	public void testInfiniteClosure() {
+		FOLDomain domain = new FOLDomain();
+		domain.addConstant("Zero");
+		domain.addPredicate("Nat");
+		domain.addFunction("S");
+		FOLKnowledgeBase kb = new FOLKnowledgeBase(domain,
+				new FOLSemiNaiveFCAsk());
+		kb.tell("Nat(Zero)");
+		kb.tell("(Nat(x) => Nat(S(x)))");
+
+		Assert.assertTrue(kb.ask("Nat(S(S(S(Zero))))").isTrue());
+		Assert.assertTrue(kb.ask("Nat(S(Zero))").isTrue());
+		Assert.assertTrue(kb.ask("Nat(S(S(S(S(Zero)))))").isTrue());
+	}
+
+	@Test
+	public void testFactMatchingSeveralPremises() {
+		FOLKnowledgeBase kb = new FOLKnowledgeBase(createPathDomain(2),
+				new FOLSemiNaiveFCAsk());
+		kb.tell("((Edge(x,y) AND Edge(y,z)) => Path(x,z))");
+		kb.tell("Edge(C0,C0)");
+		kb.tell("Edge(C0,C1)");
+		// Path(C0,C0) needs Edge(C0,C0) for both premises
+		InferenceResult answer = kb.ask("Path(C0,x)");
+		Assert.assertEquals(2, answer.getProofs().size());
+		Assert.assertTrue(kb.ask("Path(C0,C0)").isTrue());
+		Assert.assertTrue(kb.ask("Path(C0,C1)").isTrue());
+		Assert.assertFalse(kb.ask("Path(C1,x)").isTrue());
+	}
+
+	@Test
+	public void testTransitiveClosureAsFOLFCAsk() {
+		testTransitiveClosureAgreesWithFOLFCAsk(new FOLSemiNaiveFCAsk());
+	}
+}
@@ -1,8 +1,10 @@
 package aima.test.core.unit.logic.fol.kb.data;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Random;
 import java.util.Set;
 
 import org.junit.Assert;
@@ -13,6 +15,7 @@ import aima.core.logic.fol.CNFConverter;
 import aima.core.logic.fol.StandardizeApartIndexicalFactory;
 import aima.core.logic.fol.domain.DomainFactory;
 import aima.core.logic.fol.domain.FOLDomain;
+import aima.core.logic.fol.inference.otter.defaultimpl.DefaultLightestClauseHeuristic;
 import aima.core.logic.fol.kb.FOLKnowledgeBase;
 import aima.core.logic.fol.kb.data.CNF;
 import aima.core.logic.fol.kb.data.Clause;
@@ -573,6 +576,121 @@ public class ClauseTest {
 		Assert.assertTrue(c1.equals(c2));
 	}
 
+	@Test
+	public void testVariantEquals() {
+		FOLDomain domain = new FOLDomain();
+		domain.addConstant("A");
+		domain.addPredicate("P");
+		domain.addFunction("F");
+
+		FOLParser parser = new FOLParser(domain);
+
+		// Literals with equal shape have to be permuted
+		Clause c1 = new Clause();
+		c1.addPositiveLiteral((AtomicSentence) parser.parse("P(x,y)"));
+		c1.addPositiveLiteral((AtomicSentence) parser.parse("P(y,z)"));
+		Clause c2 = new Clause();
+		c2.addPositiveLiteral((AtomicSentence) parser.parse("P(u,v)"));
+		c2.addPositiveLiteral((AtomicSentence) parser.parse("P(w,u)"));
+		Assert.assertEquals(c1.hashCode(), c2.hashCode());
+		Assert.assertTrue(c1.equals(c2));
+		Assert.assertTrue(c2.equals(c1));
+		Assert.assertEquals(0, c1.compareVariablePatterns(c2));
+
+		// Same hash code, but no variant (cycle vs. chain)
+		c1 = new Clause();
+		c1.addPositiveLiteral((AtomicSentence) parser.parse("P(x,y)"));
+		c1.addPositiveLiteral((AtomicSentence) parser.parse("P(y,x)"));
+		c2 = new Clause();
+		c2.addPositiveLiteral((AtomicSentence) parser.parse("P(x,y)"));
+		c2.addPositiveLiteral((AtomicSentence) parser.parse("P(z,x)"));
+		Assert.assertEquals(c1.hashCode(), c2.hashCode());
+		Assert.assertFalse(c1.equals(c2));
+		Assert.assertFalse(c2.equals(c1));
+		int rVal = c1.compareVariablePatterns(c2);
+		Assert.assertNotEquals(0, rVal);
+		Assert.assertEquals(-rVal, c2.compareVariablePatterns(c1));
+		// independent of variable names
+		Clause c3 = new Clause();
+		c3.addPositiveLiteral((AtomicSentence) parser.parse("P(v,u)"));
+		c3.addPositiveLiteral((AtomicSentence) parser.parse("P(w,v)"));
+		Assert.assertEquals(rVal, c1.compareVariablePatterns(c3));
+
+		// Variables must be renamed consistently
+		c1 = new Clause();
+		c1.addPositiveLiteral((AtomicSentence) parser.parse("P(x,F(x))"));
+		c1.addNegativeLiteral((AtomicSentence) parser.parse("P(A,y)"));
+		c2 = new Clause();
+		c2.addNegativeLiteral((AtomicSentence) parser.parse("P(A,y)"));
+		c2.addPositiveLiteral((AtomicSentence) parser.parse("P(y,F(y))"));
+		Assert.assertFalse(c1.equals(c2));
+		c2 = new Clause();
+		c2.addNegativeLiteral((AtomicSentence) parser.parse("P(A,x)"));
+		c2.addPositiveLiteral((AtomicSentence) parser.parse("P(y,F(y))"));
+		Assert.assertTrue(c1.equals(c2));
+		Assert.assertEquals(7, c1.getWeight());
+	}
+
+	@Test
+	public void testVariablePatternsOfShuffledVariants() {
+		Random r = new Random(42);
+		for (int n = 0; n < 2000; n++) {
+			int numberLiterals = 2 + r.nextInt(3);
+			int numberVariables = 1 + r.nextInt(4);
+			List<int[]> args = new ArrayList<int[]>();
+			List<Boolean> positive = new ArrayList<Boolean>();
+			for (int i = 0; i < numberLiterals; i++) {
+				args.add(new int[] { r.nextInt(numberVariables),
+						r.nextInt(numberVariables) });
+				positive.add(r.nextInt(4) > 0);
+			}
+			List<Integer> renaming = new ArrayList<Integer>();
+			for (int v = 0; v < numberVariables; v++) {
+				renaming.add(v);
+			}
+			Collections.shuffle(renaming, r);
+			List<Integer> order = new ArrayList<Integer>();
+			for (int i = 0; i < numberLiterals; i++) {
+				order.add(i);
+			}
+			Collections.shuffle(order, r);
+
+			Clause c1 = new Clause();
+			Clause c2 = new Clause();
+			for (int i = 0; i < numberLiterals; i++) {
+				addLiteral(c1, positive.get(i), "x" + args.get(i)[0],
+						"x" + args.get(i)[1]);
+				int k = order.get(i);
+				addLiteral(c2, positive.get(k),
+						"y" + renaming.get(args.get(k)[0]),
+						"y" + renaming.get(args.get(k)[1]));
+			}
+			String msg = c1 + " vs " + c2;
+			Assert.assertTrue(msg, c1.equals(c2));
+			Assert.assertEquals(msg, 0, c1.compareVariablePatterns(c2));
+			Assert.assertEquals(msg, 0, c2.compareVariablePatterns(c1));
+
+			// The set of support has to treat both as the same clause
+			DefaultLightestClauseHeuristic heuristic = new DefaultLightestClauseHeuristic();
+			heuristic.addedClauseToSOS(c1);
+			heuristic.addedClauseToSOS(c2);
+			Assert.assertSame(msg, c1, heuristic.getLightestClause());
+			heuristic.removedClauseFromSOS(c2);
+			Assert.assertNull(msg, heuristic.getLightestClause());
+		}
+
+		// The example which was wrongly ordered before
+		Clause c1 = new Clause();
+		addLiteral(c1, true, "x3", "x0");
+		addLiteral(c1, true, "x1", "x2");
+		addLiteral(c1, true, "x0", "x0");
+		Clause c2 = new Clause();
+		addLiteral(c2, true, "y1", "y2");
+		addLiteral(c2, true, "y3", "y0");
+		addLiteral(c2, true, "y0", "y0");
+		Assert.assertEquals(0, c1.compareVariablePatterns(c2));
+	}
+
 	@Test
 	public void testNonTrivialFactors() {
 		FOLDomain domain = new FOLDomain();
@@ -888,4 +1006,19 @@ public class ClauseTest {
 
 		Assert.assertFalse(phi.subsumes(psi));
 	}
+
+	//
+	// PRIVATE METHODS
+	//
+	private void addLiteral(Clause c, boolean positive, String v1, String v2) {
+		List<Term> terms = new ArrayList<Term>();
+		terms.add(new Variable(v1));
+		terms.add(new Variable(v2));
+		Predicate p = new Predicate("P", terms);
+		if (positive) {
+			c.addPositiveLiteral(p);
+		} else {
+			c.addNegativeLiteral(p);
+		}
+	}
 }
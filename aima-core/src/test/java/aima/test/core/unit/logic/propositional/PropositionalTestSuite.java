@@ -3,13 +3,16 @@ package aima.test.core.unit.logic.propositional;
 import org.junit.runner.RunWith;
 import org.junit.runners.Suite;
 
+import aima.test.core.unit.logic.propositional.inference.CDCLSolverTest;
 import aima.test.core.unit.logic.propositional.inference.DPLLTest;
 import aima.test.core.unit.logic.propositional.inference.PLFCEntailsTest;
 import aima.test.core.unit.logic.propositional.inference.PLResolutionTest;
 import aima.test.core.unit.logic.propositional.inference.TTEntailsTest;
+import aima.test.core.unit.logic.propositional.inference.WalkSATSolverTest;
 import aima.test.core.unit.logic.propositional.kb.KnowledgeBaseTest;
 import aima.test.core.unit.logic.propositional.kb.data.ClauseTest;
 import aima.test.core.unit.logic.propositional.kb.data.ConvertToConjunctionOfClausesTest;
+import aima.test.core.unit.logic.propositional.kb.data.IntClauseTest;
 import aima.test.core.unit.logic.propositional.kb.data.LiteralTest;
 import aima.test.core.unit.logic.propositional.kb.data.ModelTest;
 import aima.test.core.unit.logic.propositional.parsing.ComplexSentenceTest;
@@ -21,12 +24,12 @@ import aima.test.core.unit.logic.propositional.visitors.ConvertToCNFTest;
 import aima.test.core.unit.logic.propositional.visitors.SymbolCollectorTest;
 
 @RunWith(Suite.class)
-@Suite.SuiteClasses({ DPLLTest.class, KnowledgeBaseTest.class, ModelTest.class,
-		PLFCEntailsTest.class, PLResolutionTest.class, TTEntailsTest.class,
+@Suite.SuiteClasses({ CDCLSolverTest.class, DPLLTest.class, KnowledgeBaseTest.class, ModelTest.class,
+		PLFCEntailsTest.class, PLResolutionTest.class, TTEntailsTest.class, WalkSATSolverTest.class,
 		ComplexSentenceTest.class, ListTest.class, PLLexerTest.class,
 		PLParserTest.class, PropositionSymbolTest.class,
 		ConvertToCNFTest.class, ClauseTest.class,
-		ConvertToConjunctionOfClausesTest.class, LiteralTest.class,
+		ConvertToConjunctionOfClausesTest.class, IntClauseTest.class, LiteralTest.class,
 		SymbolCollectorTest.class })
 public class PropositionalTestSuite {
 
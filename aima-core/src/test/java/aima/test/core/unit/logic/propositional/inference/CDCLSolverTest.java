@@ -0,0 +1,223 @@
+package aima.test.core.unit.logic.propositional.inference;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import aima.core.logic.propositional.inference.CDCLSatisfiable;
+import aima.core.logic.propositional.inference.CDCLSolver;
+import aima.core.logic.propositional.kb.data.Clause;
+import aima.core.logic.propositional.kb.data.Model;
+import aima.core.logic.propositional.parsing.PLParser;
+import aima.core.logic.propositional.parsing.ast.PropositionSymbol;
+import aima.core.logic.propositional.visitors.ConvertToConjunctionOfClauses;
+import aima.core.search.framework.Metrics;
+import aima.core.util.SearchBudget;
+
+public class CDCLSolverTest {
+
+	@Test
+	public void testSimple() {
+		CDCLSolver solver = new CDCLSolver();
+		solver.addClause(1, 2);
+		solver.addClause(-1, 2);
+		solver.addClause(-2, 3);
+		Assert.assertTrue(solver.solve());
+		Assert.assertTrue(solver.getValue(2));
+		Assert.assertTrue(solver.getValue(3));
+		// clauses can be added after solving
+		Assert.assertFalse(solver.addClause(-3));
+		Assert.assertFalse(solver.solve());
+	}
+
+	@Test
+	public void testSameResultsAsBruteForce() {
+		Random random = new Random(42);
+		for (int run = 0; run < 300; run++) {
+			int numVars = 3 + random.nextInt(8);
+			int numClauses = numVars * (3 + random.nextInt(3));
+			List<int[]> clauses = new ArrayList<>();
+			CDCLSolver solver = new CDCLSolver();
+			for (int i = 0; i < numClauses; i++) {
+				int[] clause = new int[1 + random.nextInt(3)];
+				for (int j = 0; j < clause.length; j++)
+					clause[j] = (1 + random.nextInt(numVars)) * (random.nextBoolean() ? 1 : -1);
+				clauses.add(clause);
+				solver.addClause(clause);
+			}
+			boolean sat = solver.solve();
+			Assert.assertEquals(isSatisfiable(numVars, clauses), sat);
+			if (sat)
+				for (int[] clause : clauses)
+					Assert.assertTrue(isSatisfied(clause, solver));
+		}
+	}
+
+	@Test
+	public void testAssumptions() {
+		CDCLSolver solver = new CDCLSolver();
+		solver.addClause(-1, 2);
+		solver.addClause(-2, 3);
+		Assert.assertFalse(solver.solve(1, -3));
+		Assert.assertTrue(solver.solve(1, 1, 3)); // duplicate and implied assumptions
+		Assert.assertTrue(solver.getValue(2));
+		// assumptions are retracted after each call
+		Assert.assertTrue(solver.solve(-3));
+		Assert.assertFalse(solver.getValue(1));
+		Assert.assertTrue(solver.solve());
+	}
+
+	@Test
+	public void testMetrics() {
+		// four pigeons do not fit into three holes
+		CDCLSolver solver = new CDCLSolver();
+		for (int pigeon = 0; pigeon < 4; pigeon++)
+			solver.addClause(3 * pigeon + 1, 3 * pigeon + 2, 3 * pigeon + 3);
+		for (int hole = 1; hole <= 3; hole++)
+			for (int p1 = 0; p1 < 4; p1++)
+				for (int p2 = p1 + 1; p2 < 4; p2++)
+					solver.addClause(-(3 * p1 + hole), -(3 * p2 + hole));
+		Metrics metrics = solver.getMetrics();
+		Assert.assertEquals(0, metrics.getLong(CDCLSolver.METRICS_DECISIONS));
+		Assert.assertFalse(solver.solve());
+		// the view reflects the counts of the finished call
+		Assert.assertTrue(metrics.getLong(CDCLSolver.METRICS_DECISIONS) > 0);
+		Assert.assertTrue(metrics.getLong(CDCLSolver.METRICS_CONFLICTS) > 0);
+		Assert.assertTrue(metrics.getLong(CDCLSolver.METRICS_PROPAGATIONS) > 0);
+		Assert.assertSame(metrics, solver.getMetrics());
+	}
+
+	@Test
+	public void testAssumptionsSameResultsAsBruteForce() {
+		Random random = new Random(17);
+		for (int run = 0; run < 100; run++) {
+			int numVars = 3 + random.nextInt(8);
+			int numClauses = numVars * (2 + random.nextInt(3));
+			List<int[]> clauses = new ArrayList<>();
+			CDCLSolver solver = new CDCLSolver();
+			for (int i = 0; i < numClauses; i++) {
+				int[] clause = new int[2 + random.nextInt(2)];
+				for (int j = 0; j < clause.length; j++)
+					clause[j] = (1 + random.nextInt(numVars)) * (random.nextBoolean() ? 1 : -1);
+				clauses.add(clause);
+				solver.addClause(clause);
+			}
+			// one solver answers all queries
+			for (int query = 0; query < 10; query++) {
+				int[] assumptions = new int[1 + random.nextInt(3)];
+				List<int[]> extended = new ArrayList<>(clauses);
+				for (int j = 0; j < assumptions.length; j++) {
+					assumptions[j] = (1 + random.nextInt(numVars)) * (random.nextBoolean() ? 1 : -1);
+					extended.add(new int[] {assumptions[j]});
+				}
+				boolean sat = solver.solve(assumptions);
+				Assert.assertEquals(isSatisfiable(numVars, extended), sat);
+				if (sat)
+					for (int[] clause : extended)
+						Assert.assertTrue(isSatisfied(clause, solver));
+			}
+			Assert.assertEquals(isSatisfiable(numVars, clauses), solver.solve());
+		}
+	}
+
+	@Test
+	public void testPigeonHole() {
+		// 7 pigeons do not fit into 6 holes, 6 pigeons do
+		for (int pigeons = 6; pigeons <= 7; pigeons++) {
+			int holes = 6;
+			CDCLSolver solver = new CDCLSolver();
+			for (int p = 0; p < pigeons; p++) {
+				int[] clause = new int[holes];
+				for (int h = 0; h < holes; h++)
+					clause[h] = p * holes + h + 1;
+				solver.addClause(clause);
+			}
+			for (int h = 0; h < holes; h++)
+				for (int p = 0; p < pigeons; p++)
+					for (int q = p + 1; q < pigeons; q++)
+						solver.addClause(-(p * holes + h + 1), -(q * holes + h + 1));
+			Assert.assertEquals(pigeons <= holes, solver.solve());
+		}
+	}
+
+	@Test
+	public void testNQueens() {
+		// 40 queens: 1600 variables, more than 80000 clauses
+		int n = 40;
+		CDCLSolver solver = new CDCLSolver();
+		for (int row = 0; row < n; row++) {
+			int[] clause = new int[n];
+			for (int col = 0; col < n; col++)
+				clause[col] = row * n + col + 1;
+			solver.addClause(clause);
+		}
+		for (int v1 = 0; v1 < n * n; v1++)
+			for (int v2 = v1 + 1; v2 < n * n; v2++)
+				if (attack(v1, v2, n))
+					solver.addClause(-v1 - 1, -v2 - 1);
+		Assert.assertTrue(solver.solve());
+		for (int v1 = 0; v1 < n * n; v1++)
+			for (int v2 = v1 + 1; v2 < n * n; v2++)
+				Assert.assertFalse(solver.getValue(v1 + 1) && solver.getValue(v2 + 1) && attack(v1, v2, n));
+	}
+
+	private static boolean attack(int v1, int v2, int n) {
+		int dr = v2 / n - v1 / n;
+		int dc = Math.abs(v2 % n - v1 % n);
+		return dr == 0 || dc == 0 || dr == dc;
+	}
+
+	@Test
+	public void testBudget() {
+		CDCLSolver solver = new CDCLSolver();
+		for (int i = 1; i <= 100; i++)
+			solver.addClause(i, i + 1);
+		SearchBudget budget = new SearchBudget().setNodeLimit(10);
+		solver.setBudget(budget);
+		Assert.assertFalse(solver.solve());
+		Assert.assertEquals(SearchBudget.Status.NODE_LIMIT_EXCEEDED, budget.getStatus());
+	}
+
+	@Test
+	public void testSatSolverInterface() {
+		PLParser parser = new PLParser();
+		Set<Clause> clauses = ConvertToConjunctionOfClauses.convert
+				(parser.parse("(A | B) & (~A | C) & ~C")).getClauses();
+		Model model = new CDCLSatisfiable().solve(clauses);
+		Assert.assertNotNull(model);
+		Assert.assertTrue(model.satisfies(clauses));
+		Assert.assertTrue(model.isFalse(new PropositionSymbol("A")));
+		Assert.assertTrue(model.isTrue(new PropositionSymbol("B")));
+		Assert.assertNull(new CDCLSatisfiable().solve(ConvertToConjunctionOfClauses
+				.convert(parser.parse("(A | B) & ~A & ~B")).getClauses()));
+	}
+
+	private static boolean isSatisfiable(int numVars, List<int[]> clauses) {
+		for (int bits = 0; bits < (1 << numVars); bits++) {
+			boolean allSatisfied = true;
+			for (int[] clause : clauses) {
+				boolean satisfied = false;
+				for (int lit : clause)
+					satisfied |= ((bits >> (Math.abs(lit) - 1) & 1) == 1) == lit > 0;
+				if (!satisfied) {
+					allSatisfied = false;
+					break;
+				}
+			}
+			if (allSatisfied)
+				return true;
+		}
+		return false;
+	}
+
+	private static boolean isSatisfied(int[] clause, CDCLSolver solver) {
+		for (int lit : clause)
+			if (solver.getValue(Math.abs(lit)) == lit > 0)
+				return true;
+		return false;
+	}
+}
@@ -12,6 +12,7 @@ import org.junit.runner.RunWith;
 import org.junit.runners.Parameterized;
 import org.junit.runners.Parameterized.Parameters;
 
+import aima.core.logic.propositional.inference.CDCLSatisfiable;
 import aima.core.logic.propositional.inference.DPLL;
 import aima.core.logic.propositional.inference.DPLLSatisfiable;
 import aima.core.logic.propositional.inference.OptimizedDPLL;
@@ -38,7 +39,8 @@ public class DPLLTest {
     public static Collection<Object[]> inferenceAlgorithmSettings() {
         return Arrays.asList(new Object[][] {
         		{new DPLLSatisfiable()}, 
-        		{new OptimizedDPLL()}   
+        		{new OptimizedDPLL()},
+        		{new CDCLSatisfiable()}
         });
     }
 
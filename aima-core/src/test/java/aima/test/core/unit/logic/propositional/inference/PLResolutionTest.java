@@ -2,6 +2,8 @@ package aima.test.core.unit.logic.propositional.inference;
 
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Random;
 import java.util.Set;
 
 import org.junit.Assert;
@@ -10,9 +12,11 @@ import org.junit.runner.RunWith;
 import org.junit.runners.Parameterized;
 import org.junit.runners.Parameterized.Parameters;
 
+import aima.core.logic.propositional.inference.GivenClausePLResolution;
 import aima.core.logic.propositional.inference.PLResolution;
 import aima.core.logic.propositional.kb.KnowledgeBase;
 import aima.core.logic.propositional.kb.data.Clause;
+import aima.core.logic.propositional.kb.data.IntClause;
 import aima.core.logic.propositional.parsing.PLParser;
 import aima.core.logic.propositional.parsing.ast.Sentence;
 import aima.core.logic.propositional.visitors.ConvertToConjunctionOfClauses;
@@ -28,16 +32,19 @@ public class PLResolutionTest {
 	private PLResolution resolution;
 	private PLParser parser;
 	
-	@Parameters(name = "{index}: discardTautologies={0}")
+	@Parameters(name = "{index}: discardTautologies={0}, givenClause={1}")
     public static Collection<Object[]> inferenceAlgorithmSettings() {
         return Arrays.asList(new Object[][] {
-        		{false}, // will not discard tautological clauses - slower!
-        		{true}   // will discard tautological clauses - faster!
+        		{false, false}, // will not discard tautological clauses - slower!
+        		{true, false},  // will discard tautological clauses - faster!
+        		{false, true},  // given-clause loop with set of support
+        		{true, true}
         });
     }
 
-	public PLResolutionTest(boolean discardTautologies) {
-		this.resolution = new PLResolution(discardTautologies);
+	public PLResolutionTest(boolean discardTautologies, boolean givenClause) {
+		this.resolution = givenClause ? new GivenClausePLResolution(discardTautologies)
+				: new PLResolution(discardTautologies);
 		parser = new PLParser();
 	}
 
@@ -206,4 +213,63 @@ public class PLResolutionTest {
 		boolean b = resolution.plResolution(kb, alpha);
 		Assert.assertEquals(true, b);
 	}
-}
\ No newline at end of file
+
+	@Test
+	public void testPLResolveIntClauses() {
+		Set<IntClause> resolvents = resolution.plResolve(IntClause.of(1, 2), IntClause.of(-2, 3));
+		Assert.assertEquals(Collections.singleton(IntClause.of(1, 3)), resolvents);
+		resolvents = resolution.plResolve(IntClause.of(1, 2), IntClause.of(-1, -2));
+		Assert.assertEquals(resolution.isDiscardTautologies() ? 0 : 2, resolvents.size());
+		resolvents = resolution.plResolve(IntClause.of(-3), IntClause.of(3));
+		Assert.assertEquals(Collections.singleton(IntClause.EMPTY), resolvents);
+	}
+
+	@Test
+	public void testPLResolutionSameResultsAsTTEntails() {
+		Random random = new Random(3);
+		String[] symbols = {"A", "B", "C", "D", "E"};
+		for (int run = 0; run < 30; run++) {
+			KnowledgeBase kb = new KnowledgeBase();
+			for (int i = 0; i < 4; i++) {
+				StringBuilder clause = new StringBuilder();
+				for (int j = 0; j < 2 + random.nextInt(2); j++)
+					clause.append(j > 0 ? " | " : "").append(random.nextBoolean() ? "~" : "")
+							.append(symbols[random.nextInt(symbols.length)]);
+				kb.tell(clause.toString());
+			}
+			String query = (random.nextBoolean() ? "~" : "") + symbols[random.nextInt(symbols.length)];
+			Assert.assertEquals(kb + " |= " + query, kb.askWithTTEntails(query),
+					resolution.plResolution(kb, parser.parse(query)));
+		}
+	}
+
+	@Test
+	public void testGivenClauseSubsumption() {
+		GivenClausePLResolution prover = new GivenClausePLResolution();
+		KnowledgeBase kb = new KnowledgeBase();
+		kb.tell("A | B | C");
+		kb.tell("A | B");
+		kb.tell("~A | D");
+		kb.tell("~B | D");
+		Assert.assertTrue(prover.plResolution(kb, parser.parse("D")));
+		prover.setAssumeConsistentKB(true);
+		Assert.assertFalse(prover.plResolution(kb, parser.parse("C")));
+		// A | B | C is subsumed by A | B, so ~C has no partner
+		Assert.assertEquals(1, prover.getMetrics().getInt(GivenClausePLResolution.METRICS_BACKWARD_SUBSUMED));
+		Assert.assertEquals(1, prover.getMetrics().getInt(GivenClausePLResolution.METRICS_GIVEN_CLAUSES));
+		Assert.assertEquals(0, prover.getMetrics().getInt(GivenClausePLResolution.METRICS_RESOLVENTS));
+	}
+
+	@Test
+	public void testGivenClauseInconsistentKB() {
+		GivenClausePLResolution prover = new GivenClausePLResolution();
+		KnowledgeBase kb = new KnowledgeBase();
+		kb.tell("A | B");
+		kb.tell("~A");
+		kb.tell("~B");
+		// the query does not take part in the refutation
+		Assert.assertTrue(prover.plResolution(kb, parser.parse("C")));
+		prover.setAssumeConsistentKB(true);
+		Assert.assertFalse(prover.plResolution(kb, parser.parse("C")));
+	}
+}
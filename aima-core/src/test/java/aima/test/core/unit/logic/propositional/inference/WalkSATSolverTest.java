@@ -0,0 +1,135 @@
+package aima.test.core.unit.logic.propositional.inference;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import aima.core.logic.propositional.inference.ParallelWalkSAT;
+import aima.core.logic.propositional.inference.WalkSATSolver;
+import aima.core.logic.propositional.kb.data.Clause;
+import aima.core.logic.propositional.kb.data.Model;
+import aima.core.logic.propositional.parsing.PLParser;
+import aima.core.logic.propositional.visitors.ConvertToConjunctionOfClauses;
+import aima.core.util.SearchBudget;
+
+public class WalkSATSolverTest {
+
+	@Test
+	public void testSimple() {
+		WalkSATSolver solver = new WalkSATSolver(new Random(1));
+		solver.addClause(1, 2);
+		solver.addClause(-1, 2);
+		solver.addClause(-2, 3);
+		solver.addClause(1, -1); // tautology
+		Assert.assertTrue(solver.solve(1000));
+		Assert.assertTrue(solver.getValue(2));
+		Assert.assertTrue(solver.getValue(3));
+		solver.addClause(-3);
+		Assert.assertFalse(solver.solve(1000));
+	}
+
+	@Test
+	public void testPlanted3Sat() {
+		for (WalkSATSolver.Heuristic heuristic : WalkSATSolver.Heuristic.values()) {
+			List<int[]> clauses = createPlanted3Sat(500, 2000, new Random(42));
+			WalkSATSolver solver = new WalkSATSolver(new Random(7)).setHeuristic(heuristic);
+			for (int[] clause : clauses)
+				solver.addClause(clause);
+			Assert.assertTrue(heuristic.toString(), solver.solve(1000000));
+			for (int[] clause : clauses)
+				Assert.assertTrue(isSatisfied(clause, solver));
+		}
+	}
+
+	@Test
+	public void testBudget() {
+		WalkSATSolver solver = new WalkSATSolver(new Random(1));
+		solver.addClause(1);
+		solver.addClause(-1); // unsatisfiable
+		SearchBudget budget = new SearchBudget().setNodeLimit(100);
+		solver.setBudget(budget);
+		Assert.assertFalse(solver.solve(-1));
+		Assert.assertEquals(SearchBudget.Status.NODE_LIMIT_EXCEEDED, budget.getStatus());
+	}
+
+	@Test
+	public void testParallelBudget() {
+		WalkSATSolver solver = new WalkSATSolver();
+		solver.addClause(1);
+		solver.addClause(-1); // unsatisfiable
+		SearchBudget budget = new SearchBudget().setNodeLimit(1000);
+		ForkJoinPool pool = new ForkJoinPool(3);
+		try {
+			Assert.assertNull(new ParallelWalkSAT(4, -1).setSeed(1).setPool(pool).setBudget(budget).findModel(solver));
+			Assert.assertEquals(SearchBudget.Status.NODE_LIMIT_EXCEEDED, budget.getStatus());
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	@Test
+	public void testParallelWalkers() {
+		List<int[]> clauses = createPlanted3Sat(300, 1200, new Random(3));
+		WalkSATSolver solver = new WalkSATSolver();
+		for (int[] clause : clauses)
+			solver.addClause(clause);
+		ForkJoinPool pool = new ForkJoinPool(3);
+		try {
+			boolean[] model = new ParallelWalkSAT(4, 1000000).setSeed(42).setPool(pool).findModel(solver);
+			Assert.assertNotNull(model);
+			for (int[] clause : clauses) {
+				boolean satisfied = false;
+				for (int literal : clause)
+					satisfied |= model[Math.abs(literal)] == literal > 0;
+				Assert.assertTrue(satisfied);
+			}
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	@Test
+	public void testSatSolverInterface() {
+		PLParser parser = new PLParser();
+		Set<Clause> clauses = ConvertToConjunctionOfClauses.convert
+				(parser.parse("(A | B) & (~A | C) & ~C & (D | ~B)")).getClauses();
+		ParallelWalkSAT walkSAT = new ParallelWalkSAT(2, 10000).setSeed(1);
+		Model model = walkSAT.solve(clauses);
+		Assert.assertNotNull(model);
+		Assert.assertTrue(model.satisfies(clauses));
+		clauses = ConvertToConjunctionOfClauses.convert(parser.parse("(A | B) & ~A & ~B")).getClauses();
+		Assert.assertNull(walkSAT.solve(clauses));
+	}
+
+	/** Creates random 3-SAT clauses which are satisfied by a hidden random model. */
+	private static List<int[]> createPlanted3Sat(int numVars, int numClauses, Random random) {
+		boolean[] hidden = new boolean[numVars + 1];
+		for (int var = 1; var <= numVars; var++)
+			hidden[var] = random.nextBoolean();
+		List<int[]> result = new ArrayList<>();
+		while (result.size() < numClauses) {
+			int[] clause = new int[3];
+			boolean satisfied = false;
+			for (int i = 0; i < 3; i++) {
+				int var = 1 + random.nextInt(numVars);
+				clause[i] = random.nextBoolean() ? var : -var;
+				satisfied |= hidden[var] == clause[i] > 0;
+			}
+			if (satisfied)
+				result.add(clause);
+		}
+		return result;
+	}
+
+	private static boolean isSatisfied(int[] clause, WalkSATSolver solver) {
+		for (int literal : clause)
+			if (solver.getValue(Math.abs(literal)) == literal > 0)
+				return true;
+		return false;
+	}
+}
@@ -1,10 +1,16 @@
 package aima.test.core.unit.logic.propositional.kb;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 
 import aima.core.logic.propositional.kb.KnowledgeBase;
+import aima.core.logic.propositional.parsing.PLParser;
+import aima.core.logic.propositional.parsing.ast.Sentence;
 
 /**
  * @author Ravi Mohan
@@ -59,4 +65,40 @@ public class KnowledgeBaseTest {
 				"A & B & C & D & E & F",
 				kb.toString());
 	}
+
+	@Test
+	public void testAskIsIncremental() {
+		PLParser parser = new PLParser();
+		kb.tell("~B11");
+		kb.tell("B11 <=> P12 | P21");
+		kb.tell("B21 <=> P11 | P22 | P31");
+		Assert.assertTrue(kb.ask(parser.parse("~P12")));
+		Assert.assertFalse(kb.ask(parser.parse("P22")));
+		Assert.assertFalse(kb.ask(parser.parse("~P22")));
+		// sentences told after the first query are respected
+		kb.tell("B21");
+		kb.tell("~P11 & ~P31");
+		Assert.assertTrue(kb.ask(parser.parse("P22")));
+		Assert.assertTrue(kb.ask(parser.parse("P22 & ~P21")));
+		Assert.assertFalse(kb.ask(parser.parse("P22 & P21")));
+		Assert.assertTrue(kb.ask(parser.parse("P21 | ~P21")));
+	}
+
+	@Test
+	public void testAskAllSameResultsAsTTEntails() {
+		kb.tell("B11 <=> P12 | P21");
+		kb.tell("B12 <=> P11 | P22 | P13");
+		kb.tell("B21 <=> P11 | P22 | P31");
+		kb.tell("~P11 & ~B11 & B12");
+		List<String> queries = Arrays.asList("P12", "~P12", "~P21", "P22", "P13", "P22 | P13",
+				"~P22 & ~P13", "B21 => P22", "P31 | B21", "P12 <=> P21");
+		List<Sentence> sentences = new ArrayList<>();
+		PLParser parser = new PLParser();
+		for (String query : queries)
+			sentences.add(parser.parse(query));
+		List<Boolean> answers = kb.askAll(sentences);
+		for (int i = 0; i < queries.size(); i++)
+			Assert.assertEquals(queries.get(i), kb.askWithTTEntails(queries.get(i)), answers.get(i));
+		Assert.assertTrue(kb.askWithTTEntails("P22 | P13"));
+	}
 }
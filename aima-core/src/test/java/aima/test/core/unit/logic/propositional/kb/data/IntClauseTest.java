@@ -0,0 +1,79 @@
+package aima.test.core.unit.logic.propositional.kb.data;
+
+import java.util.Set;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import aima.core.logic.propositional.kb.data.Clause;
+import aima.core.logic.propositional.kb.data.IntClause;
+import aima.core.logic.propositional.kb.data.Literal;
+import aima.core.logic.propositional.kb.data.SymbolTable;
+import aima.core.logic.propositional.parsing.PLParser;
+import aima.core.logic.propositional.parsing.ast.PropositionSymbol;
+import aima.core.logic.propositional.visitors.ConvertToConjunctionOfClauses;
+
+public class IntClauseTest {
+
+	@Test
+	public void testCreation() {
+		IntClause clause = IntClause.of(3, -1, 3, 2);
+		Assert.assertEquals(3, clause.size());
+		Assert.assertEquals("{-1, 2, 3}", clause.toString());
+		Assert.assertEquals(IntClause.of(2, -1, 3), clause);
+		Assert.assertEquals(IntClause.of(2, -1, 3).hashCode(), clause.hashCode());
+		Assert.assertTrue(clause.contains(-1));
+		Assert.assertFalse(clause.contains(1));
+		Assert.assertEquals(2, clause.getNumberPositiveLiterals());
+		Assert.assertEquals(1, clause.getNumberNegativeLiterals());
+		Assert.assertFalse(clause.isDefiniteClause());
+		Assert.assertTrue(IntClause.of(-1, -2, 3).isDefiniteClause());
+		Assert.assertTrue(IntClause.of().isEmpty());
+		Assert.assertEquals(IntClause.EMPTY, IntClause.of());
+	}
+
+	@Test
+	public void testTautology() {
+		Assert.assertTrue(IntClause.of(1, 2, -1).isTautology());
+		Assert.assertFalse(IntClause.of(1, 2, -3).isTautology());
+	}
+
+	@Test
+	public void testSubsumes() {
+		Assert.assertTrue(IntClause.of(-1, 3).subsumes(IntClause.of(-1, 2, 3)));
+		Assert.assertFalse(IntClause.of(-1, 3).subsumes(IntClause.of(1, 2, 3)));
+		Assert.assertTrue(IntClause.EMPTY.subsumes(IntClause.of(1)));
+		Assert.assertFalse(IntClause.of(1).subsumes(IntClause.EMPTY));
+	}
+
+	@Test
+	public void testResolve() {
+		Assert.assertEquals(IntClause.of(1, 3), IntClause.of(1, 2).resolve(IntClause.of(-2, 3), 2));
+		Assert.assertEquals(IntClause.of(-1, 3), IntClause.of(-1, -2, 3).resolve(IntClause.of(2, 3), -2));
+		Assert.assertEquals(IntClause.EMPTY, IntClause.of(4).resolve(IntClause.of(-4), 4));
+	}
+
+	@Test
+	public void testSymbolTable() {
+		SymbolTable symbols = new SymbolTable();
+		PLParser parser = new PLParser();
+		Set<IntClause> clauses = ConvertToConjunctionOfClauses.convert
+				(parser.parse("(A | ~B) & (B | C) & ~A"), symbols);
+		Assert.assertEquals(3, symbols.size());
+		Assert.assertEquals(3, clauses.size());
+		int a = symbols.lookupId(new PropositionSymbol("A"));
+		int b = symbols.lookupId(new PropositionSymbol("B"));
+		Assert.assertTrue(clauses.contains(IntClause.of(a, -b)));
+		Assert.assertTrue(clauses.contains(IntClause.of(-a)));
+		Assert.assertEquals(0, symbols.lookupId(new PropositionSymbol("D")));
+		// symbols and literals of converted clauses are shared
+		Clause clause = symbols.toClause(IntClause.of(a, -b));
+		Assert.assertEquals(ConvertToConjunctionOfClauses.convert(parser.parse("A | ~B"))
+				.getClauses().iterator().next(), clause);
+		Assert.assertSame(symbols.getSymbol(a), symbols.toLiteral(a).getAtomicSentence());
+		Assert.assertSame(symbols.toLiteral(-b), symbols.toLiteral(-b));
+		Assert.assertEquals(-b, symbols.toInt(new Literal(new PropositionSymbol("B"), false)));
+		Assert.assertEquals(ConvertToConjunctionOfClauses.convert
+				(parser.parse("(A | ~B) & (B | C) & ~A")).getClauses(), symbols.toClauses(clauses));
+	}
+}
@@ -3,16 +3,25 @@ package aima.test.core.unit.search;
 import aima.test.core.unit.search.adversarial.AlphaBetaSearchTest;
 import aima.test.core.unit.search.adversarial.MinimaxSearchTest;
 import aima.test.core.unit.search.adversarial.MonteCarloTreeSearchTest;
+import aima.test.core.unit.search.adversarial.ParallelAlphaBetaSearchTest;
+import aima.test.core.unit.search.adversarial.TranspositionTableTest;
 import aima.test.core.unit.search.csp.AssignmentTest;
 import aima.test.core.unit.search.csp.CSPTest;
+import aima.test.core.unit.search.csp.GACStrategyTest;
+import aima.test.core.unit.search.csp.IndexedCSPTest;
 import aima.test.core.unit.search.csp.MapCSPTest;
+import aima.test.core.unit.search.csp.MinConflictsSolverTest;
+import aima.test.core.unit.search.csp.ParallelCspSolverTest;
 import aima.test.core.unit.search.csp.TreeCspSolverTest;
+import aima.test.core.unit.search.framework.MetricsRegistryTest;
 import aima.test.core.unit.search.framework.MetricsTest;
+import aima.test.core.unit.search.framework.NodeFactoryTest;
 import aima.test.core.unit.search.framework.NodeTest;
 import aima.test.core.unit.search.framework.SolutionTesterTest;
 import aima.test.core.unit.search.informed.AStarSearchTest;
 import aima.test.core.unit.search.informed.GreedyBestFirstSearchTest;
 import aima.test.core.unit.search.informed.RecursiveBestFirstSearchTest;
+import aima.test.core.unit.search.local.GeneticAlgorithmTest;
 import aima.test.core.unit.search.nondeterministic.AndOrSearchTest;
 import aima.test.core.unit.search.online.LRTAStarAgentTest;
 import aima.test.core.unit.search.online.OnlineDFSAgentTest;
@@ -21,11 +30,11 @@ import org.junit.runner.RunWith;
 import org.junit.runners.Suite;
 
 @RunWith(Suite.class)
-@Suite.SuiteClasses({AlphaBetaSearchTest.class, MinimaxSearchTest.class, MonteCarloTreeSearchTest.class, AssignmentTest.class, CSPTest.class, MapCSPTest.class,
-		MetricsTest.class, TreeCspSolverTest.class, AStarSearchTest.class, GreedyBestFirstSearchTest.class, RecursiveBestFirstSearchTest.class,
+@Suite.SuiteClasses({AlphaBetaSearchTest.class, MinimaxSearchTest.class, MonteCarloTreeSearchTest.class, ParallelAlphaBetaSearchTest.class, TranspositionTableTest.class, AssignmentTest.class, CSPTest.class, MapCSPTest.class,
+		MetricsTest.class, MetricsRegistryTest.class, TreeCspSolverTest.class, IndexedCSPTest.class, GACStrategyTest.class, MinConflictsSolverTest.class, ParallelCspSolverTest.class, AStarSearchTest.class, GreedyBestFirstSearchTest.class, RecursiveBestFirstSearchTest.class, GeneticAlgorithmTest.class,
 		AndOrSearchTest.class, LRTAStarAgentTest.class, OnlineDFSAgentTest.class,
 		BidirectionalSearchTest.class, BreadthFirstSearchTest.class, DepthFirstSearchTest.class,
-		DepthLimitedSearchTest.class, IterativeDeepeningSearchTest.class, UniformCostSearchTest.class, NodeTest.class,
+		DepthLimitedSearchTest.class, IterativeDeepeningSearchTest.class, UniformCostSearchTest.class, NodeTest.class, NodeFactoryTest.class,
 		SolutionTesterTest.class })
 public class SearchTestSuite {
 }
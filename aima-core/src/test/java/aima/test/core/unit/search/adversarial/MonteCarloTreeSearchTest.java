@@ -4,10 +4,13 @@ import aima.core.environment.tictactoe.TicTacToeGame;
 import aima.core.environment.tictactoe.TicTacToeState;
 import aima.core.search.adversarial.Game;
 import aima.core.search.adversarial.MonteCarloTreeSearch;
+import aima.core.util.datastructure.XYLocation;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.concurrent.ForkJoinPool;
+
 public class MonteCarloTreeSearchTest {
 	Game game;
 	MonteCarloTreeSearch monteCarloTreeSearch;
@@ -16,6 +19,9 @@ public class MonteCarloTreeSearchTest {
 	public void setup() {
 		this.game = new TicTacToeGame();
 		this.monteCarloTreeSearch = new MonteCarloTreeSearch(game, 100);
+		// 100 playouts occasionally miss the best move, so make the test
+		// deterministic
+		this.monteCarloTreeSearch.setSeed(1);
 	}
 	
 	@Test
@@ -44,4 +50,69 @@ public class MonteCarloTreeSearchTest {
 		TicTacToeState expectedState = new TicTacToeState(expectedBoard, TicTacToeState.X);
 		Assert.assertEquals(expectedState, game.getResult(state, monteCarloTreeSearch.makeDecision(state)));
 	}
+
+	@Test
+	public void testRootParallelDecision() {
+		testParallelDecision(MonteCarloTreeSearch.Parallelization.ROOT);
+	}
+
+	@Test
+	public void testTreeParallelDecision() {
+		testParallelDecision(MonteCarloTreeSearch.Parallelization.TREE);
+	}
+
+	@Test
+	public void testSeededRootParallelSearchIsReproducible() {
+		TicTacToeGame game = new TicTacToeGame();
+		ForkJoinPool pool = new ForkJoinPool(3);
+		XYLocation firstDecision = null;
+		int firstTreeSize = -1;
+		for (int i = 0; i < 5; i++) {
+			MonteCarloTreeSearch<TicTacToeState, XYLocation, String> search =
+					new MonteCarloTreeSearch<>(game, 1001);
+			search.setParallelization(MonteCarloTreeSearch.Parallelization.ROOT, pool, 3);
+			search.setSeed(42);
+			XYLocation decision = search.makeDecision(game.getInitialState());
+			int treeSize = search.getMetrics().getInt(MonteCarloTreeSearch.METRICS_TREE_SIZE);
+			Assert.assertEquals(1001, search.getMetrics().getInt(MonteCarloTreeSearch.METRICS_PLAYOUTS));
+			if (firstDecision == null) {
+				firstDecision = decision;
+				firstTreeSize = treeSize;
+			}
+			Assert.assertEquals(firstDecision, decision);
+			// each tree has performed the same playouts
+			Assert.assertEquals(firstTreeSize, treeSize);
+		}
+		pool.shutdown();
+	}
+
+	@Test
+	public void testTimeLimit() {
+		TicTacToeGame game = new TicTacToeGame();
+		MonteCarloTreeSearch<TicTacToeState, XYLocation, String> search =
+				new MonteCarloTreeSearch<>(game, 0);
+		search.setTimeLimit(50);
+		search.makeDecision(game.getInitialState());
+		Assert.assertTrue(search.getMetrics().getInt(MonteCarloTreeSearch.METRICS_PLAYOUTS) > 0);
+	}
+
+	private void testParallelDecision(MonteCarloTreeSearch.Parallelization mode) {
+		TicTacToeGame game = new TicTacToeGame();
+		MonteCarloTreeSearch<TicTacToeState, XYLocation, String> search =
+				new MonteCarloTreeSearch<>(game, 2000);
+		ForkJoinPool pool = new ForkJoinPool(4);
+		search.setParallelization(mode, pool, 4);
+		// O wins immediately at index 2, otherwise X wins at index 5
+		String[] board = new String[]{TicTacToeState.O, TicTacToeState.O, TicTacToeState.EMPTY, TicTacToeState.X, TicTacToeState.X, TicTacToeState.EMPTY, TicTacToeState.X, TicTacToeState.EMPTY, TicTacToeState.EMPTY};
+		TicTacToeState state = new TicTacToeState(board, TicTacToeState.O);
+		String[] expectedBoard = new String[]{TicTacToeState.O, TicTacToeState.O, TicTacToeState.O, TicTacToeState.X, TicTacToeState.X, TicTacToeState.EMPTY, TicTacToeState.X, TicTacToeState.EMPTY, TicTacToeState.EMPTY};
+		TicTacToeState expectedState = new TicTacToeState(expectedBoard, TicTacToeState.X);
+		Assert.assertEquals(expectedState, game.getResult(state, search.makeDecision(state)));
+		Assert.assertEquals(2000, search.getMetrics().getInt(MonteCarloTreeSearch.METRICS_PLAYOUTS));
+		Assert.assertTrue(search.getMetrics().getDouble(MonteCarloTreeSearch.METRICS_PLAYOUTS_PER_SECOND) > 0);
+		// the budget is renewed for each decision
+		search.makeDecision(state);
+		Assert.assertEquals(2000, search.getMetrics().getInt(MonteCarloTreeSearch.METRICS_PLAYOUTS));
+		pool.shutdown();
+	}
 }
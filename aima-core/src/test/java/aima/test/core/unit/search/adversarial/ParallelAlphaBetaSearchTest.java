@@ -0,0 +1,47 @@
+package aima.test.core.unit.search.adversarial;
+
+import aima.core.environment.tictactoe.TicTacToeGame;
+import aima.core.environment.tictactoe.TicTacToeState;
+import aima.core.search.adversarial.ParallelAlphaBetaSearch;
+import aima.core.search.framework.Metrics;
+import aima.core.util.datastructure.XYLocation;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.ForkJoinPool;
+
+public class ParallelAlphaBetaSearchTest {
+
+	@Test
+	public void testTicTacToeDecision() {
+		TicTacToeGame game = new TicTacToeGame();
+		ParallelAlphaBetaSearch<TicTacToeState, XYLocation, String> search =
+				ParallelAlphaBetaSearch.createFor(game, 0.0, 1.0, 100, 3);
+		ForkJoinPool pool = new ForkJoinPool(2);
+		search.setPool(pool);
+		Assert.assertEquals(3, search.getThreadCount());
+
+		// O has to block the column
+		String[] board = new String[]{TicTacToeState.X, TicTacToeState.O, TicTacToeState.EMPTY,
+				TicTacToeState.X, TicTacToeState.EMPTY, TicTacToeState.EMPTY,
+				TicTacToeState.EMPTY, TicTacToeState.EMPTY, TicTacToeState.EMPTY};
+		TicTacToeState state = new TicTacToeState(board, TicTacToeState.O);
+		Assert.assertEquals(new XYLocation(0, 2), search.makeDecision(state));
+
+		// perfect play ends in a draw
+		state = game.getInitialState();
+		while (!game.isTerminal(state))
+			state = game.getResult(state, search.makeDecision(state));
+		Assert.assertEquals(0.5, game.getUtility(state, TicTacToeState.X), 0.0001);
+
+		Metrics metrics = search.getMetrics();
+		long nodes = 0;
+		for (int i = 0; i < 3; i++) {
+			String prefix = ParallelAlphaBetaSearch.METRICS_THREAD_PREFIX + i + ".";
+			nodes += metrics.getLong(prefix + ParallelAlphaBetaSearch.METRICS_NODES_EXPANDED);
+			Assert.assertNotNull(metrics.get(prefix + ParallelAlphaBetaSearch.METRICS_NODES_PER_SECOND));
+		}
+		Assert.assertEquals(nodes, metrics.getLong(ParallelAlphaBetaSearch.METRICS_NODES_EXPANDED));
+		pool.shutdown();
+	}
+}
@@ -0,0 +1,52 @@
+package aima.test.core.unit.search.adversarial;
+
+import aima.core.search.adversarial.TranspositionTable;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TranspositionTableTest {
+
+	@Test
+	public void testPutAndGet() {
+		TranspositionTable<String> table = new TranspositionTable<>(100);
+		Assert.assertEquals(128, table.getCapacity());
+		Assert.assertNull(table.get(42));
+		table.put(42, 3, 0.5, TranspositionTable.Bound.LOWER, "a", true);
+		TranspositionTable.Entry<String> entry = table.get(42);
+		Assert.assertEquals(3, entry.getDepth());
+		Assert.assertEquals(0.5, entry.getValue(), 0);
+		Assert.assertEquals(TranspositionTable.Bound.LOWER, entry.getBound());
+		Assert.assertEquals("a", entry.getBestAction());
+		Assert.assertTrue(entry.isHeuristic());
+		// same slot, different position
+		Assert.assertNull(table.get(42 + 128));
+		table.clear();
+		Assert.assertNull(table.get(42));
+	}
+
+	@Test
+	public void testReplacementPolicies() {
+		TranspositionTable<String> table = new TranspositionTable<>(16, TranspositionTable.ReplacementPolicy.DEPTH_PREFERRED);
+		table.put(1, 5, 1, TranspositionTable.Bound.EXACT, "a", false);
+		table.put(1 + 16, 2, 0, TranspositionTable.Bound.EXACT, "b", false);
+		Assert.assertNotNull(table.get(1));
+		Assert.assertNull(table.get(1 + 16));
+		// the same position is always updated
+		table.put(1, 2, 0, TranspositionTable.Bound.UPPER, "c", false);
+		Assert.assertEquals("c", table.get(1).getBestAction());
+
+		table = new TranspositionTable<>(16);
+		table.put(1, 5, 1, TranspositionTable.Bound.EXACT, "a", false);
+		table.put(1 + 16, 2, 0, TranspositionTable.Bound.EXACT, "b", false);
+		Assert.assertNotNull(table.get(1));
+		table.incrementAge();
+		table.put(1 + 16, 2, 0, TranspositionTable.Bound.EXACT, "b", false);
+		Assert.assertNull(table.get(1));
+		Assert.assertEquals(1, table.get(1 + 16).getAge());
+
+		table = new TranspositionTable<>(16, TranspositionTable.ReplacementPolicy.ALWAYS);
+		table.put(1, 5, 1, TranspositionTable.Bound.EXACT, "a", false);
+		table.put(1 + 16, 2, 0, TranspositionTable.Bound.EXACT, "b", false);
+		Assert.assertNull(table.get(1));
+	}
+}
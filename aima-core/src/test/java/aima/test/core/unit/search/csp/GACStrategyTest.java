@@ -0,0 +1,190 @@
+package aima.test.core.unit.search.csp;
+
+import aima.core.search.csp.*;
+import aima.core.search.csp.examples.NQueensCSP;
+import aima.core.search.csp.inference.AC3Strategy;
+import aima.core.search.csp.inference.GACStrategy;
+import aima.core.search.csp.inference.InferenceLog;
+import aima.core.search.csp.inference.InferenceStrategy;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+public class GACStrategyTest {
+	private static final Variable X = new Variable("x");
+	private static final Variable Y = new Variable("y");
+	private static final Variable Z = new Variable("z");
+
+	private IndexedCSP<Variable, Integer> createCSP(Domain<Integer> dx, Domain<Integer> dy, Domain<Integer> dz) {
+		IndexedCSP<Variable, Integer> csp = new IndexedCSP<>(Arrays.asList(X, Y, Z));
+		csp.setDomain(X, dx);
+		csp.setDomain(Y, dy);
+		csp.setDomain(Z, dz);
+		return csp;
+	}
+
+	private static Domain<Integer> range(int from, int to) {
+		Integer[] values = new Integer[to - from + 1];
+		for (int i = 0; i < values.length; i++)
+			values[i] = from + i;
+		return new Domain<>(values);
+	}
+
+	@Test
+	public void testAllDiff() {
+		IndexedCSP<Variable, Integer> csp = createCSP(range(1, 2), range(1, 2), range(1, 3));
+		csp.addConstraint(new AllDiffConstraint<>(Arrays.asList(X, Y, Z)));
+		InferenceLog<Variable, Integer> log = new GACStrategy<Variable, Integer>().apply(csp);
+		Assert.assertFalse(log.inconsistencyFound());
+		Assert.assertEquals(range(3, 3), csp.getDomain(Z));
+		Assert.assertEquals(range(1, 2), csp.getDomain(X));
+		log.undo(csp);
+		Assert.assertEquals(range(1, 3), csp.getDomain(Z));
+
+		csp = createCSP(range(1, 2), range(1, 2), range(1, 2));
+		csp.addConstraint(new AllDiffConstraint<>(Arrays.asList(X, Y, Z)));
+		Assert.assertTrue(new GACStrategy<Variable, Integer>().apply(csp).inconsistencyFound());
+	}
+
+	@Test
+	public void testAllDiffWithSparseOffsets() {
+		IndexedCSP<Variable, Integer> csp = createCSP(range(100, 100), range(0, 1), range(0, 0));
+		// keys 100, 100..101, and -1000
+		csp.addConstraint(AllDiffConstraint.withOffsets(Arrays.asList(X, Y, Z), new int[] {0, 100, -1000}));
+		Assert.assertFalse(new GACStrategy<Variable, Integer>().apply(csp).inconsistencyFound());
+		Assert.assertEquals(range(1, 1), csp.getDomain(Y));
+		Assert.assertEquals(range(0, 0), csp.getDomain(Z));
+	}
+
+	@Test
+	public void testAllDiffLongChain() {
+		// x0 in {0}, xi in {i-1, i}: each removal enables the next one
+		int n = 20000;
+		List<Variable> vars = new ArrayList<>();
+		for (int i = 0; i < n; i++)
+			vars.add(new Variable("x" + i));
+		IndexedCSP<Variable, Integer> csp = new IndexedCSP<>(vars);
+		csp.setDomain(vars.get(0), range(0, 0));
+		for (int i = 1; i < n; i++)
+			csp.setDomain(vars.get(i), range(i - 1, i));
+		csp.addConstraint(new AllDiffConstraint<>(vars));
+		Assert.assertFalse(new GACStrategy<Variable, Integer>().apply(csp).inconsistencyFound());
+		for (int i = 0; i < n; i++)
+			Assert.assertEquals(range(i, i), csp.getDomain(vars.get(i)));
+	}
+
+	@Test
+	public void testSum() {
+		IndexedCSP<Variable, Integer> csp = createCSP(range(0, 9), range(0, 9), range(0, 9));
+		csp.addConstraint(new SumConstraint<>(Arrays.asList(X, Y, Z), 26, 30));
+		Assert.assertFalse(new GACStrategy<Variable, Integer>().apply(csp).inconsistencyFound());
+		Assert.assertEquals(range(8, 9), csp.getDomain(X));
+		Assert.assertEquals(range(8, 9), csp.getDomain(Z));
+
+		csp = createCSP(range(0, 9), range(0, 9), range(0, 9));
+		csp.addConstraint(new SumConstraint<>(Arrays.asList(X, Y), new int[] {1, 2}, 0, 3));
+		Assert.assertFalse(new GACStrategy<Variable, Integer>().apply(csp).inconsistencyFound());
+		Assert.assertEquals(range(0, 3), csp.getDomain(X));
+		Assert.assertEquals(range(0, 1), csp.getDomain(Y));
+		Assert.assertEquals(range(0, 9), csp.getDomain(Z));
+	}
+
+	@Test
+	public void testTable() {
+		IndexedCSP<Variable, Integer> csp = createCSP(range(0, 3), range(0, 3), range(0, 3));
+		csp.addConstraint(new TableConstraint<>(Arrays.asList(X, Y),
+				Arrays.asList(Arrays.asList(1, 2), Arrays.asList(2, 3), Arrays.asList(5, 0))));
+		csp.addConstraint(new TableConstraint<>(Arrays.asList(Y, Z),
+				Arrays.asList(Arrays.asList(3, 0), Arrays.asList(0, 1))));
+		Assert.assertFalse(new GACStrategy<Variable, Integer>().apply(csp).inconsistencyFound());
+		Assert.assertEquals(range(2, 2), csp.getDomain(X));
+		Assert.assertEquals(range(3, 3), csp.getDomain(Y));
+		Assert.assertEquals(range(0, 0), csp.getDomain(Z));
+	}
+
+	@Test
+	public void testNary() {
+		// x + y = z, once as integer predicate and once checked by assignment
+		IntConstraint<Variable> intSum = new IntConstraint<Variable>() {
+			@Override
+			public List<Variable> getScope() {
+				return Arrays.asList(X, Y, Z);
+			}
+
+			@Override
+			public boolean isSatisfiedWith(int[] values) {
+				return values[0] + values[1] == values[2];
+			}
+		};
+		Constraint<Variable, Integer> sum = new Constraint<Variable, Integer>() {
+			@Override
+			public List<Variable> getScope() {
+				return Arrays.asList(X, Y, Z);
+			}
+
+			@Override
+			public boolean isSatisfiedWith(Assignment<Variable, Integer> assignment) {
+				Integer x = assignment.getValue(X);
+				Integer y = assignment.getValue(Y);
+				Integer z = assignment.getValue(Z);
+				return x == null || y == null || z == null || x + y == z;
+			}
+		};
+		for (Constraint<Variable, Integer> constraint : Arrays.asList(intSum, sum)) {
+			IndexedCSP<Variable, Integer> csp = createCSP(range(3, 5), range(2, 6), range(0, 8));
+			csp.addConstraint(constraint);
+			Assert.assertFalse(new GACStrategy<Variable, Integer>().apply(csp).inconsistencyFound());
+			Assert.assertEquals(range(3, 5), csp.getDomain(X));
+			Assert.assertEquals(range(2, 5), csp.getDomain(Y));
+			Assert.assertEquals(range(5, 8), csp.getDomain(Z));
+		}
+	}
+
+	@Test
+	public void testSameResultsAsAC3() {
+		for (int size = 4; size <= 10; size++) {
+			CSP<Variable, Integer> csp = new NQueensCSP(size);
+			String[] results = new String[2];
+			for (int i = 0; i < 2; i++) {
+				InferenceStrategy<Variable, Integer> strategy = (i == 0) ? new AC3Strategy<>() : new GACStrategy<>();
+				FlexibleBacktrackingSolver<Variable, Integer> solver = new FlexibleBacktrackingSolver<Variable, Integer>()
+						.set(CspHeuristics.mrvDeg()).set(strategy);
+				CspListener.StepCounter<Variable, Integer> counter = new CspListener.StepCounter<>();
+				solver.addCspListener(counter);
+				results[i] = solver.solve(new IndexedCSP<>(csp)) + " " + counter.getResults();
+			}
+			Assert.assertEquals(results[0], results[1]);
+		}
+	}
+
+	@Test
+	public void testSendMoreMoney() {
+		List<Variable> vars = Arrays.asList(new Variable("S"), new Variable("E"), new Variable("N"),
+				new Variable("D"), new Variable("M"), new Variable("O"), new Variable("R"), new Variable("Y"));
+		IndexedCSP<Variable, Integer> csp = new IndexedCSP<>(vars);
+		for (Variable var : vars)
+			csp.setDomain(var, range(var.getName().equals("S") || var.getName().equals("M") ? 1 : 0, 9));
+		csp.addConstraint(new AllDiffConstraint<>(vars));
+		// SEND + MORE - MONEY = 0
+		csp.addConstraint(new SumConstraint<>(vars, new int[] {1000, 91, -90, 1, -9000, -900, 10, -1}, 0, 0));
+		Optional<Assignment<Variable, Integer>> result = new FlexibleBacktrackingSolver<Variable, Integer>()
+				.set(CspHeuristics.mrv()).set(new GACStrategy<>()).solve(csp);
+		Assert.assertTrue(result.isPresent());
+		Assert.assertEquals("{S=9, E=5, N=6, D=7, M=1, O=0, R=8, Y=2}", sortedAs(vars, result.get()));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testGenericCSPRejected() {
+		new GACStrategy<Variable, Integer>().apply(new NQueensCSP(4));
+	}
+
+	private static String sortedAs(List<Variable> vars, Assignment<Variable, Integer> assignment) {
+		Assignment<Variable, Integer> sorted = new Assignment<>();
+		vars.forEach(var -> sorted.add(var, assignment.getValue(var)));
+		return sorted.toString();
+	}
+}
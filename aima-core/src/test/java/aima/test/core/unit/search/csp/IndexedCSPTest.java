@@ -0,0 +1,121 @@
+package aima.test.core.unit.search.csp;
+
+import aima.core.search.csp.*;
+import aima.core.search.csp.examples.MapCSP;
+import aima.core.search.csp.examples.NQueensCSP;
+import aima.core.search.csp.inference.AC3Strategy;
+import aima.core.search.csp.inference.ForwardCheckingStrategy;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+public class IndexedCSPTest {
+
+	@Test
+	public void testDomainReductionAndUndo() {
+		IndexedCSP<Variable, String> csp = new IndexedCSP<>(new MapCSP());
+		int wa = csp.indexOf(MapCSP.WA);
+		Assert.assertEquals(new Domain<>(MapCSP.RED, MapCSP.GREEN, MapCSP.BLUE), csp.getDomain(MapCSP.WA));
+		Assert.assertEquals(3, csp.getDomainSize(wa));
+
+		int mark = csp.getTrailSize();
+		Assert.assertTrue(csp.removeValueFromDomain(MapCSP.WA, MapCSP.GREEN));
+		Assert.assertFalse(csp.removeValueFromDomain(MapCSP.WA, MapCSP.GREEN));
+		Assert.assertEquals(new Domain<>(MapCSP.RED, MapCSP.BLUE), csp.getDomain(MapCSP.WA));
+		int mark2 = csp.getTrailSize();
+		Assert.assertTrue(csp.reduceDomainTo(wa, csp.indexOfValue(wa, MapCSP.BLUE)));
+		Assert.assertEquals(new Domain<>(MapCSP.BLUE), csp.getDomain(MapCSP.WA));
+		Assert.assertEquals(1, csp.getDomainSize(wa));
+
+		csp.undoTrail(mark2);
+		Assert.assertEquals(new Domain<>(MapCSP.RED, MapCSP.BLUE), csp.getDomain(MapCSP.WA));
+		csp.undoTrail(mark);
+		Assert.assertEquals(new Domain<>(MapCSP.RED, MapCSP.GREEN, MapCSP.BLUE), csp.getDomain(MapCSP.WA));
+		Assert.assertEquals(3, csp.getDomainSize(wa));
+	}
+
+	@Test
+	public void testLargeDomains() {
+		Variable x = new Variable("X");
+		IndexedCSP<Variable, Integer> csp = new IndexedCSP<>(Arrays.asList(x));
+		List<Integer> values = new ArrayList<>();
+		for (int i = 0; i < 200; i++)
+			values.add(i);
+		csp.setDomain(x, new Domain<>(values));
+		int mark = csp.getTrailSize();
+		for (int i = 0; i < 200; i++)
+			if (i % 3 != 0)
+				csp.removeValue(0, i);
+		Assert.assertEquals(67, csp.getDomainSize(0));
+		Assert.assertEquals(Integer.valueOf(198), csp.getDomain(x).get(66));
+		Assert.assertEquals(66, csp.nextValue(0, 64));
+		// setting a subset of the universe is a reduction which can be undone
+		csp.setDomain(x, new Domain<>(3, 130));
+		Assert.assertEquals(2, csp.getDomainSize(0));
+		csp.undoTrail(mark);
+		Assert.assertEquals(new Domain<>(values), csp.getDomain(x));
+	}
+
+	@Test
+	public void testSharedUniverses() {
+		IndexedCSP<Variable, String> csp = new IndexedCSP<>(new MapCSP());
+		int wa = csp.indexOf(MapCSP.WA);
+		int nt = csp.indexOf(MapCSP.NT);
+		int count = csp.getUniverseCount();
+		Assert.assertEquals(csp.getUniverseId(wa), csp.getUniverseId(nt));
+		// reductions of one variable do not affect the other
+		csp.removeValueFromDomain(MapCSP.WA, MapCSP.RED);
+		Assert.assertEquals(3, csp.getDomainSize(nt));
+		csp.setDomain(MapCSP.NT, new Domain<>(MapCSP.RED, "yellow"));
+		Assert.assertNotEquals(csp.getUniverseId(wa), csp.getUniverseId(nt));
+		Assert.assertEquals(count + 1, csp.getUniverseCount());
+		Assert.assertEquals(new Domain<>(MapCSP.GREEN, MapCSP.BLUE), csp.getDomain(MapCSP.WA));
+	}
+
+	@Test
+	public void testCopyDomains() {
+		IndexedCSP<Variable, String> csp = new IndexedCSP<>(new MapCSP());
+		IndexedCSP<Variable, String> copy = csp.copyDomains();
+		copy.removeValueFromDomain(MapCSP.T, MapCSP.RED);
+		Assert.assertEquals(3, csp.getDomain(MapCSP.T).size());
+		Assert.assertEquals(2, copy.getDomain(MapCSP.T).size());
+		Assert.assertEquals(0, csp.getTrailSize());
+	}
+
+	@Test
+	public void testSameSearchAsGenericCSP() {
+		List<Supplier<FlexibleBacktrackingSolver<Variable, Integer>>> solvers = Arrays.asList(
+				FlexibleBacktrackingSolver::new,
+				() -> new FlexibleBacktrackingSolver<Variable, Integer>().set(new ForwardCheckingStrategy<>()),
+				() -> new FlexibleBacktrackingSolver<Variable, Integer>().set(CspHeuristics.mrv())
+						.set(new ForwardCheckingStrategy<>()),
+				() -> new FlexibleBacktrackingSolver<Variable, Integer>().set(new AC3Strategy<>()),
+				() -> new FlexibleBacktrackingSolver<Variable, Integer>().setAll());
+		for (int size = 4; size <= 10; size++) {
+			for (Supplier<FlexibleBacktrackingSolver<Variable, Integer>> supplier : solvers) {
+				CSP<Variable, Integer> csp = new NQueensCSP(size);
+				CspListener.StepCounter<Variable, Integer> counter1 = new CspListener.StepCounter<>();
+				FlexibleBacktrackingSolver<Variable, Integer> solver1 = supplier.get();
+				solver1.addCspListener(counter1);
+				Optional<Assignment<Variable, Integer>> result1 = solver1.solve(csp);
+
+				CspListener.StepCounter<Variable, Integer> counter2 = new CspListener.StepCounter<>();
+				FlexibleBacktrackingSolver<Variable, Integer> solver2 = supplier.get();
+				solver2.addCspListener(counter2);
+				Optional<Assignment<Variable, Integer>> result2 = solver2.solve(new IndexedCSP<>(csp));
+
+				Assert.assertEquals(result1.isPresent(), result2.isPresent());
+				if (result1.isPresent()) {
+					Assert.assertTrue(result2.get().isSolution(csp));
+					Assert.assertEquals(result1.get().toString(), result2.get().toString());
+				}
+				Assert.assertEquals(counter1.getResults().toString(), counter2.getResults().toString());
+			}
+		}
+	}
+}
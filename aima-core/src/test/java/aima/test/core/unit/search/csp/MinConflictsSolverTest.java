@@ -0,0 +1,100 @@
+package aima.test.core.unit.search.csp;
+
+import aima.core.search.csp.*;
+import aima.core.search.csp.examples.MapCSP;
+import aima.core.search.csp.examples.NQueensCSP;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.Random;
+
+public class MinConflictsSolverTest {
+
+	private static final long SEED = 42;
+
+	@Test
+	public void testMapCSP() {
+		CSP<Variable, String> csp = new MapCSP();
+		Optional<Assignment<Variable, String>> result = new MinConflictsSolver<Variable, String>(1000)
+				.setRandom(new Random(SEED)).solve(csp);
+		Assert.assertTrue(result.isPresent());
+		Assert.assertTrue(result.get().isSolution(csp));
+	}
+
+	@Test
+	public void testNQueens() {
+		for (int size : new int[] {4, 8, 20}) {
+			CSP<Variable, Integer> csp = new NQueensCSP(size);
+			// without restarts, min-conflicts sometimes gets stuck in a local minimum
+			Optional<Assignment<Variable, Integer>> result = new MinConflictsSolver<Variable, Integer>(10000)
+					.setRandom(new Random(SEED)).setRestartInterval(100).solve(csp);
+			Assert.assertTrue(result.isPresent());
+			Assert.assertTrue(result.get().isSolution(csp));
+		}
+	}
+
+	@Test
+	public void testNQueensWithAllDiff() {
+		for (int size : new int[] {8, 30, 200}) {
+			CSP<Variable, Integer> csp = new NQueensCSP(size, true);
+			Optional<Assignment<Variable, Integer>> result = new MinConflictsSolver<Variable, Integer>(100000)
+					.setRandom(new Random(SEED)).setRestartInterval(1000).solve(csp);
+			Assert.assertTrue(result.isPresent());
+			Assert.assertTrue(result.get().isSolution(csp));
+			if (size <= 30)
+				Assert.assertTrue(result.get().isSolution(new NQueensCSP(size)));
+		}
+	}
+
+	@Test
+	public void testLargeNQueensWithValueSampling() {
+		CSP<Variable, Integer> csp = new NQueensCSP(5000, true);
+		Optional<Assignment<Variable, Integer>> result = new MinConflictsSolver<Variable, Integer>(10000)
+				.setRandom(new Random(SEED)).setValueSampleSize(100).solve(csp);
+		Assert.assertTrue(result.isPresent());
+		Assert.assertTrue(result.get().isSolution(csp));
+	}
+
+	@Test
+	public void testRandomInitialization() {
+		CSP<Variable, Integer> csp = new NQueensCSP(30, true);
+		Optional<Assignment<Variable, Integer>> result = new MinConflictsSolver<Variable, Integer>(100000)
+				.setRandom(new Random(SEED)).setGreedyInitialization(false).setRestartInterval(1000).solve(csp);
+		Assert.assertTrue(result.isPresent());
+		Assert.assertTrue(result.get().isSolution(csp));
+	}
+
+	@Test
+	public void testTabuAndRestarts() {
+		CSP<Variable, Integer> csp = new NQueensCSP(50, true);
+		Optional<Assignment<Variable, Integer>> result = new MinConflictsSolver<Variable, Integer>(100000)
+				.setRandom(new Random(SEED)).setTabuTenure(5).setRestartInterval(200).solve(csp);
+		Assert.assertTrue(result.isPresent());
+		Assert.assertTrue(result.get().isSolution(csp));
+	}
+
+	@Test
+	public void testAllDiffWithStrings() {
+		Variable x = new Variable("x");
+		Variable y = new Variable("y");
+		Variable z = new Variable("z");
+		CSP<Variable, String> csp = new CSP<>(Arrays.asList(x, y, z));
+		Domain<String> domain = new Domain<>("a", "b", "c");
+		for (Variable var : csp.getVariables())
+			csp.setDomain(var, domain);
+		csp.addConstraint(new AllDiffConstraint<>(csp.getVariables()));
+		Optional<Assignment<Variable, String>> result = new MinConflictsSolver<Variable, String>(1000)
+				.setRandom(new Random(SEED)).solve(csp);
+		Assert.assertTrue(result.isPresent());
+		Assert.assertTrue(result.get().isSolution(csp));
+	}
+
+	@Test
+	public void testNoSolution() {
+		CSP<Variable, Integer> csp = new NQueensCSP(3, true);
+		Assert.assertFalse(new MinConflictsSolver<Variable, Integer>(500).setRandom(new Random(SEED)).solve(csp)
+				.isPresent());
+	}
+}
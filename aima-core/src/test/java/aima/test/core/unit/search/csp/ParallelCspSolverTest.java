@@ -0,0 +1,120 @@
+package aima.test.core.unit.search.csp;
+
+import aima.core.search.csp.*;
+import aima.core.search.csp.examples.MapCSP;
+import aima.core.search.csp.examples.NQueensCSP;
+import aima.core.search.csp.inference.ForwardCheckingStrategy;
+import aima.core.util.SearchBudget;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+
+public class ParallelCspSolverTest {
+
+	private final ForkJoinPool pool = new ForkJoinPool(3);
+
+	@After
+	public void shutdown() {
+		pool.shutdown();
+	}
+
+	@Test
+	public void testPortfolio() {
+		CSP<Variable, Integer> csp = new NQueensCSP(12);
+		PortfolioCspSolver<Variable, Integer> solver = new PortfolioCspSolver<Variable, Integer>(
+				new FlexibleBacktrackingSolver<Variable, Integer>().setAll(),
+				new FlexibleBacktrackingSolver<Variable, Integer>().set(CspHeuristics.mrv())
+						.set(new ForwardCheckingStrategy<>()),
+				new MinConflictsSolver<>(10000)).setPool(pool);
+		Optional<Assignment<Variable, Integer>> result = solver.solve(csp);
+		Assert.assertTrue(result.isPresent());
+		Assert.assertTrue(result.get().isSolution(csp));
+		Assert.assertNotNull(solver.getLastWinner());
+	}
+
+	@Test
+	public void testPortfolioWithoutSolution() {
+		// min-conflicts cannot prove that there is no solution, backtracking can
+		MinConflictsSolver<Variable, Integer> minConflicts = new MinConflictsSolver<>(Integer.MAX_VALUE);
+		FlexibleBacktrackingSolver<Variable, Integer> backtracking = new FlexibleBacktrackingSolver<>();
+		PortfolioCspSolver<Variable, Integer> solver =
+				new PortfolioCspSolver<>(minConflicts, backtracking).setPool(pool);
+		Assert.assertFalse(solver.solve(new NQueensCSP(3)).isPresent());
+		Assert.assertSame(backtracking, solver.getLastWinner());
+		Assert.assertNull(minConflicts.getBudget());
+	}
+
+	@Test
+	public void testPortfolioBudget() {
+		PortfolioCspSolver<Variable, Integer> solver =
+				new PortfolioCspSolver<Variable, Integer>(new MinConflictsSolver<>(Integer.MAX_VALUE)).setPool(pool);
+		SearchBudget budget = new SearchBudget().setNodeLimit(1000);
+		solver.setBudget(budget);
+		Assert.assertFalse(solver.solve(new NQueensCSP(3)).isPresent());
+		Assert.assertNull(solver.getLastWinner());
+		// the limit applies to all members together, and the reason is reported
+		Assert.assertEquals(SearchBudget.Status.NODE_LIMIT_EXCEEDED, budget.getStatus());
+
+		solver = new PortfolioCspSolver<Variable, Integer>(new MinConflictsSolver<>(Integer.MAX_VALUE),
+				new MinConflictsSolver<>(Integer.MAX_VALUE)).setPool(pool);
+		budget = new SearchBudget();
+		budget.cancel();
+		solver.setBudget(budget);
+		Assert.assertFalse(solver.solve(new NQueensCSP(3)).isPresent());
+		Assert.assertEquals(SearchBudget.Status.CANCELLED, budget.getStatus());
+	}
+
+	@Test
+	public void testWorkStealing() {
+		for (int depth = 0; depth <= 3; depth++) {
+			for (int size = 3; size <= 10; size++) {
+				CSP<Variable, Integer> csp = new NQueensCSP(size);
+				ParallelBacktrackingSolver<Variable, Integer> solver = new ParallelBacktrackingSolver<Variable, Integer>(
+						() -> new FlexibleBacktrackingSolver<Variable, Integer>().set(CspHeuristics.mrv())
+								.set(new ForwardCheckingStrategy<>()), depth).setPool(pool);
+				Optional<Assignment<Variable, Integer>> result = solver.solve(csp);
+				Assert.assertEquals(size > 3, result.isPresent());
+				if (result.isPresent())
+					Assert.assertTrue(result.get().isSolution(csp));
+			}
+		}
+	}
+
+	@Test
+	public void testWorkStealingBudget() {
+		int limit = 500;
+		SearchBudget budget = new SearchBudget().setNodeLimit(limit);
+		ParallelBacktrackingSolver<Variable, Integer> solver = new ParallelBacktrackingSolver<Variable, Integer>(
+				FlexibleBacktrackingSolver::new, 2).setPool(pool);
+		solver.setBudget(budget);
+		Optional<Assignment<Variable, Integer>> result = solver.solve(new NQueensCSP(24));
+		// the limit applies to the whole search, not to each subproblem
+		Assert.assertFalse(result.isPresent());
+		Assert.assertEquals(SearchBudget.Status.NODE_LIMIT_EXCEEDED, budget.getStatus());
+		Assert.assertTrue(budget.getNodes() <= limit + pool.getParallelism());
+
+		budget = new SearchBudget();
+		budget.cancel();
+		solver.setBudget(budget);
+		Assert.assertFalse(solver.solve(new NQueensCSP(24)).isPresent());
+		Assert.assertEquals(SearchBudget.Status.CANCELLED, budget.getStatus());
+	}
+
+	@Test
+	public void testListeners() {
+		CSP<Variable, String> csp = new MapCSP();
+		ParallelBacktrackingSolver<Variable, String> solver = new ParallelBacktrackingSolver<Variable, String>(
+				FlexibleBacktrackingSolver::new, 2).setPool(pool);
+		Assert.assertFalse(solver.hasCspListeners());
+		CspListener.StepCounter<Variable, String> counter = new CspListener.StepCounter<>();
+		solver.addCspListener(counter);
+		Assert.assertTrue(solver.hasCspListeners());
+		Optional<Assignment<Variable, String>> result = solver.solve(csp);
+		Assert.assertTrue(result.isPresent());
+		Assert.assertTrue(result.get().isSolution(csp));
+		Assert.assertTrue(counter.getResults().getInt("assignmentCount") >= csp.getVariables().size() - 2);
+	}
+}
@@ -0,0 +1,74 @@
+package aima.test.core.unit.search.framework;
+
+import aima.core.search.framework.Metrics;
+import aima.core.search.framework.MetricsRegistry;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class MetricsRegistryTest {
+
+	private MetricsRegistry registry;
+
+	@Before
+	public void before() {
+		registry = new MetricsRegistry();
+	}
+
+	@Test
+	public void testCounter() {
+		MetricsRegistry.Counter counter = registry.counter("nodesExpanded");
+		counter.increment();
+		counter.add(4);
+		Assert.assertSame(counter, registry.counter("nodesExpanded"));
+		Assert.assertEquals(5, registry.asMetrics().getInt("nodesExpanded"));
+		Assert.assertEquals("5", registry.asMetrics().get("nodesExpanded"));
+	}
+
+	@Test
+	public void testGaugesAndMaxTracker() {
+		registry.longGauge("queueSize").set(7);
+		registry.longGauge("queueSize").set(3);
+		registry.doubleGauge("pathCost").set(278);
+		MetricsRegistry.MaxTracker max = registry.maxTracker("maxQueueSize");
+		max.update(7);
+		max.update(3);
+		Metrics view = registry.asMetrics();
+		Assert.assertEquals("3", view.get("queueSize"));
+		Assert.assertEquals("278.0", view.get("pathCost"));
+		Assert.assertEquals(278.0, view.getDouble("pathCost"), 0);
+		Assert.assertEquals(7, view.getInt("maxQueueSize"));
+		Assert.assertEquals("{maxQueueSize=7, pathCost=278.0, queueSize=3}", view.toString());
+	}
+
+	@Test
+	public void testTimer() {
+		MetricsRegistry.Timer timer = registry.timer("time");
+		timer.record(1000);
+		timer.stop(timer.start());
+		Assert.assertEquals(2, timer.count());
+		Assert.assertTrue(registry.asMetrics().getLong("time") >= 1000);
+	}
+
+	@Test
+	public void testReset() {
+		registry.counter("a").increment();
+		registry.doubleGauge("b").set(1.5);
+		registry.reset();
+		Assert.assertEquals("0", registry.asMetrics().get("a"));
+		Assert.assertEquals("0", registry.asMetrics().get("b"));
+		Assert.assertEquals(0.0, registry.asMetrics().getDouble("b"), 0);
+		Assert.assertNull(registry.asMetrics().get("c"));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testTypeConflict() {
+		registry.counter("a");
+		registry.doubleGauge("a");
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void testViewIsReadOnly() {
+		registry.asMetrics().set("a", 1);
+	}
+}
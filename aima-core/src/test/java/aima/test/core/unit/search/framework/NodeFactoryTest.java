@@ -0,0 +1,71 @@
+package aima.test.core.unit.search.framework;
+
+import aima.core.search.framework.Node;
+import aima.core.search.framework.NodeFactory;
+import aima.core.search.framework.problem.GeneralProblem;
+import aima.core.search.framework.problem.Problem;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class NodeFactoryTest {
+
+	private NodeFactory<Integer, Integer> nodeFactory;
+	private Problem<Integer, Integer> problem;
+
+	@Before
+	public void setUp() {
+		nodeFactory = new NodeFactory<>();
+		problem = new GeneralProblem<>(0, state -> Arrays.asList(1, 2, 3), (state, action) -> state + action,
+				state -> state == 6);
+	}
+
+	@Test
+	public void testGetSuccessors() {
+		Node<Integer, Integer> root = nodeFactory.createNode(0);
+		List<Node<Integer, Integer>> successors = nodeFactory.getSuccessors(root, problem);
+		Assert.assertEquals(3, successors.size());
+		Assert.assertEquals(Integer.valueOf(2), successors.get(1).getState());
+		Assert.assertEquals(Integer.valueOf(2), successors.get(1).getAction());
+		Assert.assertSame(root, successors.get(1).getParent());
+		Assert.assertEquals(1.0, successors.get(1).getPathCost(), 0);
+	}
+
+	@Test
+	public void testGetSuccessorsWithFilterAndBuffer() {
+		List<Integer> expanded = new ArrayList<>();
+		nodeFactory.addNodeListener(node -> expanded.add(node.getState()));
+		List<Node<Integer, Integer>> buffer = new ArrayList<>();
+		Node<Integer, Integer> root = nodeFactory.createNode(0);
+
+		Assert.assertSame(buffer, nodeFactory.getSuccessors(root, problem, state -> state != 2, buffer));
+		Assert.assertEquals(2, buffer.size());
+		Assert.assertEquals(Integer.valueOf(1), buffer.get(0).getState());
+		Assert.assertEquals(Integer.valueOf(3), buffer.get(1).getState());
+
+		nodeFactory.getSuccessors(buffer.get(1), problem, state -> state > 5, buffer);
+		Assert.assertEquals(1, buffer.size());
+		Assert.assertEquals(Integer.valueOf(6), buffer.get(0).getState());
+		Assert.assertEquals(2.0, buffer.get(0).getPathCost(), 0);
+		Assert.assertEquals(Arrays.asList(0, 3), expanded);
+	}
+
+	@Test
+	public void testGetSuccessorsUsesForEachAction() {
+		GeneralProblem<Integer, Integer> streaming = new GeneralProblem<>(0, state -> {
+			throw new UnsupportedOperationException("action list should not be built");
+		}, (state, action) -> state + action, state -> state == 6);
+		streaming.setForEachActionFn((state, consumer) -> {
+			for (int action = 1; action <= 3; action++)
+				consumer.accept(action);
+		});
+		List<Node<Integer, Integer>> buffer = new ArrayList<>();
+		nodeFactory.getSuccessors(nodeFactory.createNode(0), streaming, null, buffer);
+		Assert.assertEquals(3, buffer.size());
+		Assert.assertEquals(Integer.valueOf(3), buffer.get(2).getState());
+	}
+}
@@ -13,6 +13,7 @@ import aima.core.search.framework.SearchForActions;
 import aima.core.search.framework.problem.GeneralProblem;
 import aima.core.search.framework.problem.Problem;
 import aima.core.search.framework.qsearch.GraphSearch;
+import aima.core.search.framework.qsearch.GraphSearchReducedFrontier;
 import aima.core.search.framework.qsearch.QueueSearch;
 import aima.core.search.framework.qsearch.TreeSearch;
 import aima.core.search.informed.AStarSearch;
@@ -20,6 +21,7 @@ import org.junit.Assert;
 import org.junit.Test;
 
 import java.util.List;
+import java.util.Optional;
 import java.util.function.Predicate;
 import java.util.function.ToDoubleFunction;
 
@@ -56,6 +58,40 @@ public class AStarSearchTest {
 		}
 	}
 
+	@Test
+	public void testAStarSearchWithStateEncoder() {
+		EightPuzzleBoard board = new EightPuzzleBoard(new int[] { 7, 1, 8, 0, 4, 6, 2, 3, 5 });
+		Problem<EightPuzzleBoard, Action> problem = new BidirectionalEightPuzzleProblem(board);
+		GraphSearch<EightPuzzleBoard, Action> impl = new GraphSearch<>();
+		impl.setStateEncoder(EightPuzzleFunctions::encode);
+		SearchForActions<EightPuzzleBoard, Action> search = new AStarSearch<>(impl,
+				EightPuzzleFunctions::getManhattanDistance);
+		Optional<List<Action>> actions = search.findActions(problem);
+		Assert.assertTrue(actions.isPresent());
+		Assert.assertEquals(23, actions.get().size());
+		Assert.assertEquals(1133, search.getMetrics().getInt(QueueSearch.METRIC_NODES_EXPANDED));
+		Assert.assertEquals(677, search.getMetrics().getInt(QueueSearch.METRIC_MAX_QUEUE_SIZE));
+	}
+
+	@Test
+	public void testReducedFrontierWithStateEncoder() {
+		EightPuzzleBoard board = new EightPuzzleBoard(new int[] { 7, 1, 8, 0, 4, 6, 2, 3, 5 });
+		Problem<EightPuzzleBoard, Action> problem = new BidirectionalEightPuzzleProblem(board);
+		int[] nodesExpanded = new int[2];
+		for (int i = 0; i < 2; i++) {
+			GraphSearchReducedFrontier<EightPuzzleBoard, Action> impl = new GraphSearchReducedFrontier<>();
+			if (i == 1) // frontier index uses encoded states
+				impl.setStateEncoder(EightPuzzleFunctions::encode);
+			SearchForActions<EightPuzzleBoard, Action> search = new AStarSearch<>(impl,
+					EightPuzzleFunctions::getManhattanDistance);
+			Optional<List<Action>> actions = search.findActions(problem);
+			Assert.assertTrue(actions.isPresent());
+			Assert.assertEquals(23, actions.get().size());
+			nodesExpanded[i] = search.getMetrics().getInt(QueueSearch.METRIC_NODES_EXPANDED);
+		}
+		Assert.assertEquals(nodesExpanded[0], nodesExpanded[1]);
+	}
+
 	@Test
 	public void testAIMA3eFigure3_15() throws Exception {
 		Map romaniaMap = new SimplifiedRoadMapOfRomania();
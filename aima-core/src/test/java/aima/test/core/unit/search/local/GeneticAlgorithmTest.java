@@ -0,0 +1,147 @@
+package aima.test.core.unit.search.local;
+
+import aima.core.environment.nqueens.NQueensGenAlgoUtil;
+import aima.core.search.local.FitnessFunction;
+import aima.core.search.local.GeneticAlgorithm;
+import aima.core.search.local.Individual;
+import aima.core.util.SearchBudget;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class GeneticAlgorithmTest {
+
+	private static final int BOARD_SIZE = 8;
+
+	@Test
+	public void testFitnessIsComputedOncePerGeneration() {
+		AtomicInteger calls = new AtomicInteger();
+		FitnessFunction<Integer> fitnessFn = NQueensGenAlgoUtil.getFitnessFunction();
+		FitnessFunction<Integer> countingFn = ind -> {
+			calls.incrementAndGet();
+			return fitnessFn.apply(ind);
+		};
+		GeneticAlgorithm<Integer> ga = createGA(new Random(1));
+		ga.geneticAlgorithm(createPopulation(new Random(2), 20), countingFn, 5);
+		Assert.assertEquals(5, ga.getIterations());
+		Assert.assertEquals(20 * 6, calls.get());
+	}
+
+	@Test
+	public void testBudgetIsCheckedEachGeneration() {
+		GeneticAlgorithm<Integer> ga = createGA(new Random(1));
+		SearchBudget budget = new SearchBudget();
+		budget.cancel();
+		ga.setBudget(budget);
+		ga.geneticAlgorithm(createPopulation(new Random(2), 20), NQueensGenAlgoUtil.getFitnessFunction(), 1000);
+		Assert.assertEquals(1, ga.getIterations());
+		Assert.assertEquals(SearchBudget.Status.CANCELLED, budget.getStatus());
+	}
+
+	@Test
+	public void testOverriddenHooksAreCalled() {
+		AtomicInteger generations = new AtomicInteger();
+		AtomicInteger selections = new AtomicInteger();
+		AtomicInteger calls = new AtomicInteger();
+		FitnessFunction<Integer> fitnessFn = NQueensGenAlgoUtil.getFitnessFunction();
+		FitnessFunction<Integer> countingFn = ind -> {
+			calls.incrementAndGet();
+			return fitnessFn.apply(ind);
+		};
+		GeneticAlgorithm<Integer> ga = new GeneticAlgorithm<Integer>(BOARD_SIZE,
+				NQueensGenAlgoUtil.getFiniteAlphabetForBoardOfSize(BOARD_SIZE), 0.15, new Random(1)) {
+			@Override
+			protected List<Individual<Integer>> nextGeneration(List<Individual<Integer>> population,
+					FitnessFunction<Integer> fitnessFn) {
+				generations.incrementAndGet();
+				return super.nextGeneration(population, fitnessFn);
+			}
+
+			@Override
+			protected Individual<Integer> randomSelection(List<Individual<Integer>> population,
+					FitnessFunction<Integer> fitnessFn) {
+				selections.incrementAndGet();
+				return super.randomSelection(population, fitnessFn);
+			}
+		};
+		ga.geneticAlgorithm(createPopulation(new Random(2), 20), countingFn, 5);
+		Assert.assertEquals(5, generations.get());
+		Assert.assertEquals(5 * 2 * 20, selections.get());
+		// the hooks reuse the fitness values computed by the algorithm
+		Assert.assertEquals(20 * 6, calls.get());
+	}
+
+	@Test
+	public void testRandomSelection() {
+		List<Individual<Integer>> population = createPopulation(new Random(3), 4);
+		double[] fValues = new double[] { 0, 1, 0, 3 };
+		int[] counts = new int[4];
+		new GeneticAlgorithm<Integer>(BOARD_SIZE, Arrays.asList(0, 1), 0.1, new Random(4)) {
+			{
+				double[] cumulative = new double[] { 0, 1, 1, 4 };
+				for (int i = 0; i < 4000; i++)
+					counts[population.indexOf(randomSelection(population, cumulative))]++;
+				// same result as the fitness function variant
+				random.setSeed(5);
+				Individual<Integer> selected1 = randomSelection(population, cumulative);
+				random.setSeed(5);
+				Individual<Integer> selected2 = randomSelection(population,
+						ind -> fValues[population.indexOf(ind)]);
+				Assert.assertSame(selected1, selected2);
+			}
+		};
+		Assert.assertEquals(0, counts[0]);
+		Assert.assertEquals(0, counts[2]);
+		Assert.assertEquals(1000, counts[1], 100);
+		Assert.assertEquals(3000, counts[3], 100);
+	}
+
+	@Test
+	public void testParallelFitnessEvaluation() {
+		FitnessFunction<Integer> fitnessFn = NQueensGenAlgoUtil.getFitnessFunction();
+		GeneticAlgorithm<Integer> ga = createGA(new Random(6));
+		Individual<Integer> result1 = ga.geneticAlgorithm(createPopulation(new Random(7), 50), fitnessFn, 20);
+		ga = createGA(new Random(6));
+		ga.setParallelFitnessEvaluation(true);
+		ga.setPool(new ForkJoinPool(2));
+		Individual<Integer> result2 = ga.geneticAlgorithm(createPopulation(new Random(7), 50), fitnessFn, 20);
+		Assert.assertEquals(result1.getRepresentation(), result2.getRepresentation());
+	}
+
+	@Test
+	public void testIslandModelIsReproducible() {
+		FitnessFunction<Integer> fitnessFn = NQueensGenAlgoUtil.getFitnessFunction();
+		List<Individual<Integer>> results = new ArrayList<>();
+		for (int i = 0; i < 2; i++) {
+			GeneticAlgorithm<Integer> ga = createGA(new Random(8));
+			ga.setIslandModel(4, 5, 2);
+			ga.setPool(new ForkJoinPool(4));
+			results.add(ga.geneticAlgorithm(createPopulation(new Random(9), 80), fitnessFn, 30));
+			Assert.assertEquals(30, ga.getIterations());
+			Assert.assertEquals(80, ga.getPopulationSize());
+		}
+		Assert.assertEquals(results.get(0).getRepresentation(), results.get(1).getRepresentation());
+	}
+
+	private GeneticAlgorithm<Integer> createGA(Random random) {
+		return new GeneticAlgorithm<>(BOARD_SIZE, NQueensGenAlgoUtil.getFiniteAlphabetForBoardOfSize(BOARD_SIZE),
+				0.15, random);
+	}
+
+	private List<Individual<Integer>> createPopulation(Random random, int size) {
+		List<Individual<Integer>> result = new ArrayList<>();
+		for (int i = 0; i < size; i++) {
+			List<Integer> rep = new ArrayList<>();
+			for (int j = 0; j < BOARD_SIZE; j++)
+				rep.add(random.nextInt(BOARD_SIZE));
+			result.add(new Individual<>(rep));
+		}
+		return result;
+	}
+}
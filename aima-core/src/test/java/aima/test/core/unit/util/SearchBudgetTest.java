@@ -0,0 +1,213 @@
+package aima.test.core.unit.util;
+
+import aima.core.agent.Action;
+import aima.core.environment.eightpuzzle.EightPuzzleBoard;
+import aima.core.environment.eightpuzzle.EightPuzzleFunctions;
+import aima.core.logic.fol.inference.FOLFCAsk;
+import aima.core.logic.fol.inference.FOLOTTERLikeTheoremProver;
+import aima.core.logic.fol.inference.InferenceResult;
+import aima.core.logic.fol.kb.FOLKnowledgeBase;
+import aima.core.logic.fol.kb.FOLKnowledgeBaseFactory;
+import aima.core.logic.propositional.inference.DPLLSatisfiable;
+import aima.core.logic.propositional.parsing.PLParser;
+import aima.core.search.csp.FlexibleBacktrackingSolver;
+import aima.core.search.csp.Variable;
+import aima.core.search.csp.examples.NQueensCSP;
+import aima.core.search.framework.SearchForActions;
+import aima.core.search.framework.problem.GeneralProblem;
+import aima.core.search.framework.problem.Problem;
+import aima.core.search.framework.qsearch.GraphSearch;
+import aima.core.search.informed.AStarSearch;
+import aima.core.search.uninformed.IterativeDeepeningSearch;
+import aima.core.util.SearchBudget;
+import aima.core.util.Tasks;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+public class SearchBudgetTest {
+
+	@Test
+	public void testNodeLimit() {
+		SearchBudget budget = new SearchBudget().setNodeLimit(10);
+		for (int i = 0; i < 10; i++)
+			Assert.assertFalse(budget.spend());
+		Assert.assertEquals(SearchBudget.Status.WITHIN_BUDGET, budget.getStatus());
+		Assert.assertTrue(budget.spend());
+		Assert.assertEquals(SearchBudget.Status.NODE_LIMIT_EXCEEDED, budget.getStatus());
+		Assert.assertTrue(budget.isExhausted());
+		budget.reset();
+		Assert.assertEquals(SearchBudget.Status.WITHIN_BUDGET, budget.getStatus());
+		Assert.assertEquals(0, budget.getNodes());
+		Assert.assertTrue(budget.spend(11));
+	}
+
+	@Test
+	public void testCancelAndCopyLimits() {
+		SearchBudget budget = new SearchBudget().setNodeLimit(10);
+		SearchBudget copy = budget.copyLimits();
+		Assert.assertFalse(copy.spend(10));
+		Assert.assertTrue(copy.spend());
+		Assert.assertFalse(budget.spend(10));
+
+		budget = new SearchBudget();
+		budget.cancel();
+		Assert.assertTrue(budget.isExhausted());
+		Assert.assertEquals(SearchBudget.Status.CANCELLED, budget.getStatus());
+		budget.reset();
+		Assert.assertFalse(budget.isExhausted());
+	}
+
+	@Test
+	public void testChildBudgets() {
+		SearchBudget budget = new SearchBudget().setNodeLimit(10);
+		SearchBudget child1 = budget.createChild();
+		SearchBudget child2 = budget.createChild();
+		Assert.assertFalse(child1.spend(6));
+		Assert.assertFalse(child2.spend(4));
+		Assert.assertEquals(10, budget.getNodes());
+		Assert.assertEquals(4, child2.getNodes());
+		Assert.assertTrue(child2.spend());
+		Assert.assertEquals(SearchBudget.Status.NODE_LIMIT_EXCEEDED, child2.getStatus());
+		Assert.assertEquals(SearchBudget.Status.NODE_LIMIT_EXCEEDED, budget.getStatus());
+		Assert.assertTrue(child1.spend());
+		Assert.assertEquals(SearchBudget.Status.NODE_LIMIT_EXCEEDED, child1.getStatus());
+
+		// children of unlimited budgets do not update the shared counter
+		budget = new SearchBudget();
+		child1 = budget.createChild();
+		Assert.assertFalse(child1.spend(6));
+		Assert.assertEquals(6, child1.getNodes());
+		Assert.assertEquals(0, budget.getNodes());
+		SearchBudget grandChild = budget.createChild().setNodeLimit(10).createChild();
+		Assert.assertFalse(grandChild.spend(6));
+		Assert.assertTrue(grandChild.spend(6));
+		Assert.assertEquals(SearchBudget.Status.NODE_LIMIT_EXCEEDED, grandChild.getStatus());
+		Assert.assertEquals(SearchBudget.Status.WITHIN_BUDGET, budget.getStatus());
+
+		// cancelling a child does not affect the parent
+		budget = new SearchBudget();
+		child1 = budget.createChild();
+		child2 = budget.createChild();
+		child1.cancel();
+		Assert.assertTrue(child1.isExhausted());
+		Assert.assertFalse(child2.isExhausted());
+		Assert.assertFalse(budget.isExhausted());
+		// cancelling the parent reaches all children with their next check
+		budget.cancel();
+		Assert.assertTrue(child2.isExhausted());
+		Assert.assertEquals(SearchBudget.Status.CANCELLED, child2.getStatus());
+		Assert.assertEquals(SearchBudget.Status.CANCELLED, budget.getStatus());
+	}
+
+	@Test
+	public void testTaskCancellationReachesChildren() throws InterruptedException {
+		SearchBudget budget = new SearchBudget();
+		SearchBudget[] child = new SearchBudget[1];
+		Thread task = Tasks.executeInBackground(() -> child[0] = budget.createChild());
+		task.join();
+		// the child is used by another thread than the task
+		Assert.assertFalse(child[0].isExhausted());
+		Tasks.cancel(task);
+		Assert.assertTrue(child[0].isExhausted());
+		Assert.assertEquals(SearchBudget.Status.CANCELLED, child[0].getStatus());
+		Assert.assertEquals(SearchBudget.Status.CANCELLED, budget.getStatus());
+	}
+
+	@Test
+	public void testTimeLimit() throws InterruptedException {
+		SearchBudget budget = new SearchBudget().setTimeLimit(5);
+		Assert.assertFalse(budget.isExhausted());
+		Thread.sleep(20);
+		// time is checked only every CHECK_INTERVAL nodes
+		boolean exhausted = false;
+		for (int i = 0; i < SearchBudget.CHECK_INTERVAL && !exhausted; i++)
+			exhausted = budget.spend();
+		Assert.assertTrue(exhausted);
+		Assert.assertEquals(SearchBudget.Status.TIME_LIMIT_EXCEEDED, budget.getStatus());
+	}
+
+	@Test
+	public void testUnlimited() {
+		SearchBudget budget = new SearchBudget();
+		for (int i = 0; i < 10000; i++)
+			Assert.assertFalse(budget.spend());
+		Assert.assertFalse(budget.isExhausted());
+		Assert.assertEquals(10000, budget.getNodes());
+	}
+
+	@Test
+	public void testQueueSearch() {
+		Problem<EightPuzzleBoard, Action> problem = new GeneralProblem<>(
+				new EightPuzzleBoard(new int[] { 0, 8, 7, 6, 5, 4, 3, 2, 1 }),
+				EightPuzzleFunctions::getActions, EightPuzzleFunctions::getResult,
+				EightPuzzleFunctions.GOAL_STATE::equals);
+		SearchForActions<EightPuzzleBoard, Action> search = new AStarSearch<>(new GraphSearch<>(),
+				EightPuzzleFunctions::getNumberOfMisplacedTiles);
+		SearchBudget budget = new SearchBudget().setNodeLimit(100);
+		search.setBudget(budget);
+		Optional<List<Action>> actions = search.findActions(problem);
+		Assert.assertFalse(actions.isPresent());
+		Assert.assertEquals(SearchBudget.Status.NODE_LIMIT_EXCEEDED, budget.getStatus());
+		Assert.assertEquals(100, search.getMetrics().getInt("nodesExpanded"));
+
+		// without budget, the search is complete again
+		search.setBudget(null);
+		Assert.assertTrue(search.findActions(problem).isPresent());
+	}
+
+	@Test
+	public void testIterativeDeepeningSearch() {
+		Problem<Integer, Integer> problem = new GeneralProblem<>(0, state -> Arrays.asList(1, 2),
+				(state, action) -> state * 2 + action, state -> state == -1);
+		IterativeDeepeningSearch<Integer, Integer> search = new IterativeDeepeningSearch<>();
+		SearchBudget budget = new SearchBudget().setNodeLimit(1000);
+		search.setBudget(budget);
+		Assert.assertFalse(search.findActions(problem).isPresent());
+		Assert.assertEquals(SearchBudget.Status.NODE_LIMIT_EXCEEDED, budget.getStatus());
+	}
+
+	@Test
+	public void testBacktrackingSolver() {
+		FlexibleBacktrackingSolver<Variable, Integer> solver = new FlexibleBacktrackingSolver<>();
+		SearchBudget budget = new SearchBudget().setNodeLimit(5);
+		solver.setBudget(budget);
+		solver.solve(new NQueensCSP(8));
+		Assert.assertEquals(SearchBudget.Status.NODE_LIMIT_EXCEEDED, budget.getStatus());
+	}
+
+	@Test
+	public void testDPLL() {
+		DPLLSatisfiable dpll = new DPLLSatisfiable();
+		SearchBudget budget = new SearchBudget().setNodeLimit(2);
+		dpll.setBudget(budget);
+		PLParser parser = new PLParser();
+		Assert.assertFalse(dpll.dpllSatisfiable(parser.parse("(A | B) & (~A | C) & (~C | D) & (E | ~D)")));
+		Assert.assertEquals(SearchBudget.Status.NODE_LIMIT_EXCEEDED, budget.getStatus());
+		budget.reset();
+		budget.setNodeLimit(Long.MAX_VALUE);
+		Assert.assertTrue(dpll.dpllSatisfiable(parser.parse("(A | B) & (~A | C) & (~C | D) & (E | ~D)")));
+	}
+
+	@Test
+	public void testFOLInference() {
+		FOLFCAsk fcAsk = new FOLFCAsk();
+		FOLKnowledgeBase kb = FOLKnowledgeBaseFactory.createWeaponsKnowledgeBase(fcAsk);
+		SearchBudget budget = new SearchBudget().setNodeLimit(1);
+		fcAsk.setBudget(budget);
+		InferenceResult result = kb.ask("Criminal(West)");
+		Assert.assertTrue(result.isUnknownDueToTimeout());
+		Assert.assertFalse(result.isPossiblyFalse());
+		fcAsk.setBudget(null);
+		Assert.assertTrue(kb.ask("Criminal(West)").isTrue());
+
+		FOLOTTERLikeTheoremProver otter = new FOLOTTERLikeTheoremProver();
+		kb = FOLKnowledgeBaseFactory.createWeaponsKnowledgeBase(otter);
+		budget = new SearchBudget().setNodeLimit(1);
+		otter.setBudget(budget);
+		Assert.assertTrue(kb.ask("Criminal(West)").isUnknownDueToTimeout());
+	}
+}
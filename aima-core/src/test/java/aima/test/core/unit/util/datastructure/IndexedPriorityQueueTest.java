@@ -0,0 +1,99 @@
+package aima.test.core.unit.util.datastructure;
+
+import java.util.Comparator;
+import java.util.PriorityQueue;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import aima.core.util.datastructure.IndexedPriorityQueue;
+import aima.core.util.datastructure.Pair;
+
+public class IndexedPriorityQueueTest {
+
+	private static final Comparator<Pair<String, Integer>> BY_PRIORITY = Comparator.comparing(Pair::getSecond);
+
+	@Test
+	public void testDecreaseKey() {
+		IndexedPriorityQueue<Pair<String, Integer>, String> queue = new IndexedPriorityQueue<>(BY_PRIORITY,
+				Pair::getFirst);
+		Assert.assertTrue(queue.add(new Pair<>("a", 5)));
+		Assert.assertTrue(queue.add(new Pair<>("b", 3)));
+		Assert.assertTrue(queue.add(new Pair<>("c", 4)));
+		Assert.assertFalse(queue.add(new Pair<>("a", 6)));
+		Assert.assertTrue(queue.add(new Pair<>("a", 1)));
+		Assert.assertEquals(3, queue.size());
+		Assert.assertEquals(Integer.valueOf(1), queue.getByKey("a").getSecond());
+		Assert.assertTrue(queue.remove(new Pair<>("c", 4)));
+		Assert.assertFalse(queue.containsKey("c"));
+		Assert.assertEquals("a", queue.poll().getFirst());
+		Assert.assertEquals("b", queue.poll().getFirst());
+		Assert.assertNull(queue.poll());
+	}
+
+	@Test
+	public void testSameOrderAsPriorityQueue() {
+		Random random = new Random(42);
+		IndexedPriorityQueue<Pair<String, Integer>, String> queue = new IndexedPriorityQueue<>(BY_PRIORITY,
+				Pair::getFirst, 2);
+		PriorityQueue<Pair<String, Integer>> reference = new PriorityQueue<>(BY_PRIORITY);
+		for (int i = 0; i < 10000; i++) {
+			if (random.nextInt(3) == 0 && !reference.isEmpty()) {
+				Assert.assertEquals(reference.poll(), queue.poll());
+			} else {
+				Pair<String, Integer> e = new Pair<>("e" + i, random.nextInt(100));
+				reference.add(e);
+				queue.add(e);
+			}
+		}
+		while (!reference.isEmpty())
+			Assert.assertEquals(reference.poll(), queue.poll());
+		Assert.assertTrue(queue.isEmpty());
+	}
+
+	@Test
+	public void testKeyEncoder() {
+		Random random = new Random(42);
+		Comparator<Pair<Integer, Integer>> byPriority = Comparator.comparing(Pair::getSecond);
+		IndexedPriorityQueue<Pair<Integer, Integer>, Integer> queue = new IndexedPriorityQueue<>(byPriority,
+				Pair::getFirst, 2);
+		IndexedPriorityQueue<Pair<Integer, Integer>, Integer> reference = new IndexedPriorityQueue<>(byPriority,
+				Pair::getFirst, 2);
+		for (int i = 0; i < 10000; i++) {
+			if (i == 100)
+				queue.setKeyEncoder(Integer::longValue); // elements are indexed anew
+			int op = random.nextInt(4);
+			if (op == 0) {
+				Assert.assertEquals(reference.poll(), queue.poll());
+			} else if (op == 1) {
+				int key = random.nextInt(50);
+				Assert.assertEquals(reference.containsKey(key), queue.containsKey(key));
+				Assert.assertEquals(reference.getByKey(key), queue.getByKey(key));
+			} else {
+				// keys include 0
+				Pair<Integer, Integer> e = new Pair<>(random.nextInt(50), random.nextInt(1000));
+				Assert.assertEquals(reference.add(e), queue.add(e));
+			}
+			Assert.assertEquals(reference.size(), queue.size());
+		}
+		while (!reference.isEmpty())
+			Assert.assertEquals(reference.poll(), queue.poll());
+		Assert.assertTrue(queue.isEmpty());
+	}
+
+	@Test
+	public void testFourAryHeap() {
+		Random random = new Random(42);
+		IndexedPriorityQueue<Pair<String, Integer>, String> queue = new IndexedPriorityQueue<>(BY_PRIORITY,
+				Pair::getFirst);
+		for (int i = 0; i < 5000; i++)
+			queue.add(new Pair<>("e" + random.nextInt(1000), random.nextInt(10000)));
+		int last = Integer.MIN_VALUE;
+		while (!queue.isEmpty()) {
+			int priority = queue.poll().getSecond();
+			Assert.assertTrue(last <= priority);
+			last = priority;
+		}
+	}
+}
@@ -0,0 +1,68 @@
+package aima.test.core.unit.util.datastructure;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import aima.core.util.datastructure.LongHashMap;
+import aima.core.util.datastructure.LongHashSet;
+
+public class LongHashMapTest {
+
+	@Test
+	public void testPutGetRemove() {
+		LongHashMap<String> map = new LongHashMap<>();
+		Assert.assertNull(map.put(0, "zero"));
+		Assert.assertNull(map.put(-1, "minusOne"));
+		Assert.assertNull(map.put(42, "a"));
+		Assert.assertEquals("a", map.put(42, "b"));
+		Assert.assertEquals(3, map.size());
+		Assert.assertEquals("zero", map.get(0));
+		Assert.assertEquals("b", map.get(42));
+		Assert.assertNull(map.get(43));
+		Assert.assertEquals("zero", map.remove(0));
+		Assert.assertEquals("minusOne", map.remove(-1));
+		Assert.assertNull(map.remove(-1));
+		Assert.assertEquals(1, map.size());
+		map.clear();
+		Assert.assertTrue(map.isEmpty());
+		Assert.assertNull(map.get(42));
+	}
+
+	@Test
+	public void testAgainstHashMap() {
+		Random random = new Random(42);
+		LongHashMap<Long> map = new LongHashMap<>();
+		Map<Long, Long> reference = new HashMap<>();
+		for (int i = 0; i < 100000; i++) {
+			long key = random.nextInt(5000) * 0x100000001L;
+			if (random.nextInt(3) == 0)
+				Assert.assertEquals(reference.remove(key), map.remove(key));
+			else
+				Assert.assertEquals(reference.put(key, (long) i), map.put(key, (long) i));
+		}
+		Assert.assertEquals(reference.size(), map.size());
+		for (Map.Entry<Long, Long> entry : reference.entrySet())
+			Assert.assertEquals(entry.getValue(), map.get(entry.getKey()));
+	}
+
+	@Test
+	public void testSetAgainstHashMap() {
+		Random random = new Random(42);
+		LongHashSet set = new LongHashSet();
+		Map<Long, Long> reference = new HashMap<>();
+		for (int i = 0; i < 100000; i++) {
+			long key = random.nextInt(5000) - 100;
+			if (random.nextInt(3) == 0)
+				Assert.assertEquals(reference.remove(key) != null, set.remove(key));
+			else
+				Assert.assertEquals(reference.put(key, key) == null, set.add(key));
+		}
+		Assert.assertEquals(reference.size(), set.size());
+		for (long key = -100; key < 4900; key++)
+			Assert.assertEquals(reference.containsKey(key), set.contains(key));
+	}
+}
@@ -0,0 +1,120 @@
+package aima.gui.demo.search;
+
+import aima.core.agent.Action;
+import aima.core.environment.eightpuzzle.BidirectionalEightPuzzleProblem;
+import aima.core.environment.eightpuzzle.EightPuzzleBoard;
+import aima.core.environment.eightpuzzle.EightPuzzleFunctions;
+import aima.core.environment.map.*;
+import aima.core.search.framework.Node;
+import aima.core.search.framework.QueueFactory;
+import aima.core.search.framework.problem.GeneralProblem;
+import aima.core.search.framework.problem.Problem;
+import aima.core.search.framework.qsearch.GraphSearchReducedFrontier;
+import aima.core.search.informed.AStarSearch;
+import aima.core.util.datastructure.XYLocation;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Random;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Compares the frontier implementations which are available for
+ * {@link GraphSearchReducedFrontier}: a standard priority queue with linear
+ * time node replacement and an indexed priority queue with decrease-key. A*
+ * is run on the Romania map, on an eight-puzzle instance, and on a large grid
+ * with diagonal moves and random cell costs. Grid costs are generated with a
+ * fixed seed, so results are reproducible.
+ */
+public class PriorityFrontierBenchmark {
+
+	private static final int WARM_UP_RUNS = 3;
+	private static final int MEASURED_RUNS = 5;
+
+	public static void main(String[] args) {
+		int gridSize = args.length > 0 ? Integer.parseInt(args[0]) : 300;
+		System.out.println("Frontier benchmark (A*, GraphSearchReducedFrontier, times in ms)");
+		romaniaBenchmark();
+		eightPuzzleBenchmark();
+		gridBenchmark(gridSize);
+	}
+
+	private static void romaniaBenchmark() {
+		Map romaniaMap = new SimplifiedRoadMapOfRomania();
+		Problem<String, MoveToAction> problem = new GeneralProblem<>(SimplifiedRoadMapOfRomania.ARAD,
+				MapFunctions.createActionsFunction(romaniaMap), MapFunctions.createResultFunction(),
+				Predicate.isEqual(SimplifiedRoadMapOfRomania.BUCHAREST),
+				MapFunctions.createDistanceStepCostFunction(romaniaMap));
+		compare("Romania", problem,
+				MapFunctions.createSLDHeuristicFunction(SimplifiedRoadMapOfRomania.BUCHAREST, romaniaMap));
+	}
+
+	private static void eightPuzzleBenchmark() {
+		EightPuzzleBoard board = new EightPuzzleBoard(new int[] { 7, 1, 8, 0, 4, 6, 2, 3, 5 });
+		Problem<EightPuzzleBoard, Action> problem = new BidirectionalEightPuzzleProblem(board);
+		compare("Eight-puzzle", problem, EightPuzzleFunctions::getManhattanDistance);
+	}
+
+	private static void gridBenchmark(int size) {
+		Random random = new Random(42);
+		double[][] cellCosts = new double[size][size];
+		for (double[] row : cellCosts)
+			for (int i = 0; i < row.length; i++)
+				row[i] = 1 + random.nextInt(10);
+		XYLocation goal = new XYLocation(size - 1, size - 1);
+		Problem<XYLocation, XYLocation> problem = new GeneralProblem<>(new XYLocation(0, 0),
+				loc -> getGridActions(loc, size), PriorityFrontierBenchmark::getGridResult,
+				Predicate.isEqual(goal),
+				(loc, move, locPrimed) -> Math.hypot(move.getX(), move.getY())
+						* cellCosts[locPrimed.getX()][locPrimed.getY()]);
+		compare("Grid " + size + "x" + size, problem,
+				node -> Math.hypot(goal.getX() - node.getState().getX(), goal.getY() - node.getState().getY()));
+	}
+
+	private static List<XYLocation> getGridActions(XYLocation loc, int size) {
+		List<XYLocation> result = new ArrayList<>(8);
+		for (int dx = -1; dx <= 1; dx++)
+			for (int dy = -1; dy <= 1; dy++) {
+				int x = loc.getX() + dx;
+				int y = loc.getY() + dy;
+				if ((dx != 0 || dy != 0) && x >= 0 && y >= 0 && x < size && y < size)
+					result.add(new XYLocation(dx, dy));
+			}
+		return result;
+	}
+
+	private static XYLocation getGridResult(XYLocation loc, XYLocation move) {
+		return new XYLocation(loc.getX() + move.getX(), loc.getY() + move.getY());
+	}
+
+	private static <S, A> void compare(String name, Problem<S, A> problem, ToDoubleFunction<Node<S, A>> h) {
+		Comparator<Node<S, A>> comparator = Comparator.comparing(AStarSearch.createEvalFn(h)::applyAsDouble);
+		double pqTime = measure(problem, () -> QueueFactory.createPriorityQueue(comparator));
+		double ipqTime = measure(problem, () -> QueueFactory.createIndexedPriorityQueue(comparator, Node::getState));
+		System.out.printf("%-16s PriorityQueue: %9.2f   IndexedPriorityQueue: %9.2f   speedup: %5.2f%n",
+				name, pqTime, ipqTime, pqTime / ipqTime);
+	}
+
+	private static <S, A> double measure(Problem<S, A> problem, Supplier<Queue<Node<S, A>>> queueSupplier) {
+		GraphSearchReducedFrontier<S, A> search = new GraphSearchReducedFrontier<>();
+		double pathCost = 0;
+		long totalNanos = 0;
+		for (int i = 0; i < WARM_UP_RUNS + MEASURED_RUNS; i++) {
+			Queue<Node<S, A>> frontier = queueSupplier.get();
+			long start = System.nanoTime();
+			Optional<Node<S, A>> result = search.findNode(problem, frontier);
+			long elapsed = System.nanoTime() - start;
+			if (i >= WARM_UP_RUNS)
+				totalNanos += elapsed;
+			pathCost = result.map(Node::getPathCost).orElse(Double.NaN);
+		}
+		if (Double.isNaN(pathCost))
+			System.out.println("No solution found!");
+		return totalNanos / 1e6 / MEASURED_RUNS;
+	}
+}
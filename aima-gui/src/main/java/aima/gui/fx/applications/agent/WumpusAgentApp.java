@@ -1,6 +1,7 @@
 package aima.gui.fx.applications.agent;
 
 import aima.core.environment.wumpusworld.*;
+import aima.core.logic.propositional.inference.CDCLSatisfiable;
 import aima.core.logic.propositional.inference.DPLL;
 import aima.core.logic.propositional.inference.DPLLSatisfiable;
 import aima.core.logic.propositional.inference.OptimizedDPLL;
@@ -76,8 +77,9 @@ public class WumpusAgentApp extends IntegrableApplication {
         p1.setDefaultValueIndex(2);
         Parameter p2 = new Parameter(PARAM_AGENT, "Hybrid Wumpus Agent", "Efficient Hybrid Wumpus Agent");
         p2.setDefaultValueIndex(1);
-        Parameter p3 = new Parameter(PARAM_SAT_SOLVER, "DPLLSatisfiable", "OptimizedDPLL");
-        p3.setDefaultValueIndex(1);
+        Parameter p3 = new Parameter(PARAM_SAT_SOLVER, "DPLLSatisfiable", "OptimizedDPLL", "CDCLSatisfiable",
+                "Incremental CDCL");
+        p3.setDefaultValueIndex(3);
         Parameter p4 = new Parameter(PARAM_VIEW, "Default", "Hide Room Content", "Show KB");
         return Arrays.asList(p1, p2, p3, p4);
     }
@@ -123,16 +125,23 @@ public class WumpusAgentApp extends IntegrableApplication {
             case 1:
                 dpll = new OptimizedDPLL();
                 break;
+            case 2:
+                dpll = new CDCLSatisfiable();
+                break;
+            // case 3: null, the knowledge base answers queries with its own incremental solver
         }
 
+        WumpusKnowledgeBase kb = dpll != null
+                ? new WumpusKnowledgeBase(cave.getCaveXDimension(), cave.getCaveYDimension(), cave.getStart(), dpll)
+                : new WumpusKnowledgeBase(cave.getCaveXDimension(), cave.getCaveYDimension(), cave.getStart());
         switch (taskPaneCtrl.getParamValueIndex(PARAM_AGENT)) {
             case 0:
                 agent = new HybridWumpusAgent(cave.getCaveXDimension(), cave.getCaveYDimension(),
-                        cave.getStart(), dpll, env);
+                        cave.getStart(), kb, env);
                 break;
             case 1:
                 agent = new EfficientHybridWumpusAgent(cave.getCaveXDimension(), cave.getCaveYDimension(),
-                        cave.getStart(), dpll, env);
+                        cave.getStart(), kb, env);
                 break;
         }
         env.addEnvironmentListener(envViewCtrl);